@@ -0,0 +1,102 @@
+package fr.univ_lyon1.info.m1.elizagpt.model;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the deterministic French messages used by the benchmarks, so that two runs,
+ * on two commits, measure the same inputs.
+ *
+ * @version 1.0
+ */
+public final class BenchmarkMessages {
+
+    /**
+     * The seed of every generated message list.
+     */
+    public static final long SEED = 42;
+
+    private static final String[] WORDS = {
+        "je", "suis", "fatigué", "aujourd'hui", "et", "tu", "sais", "que", "vous", "êtes",
+        "là", "le", "la", "les", "un", "une", "dois", "étudier", "pour", "examen",
+        "Eliza", "pense", "mon", "père", "ma", "mère", "veux", "partir", "en", "vacances",
+        "demain", "il", "pleut", "beaucoup", "ici", "j'ai", "faim", "mange", "des", "pommes",
+    };
+
+    private static final String[] REPLIES = {
+        "Je ne comprends pas.",
+        "Hmmm, hmm ...",
+        "Qu'est-ce qui vous fait dire cela ?",
+        "Pouvez-vous développer ?",
+        "Parlez-moi de votre famille.",
+        "Et vous, qu'en pensez-vous ?",
+    };
+
+    private BenchmarkMessages() { }
+
+    /**
+     * Generates a sentence of at least the specified length, made of common words.
+     *
+     * @param random The source of the words.
+     * @param length The minimal number of chars of the sentence.
+     * @return The sentence, without final punctuation.
+     */
+    public static String sentence(final Random random, final int length) {
+        StringBuilder sentence = new StringBuilder(length + 16);
+        while (sentence.length() < length) {
+            if (sentence.length() > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    /**
+     * Generates a conversation history, alternating user and Eliza messages.
+     *
+     * @param size   The number of messages.
+     * @param length The minimal number of chars of each message.
+     * @return The messages.
+     */
+    public static List<Message> history(final int size, final int length) {
+        Random random = new Random(SEED);
+        List<Message> messages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            messages.add(new Message(sentence(random, length) + ".",
+                    i % 2 == 0 ? Message.Sender.USER : Message.Sender.ELIZA, i + 1));
+        }
+        return messages;
+    }
+
+    /**
+     * Generates a conversation like the ones of the application: user sentences of 20 to
+     * 80 chars, each answered by Eliza, with one of a few fixed replies four times out of
+     * five, and by quoting the user otherwise.
+     *
+     * @param size The number of messages.
+     * @return The messages.
+     */
+    public static List<Message> conversation(final int size) {
+        Random random = new Random(SEED);
+        List<Message> messages = new ArrayList<>(size);
+        String userText = "";
+        for (int i = 0; i < size; i++) {
+            String text;
+            if (i % 2 == 0) {
+                userText = sentence(random, 20 + random.nextInt(61));
+                text = userText + ".";
+            } else if (random.nextInt(5) > 0) {
+                text = REPLIES[random.nextInt(REPLIES.length)];
+            } else {
+                text = "Pourquoi dites-vous que " + userText + " ?";
+            }
+            messages.add(new Message(text,
+                    i % 2 == 0 ? Message.Sender.USER : Message.Sender.ELIZA, i + 1));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,73 @@
+package fr.univ_lyon1.info.m1.elizagpt.model;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the text normalization and the response generation of the
+ * {@link MessageProcessor}, for messages of increasing length.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class MessageProcessorBenchmark {
+
+    @Param({"16", "256", "4096"})
+    private int messageLength;
+
+    private MessageProcessor messageProcessor;
+    private String rawMessage;
+    private String statement;
+
+    /**
+     * Builds the processor, waits for the verbs and generates the messages.
+     */
+    @Setup
+    public void setUp() {
+        VerbManager.getInstance().getDictionary().join();
+        messageProcessor = new MessageProcessor();
+        Random random = new Random(BenchmarkMessages.SEED);
+        rawMessage = "  " + BenchmarkMessages.sentence(random, messageLength)
+                .replace(" ", "   ") + "  ";
+        statement = "Je " + BenchmarkMessages.sentence(random, messageLength) + ".";
+    }
+
+    /**
+     * Normalizes a message with redundant spaces and no final punctuation.
+     *
+     * @return The normalized message.
+     */
+    @Benchmark
+    public String normalize() {
+        return messageProcessor.normalize(rawMessage);
+    }
+
+    /**
+     * Generates the response to a first person statement, which goes through the
+     * handler chain down to the verb handler.
+     *
+     * @return The response.
+     */
+    @Benchmark
+    public String generateElizaResponse() {
+        return messageProcessor.generateElizaResponse(statement);
+    }
+}
@@ -0,0 +1,104 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.journal;
+
+import fr.univ_lyon1.info.m1.elizagpt.controller.Controller;
+import fr.univ_lyon1.info.m1.elizagpt.model.BenchmarkMessages;
+import fr.univ_lyon1.info.m1.elizagpt.model.MessageProcessor;
+import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks adding a user message through the {@link Controller}, which also adds the
+ * response of Eliza, without a journal and with a journal under each {@link FsyncPolicy}.
+ * The difference with "off" is the latency the journal adds to each message.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class MessageJournalBenchmark {
+
+    private static final int MESSAGE_COUNT = 1024;
+
+    @Param({"off", "NEVER", "GROUP", "ALWAYS"})
+    private String journalPolicy;
+
+    private Path file;
+    private MessageJournal journal;
+    private Controller controller;
+    private String[] messages;
+    private int next;
+
+    /**
+     * Generates the user messages and waits for the verbs.
+     */
+    @Setup
+    public void setUp() {
+        VerbManager.getInstance().getDictionary().join();
+        Random random = new Random(BenchmarkMessages.SEED);
+        messages = new String[MESSAGE_COUNT];
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            messages[i] = "Je " + BenchmarkMessages.sentence(random, 48) + ".";
+        }
+    }
+
+    /**
+     * Starts a new conversation, with a new journal, for each iteration.
+     *
+     * @throws IOException If the journal cannot be created.
+     */
+    @Setup(Level.Iteration)
+    public void startConversation() throws IOException {
+        if ("off".equals(journalPolicy)) {
+            controller = new Controller(new MessageProcessor());
+            return;
+        }
+        file = Files.createTempFile("elizagpt-benchmark", ".journal");
+        Files.delete(file);
+        journal = MessageJournal.open(file, FsyncPolicy.valueOf(journalPolicy));
+        controller = new Controller(new MessageProcessor(journal));
+    }
+
+    /**
+     * Closes and deletes the journal of the iteration.
+     *
+     * @throws IOException If the journal cannot be closed or deleted.
+     */
+    @TearDown(Level.Iteration)
+    public void endConversation() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Adds a user message and the response of Eliza.
+     */
+    @Benchmark
+    public void addUserMessage() {
+        controller.addUserMessage(messages[next++ & (MESSAGE_COUNT - 1)]);
+    }
+}
@@ -0,0 +1,128 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.BenchmarkMessages;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures the heap retained per message of a conversation: by the messages themselves,
+ * and by each index a {@link MessageHistory} keeps over them.
+ *
+ * <p>The conversation is the one of {@link BenchmarkMessages#conversation(int)}. The
+ * {@link Footprint} counters give the bytes per message retained by the messages, read
+ * once they are generated, and by the measured store, read once it is built over them.
+ * The {@link Store#HISTORY} store is the one a {@link MessageManager} adds the messages
+ * to in the application, with all its indexes; the other stores are its parts, the
+ * {@link WordIndex} having no postings of its own. The counters are computed from the
+ * used heap after full garbage collections, so that the time of the measurement is
+ * meaningless.</p>
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class MessageFootprintBenchmark {
+
+    /**
+     * The stores of the messages to measure.
+     */
+    public enum Store {
+        /** A plain list, holding the messages only. */
+        LIST(ArrayList::new),
+        /** The {@link TrigramIndex} of a history. */
+        TRIGRAM_INDEX(messages -> {
+            TrigramIndex index = new TrigramIndex();
+            messages.forEach(index::add);
+            return index;
+        }),
+        /** The {@link RelevanceIndex} of a history. */
+        RELEVANCE_INDEX(RelevanceIndex::of),
+        /** The {@link BitmapIndex} of a history, with the relevance index it reads. */
+        BITMAP_INDEX(BitmapIndex::of),
+        /** A {@link MessageHistory}, with its list of the messages and all its indexes. */
+        HISTORY(MessageHistory::new);
+
+        private final Function<List<Message>, Object> build;
+
+        Store(final Function<List<Message>, Object> build) {
+            this.build = build;
+        }
+    }
+
+    /**
+     * The heap retained per message, reported along with the time of the measurement.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        /** The bytes per message retained by the messages. */
+        public double messageBytes;
+        /** The bytes per message retained by the store, beyond the messages. */
+        public double storeBytes;
+    }
+
+    @Param
+    private Store store;
+
+    @Param({"100000", "1000000"})
+    private int historySize;
+
+    private List<Message> messages;
+    private Object built;
+    private long messagesHeap;
+
+    /**
+     * Generates the conversation, and measures the heap retained by its messages.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        messages = null;
+        built = null;
+        long before = usedHeap();
+        messages = BenchmarkMessages.conversation(historySize);
+        messagesHeap = usedHeap() - before;
+    }
+
+    /**
+     * Builds the store over the messages, and measures the heap it retains.
+     *
+     * @param footprint The counters of the measurement.
+     * @return The store.
+     */
+    @Benchmark
+    public Object build(final Footprint footprint) {
+        long before = usedHeap();
+        built = store.build.apply(messages);
+        footprint.messageBytes = (double) messagesHeap / historySize;
+        footprint.storeBytes = (double) (usedHeap() - before) / historySize;
+        return built;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
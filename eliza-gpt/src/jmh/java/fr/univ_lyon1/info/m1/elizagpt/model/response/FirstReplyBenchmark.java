@@ -0,0 +1,60 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.response;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.MessageProcessor;
+import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup of the application: the time from the creation of the
+ * {@link VerbManager}, which starts loading the verbs, to the first reply of the
+ * {@link ResponseGenerator}.
+ *
+ * <p>Each measurement runs in a fresh JVM, so that the verbs are really loaded and
+ * nothing is warmed up. {@link #firstReply()} answers as soon as it can, while the
+ * verbs are still loading; {@link #firstReplyOnceLoaded()} waits for them first, as
+ * the replies did when they were gated on the loading.</p>
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class FirstReplyBenchmark {
+
+    private static final String MESSAGE = "Je suis fatigué.";
+
+    /**
+     * Starts the application and answers a first message.
+     *
+     * @return The reply.
+     */
+    @Benchmark
+    public String firstReply() {
+        VerbManager.getInstance();
+        return new MessageProcessor().generateElizaResponse(MESSAGE);
+    }
+
+    /**
+     * Starts the application and answers a first message once the verbs are loaded.
+     *
+     * @return The reply.
+     */
+    @Benchmark
+    public String firstReplyOnceLoaded() {
+        VerbManager.getInstance().getDictionary().join();
+        return new MessageProcessor().generateElizaResponse(MESSAGE);
+    }
+}
@@ -0,0 +1,76 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.response;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.MessageProcessor;
+import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the chain of response handlers of the {@link MessageProcessor}, for
+ * messages stopping at different handlers of the chain.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class ResponseGeneratorBenchmark {
+
+    /**
+     * The kind of message to answer, named after the handler answering it.
+     */
+    public enum Kind {
+        /** A first person statement, answered by the verb handler. */
+        VERB("Je suis fatigué et je dois étudier."),
+        /** A second person statement, answered by the verb handler. */
+        MIRROR("Vous êtes gentil et vous savez écouter."),
+        /** A question, answered by the question handler. */
+        QUESTION("Quelle heure est-il ?"),
+        /** Any other message, answered by the last handlers of the chain. */
+        DEFAULT("Il pleut beaucoup ici.");
+
+        private final String message;
+
+        Kind(final String message) {
+            this.message = message;
+        }
+    }
+
+    @Param
+    private Kind kind;
+
+    private ResponseGenerator responseGenerator;
+
+    /**
+     * Builds the handler chain and waits for the verbs.
+     */
+    @Setup
+    public void setUp() {
+        VerbManager.getInstance().getDictionary().join();
+        responseGenerator = new MessageProcessor().getResponseGenerator();
+    }
+
+    /**
+     * Generates the response to the message.
+     *
+     * @return The response.
+     */
+    @Benchmark
+    public String generateElizaResponse() {
+        return responseGenerator.generateElizaResponse(kind.message);
+    }
+}
@@ -0,0 +1,72 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.response.handlers;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.BenchmarkMessages;
+import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the pronoun and verb rewriting of the {@link VerbResponseHandler},
+ * for messages of increasing length holding several first person verbs.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class VerbResponseHandlerBenchmark {
+
+    @Param({"16", "256", "4096"})
+    private int messageLength;
+
+    private VerbResponseHandler verbResponseHandler;
+    private String firstPerson;
+    private String secondPerson;
+
+    /**
+     * Builds the handler, waits for the verbs and generates the messages.
+     */
+    @Setup
+    public void setUp() {
+        VerbManager.getInstance().getDictionary().join();
+        verbResponseHandler = new VerbResponseHandler();
+        firstPerson = "je " + BenchmarkMessages.sentence(
+                new Random(BenchmarkMessages.SEED), messageLength);
+        secondPerson = verbResponseHandler.firstToSecondPerson(firstPerson);
+    }
+
+    /**
+     * Rewrites a first person message to the second person.
+     *
+     * @return The rewritten message.
+     */
+    @Benchmark
+    public String firstToSecondPerson() {
+        return verbResponseHandler.firstToSecondPerson(firstPerson);
+    }
+
+    /**
+     * Rewrites a second person message to the first person.
+     *
+     * @return The rewritten message.
+     */
+    @Benchmark
+    public String secondToFirstPerson() {
+        return verbResponseHandler.secondToFirstPerson(secondPerson);
+    }
+}
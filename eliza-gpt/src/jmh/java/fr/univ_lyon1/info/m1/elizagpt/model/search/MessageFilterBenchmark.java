@@ -0,0 +1,104 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.BenchmarkMessages;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the sequential and the parallel {@link MessageFilter} over histories of
+ * increasing size, to choose {@link MessageFilter#DEFAULT_PARALLEL_THRESHOLD}: the
+ * crossover is the smallest size at which the parallel filter is faster.
+ *
+ * <p>The parallel filter runs on the common pool, so the results depend on the number
+ * of cores of the machine, that should be reported with them. On a single core, the
+ * common pool has no parallelism and the filter stays sequential; running with
+ * {@code -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=2} then
+ * measures the cost of splitting and joining the ranges alone.</p>
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class MessageFilterBenchmark {
+
+    /**
+     * The filters to compare.
+     */
+    public enum Execution {
+        /** A filter that never goes parallel. */
+        SEQUENTIAL(Integer.MAX_VALUE),
+        /** A filter that always goes parallel. */
+        PARALLEL(0);
+
+        private final MessageFilter filter;
+
+        Execution(final int parallelThreshold) {
+            this.filter = new MessageFilter(parallelThreshold, ForkJoinPool.commonPool());
+        }
+    }
+
+    @Param
+    private Execution execution;
+
+    @Param({"1000", "5000", "10000", "25000", "50000", "100000", "1000000"})
+    private int historySize;
+
+    @Param({"64"})
+    private int messageLength;
+
+    private List<Message> messages;
+    private Pattern pattern;
+
+    /**
+     * Generates the conversation history.
+     */
+    @Setup
+    public void setUp() {
+        messages = BenchmarkMessages.history(historySize, messageLength);
+        pattern = Pattern.compile(".*fati.*gué.*", Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * Filters the history on a substring, the cheapest predicate.
+     *
+     * @return The matching messages.
+     */
+    @Benchmark
+    public List<Message> substring() {
+        return execution.filter.filter(messages,
+                () -> message -> message.getLowerCaseText().contains("fatigué"));
+    }
+
+    /**
+     * Filters the history on a regular expression, a costlier predicate.
+     *
+     * @return The matching messages.
+     */
+    @Benchmark
+    public List<Message> regex() {
+        return execution.filter.filter(messages, () -> {
+            Matcher matcher = pattern.matcher("");
+            return message -> matcher.reset(message.getText()).matches();
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.BenchmarkMessages;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks typing a search text one char at a time, searching after each keystroke,
+ * with and without refining the previous result. Divided by the length of the text,
+ * the time is the cost of a keystroke, to compare with a 16 ms frame. The refined
+ * searches are lazy and only find the first page, as the view does.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class SearchSessionBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    private int historySize;
+
+    @Param({"je suis fatigu"})
+    private String query;
+
+    private List<Message> messages;
+    private SearchStrategy strategy;
+
+    /**
+     * Generates the conversation history.
+     */
+    @Setup
+    public void setUp() {
+        messages = new MessageHistory(BenchmarkMessages.history(historySize, 64));
+        strategy = SubStringSearchStrategy.getInstance();
+    }
+
+    /**
+     * Types the text, searching the whole history after each keystroke.
+     *
+     * @return The last result.
+     */
+    @Benchmark
+    public List<Message> fromScratch() {
+        List<Message> result = null;
+        for (int length = 1; length <= query.length(); length++) {
+            result = strategy.search(messages, query.substring(0, length));
+        }
+        return result;
+    }
+
+    /**
+     * Types the text, refining the previous results after each keystroke and getting
+     * the first page of the newest messages.
+     *
+     * @return The last page.
+     */
+    @Benchmark
+    public SearchPage refined() {
+        SearchSession session = new SearchSession(messages);
+        SearchPage page = null;
+        for (int length = 1; length <= query.length(); length++) {
+            page = SearchPage.first(
+                    session.search(strategy, query.substring(0, length), true), PAGE_SIZE);
+        }
+        return page;
+    }
+}
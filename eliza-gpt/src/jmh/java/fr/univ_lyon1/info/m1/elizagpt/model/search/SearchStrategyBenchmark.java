@@ -0,0 +1,116 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.BenchmarkMessages;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.AccentInsensitiveSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.BooleanSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.FuzzyWordSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.RegexSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.RelevanceSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.WordSearchStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks each {@link SearchStrategy} over conversation histories of increasing size.
+ *
+ * <p>The history is a {@link MessageHistory}, as in the application, whose indexes the
+ * strategies use; a plain list, that every strategy scans, is the unindexed baseline.
+ * Indexing a million messages takes several gigabytes of heap.</p>
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class SearchStrategyBenchmark {
+
+    /**
+     * The search strategies to compare.
+     */
+    public enum Strategy {
+        /** The {@link SubStringSearchStrategy}. */
+        SUBSTRING(SubStringSearchStrategy.getInstance()),
+        /** The {@link RegexSearchStrategy}. */
+        REGEX(RegexSearchStrategy.getInstance()),
+        /** The {@link WordSearchStrategy}. */
+        WORD(WordSearchStrategy.getInstance()),
+        /** The {@link AccentInsensitiveSearchStrategy}. */
+        ACCENT_INSENSITIVE(AccentInsensitiveSearchStrategy.getInstance()),
+        /** The {@link FuzzyWordSearchStrategy}. */
+        FUZZY_WORD(FuzzyWordSearchStrategy.getInstance()),
+        /** The {@link RelevanceSearchStrategy}. */
+        RELEVANCE(RelevanceSearchStrategy.getInstance()),
+        /** The {@link BooleanSearchStrategy}. */
+        BOOLEAN(BooleanSearchStrategy.getInstance());
+
+        private final SearchStrategy searchStrategy;
+
+        Strategy(final SearchStrategy searchStrategy) {
+            this.searchStrategy = searchStrategy;
+        }
+    }
+
+    /**
+     * The lists searched.
+     */
+    public enum History {
+        /** A {@link MessageHistory}, whose indexes the strategies use. */
+        INDEXED,
+        /** A plain list, that every strategy scans. */
+        LIST
+    }
+
+    @Param
+    private Strategy strategy;
+
+    @Param
+    private History history;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int historySize;
+
+    @Param({"32", "256"})
+    private int messageLength;
+
+    @Param({"fatigué"})
+    private String query;
+
+    private List<Message> messages;
+
+    /**
+     * Generates the conversation history.
+     */
+    @Setup
+    public void setUp() {
+        List<Message> list = BenchmarkMessages.history(historySize, messageLength);
+        messages = history == History.INDEXED ? new MessageHistory(list) : list;
+    }
+
+    /**
+     * Searches the history.
+     *
+     * @return The matching messages.
+     */
+    @Benchmark
+    public List<Message> search() {
+        return strategy.searchStrategy.search(messages, query);
+    }
+}
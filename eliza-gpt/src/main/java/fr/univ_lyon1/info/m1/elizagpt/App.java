@@ -2,15 +2,52 @@ package fr.univ_lyon1.info.m1.elizagpt;
 
 import fr.univ_lyon1.info.m1.elizagpt.controller.Controller;
 import fr.univ_lyon1.info.m1.elizagpt.model.MessageProcessor;
+import fr.univ_lyon1.info.m1.elizagpt.model.journal.FsyncPolicy;
+import fr.univ_lyon1.info.m1.elizagpt.model.journal.MessageJournal;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.SegmentedHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbManager;
 import fr.univ_lyon1.info.m1.elizagpt.view.JfxView;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Main class for the application (structure imposed by JavaFX).
  */
 public class App extends Application {
 
+    /**
+     * The system property giving a verb file to load instead of the bundled verbs.
+     * The verbs are reloaded each time this file changes.
+     */
+    public static final String VERB_FILE_PROPERTY = "elizagpt.verbs";
+
+    /**
+     * The system property giving the journal file of the conversation, so that it survives
+     * a crash. The conversation is only kept in memory without it.
+     */
+    public static final String JOURNAL_FILE_PROPERTY = "elizagpt.journal";
+
+    /**
+     * The system property giving the {@link FsyncPolicy} of the journal, GROUP by default.
+     */
+    public static final String JOURNAL_FSYNC_PROPERTY = "elizagpt.journal.fsync";
+
+    /**
+     * The system property giving a directory where the older messages are sealed into
+     * memory-mapped segments, for the conversations too long to keep on the heap. The
+     * messages are indexed and kept in memory without it.
+     */
+    public static final String SEGMENT_DIRECTORY_PROPERTY = "elizagpt.segments";
+
+    private MessageJournal journal;
+    private SegmentedHistory segmentedHistory;
+
     /**
      * With javafx, start() is called when the application is launched.
      */
@@ -18,14 +55,47 @@ public class App extends Application {
     public void start(final Stage stage) throws Exception {
         //new JfxView(stage, 600, 600);
 
+        String verbFile = System.getProperty(VERB_FILE_PROPERTY);
+        if (verbFile != null) {
+            VerbManager.getInstance().reload(Paths.get(verbFile));
+            VerbManager.getInstance().watch(Paths.get(verbFile));
+        }
+
+
+        String journalFile = System.getProperty(JOURNAL_FILE_PROPERTY);
+        if (journalFile != null) {
+            FsyncPolicy policy = FsyncPolicy.valueOf(System.getProperty(JOURNAL_FSYNC_PROPERTY,
+                    FsyncPolicy.GROUP.name()).toUpperCase(Locale.ROOT));
+            journal = MessageJournal.open(Paths.get(journalFile), policy);
+        }
+        List<Message> messages = new MessageHistory();
+        String segmentDirectory = System.getProperty(SEGMENT_DIRECTORY_PROPERTY);
+        if (segmentDirectory != null) {
+            segmentedHistory = new SegmentedHistory(Paths.get(segmentDirectory));
+            messages = segmentedHistory;
+        }
 
-        Controller controller = new Controller(new MessageProcessor());
+        Controller controller = new Controller(new MessageProcessor(messages, journal));
         new JfxView(stage, 600, 600, controller);
         //new JfxView(new Stage() , 400,400,controller);
 
     }
 
 
+    /**
+     * With javafx, stop() is called when the application exits: the journal, if any, is
+     * written and closed, and the segments, if any, deleted.
+     */
+    @Override
+    public void stop() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+        if (segmentedHistory != null) {
+            segmentedHistory.close();
+        }
+    }
+
     /**
      * A main method in case the user launches the application using
      * App as the main class.
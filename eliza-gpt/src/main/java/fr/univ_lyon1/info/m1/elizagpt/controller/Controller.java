@@ -1,19 +1,28 @@
 package fr.univ_lyon1.info.m1.elizagpt.controller;
 
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.AccentInsensitiveSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.BooleanSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.FuzzyWordSearchStrategy;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.RegexSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.RelevanceSearchStrategy;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.WordSearchStrategy;
 import fr.univ_lyon1.info.m1.elizagpt.model.payload.AddUpdate;
 import fr.univ_lyon1.info.m1.elizagpt.model.payload.DeleteUpdate;
+import fr.univ_lyon1.info.m1.elizagpt.model.payload.SearchErrorUpdate;
 import fr.univ_lyon1.info.m1.elizagpt.model.payload.SearchUpdate;
 import fr.univ_lyon1.info.m1.elizagpt.model.payload.Update;
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
 import fr.univ_lyon1.info.m1.elizagpt.model.MessageProcessor;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchPage;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.StandingQuery;
 
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.regex.PatternSyntaxException;
 
 
 /**
@@ -22,11 +31,48 @@ import java.util.List;
  */
 public class Controller extends Subject {
 
+    /**
+     * The number of messages of each page of live search results.
+     */
+    public static final int PAGE_SIZE = 100;
+
     /**
      * The model responsible for processing messages.
      */
     private final MessageProcessor model;
 
+    /**
+     * The text of the current live search.
+     */
+    private String liveSearchText;
+
+    /**
+     * The last page of the current live search, or null.
+     */
+    private SearchPage liveSearchPage;
+
+    /**
+     * The standing query keeping the shown search results up to date, or null.
+     */
+    private StandingQuery standingQuery;
+
+    /**
+     * Notifies the observers of the messages entering or leaving the shown search results.
+     */
+    private final StandingQuery.Subscriber searchMatchSubscriber =
+            new StandingQuery.Subscriber() {
+                @Override
+                public void onMatchAdded(final Message message) {
+                    notifyObservers(ACTION.SEARCH_MATCH_ADD, new AddUpdate(message));
+                }
+
+                @Override
+                public void onMatchRemoved(final Message message) {
+                    notifyObservers(ACTION.SEARCH_MATCH_DELETE,
+                            new DeleteUpdate(message.getId()));
+                }
+            };
+
     /**
      * Constructs a new Controller with the specified MessageProcessor.
      *
@@ -65,28 +111,135 @@ public class Controller extends Subject {
     /**
      * Searches for messages in the model based on the given text
      * and notifies observers of the results.
+     * The messages added or deleted afterwards are notified as they enter or leave them.
+     * If the text is not valid for the strategy, or the search gives up, observers are
+     * notified of the error instead, and the previous results stay current.
      * @param text The text to search for in messages.
      */
     public void search(final String text) {
-        List<Message> result = model.search(text);
+        List<Message> result;
+        try {
+            result = model.search(text);
+        } catch (IllegalArgumentException | CancellationException e) {
+            notifySearchError(text, e);
+            return;
+        }
+        watchSearch(text, result);
         Update searchUpdate = new SearchUpdate(text, result);
         notifyObservers(ACTION.SEARCH, searchUpdate);
     }
 
+    /**
+     * Searches for messages as the user types the given text, refining the previous
+     * search when possible, and notifies observers of the results.
+     * The messages added or deleted afterwards are notified as they enter or leave them.
+     * If the text is not valid for the strategy, such as an unfinished regular expression,
+     * or the search gives up, observers are notified of the error instead, and the
+     * previous results stay current.
+     * @param text The text typed so far.
+     */
+    public void liveSearch(final String text) {
+        SearchPage page;
+        try {
+            page = SearchPage.first(model.refineSearch(text), PAGE_SIZE);
+        } catch (IllegalArgumentException | CancellationException e) {
+            notifySearchError(text, e);
+            return;
+        }
+        liveSearchText = text;
+        liveSearchPage = page;
+        watchSearch(text, liveSearchPage.getMessages());
+        Update searchUpdate = new SearchUpdate(text, liveSearchPage);
+        notifyObservers(ACTION.SEARCH, searchUpdate);
+    }
+
+    /**
+     * Searches the next page of the current live search and notifies observers of it.
+     * If the messages have changed since the search started, it is run again instead.
+     * If the search gives up, observers are notified of the error, and the pages already
+     * shown stay current.
+     */
+    public void showMoreResults() {
+        if (liveSearchPage == null || !liveSearchPage.hasNext()) {
+            return;
+        }
+        if (liveSearchPage.getResults().isStale()) {
+            liveSearch(liveSearchText);
+            return;
+        }
+        try {
+            liveSearchPage = liveSearchPage.next();
+        } catch (CancellationException e) {
+            notifySearchError(liveSearchText, e);
+            return;
+        }
+        if (standingQuery != null) {
+            standingQuery.addMatches(liveSearchPage.getMessages());
+        }
+        Update searchUpdate = new SearchUpdate(liveSearchText, liveSearchPage);
+        notifyObservers(ACTION.SEARCH, searchUpdate);
+    }
+
+    /**
+     * Sets whether the live searches show the newest messages first.
+     *
+     * @param newestFirst true for the newest first, false for the history order.
+     */
+    public void setNewestFirst(final boolean newestFirst) {
+        this.model.setNewestFirst(newestFirst);
+    }
+
     /**
      * Undoes the search operation and notifies observers.
      */
     public void undoSearch() {
+        liveSearchText = null;
+        liveSearchPage = null;
+        stopWatchingSearch();
         Update undoSearchUpdate = new SearchUpdate("", model.getMessages());
         notifyObservers(ACTION.UNDOSEARCH, undoSearchUpdate);
     }
 
+    /**
+     * Notifies the observers that a search failed.
+     *
+     * @param text  The searched text.
+     * @param error The error of the search.
+     */
+    private void notifySearchError(final String text, final RuntimeException error) {
+        String message = error instanceof PatternSyntaxException
+                ? ((PatternSyntaxException) error).getDescription()
+                : error.getMessage();
+        notifyObservers(ACTION.SEARCH_ERROR, new SearchErrorUpdate(text, message));
+    }
+
+    /**
+     * Replaces the standing query of the shown search results.
+     *
+     * @param text    The searched text.
+     * @param matches The shown results.
+     */
+    private void watchSearch(final String text, final List<Message> matches) {
+        stopWatchingSearch();
+        standingQuery = model.startStandingQuery(text, matches, searchMatchSubscriber);
+    }
+
+    /**
+     * Stops the standing query of the shown search results, if any.
+     */
+    private void stopWatchingSearch() {
+        if (standingQuery != null) {
+            model.stopStandingQuery(standingQuery);
+            standingQuery = null;
+        }
+    }
+
     /**
      * Deletes a message with the specified ID from the model and notifies observers of the action.
      *
      * @param messageId The ID of the message to delete.
      */
-    public void deleteMessage(final int messageId) {
+    public void deleteMessage(final long messageId) {
         this.model.deleteMessage(messageId);
         Update deleteUpdate = new DeleteUpdate(messageId);
         notifyObservers(ACTION.DELETE, deleteUpdate);
@@ -133,7 +286,11 @@ public class Controller extends Subject {
         return Arrays.asList(
                 SubStringSearchStrategy.getInstance(),
                 RegexSearchStrategy.getInstance(),
-                WordSearchStrategy.getInstance()
+                WordSearchStrategy.getInstance(),
+                AccentInsensitiveSearchStrategy.getInstance(),
+                FuzzyWordSearchStrategy.getInstance(),
+                RelevanceSearchStrategy.getInstance(),
+                BooleanSearchStrategy.getInstance()
         );
     }
 
@@ -23,7 +23,10 @@ public abstract class Subject {
         ADD,
         DELETE,
         SEARCH,
-        UNDOSEARCH
+        UNDOSEARCH,
+        SEARCH_MATCH_ADD,
+        SEARCH_MATCH_DELETE,
+        SEARCH_ERROR
     }
 
     /**
@@ -37,7 +40,8 @@ public abstract class Subject {
      * Notifies all registered observers of a state change
      * based on the specified action and update.
      *
-     * @param action  The action that triggered the update (ADD, DELETE, SEARCH, UNDOSEARCH).
+     * @param action  The action that triggered the update (ADD, DELETE, SEARCH, UNDOSEARCH,
+     *                SEARCH_MATCH_ADD, SEARCH_MATCH_DELETE, SEARCH_ERROR).
      * @param update  The update object containing additional information about the state change.
      * @throws IllegalArgumentException If the specified action is undefined.
      */
@@ -56,6 +60,15 @@ public abstract class Subject {
                 case UNDOSEARCH:
                     observer.onUndoSearchUpdate(update);
                     break;
+                case SEARCH_MATCH_ADD:
+                    observer.onSearchMatchAddUpdate(update);
+                    break;
+                case SEARCH_MATCH_DELETE:
+                    observer.onSearchMatchDeleteUpdate(update);
+                    break;
+                case SEARCH_ERROR:
+                    observer.onSearchErrorUpdate(update);
+                    break;
                 default:
                     throw new IllegalArgumentException("Undefined Action");
             }
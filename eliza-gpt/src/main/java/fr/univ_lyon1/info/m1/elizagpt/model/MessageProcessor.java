@@ -1,6 +1,9 @@
 package fr.univ_lyon1.info.m1.elizagpt.model;
 
+import fr.univ_lyon1.info.m1.elizagpt.model.journal.MessageJournal;
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageIdAllocator;
 import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageManager;
 import fr.univ_lyon1.info.m1.elizagpt.model.response.ResponseGenerator;
 import fr.univ_lyon1.info.m1.elizagpt.model.response.handlers.NameResponseHandler;
@@ -13,11 +16,17 @@ import fr.univ_lyon1.info.m1.elizagpt.model.response.handlers.RandomResponseHand
 import fr.univ_lyon1.info.m1.elizagpt.model.response.handlers.ByeResponseHandler;
 import fr.univ_lyon1.info.m1.elizagpt.model.response.handlers.QuestionResponseHandler;
 
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchCache;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchResults;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchSession;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.StandingQuery;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -37,15 +46,56 @@ public class MessageProcessor implements UserName {
     private final List<Message> messages;
     private final MessageManager messageManager;
     private final ResponseGenerator responseGenerator;
+    private final SearchSession searchSession;
+    private final SearchCache<List<Message>> searchCache =
+            new SearchCache<>(SearchCache.DEFAULT_CAPACITY, List::size);
     private SearchStrategy searchStrategy;
+    private boolean newestFirst;
     private String userName;
 
     /**
-     * Constructs a new MessageProcessor with an empty list of messages.
+     * Constructs a new MessageProcessor with an empty, indexed history of messages.
      */
     public MessageProcessor() {
-        this.messages = new ArrayList<>();
-        this.messageManager = new MessageManager(this.messages);
+        this(new MessageHistory(), new MessageIdAllocator());
+        this.addMessage("Bonjour", Message.Sender.ELIZA);
+    }
+
+    /**
+     * Constructs a new MessageProcessor with the messages replayed from a journal, which
+     * then records the messages added and deleted. A new conversation starts as usual.
+     *
+     * @param journal The journal of the conversation.
+     */
+    public MessageProcessor(final MessageJournal journal) {
+        this(new MessageHistory(), journal);
+    }
+
+    /**
+     * Constructs a new MessageProcessor keeping its messages in the specified list, such
+     * as a {@link fr.univ_lyon1.info.m1.elizagpt.model.message.SegmentedHistory} for the
+     * conversations too long to keep on the heap, with the messages replayed from a
+     * journal, if any. A new conversation starts as usual.
+     *
+     * @param messages The empty list of the messages of the conversation.
+     * @param journal  The journal of the conversation, or null to only keep it in memory.
+     */
+    public MessageProcessor(final List<Message> messages, final MessageJournal journal) {
+        this(messages, new MessageIdAllocator(journal == null ? 1 : journal.getNextId()));
+        if (journal != null) {
+            this.messages.addAll(journal.takeRecoveredMessages());
+            this.messageManager.addMessageListener(journal);
+        }
+        if (this.messages.isEmpty()) {
+            this.addMessage("Bonjour", Message.Sender.ELIZA);
+        }
+    }
+
+    private MessageProcessor(final List<Message> messages,
+                             final MessageIdAllocator idAllocator) {
+        this.messages = messages;
+        this.messageManager = new MessageManager(this.messages, idAllocator);
+        this.searchSession = new SearchSession(this.messages, messageManager::getVersion);
         this.responseGenerator = new ResponseGenerator(
                 Arrays.asList(
                         new NameResponseHandler(this),
@@ -59,7 +109,6 @@ public class MessageProcessor implements UserName {
                         new DefaultResponseHandler(this)
                 )
         );
-        this.addMessage("Bonjour", Message.Sender.ELIZA);
         this.searchStrategy = SubStringSearchStrategy.getInstance();
     }
 
@@ -77,6 +126,7 @@ public class MessageProcessor implements UserName {
                             final ArrayList<Message> messages) {
         this.messages = messages;
         this.messageManager = messageManager;
+        this.searchSession = new SearchSession(this.messages);
         this.responseGenerator = responseGenerator;
         this.searchStrategy = searchStrategy;
     }
@@ -111,18 +161,95 @@ public class MessageProcessor implements UserName {
      *
      * @param messageId The ID of the message to be deleted.
      */
-    public void deleteMessage(final int messageId) {
+    public void deleteMessage(final long messageId) {
         this.messageManager.deleteMessage(messageId);
     }
 
     /**
      * Searches for messages containing the specified text.
+     * The same search of unchanged messages is answered from a cache.
      *
      * @param text The text to search for within messages.
-     * @return A list of messages that contain the specified text.
+     * @return An unmodifiable list of messages that contain the specified text.
      */
     public List<Message> search(final String text) {
-        return searchStrategy.search(messages, text);
+        return searchCache.computeIfAbsent(searchStrategy, text, messageManager.getVersion(),
+                () -> Collections.unmodifiableList(searchStrategy.search(messages, text)));
+    }
+
+    /**
+     * Gets the cache of the searches, to read its metrics.
+     *
+     * @return The search cache.
+     */
+    public SearchCache<List<Message>> getSearchCache() {
+        return searchCache;
+    }
+
+    /**
+     * Gets the session of the live searches, to read the metrics of its caches.
+     *
+     * @return The search session.
+     */
+    public SearchSession getSearchSession() {
+        return searchSession;
+    }
+
+    /**
+     * Searches for messages containing the specified text, as the user types it.
+     * When the text refines the previously searched one, only the previous results
+     * are searched again. The results are found lazily, one page at a time.
+     *
+     * @param text The text to search for within messages.
+     * @return The lazy results, newest first if so ordered.
+     * @see SearchSession
+     */
+    public SearchResults refineSearch(final String text) {
+        return searchSession.search(searchStrategy, text, newestFirst);
+    }
+
+    /**
+     * Starts keeping the results of a search up to date: the messages added from now on
+     * are matched with the current strategy, and the deleted ones leave the results.
+     *
+     * @param text       The searched text.
+     * @param matches    The results already found for the text.
+     * @param subscriber The subscriber to tell of the changes of the results.
+     * @return The standing query, to stop once the search is over.
+     */
+    public StandingQuery startStandingQuery(final String text,
+                                            final Collection<Message> matches,
+                                            final StandingQuery.Subscriber subscriber) {
+        StandingQuery query = new StandingQuery(searchStrategy, text, matches, subscriber);
+        messageManager.addMessageListener(query);
+        return query;
+    }
+
+    /**
+     * Stops keeping the results of a search up to date.
+     *
+     * @param query The standing query.
+     */
+    public void stopStandingQuery(final StandingQuery query) {
+        messageManager.removeMessageListener(query);
+    }
+
+    /**
+     * Sets whether the live searches find the newest messages first.
+     *
+     * @param newestFirst true for the newest first, false for the history order.
+     */
+    public void setNewestFirst(final boolean newestFirst) {
+        this.newestFirst = newestFirst;
+    }
+
+    /**
+     * Tells whether the live searches find the newest messages first.
+     *
+     * @return true for the newest first, false for the history order.
+     */
+    public boolean isNewestFirst() {
+        return newestFirst;
     }
 
     /**
@@ -145,6 +272,15 @@ public class MessageProcessor implements UserName {
         return messages;
     }
 
+    /**
+     * Gets the chain of handlers generating Eliza's responses.
+     *
+     * @return The response generator.
+     */
+    public ResponseGenerator getResponseGenerator() {
+        return responseGenerator;
+    }
+
     /**
      * Sets the search strategy for message searching.
      *
@@ -0,0 +1,29 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.journal;
+
+/**
+ * The FsyncPolicy enum tells when the records of a {@link MessageJournal} are forced to
+ * the disk, trading the latency of adding a message against the records lost in a crash.
+ *
+ * @version 1.0
+ */
+public enum FsyncPolicy {
+
+    /**
+     * The records are written by each group commit but never forced: they survive a crash
+     * of the application, not of the system.
+     */
+    NEVER,
+
+    /**
+     * Each group commit is forced to the disk in the background: a crash of the system
+     * loses at most the records of the last few milliseconds, and adding a message never
+     * waits for the disk.
+     */
+    GROUP,
+
+    /**
+     * Adding a message waits until the group commit holding its record has been forced
+     * to the disk: no record is ever lost, at the cost of the latency of the disk.
+     */
+    ALWAYS
+}
@@ -0,0 +1,593 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.journal;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * The MessageJournal class is an append-only, write-ahead journal of the messages added
+ * to and deleted from a conversation, so that the conversation survives a crash.
+ *
+ * <p>The journal follows a {@link fr.univ_lyon1.info.m1.elizagpt.model.message.MessageManager}
+ * as a {@link MessageListener}: each added or deleted message is encoded as a binary
+ * record, which a writer thread appends to the file through a {@link FileChannel}. All
+ * integers are big-endian:</p>
+ * <pre>
+ * int    magic ("ELZJ")
+ * int    version
+ * then, for each record:
+ * int    length of the body
+ * int    CRC-32C of the body
+ * byte   type: 1 for an added message, 2 for a deleted one
+ * long   identifier of the message
+ * byte   sender of an added message, as its ordinal
+ * byte[] UTF-8 text of an added message, up to the end of the body
+ * </pre>
+ *
+ * <p>Appending a record only encodes it and queues it. The writer waits
+ * {@link #DEFAULT_GROUP_COMMIT_MILLIS} milliseconds after the first queued record for
+ * others to come, and writes them all with a single gathering write, forced to the disk
+ * once if the {@link FsyncPolicy} says so: this is a group commit.</p>
+ *
+ * <p>Opening a journal replays it into the messages still in the conversation, reading
+ * the file through a buffer of {@link #REPLAY_BUFFER_SIZE} bytes, grown only for larger
+ * records. A record cut by a crash, or whose checksum does not match, ends the journal:
+ * the file is truncated before it, and the records after it are lost. The recovered
+ * messages are handed over once, by {@link #takeRecoveredMessages()}.</p>
+ *
+ * <p>The records of the deleted messages, and of the messages they delete, are dead.
+ * When they take more room than the live records, and at least
+ * {@link #COMPACTION_MIN_BYTES} bytes, opening the journal compacts it: the live
+ * messages are written to a temporary file, which then atomically replaces the
+ * journal. A crash during the compaction leaves the previous journal.</p>
+ *
+ * @version 1.1
+ */
+public final class MessageJournal implements MessageListener, Closeable {
+
+    /**
+     * The magic number at the start of every journal.
+     */
+    public static final int MAGIC = 0x454C5A4A;
+
+    /**
+     * The version of the binary format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The time the writer waits for more records before writing a group commit.
+     */
+    public static final long DEFAULT_GROUP_COMMIT_MILLIS = 2;
+
+    /**
+     * The size of the buffer the journal is replayed through.
+     */
+    public static final int REPLAY_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The size the dead records must reach before the journal is compacted.
+     */
+    public static final long COMPACTION_MIN_BYTES = 1 << 20;
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+    static final byte ADDED = 1;
+    static final byte DELETED = 2;
+
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MIN_BODY_SIZE = Byte.BYTES + Long.BYTES;
+    private static final int MAX_BATCH_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final long groupCommitNanos;
+    private final long nextId;
+    private final Thread writer;
+
+    private final Object lock = new Object();
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private int pendingBytes;
+    private long appendedCount;
+    private long committedCount;
+    private long commitCount;
+    private boolean syncRequested;
+    private boolean closed;
+    private IOException failure;
+    private List<Message> recoveredMessages;
+
+    private MessageJournal(final FileChannel channel, final FsyncPolicy policy,
+                           final long groupCommitMillis, final List<Message> recoveredMessages,
+                           final long nextId) {
+        this.channel = channel;
+        this.policy = policy;
+        this.groupCommitNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+        this.recoveredMessages = recoveredMessages;
+        this.nextId = nextId;
+        this.writer = new Thread(this::write, "message-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens a journal, creating it if needed, and replays it.
+     *
+     * @param file   The journal file.
+     * @param policy When the records are forced to the disk.
+     * @return The journal, ready to append records after the replayed ones.
+     * @throws IOException If the file cannot be read or written, or is not a journal.
+     */
+    public static MessageJournal open(final Path file, final FsyncPolicy policy)
+            throws IOException {
+        return open(file, policy, DEFAULT_GROUP_COMMIT_MILLIS);
+    }
+
+    /**
+     * Opens a journal, creating it if needed, and replays it.
+     *
+     * @param file              The journal file.
+     * @param policy            When the records are forced to the disk.
+     * @param groupCommitMillis The time the writer waits for more records before writing
+     *                          them together.
+     * @return The journal, ready to append records after the replayed ones.
+     * @throws IOException If the file cannot be read or written, or is not a journal.
+     */
+    public static MessageJournal open(final Path file, final FsyncPolicy policy,
+                                      final long groupCommitMillis) throws IOException {
+        Map<Long, Message> messages = new LinkedHashMap<>();
+        long maxId;
+        boolean compact;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() == 0) {
+                writeFully(channel, header());
+                channel.force(true);
+            }
+            maxId = replay(channel, file, messages);
+            compact = isMostlyDead(channel.size(), messages.values());
+        }
+        if (compact) {
+            compact(file, messages.values(), maxId);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        try {
+            channel.position(channel.size());
+            return new MessageJournal(channel, policy, groupCommitMillis,
+                    new ArrayList<>(messages.values()), maxId + 1);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the records of a journal into the messages they leave, and truncates the
+     * file after the last valid record.
+     *
+     * @return The greatest identifier of the journal, deleted messages included, or 0.
+     */
+    private static long replay(final FileChannel channel, final Path file,
+                               final Map<Long, Message> messages) throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(REPLAY_BUFFER_SIZE);
+        buffer.flip();
+        if (!fill(channel, buffer, 0, HEADER_SIZE) || buffer.getInt() != MAGIC
+                || buffer.getInt() != VERSION) {
+            throw new IOException("Not a message journal: " + file);
+        }
+        long maxId = 0;
+        long validSize = HEADER_SIZE;
+        CRC32C crc = new CRC32C();
+        while (fill(channel, buffer, validSize, RECORD_HEADER_SIZE)) {
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + Integer.BYTES);
+            if (length < MIN_BODY_SIZE || length > size - validSize - RECORD_HEADER_SIZE) {
+                break;
+            }
+            int recordSize = RECORD_HEADER_SIZE + length;
+            if (recordSize > buffer.capacity()) {
+                buffer = ByteBuffer.allocate(recordSize).put(buffer).flip();
+            }
+            if (!fill(channel, buffer, validSize, recordSize)) {
+                break;
+            }
+            ByteBuffer body = buffer.duplicate();
+            body.position(buffer.position() + RECORD_HEADER_SIZE);
+            body.limit(buffer.position() + recordSize);
+            body = body.slice();
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum || !apply(body, messages)) {
+                break;
+            }
+            maxId = Math.max(maxId, body.getLong(Byte.BYTES));
+            buffer.position(buffer.position() + recordSize);
+            validSize += recordSize;
+        }
+        if (validSize < size) {
+            channel.truncate(validSize);
+            channel.force(true);
+        }
+        return maxId;
+    }
+
+    /**
+     * Reads the file into the buffer until it holds the specified number of bytes.
+     *
+     * @param offset The position in the file of the first byte remaining in the buffer.
+     * @return false if the file ends before.
+     */
+    private static boolean fill(final FileChannel channel, final ByteBuffer buffer,
+                                final long offset, final int count) throws IOException {
+        if (buffer.remaining() >= count) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= count;
+    }
+
+    /**
+     * Tells whether the dead records of a journal are worth compacting.
+     */
+    private static boolean isMostlyDead(final long size, final Collection<Message> messages) {
+        long liveSize = 0;
+        for (Message message : messages) {
+            liveSize += RECORD_HEADER_SIZE + MIN_BODY_SIZE + Byte.BYTES
+                    + utf8Length(message.getText());
+        }
+        long deadSize = size - HEADER_SIZE - liveSize;
+        return deadSize >= COMPACTION_MIN_BYTES && deadSize > liveSize;
+    }
+
+    private static int utf8Length(final String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Rewrites a journal with the records of its live messages only. If the greatest
+     * identifier of the journal was deleted, its deletion is kept, so that it is never
+     * reused.
+     */
+    private static void compact(final Path file, final Collection<Message> messages,
+                                final long maxId) throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compacted");
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            List<ByteBuffer> batch = new ArrayList<>();
+            batch.add(header());
+            int batchBytes = HEADER_SIZE;
+            long liveMaxId = 0;
+            for (Message message : messages) {
+                ByteBuffer body = addedBody(message);
+                batch.add(recordHeader(body));
+                batch.add(body);
+                batchBytes += RECORD_HEADER_SIZE + body.remaining();
+                liveMaxId = Math.max(liveMaxId, message.getId());
+                if (batchBytes >= MAX_BATCH_BYTES) {
+                    writeFully(channel, batch.toArray(new ByteBuffer[0]));
+                    batch.clear();
+                    batchBytes = 0;
+                }
+            }
+            if (liveMaxId < maxId) {
+                ByteBuffer body = deletedBody(maxId);
+                batch.add(recordHeader(body));
+                batch.add(body);
+            }
+            if (!batch.isEmpty()) {
+                writeFully(channel, batch.toArray(new ByteBuffer[0]));
+            }
+            channel.force(true);
+        }
+        Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Applies the body of a record to the messages.
+     *
+     * @return false if the body is not a valid record.
+     */
+    private static boolean apply(final ByteBuffer body, final Map<Long, Message> messages) {
+        ByteBuffer record = body.duplicate();
+        byte type = record.get();
+        long id = record.getLong();
+        if (type == DELETED && !record.hasRemaining()) {
+            messages.remove(id);
+            return true;
+        }
+        if (type != ADDED || !record.hasRemaining()) {
+            return false;
+        }
+        int sender = record.get();
+        if (sender < 0 || sender >= Message.Sender.values().length) {
+            return false;
+        }
+        byte[] text = new byte[record.remaining()];
+        record.get(text);
+        messages.put(id, new Message(new String(text, StandardCharsets.UTF_8),
+                Message.Sender.values()[sender], id));
+        return true;
+    }
+
+    /**
+     * Hands over the messages left by the records of the journal when it was opened.
+     * The journal then forgets them, so that it does not keep them alive while the
+     * conversation goes on: the next calls return an empty list.
+     *
+     * @return The messages, in the order they were added.
+     */
+    public List<Message> takeRecoveredMessages() {
+        synchronized (lock) {
+            List<Message> messages = recoveredMessages;
+            recoveredMessages = Collections.emptyList();
+            return messages;
+        }
+    }
+
+    /**
+     * Gets the first identifier not used by the records of the journal when it was
+     * opened, deleted messages included, so that identifiers are never reused.
+     *
+     * @return The next identifier of the conversation.
+     */
+    public long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Gets the policy forcing the records to the disk.
+     *
+     * @return The fsync policy.
+     */
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the number of group commits written since the journal was opened.
+     *
+     * @return The number of group commits.
+     */
+    public long getCommitCount() {
+        synchronized (lock) {
+            return commitCount;
+        }
+    }
+
+    /**
+     * Appends the record of an added message.
+     *
+     * @param message The added message.
+     * @throws UncheckedIOException  If the journal could not be written.
+     * @throws IllegalStateException If the journal is closed.
+     */
+    @Override
+    public void onMessageAdded(final Message message) {
+        append(addedBody(message));
+    }
+
+    /**
+     * Appends the record of a deleted message.
+     *
+     * @param message The deleted message.
+     * @throws UncheckedIOException  If the journal could not be written.
+     * @throws IllegalStateException If the journal is closed.
+     */
+    @Override
+    public void onMessageDeleted(final Message message) {
+        append(deletedBody(message.getId()));
+    }
+
+    /**
+     * Writes the records appended so far without waiting for more, and forces them to
+     * the disk, whatever the policy.
+     *
+     * @throws IOException If the journal could not be written.
+     */
+    public void sync() throws IOException {
+        long sequence;
+        synchronized (lock) {
+            sequence = appendedCount;
+            syncRequested = true;
+            lock.notifyAll();
+        }
+        awaitCommitted(sequence);
+        if (policy == FsyncPolicy.NEVER) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Writes the records appended so far, forces them to the disk and closes the file.
+     * Closing a closed journal does nothing.
+     *
+     * @throws IOException If the journal could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the journal");
+        } finally {
+            try {
+                if (channel.isOpen() && failure == null) {
+                    channel.force(true);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+        synchronized (lock) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+    }
+
+    private static ByteBuffer addedBody(final Message message) {
+        byte[] text = message.getText().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(MIN_BODY_SIZE + Byte.BYTES + text.length)
+                .put(ADDED).putLong(message.getId())
+                .put((byte) message.getSender().ordinal()).put(text).flip();
+    }
+
+    private static ByteBuffer deletedBody(final long id) {
+        return ByteBuffer.allocate(MIN_BODY_SIZE).put(DELETED).putLong(id).flip();
+    }
+
+    private static ByteBuffer recordHeader(final ByteBuffer body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        return ByteBuffer.allocate(RECORD_HEADER_SIZE)
+                .putInt(body.remaining()).putInt((int) crc.getValue()).flip();
+    }
+
+    private void append(final ByteBuffer body) {
+        ByteBuffer header = recordHeader(body);
+        long sequence;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("The journal is closed");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+            pending.add(header);
+            pending.add(body);
+            pendingBytes += RECORD_HEADER_SIZE + body.remaining();
+            sequence = ++appendedCount;
+            lock.notifyAll();
+        }
+        if (policy == FsyncPolicy.ALWAYS) {
+            try {
+                awaitCommitted(sequence);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void awaitCommitted(final long sequence) throws IOException {
+        synchronized (lock) {
+            while (committedCount < sequence && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while syncing the journal");
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Writes the queued records, one group commit at a time, until the journal is closed.
+     */
+    private void write() {
+        try {
+            while (true) {
+                List<ByteBuffer> batch;
+                long batchEnd;
+                synchronized (lock) {
+                    while (pending.isEmpty() && !closed) {
+                        lock.wait();
+                    }
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                    long deadline = System.nanoTime() + groupCommitNanos;
+                    long remaining = groupCommitNanos;
+                    while (remaining > 0 && !closed && !syncRequested
+                            && pendingBytes < MAX_BATCH_BYTES) {
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                        remaining = deadline - System.nanoTime();
+                    }
+                    batch = pending;
+                    batchEnd = appendedCount;
+                    pending = new ArrayList<>();
+                    pendingBytes = 0;
+                    syncRequested = false;
+                }
+                writeFully(channel, batch.toArray(new ByteBuffer[0]));
+                if (policy != FsyncPolicy.NEVER) {
+                    channel.force(false);
+                }
+                synchronized (lock) {
+                    committedCount = batchEnd;
+                    commitCount++;
+                    lock.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            synchronized (lock) {
+                failure = e;
+                lock.notifyAll();
+            }
+        } catch (InterruptedException e) {
+            synchronized (lock) {
+                failure = new InterruptedIOException("The journal writer was interrupted");
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer... buffers)
+            throws IOException {
+        ByteBuffer last = buffers[buffers.length - 1];
+        while (last.hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+}
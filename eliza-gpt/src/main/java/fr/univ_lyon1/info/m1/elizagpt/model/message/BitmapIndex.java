@@ -0,0 +1,286 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The BitmapIndex class is an index from the folded terms and the senders of the messages
+ * of a {@link MessageHistory} to {@link MessageBitmap}s of their messages, so that
+ * boolean combinations of terms are computed with bitwise operations.
+ *
+ * <p>Like in the {@link TrigramIndex}, each message gets a sequence number in history
+ * order, which is its bit in the bitmaps. Removed messages leave holes in the numbering,
+ * which is compacted once many messages have been removed.</p>
+ *
+ * <p>The index keeps no terms of its own: the bitmap of a term is built when it is asked
+ * for, from the postings of the {@link RelevanceIndex} of the same messages, so that the
+ * history holds a single term dictionary. The {@link WordIndex} asks the same way for
+ * the messages spelling a term as a given word. Only the senders, whose bitmaps are few
+ * and dense, are kept as bitmaps. The bitmaps of the latest terms asked for are kept until the
+ * messages change, since a query typed character by character asks for the same terms
+ * again and again.</p>
+ *
+ * @version 1.1
+ */
+public final class BitmapIndex {
+
+    /**
+     * The maximal number of term bitmaps kept until the messages change.
+     */
+    static final int TERM_CACHE_CAPACITY = 64;
+
+    private static final int MIN_COMPACTION = 64;
+    private static final int HELD_SEVERAL_TIMES = -1;
+
+    private final RelevanceIndex relevanceIndex;
+    private final Map<Message.Sender, MessageBitmap> senders =
+            new EnumMap<>(Message.Sender.class);
+    private final Map<Message, Integer> sequences = new IdentityHashMap<>();
+    private final Map<Message, List<Integer>> repeatedSequences = new IdentityHashMap<>();
+    private final Map<String, MessageBitmap> termCache =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<String, MessageBitmap> eldest) {
+                    return size() > TERM_CACHE_CAPACITY;
+                }
+            };
+    private MessageBitmap all = new MessageBitmap();
+    private List<Message> bySequence = new ArrayList<>();
+    private int removedCount;
+
+    /**
+     * Constructs a new, empty BitmapIndex.
+     *
+     * @param relevanceIndex The index of the terms of the same messages.
+     */
+    BitmapIndex(final RelevanceIndex relevanceIndex) {
+        this.relevanceIndex = relevanceIndex;
+    }
+
+    /**
+     * Indexes the specified messages, for a search in a list that is not a
+     * {@link MessageHistory}.
+     *
+     * @param messages The messages.
+     * @return A new index of the messages.
+     */
+    public static BitmapIndex of(final List<Message> messages) {
+        BitmapIndex index = new BitmapIndex(RelevanceIndex.of(messages));
+        for (Message message : messages) {
+            index.add(message);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the messages using a term, from the postings of the relevance index.
+     *
+     * @param term The folded term.
+     * @return The bitmap of the messages, not to be changed.
+     */
+    public MessageBitmap findTerm(final String term) {
+        return termCache.computeIfAbsent(term,
+                key -> build(relevanceIndex.getMessages(term)));
+    }
+
+    /**
+     * Gets the messages using a term with the specified spelling, from the postings of the
+     * relevance index.
+     *
+     * @param term     The folded term.
+     * @param spelling The word spelling the term, as folded by the {@link WordIndex}, or
+     *                 null for the messages spelling it several ways.
+     * @return The bitmap of the messages, not to be changed.
+     */
+    public MessageBitmap findSpelling(final String term, final String spelling) {
+        // Terms and words have no control characters, the key is not one of a term
+        return termCache.computeIfAbsent(term + '\0' + (spelling == null ? "" : spelling),
+                key -> build(relevanceIndex.getMessages(term, spelling)));
+    }
+
+    private MessageBitmap build(final Collection<Message> messages) {
+        int[] bits = new int[messages.size()];
+        int count = 0;
+        for (Message message : messages) {
+            Integer sequence = sequences.get(message);
+            if (sequence == null) {
+                continue;
+            }
+            List<Integer> held = sequence == HELD_SEVERAL_TIMES
+                    ? repeatedSequences.get(message) : List.of(sequence);
+            for (int heldSequence : held) {
+                if (count == bits.length) {
+                    bits = Arrays.copyOf(bits, 2 * count + 1);
+                }
+                bits[count++] = heldSequence;
+            }
+        }
+        // In order, so that the bitmap only appends its words
+        Arrays.sort(bits, 0, count);
+        MessageBitmap bitmap = new MessageBitmap();
+        for (int i = 0; i < count; i++) {
+            bitmap.set(bits[i]);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Gets the messages sent by a sender.
+     *
+     * @param sender The sender.
+     * @return The bitmap of the messages, not to be changed.
+     */
+    public MessageBitmap findSender(final Message.Sender sender) {
+        MessageBitmap bitmap = senders.get(sender);
+        return bitmap == null ? new MessageBitmap() : bitmap;
+    }
+
+    /**
+     * Gets all the indexed messages.
+     *
+     * @return The bitmap of the messages, not to be changed.
+     */
+    public MessageBitmap getAll() {
+        return all;
+    }
+
+    /**
+     * Keeps the messages of a bitmap that match a predicate.
+     *
+     * @param bitmap    The bitmap.
+     * @param predicate The predicate.
+     * @return A new bitmap of the matching messages.
+     */
+    public MessageBitmap filter(final MessageBitmap bitmap, final Predicate<Message> predicate) {
+        MessageBitmap filtered = new MessageBitmap();
+        for (int sequence : bitmap.toArray()) {
+            if (predicate.test(bySequence.get(sequence))) {
+                filtered.set(sequence);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Gets the messages of a bitmap.
+     *
+     * @param bitmap The bitmap.
+     * @return A new list of the messages, in history order.
+     */
+    public List<Message> getMessages(final MessageBitmap bitmap) {
+        int[] bits = bitmap.toArray();
+        List<Message> messages = new ArrayList<>(bits.length);
+        for (int sequence : bits) {
+            messages.add(bySequence.get(sequence));
+        }
+        return messages;
+    }
+
+    /**
+     * Gets the index of the terms of the messages, whose postings give the term bitmaps.
+     *
+     * @return The relevance index.
+     */
+    public RelevanceIndex getRelevanceIndex() {
+        return relevanceIndex;
+    }
+
+    /**
+     * Gets the number of distinct terms of the indexed messages.
+     *
+     * @return The number of terms of the relevance index.
+     */
+    public int getTermCount() {
+        return relevanceIndex.getTermCount();
+    }
+
+    /**
+     * Indexes a message appended to the history.
+     *
+     * @param message The message.
+     */
+    void add(final Message message) {
+        termCache.clear();
+        int sequence = bySequence.size();
+        bySequence.add(message);
+        Integer previous = sequences.put(message, sequence);
+        if (previous != null) {
+            sequences.put(message, HELD_SEVERAL_TIMES);
+            List<Integer> held =
+                    repeatedSequences.computeIfAbsent(message, m -> new ArrayList<>(2));
+            if (previous != HELD_SEVERAL_TIMES) {
+                held.add(previous);
+            }
+            held.add(sequence);
+        }
+        senders.computeIfAbsent(message.getSender(), s -> new MessageBitmap()).set(sequence);
+        all.set(sequence);
+    }
+
+    /**
+     * Removes a message from the index.
+     *
+     * @param message The message, whose text must not have changed since it was indexed.
+     * @return false if the message was held several times by the history, which must then
+     *         rebuild the index to know which one was removed.
+     */
+    boolean remove(final Message message) {
+        Integer sequence = sequences.get(message);
+        if (sequence == null) {
+            return true;
+        }
+        if (sequence == HELD_SEVERAL_TIMES) {
+            return false;
+        }
+        termCache.clear();
+        sequences.remove(message);
+        bySequence.set(sequence, null);
+        for (MessageBitmap bitmap : senders.values()) {
+            bitmap.clear(sequence);
+        }
+        all.clear(sequence);
+        removedCount++;
+        if (removedCount >= MIN_COMPACTION && removedCount > sequences.size()) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Removes all the messages from the index.
+     */
+    void clear() {
+        termCache.clear();
+        senders.clear();
+        sequences.clear();
+        repeatedSequences.clear();
+        all = new MessageBitmap();
+        bySequence = new ArrayList<>();
+        removedCount = 0;
+    }
+
+    /**
+     * Gives consecutive sequence numbers to the remaining messages, once many have been
+     * removed.
+     */
+    private void compact() {
+        List<Message> remaining = new ArrayList<>(bySequence.size() - removedCount);
+        for (Message message : bySequence) {
+            if (message != null) {
+                remaining.add(message);
+            }
+        }
+        clear();
+        for (Message message : remaining) {
+            add(message);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The BkTree class is a <a href="https://en.wikipedia.org/wiki/BK-tree">BK-tree</a> of
+ * terms, which finds the terms within an edit distance of a term without comparing it to
+ * every term.
+ *
+ * <p>Each child of a node is keyed by its Levenshtein distance to the node. By the
+ * triangle inequality, the terms within distance k of a term t are only under the
+ * children of a node n whose key is within k of the distance between t and n, so a search
+ * with a small k only visits a small part of the tree.</p>
+ *
+ * <p>Terms cannot be removed: the owner of the tree ignores the terms it no longer uses,
+ * and rebuilds the tree when too many of them accumulate.</p>
+ *
+ * @version 1.0
+ */
+public final class BkTree {
+
+    private Node root;
+    private int size;
+
+    /**
+     * Constructs a new, empty BkTree.
+     */
+    BkTree() { }
+
+    /**
+     * Computes the Levenshtein distance between two terms: the minimal number of
+     * characters to insert, delete or replace to turn one into the other.
+     *
+     * @param a The first term.
+     * @param b The second term.
+     * @return The edit distance.
+     */
+    public static int distance(final String a, final String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int replace = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(replace, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Gets the number of terms of the tree.
+     *
+     * @return The number of terms.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a term to the tree.
+     *
+     * @param term The term.
+     * @return true if the term was added, false if it was already in the tree.
+     */
+    boolean add(final String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(term, node.term);
+            if (distance == 0) {
+                return false;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(term));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Finds the terms within an edit distance of a term.
+     *
+     * @param term        The term.
+     * @param maxDistance The maximal edit distance.
+     * @return A new list of the terms of the tree within maxDistance of the term.
+     */
+    List<String> find(final String term, final int maxDistance) {
+        List<String> terms = new ArrayList<>();
+        if (root == null) {
+            return terms;
+        }
+        Deque<Node> toVisit = new ArrayDeque<>();
+        toVisit.push(root);
+        while (!toVisit.isEmpty()) {
+            Node node = toVisit.pop();
+            int distance = distance(term, node.term);
+            if (distance <= maxDistance) {
+                terms.add(node.term);
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    toVisit.push(child.getValue());
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Removes all the terms from the tree.
+     */
+    void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * A term of the tree, with its children keyed by their distance to it.
+     */
+    private static final class Node {
+        private final String term;
+        private final Map<Integer, Node> children = new HashMap<>(2);
+
+        private Node(final String term) {
+            this.term = term;
+        }
+    }
+}
@@ -7,19 +7,24 @@ package fr.univ_lyon1.info.m1.elizagpt.model.message;
 public class Message {
 
     /**
-     * The next available identifier for a message.
+     * The unique identifier of the message within its conversation.
      */
-    private static int nextId = 1;
+    private final long id;
 
     /**
-     * The unique identifier of the message.
+     * The text content of the message.
      */
-    private final int id;
+    private String text;
 
     /**
-     * The text content of the message.
+     * The lower-cased text, computed once for the searches.
      */
-    private String text;
+    private String lowerCaseText;
+
+    /**
+     * The lower-cased text without diacritics, computed once for the searches.
+     */
+    private String foldedText;
 
     /**
      * The sender of the message, which can be either ELIZA or USER.
@@ -35,15 +40,31 @@ public class Message {
     }
 
     /**
-     * Constructs a new Message with the given text and sender.
+     * Constructs a new Message with the given text, sender and identifier.
      *
      * @param text   The content of the message.
      * @param sender The sender of the message (ELIZA or USER).
+     * @param id     The identifier of the message, given by the allocator of its
+     *               conversation.
      */
-    public Message(final String text, final Sender sender) {
-        this.text = text;
+    public Message(final String text, final Sender sender, final long id) {
+        this(text, null, sender, id);
+    }
+
+    /**
+     * Constructs a new Message whose folded text is already known, such as a message
+     * read back from a {@link MessageSegment}.
+     *
+     * @param text       The content of the message.
+     * @param foldedText The text as folded by {@link TextFolding#fold(String)}, or null to
+     *                   fold it.
+     * @param sender     The sender of the message (ELIZA or USER).
+     * @param id         The identifier of the message.
+     */
+    Message(final String text, final String foldedText, final Sender sender, final long id) {
+        assignText(text, foldedText);
         this.sender = sender;
-        this.id = nextId++;
+        this.id = id;
     }
 
     /**
@@ -55,6 +76,24 @@ public class Message {
         return text;
     }
 
+    /**
+     * Gets the lower-cased text content of the message.
+     *
+     * @return The text as lower-cased by {@link TextFolding#lowerCase(String)}.
+     */
+    public String getLowerCaseText() {
+        return lowerCaseText;
+    }
+
+    /**
+     * Gets the lower-cased text content of the message, without diacritics.
+     *
+     * @return The text as folded by {@link TextFolding#fold(String)}.
+     */
+    public String getFoldedText() {
+        return foldedText;
+    }
+
     /**
      * Gets the sender of the message.
      *
@@ -65,12 +104,27 @@ public class Message {
     }
 
     /**
-     * Sets the text content of the message.
+     * Sets the text content of the message, and computes its folded forms.
+     * The text of a message held by a {@link MessageHistory} must not be changed.
+     *
+     * <p>The text and its forms are interned by the {@link TextInterner#getShared() shared}
+     * interner, and a form equal to the previous one is the same string, so that the
+     * messages repeating a text, such as Eliza's replies, share their strings.</p>
      *
      * @param text The new text content of the message.
      */
     public void setText(final String text) {
-        this.text = text;
+        assignText(text, null);
+    }
+
+    private void assignText(final String text, final String foldedText) {
+        TextInterner interner = TextInterner.getShared();
+        this.text = interner.intern(text);
+        String lowerCase = TextFolding.lowerCase(this.text);
+        this.lowerCaseText = lowerCase == this.text ? lowerCase : interner.intern(lowerCase);
+        String folded = foldedText != null
+                ? foldedText : TextFolding.foldLowerCase(this.lowerCaseText);
+        this.foldedText = folded == this.lowerCaseText ? folded : interner.intern(folded);
     }
 
     /**
@@ -83,11 +137,11 @@ public class Message {
     }
 
     /**
-     * Gets the unique identifier of the message.
+     * Gets the unique identifier of the message within its conversation.
      *
      * @return The unique identifier of the message.
      */
-    public int getId() {
+    public long getId() {
         return id;
     }
 
@@ -0,0 +1,231 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.util.Arrays;
+
+/**
+ * The MessageBitmap class is a set of message sequence numbers of a {@link BitmapIndex},
+ * stored as a compressed bitset.
+ *
+ * <p>The bits are grouped in 64-bit words, and only the words holding at least one bit
+ * are stored, along with their position. A term used by a few messages of a long history
+ * thus takes a few words, while a frequent one takes at most one bit per message.
+ * Bitmaps are combined word by word, skipping the words missing from either side.</p>
+ *
+ * <p>The bitmaps returned by the index must not be changed; the combinations are new
+ * bitmaps.</p>
+ *
+ * @version 1.0
+ */
+public final class MessageBitmap {
+
+    private static final int WORD_SHIFT = 6;
+
+    private int[] keys;
+    private long[] words;
+    private int size;
+
+    /**
+     * Constructs a new, empty MessageBitmap.
+     */
+    public MessageBitmap() {
+        this(2);
+    }
+
+    private MessageBitmap(final int capacity) {
+        this.keys = new int[capacity];
+        this.words = new long[capacity];
+    }
+
+    /**
+     * Tells whether a sequence number is in the bitmap.
+     *
+     * @param bit The sequence number.
+     * @return true if the bitmap holds the sequence number.
+     */
+    public boolean get(final int bit) {
+        int i = find(bit >>> WORD_SHIFT);
+        return i >= 0 && (words[i] & 1L << bit) != 0;
+    }
+
+    /**
+     * Gets the number of sequence numbers in the bitmap.
+     *
+     * @return The cardinality of the bitmap.
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += Long.bitCount(words[i]);
+        }
+        return cardinality;
+    }
+
+    /**
+     * Tells whether the bitmap holds no sequence number.
+     *
+     * @return true if the bitmap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of 64-bit words stored, the others holding no sequence number.
+     *
+     * @return The number of stored words.
+     */
+    public int getWordCount() {
+        return size;
+    }
+
+    /**
+     * Gets the sequence numbers in the bitmap.
+     *
+     * @return The sequence numbers, in increasing order.
+     */
+    public int[] toArray() {
+        int[] bits = new int[cardinality()];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long word = words[i];
+            while (word != 0) {
+                bits[count++] = keys[i] << WORD_SHIFT | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Gets the sequence numbers in both this bitmap and another.
+     *
+     * @param other The other bitmap.
+     * @return A new bitmap of the intersection.
+     */
+    public MessageBitmap and(final MessageBitmap other) {
+        MessageBitmap result = new MessageBitmap(Math.max(1, Math.min(size, other.size)));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], words[i++] & other.words[j++]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the sequence numbers in this bitmap or another.
+     *
+     * @param other The other bitmap.
+     * @return A new bitmap of the union.
+     */
+    public MessageBitmap or(final MessageBitmap other) {
+        MessageBitmap result = new MessageBitmap(Math.max(1, size + other.size));
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || i < size && keys[i] < other.keys[j]) {
+                result.append(keys[i], words[i++]);
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.words[j++]);
+            } else {
+                result.append(keys[i], words[i++] | other.words[j++]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the sequence numbers in this bitmap but not in another.
+     *
+     * @param other The other bitmap.
+     * @return A new bitmap of the difference.
+     */
+    public MessageBitmap andNot(final MessageBitmap other) {
+        MessageBitmap result = new MessageBitmap(Math.max(1, size));
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            long word = words[i];
+            if (j < other.size && other.keys[j] == keys[i]) {
+                word &= ~other.words[j];
+            }
+            result.append(keys[i], word);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a sequence number to the bitmap.
+     *
+     * @param bit The sequence number.
+     */
+    void set(final int bit) {
+        int key = bit >>> WORD_SHIFT;
+        int i = find(key);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, key);
+        }
+        words[i] |= 1L << bit;
+    }
+
+    /**
+     * Removes a sequence number from the bitmap.
+     *
+     * @param bit The sequence number.
+     */
+    void clear(final int bit) {
+        int i = find(bit >>> WORD_SHIFT);
+        if (i < 0) {
+            return;
+        }
+        words[i] &= ~(1L << bit);
+        if (words[i] == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(words, i + 1, words, i, size - i - 1);
+            size--;
+        }
+    }
+
+    private int find(final int key) {
+        if (size > 0 && keys[size - 1] == key) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(final int index, final int key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            words = Arrays.copyOf(words, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(words, index, words, index + 1, size - index);
+        keys[index] = key;
+        words[index] = 0;
+        size++;
+    }
+
+    /**
+     * Appends a word after the stored ones, unless it holds no sequence number.
+     */
+    private void append(final int key, final long word) {
+        if (word == 0) {
+            return;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            words = Arrays.copyOf(words, size * 2);
+        }
+        keys[size] = key;
+        words[size++] = word;
+    }
+}
@@ -0,0 +1,257 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * The MessageHistory class is the list of the messages of a conversation, along with
+ * indexes kept up to date as messages are added and removed, so that searches do not
+ * need to scan every message.
+ *
+ * <p>It is an ordinary {@link List}, that search strategies can recognize to use its
+ * indexes. Appending and removing messages updates the indexes incrementally; inserting
+ * or replacing a message in the middle of the history rebuilds them. The text of a
+ * message must not be changed while it is in a history.</p>
+ *
+ * <p>The messages are held by a {@link MessageStore}, where removing a message, by
+ * position or by identifier, leaves a tombstone instead of shifting the messages after
+ * it, so that removing many messages from a long history is not quadratic.</p>
+ *
+ * @see WordIndex
+ * @see TrigramIndex
+ * @see RelevanceIndex
+ * @see BitmapIndex
+ * @version 1.0
+ */
+public final class MessageHistory extends AbstractList<Message> implements RandomAccess {
+
+    private final MessageStore store = new MessageStore();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final RelevanceIndex relevanceIndex = new RelevanceIndex();
+    private final BitmapIndex bitmapIndex = new BitmapIndex(relevanceIndex);
+    private final WordIndex wordIndex = new WordIndex(bitmapIndex);
+    private long version;
+
+    /**
+     * Constructs a new, empty MessageHistory.
+     */
+    public MessageHistory() { }
+
+    /**
+     * Constructs a new MessageHistory holding the specified messages.
+     *
+     * @param messages The messages, in conversation order.
+     */
+    public MessageHistory(final Collection<? extends Message> messages) {
+        addAll(messages);
+    }
+
+    /**
+     * Gets the version of the history, that changes each time a message is added,
+     * removed or replaced. Results computed at the same version are still up to date.
+     *
+     * @return The version of the history.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the index of the words of the messages, which reads the bitmap index.
+     *
+     * @return The word index.
+     */
+    public WordIndex getWordIndex() {
+        return wordIndex;
+    }
+
+    /**
+     * Gets the index of the trigrams of the lower-cased messages.
+     *
+     * @return The trigram index.
+     */
+    public TrigramIndex getTrigramIndex() {
+        return trigramIndex;
+    }
+
+    /**
+     * Gets the index of the term frequencies of the folded messages.
+     *
+     * @return The relevance index.
+     */
+    public RelevanceIndex getRelevanceIndex() {
+        return relevanceIndex;
+    }
+
+    /**
+     * Gets the index of the bitmaps of the folded terms and senders of the messages.
+     *
+     * @return The bitmap index.
+     */
+    public BitmapIndex getBitmapIndex() {
+        return bitmapIndex;
+    }
+
+    @Override
+    public Message get(final int index) {
+        return store.get(index);
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Iterates over the messages, skipping the slots of the deleted messages directly.
+     * The iterator does not support removal; use {@link #removeIf(Predicate)} instead.
+     *
+     * @return The iterator.
+     */
+    @Override
+    public Iterator<Message> iterator() {
+        Iterator<Message> messages = store.iterator();
+        int expectedModCount = modCount;
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return messages.hasNext();
+            }
+
+            @Override
+            public Message next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                return messages.next();
+            }
+        };
+    }
+
+    @Override
+    public boolean add(final Message message) {
+        store.add(message);
+        trigramIndex.add(message);
+        relevanceIndex.add(message);
+        bitmapIndex.add(message);
+        modCount++;
+        version++;
+        return true;
+    }
+
+    @Override
+    public void add(final int index, final Message message) {
+        if (index == store.size()) {
+            add(message);
+            return;
+        }
+        store.add(index, message);
+        modCount++;
+        version++;
+        rebuildIndexes();
+    }
+
+    @Override
+    public Message set(final int index, final Message message) {
+        Message previous = store.set(index, message);
+        rebuildIndexes();
+        version++;
+        return previous;
+    }
+
+    @Override
+    public Message remove(final int index) {
+        Message removed = store.remove(index);
+        if (!unindex(removed)) {
+            rebuildIndexes();
+        }
+        modCount++;
+        version++;
+        return removed;
+    }
+
+    /**
+     * Removes the messages with the specified identifier, without scanning the history.
+     *
+     * @param id The identifier of the messages.
+     * @return The removed messages, several if the same message was added several times.
+     */
+    public List<Message> removeById(final long id) {
+        List<Message> removed = store.removeById(id);
+        unindexAll(removed);
+        return removed;
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super Message> filter) {
+        List<Message> removed = store.removeIf(filter);
+        unindexAll(removed);
+        return !removed.isEmpty();
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> messages) {
+        return removeIf(messages::contains);
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> messages) {
+        return removeIf(message -> !messages.contains(message));
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+        trigramIndex.clear();
+        relevanceIndex.clear();
+        bitmapIndex.clear();
+        modCount++;
+        version++;
+    }
+
+    /**
+     * Removes messages removed from the store from the indexes.
+     */
+    private void unindexAll(final List<Message> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        boolean rebuild = false;
+        for (Message message : removed) {
+            rebuild |= !unindex(message);
+        }
+        if (rebuild) {
+            rebuildIndexes();
+        }
+        modCount++;
+        version++;
+    }
+
+    /**
+     * Removes a message from the indexes.
+     *
+     * @return false if the indexes must be rebuilt, the message having been held several
+     *         times.
+     */
+    private boolean unindex(final Message message) {
+        relevanceIndex.remove(message);
+        boolean removedFromTrigrams = trigramIndex.remove(message);
+        return bitmapIndex.remove(message) && removedFromTrigrams;
+    }
+
+    private void rebuildIndexes() {
+        trigramIndex.clear();
+        relevanceIndex.clear();
+        bitmapIndex.clear();
+        for (Message message : store) {
+            trigramIndex.add(message);
+            relevanceIndex.add(message);
+            bitmapIndex.add(message);
+        }
+    }
+}
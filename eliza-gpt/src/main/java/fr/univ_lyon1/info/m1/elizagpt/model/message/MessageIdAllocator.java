@@ -0,0 +1,52 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The MessageIdAllocator class gives out the identifiers of the messages of a
+ * conversation: each conversation owns an allocator, so that identifiers only need to be
+ * unique within it.
+ *
+ * <p>Identifiers are 64-bit and taken from an {@link AtomicLong}, so that threads creating
+ * messages concurrently never get the same identifier, without locking.</p>
+ *
+ * @version 1.0
+ */
+public final class MessageIdAllocator {
+
+    private final AtomicLong nextId;
+
+    /**
+     * Constructs a new MessageIdAllocator, whose first identifier is 1.
+     */
+    public MessageIdAllocator() {
+        this(1);
+    }
+
+    /**
+     * Constructs a new MessageIdAllocator.
+     *
+     * @param firstId The first identifier given out.
+     */
+    public MessageIdAllocator(final long firstId) {
+        this.nextId = new AtomicLong(firstId);
+    }
+
+    /**
+     * Gives out a new identifier.
+     *
+     * @return An identifier never given out before by this allocator.
+     */
+    public long nextId() {
+        return nextId.getAndIncrement();
+    }
+
+    /**
+     * Gets the identifier the allocator will give out next, without giving it out.
+     *
+     * @return The next identifier.
+     */
+    public long peekNextId() {
+        return nextId.get();
+    }
+}
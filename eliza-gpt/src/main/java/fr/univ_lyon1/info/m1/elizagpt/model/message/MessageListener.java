@@ -0,0 +1,24 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+/**
+ * The MessageListener interface is implemented by the classes that follow the messages
+ * added to and deleted from a {@link MessageManager}, one message at a time.
+ *
+ * @version 1.0
+ */
+public interface MessageListener {
+
+    /**
+     * Called after a message has been added.
+     *
+     * @param message The added message.
+     */
+    void onMessageAdded(Message message);
+
+    /**
+     * Called after a message has been deleted.
+     *
+     * @param message The deleted message.
+     */
+    void onMessageDeleted(Message message);
+}
@@ -1,23 +1,63 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.message;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The MessageManager class is responsible for managing messages in a chatbot system.
+ * When the managed list is a {@link MessageHistory}, its indexes are updated as
+ * messages are added and deleted, and messages are deleted by identifier without
+ * scanning the list. A {@link SegmentedHistory} only reads the segments that may hold
+ * the identifier.
+ *
+ * <p>The registered {@link MessageListener}s are told of each message added or deleted
+ * through the manager, after the list has been updated. A listener failing does not keep
+ * the others from being told: the first failure is thrown once they all have been.</p>
+ *
+ * <p>The manager owns the {@link MessageIdAllocator} of its conversation: the messages it
+ * adds are identified within the conversation, independently of other conversations.</p>
+ *
+ * <p>The manager has a version, that changes each time it adds or deletes a message, so
+ * that results computed at the same version are known to be up to date.</p>
  *
  * @version 1.0
  */
 public class MessageManager {
 
     private final List<Message> messages;
+    private final MessageIdAllocator idAllocator;
+    private final List<MessageListener> listeners = new ArrayList<>();
+    private long version;
 
     /**
-     * Constructs a new MessageManager with the specified list of messages.
+     * Constructs a new MessageManager with the specified list of messages, identifying
+     * the new messages after the messages already in the list.
      *
      * @param messages The list of messages to manage.
      */
     public MessageManager(final List<Message> messages) {
+        this(messages, new MessageIdAllocator(nextIdAfter(messages)));
+    }
+
+    /**
+     * Constructs a new MessageManager with the specified list of messages and allocator
+     * of the identifiers of the new messages.
+     *
+     * @param messages    The list of messages to manage.
+     * @param idAllocator The allocator of the identifiers of the conversation.
+     */
+    public MessageManager(final List<Message> messages, final MessageIdAllocator idAllocator) {
         this.messages = messages;
+        this.idAllocator = idAllocator;
+    }
+
+    private static long nextIdAfter(final List<Message> messages) {
+        long nextId = 1;
+        for (Message message : messages) {
+            nextId = Math.max(nextId, message.getId() + 1);
+        }
+        return nextId;
     }
 
     /**
@@ -26,10 +66,14 @@ public class MessageManager {
      * @param text   The text of the new message.
      * @param sender The sender of the new message.
      * @return The newly created Message object.
+     * @throws RuntimeException The first failure of a listener, once the message has been
+     *                          added and every listener told of it.
      */
     public Message addMessage(final String text, final Message.Sender sender) {
-        Message newMessage = new Message(text, sender);
+        Message newMessage = new Message(text, sender, idAllocator.nextId());
         this.messages.add(newMessage);
+        version++;
+        notifyListeners(listener -> listener.onMessageAdded(newMessage));
         return newMessage;
     }
 
@@ -37,8 +81,90 @@ public class MessageManager {
      * Deletes a message from the list based on its ID.
      *
      * @param messageId The ID of the message to be deleted.
+     * @throws RuntimeException The first failure of a listener, once the message has been
+     *                          deleted and every listener told of it.
+     */
+    public void deleteMessage(final long messageId) {
+        List<Message> deletedMessages;
+        if (messages instanceof MessageHistory) {
+            deletedMessages = ((MessageHistory) messages).removeById(messageId);
+        } else if (messages instanceof SegmentedHistory) {
+            deletedMessages = ((SegmentedHistory) messages).removeById(messageId);
+        } else {
+            deletedMessages = new ArrayList<>(1);
+            this.messages.removeIf(message -> {
+                if (message.getId() == messageId) {
+                    deletedMessages.add(message);
+                    return true;
+                }
+                return false;
+            });
+        }
+        if (!deletedMessages.isEmpty()) {
+            version++;
+        }
+        for (Message deletedMessage : deletedMessages) {
+            notifyListeners(listener -> listener.onMessageDeleted(deletedMessage));
+        }
+    }
+
+    /**
+     * Tells every listener of a change, even if some of them fail.
+     *
+     * @throws RuntimeException The first failure of a listener, the later ones suppressed.
+     */
+    private void notifyListeners(final Consumer<MessageListener> notification) {
+        RuntimeException failure = null;
+        for (MessageListener listener : new ArrayList<>(listeners)) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Gets the allocator of the identifiers of the messages of the conversation.
+     *
+     * @return The identifier allocator.
+     */
+    public MessageIdAllocator getIdAllocator() {
+        return idAllocator;
+    }
+
+    /**
+     * Gets the version of the messages, that changes each time a message is added or
+     * deleted through this manager.
+     *
+     * @return The version of the messages.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Registers a listener to be told of the messages added and deleted.
+     *
+     * @param listener The listener.
+     */
+    public void addMessageListener(final MessageListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener The listener.
      */
-    public void deleteMessage(final int messageId) {
-        this.messages.removeIf(message -> message.getId() == messageId);
+    public void removeMessageListener(final MessageListener listener) {
+        listeners.remove(listener);
     }
 }
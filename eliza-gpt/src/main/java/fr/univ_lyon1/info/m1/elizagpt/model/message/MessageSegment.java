@@ -0,0 +1,361 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The MessageSegment class is a sealed segment of a {@link SegmentedHistory}: a file
+ * holding a fixed number of older messages, read through a memory-mapped buffer instead
+ * of keeping the messages on the heap.
+ *
+ * <p>All integers are big-endian:</p>
+ * <pre>
+ * int    magic ("ELZS")
+ * int    version
+ * int    count
+ * long[] identifiers of the messages                          (count)
+ * int[]  byte offset of each text, after the senders          (count + 1)
+ * int[]  byte offset of each folded text, after the texts     (count + 1)
+ * byte[] senders, as their ordinals, FOLDED if a folded text  (count)
+ * byte[] UTF-8 texts
+ * byte[] UTF-8 folded texts
+ * </pre>
+ *
+ * <p>The folded text of a message, lower-cased and without diacritics, is only stored
+ * when it differs from its lower-cased text, so that decoding a message read by the
+ * searches does not fold its text again.</p>
+ *
+ * <p>A message is only decoded when it is asked for. The decoded messages are kept
+ * through weak references, so that a message still used elsewhere, by a search result
+ * or the view, is the same object each time it is asked for, while the others are left
+ * to the garbage collector. A deleted message leaves a tombstone: the file is never
+ * written again.</p>
+ *
+ * <p>Several threads may read a segment at once, as a parallel
+ * {@link fr.univ_lyon1.info.m1.elizagpt.model.search.MessageFilter} does, as long as no
+ * message is deleted meanwhile: the decoded messages are published with atomic
+ * operations, and the positions of the messages left by tombstones are only published
+ * once computed.</p>
+ *
+ * @version 1.2
+ */
+final class MessageSegment {
+
+    /**
+     * The magic number at the start of every segment.
+     */
+    static final int MAGIC = 0x454C5A53;
+
+    /**
+     * The version of the binary format.
+     */
+    static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int FOLDED = 0x80;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int offsetsOffset;
+    private final int foldedOffsetsOffset;
+    private final int sendersOffset;
+    private final int textsOffset;
+    private final int foldedTextsOffset;
+    private final long minId;
+    private final long maxId;
+    private final BitSet deleted = new BitSet();
+    private int liveCount;
+    private volatile int[] liveSlots;
+    private final AtomicReferenceArray<DecodedMessage> decoded;
+    private final ReferenceQueue<Message> collected = new ReferenceQueue<>();
+
+    private MessageSegment(final Path file, final ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Not a message segment: " + file);
+        }
+        this.count = buffer.getInt(2 * Integer.BYTES);
+        this.offsetsOffset = HEADER_SIZE + count * Long.BYTES;
+        this.foldedOffsetsOffset = offsetsOffset + (count + 1) * Integer.BYTES;
+        this.sendersOffset = foldedOffsetsOffset + (count + 1) * Integer.BYTES;
+        this.textsOffset = sendersOffset + count;
+        this.foldedTextsOffset =
+                textsOffset + buffer.getInt(offsetsOffset + count * Integer.BYTES);
+        this.liveCount = count;
+        this.decoded = new AtomicReferenceArray<>(count);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int slot = 0; slot < count; slot++) {
+            min = Math.min(min, getId(slot));
+            max = Math.max(max, getId(slot));
+        }
+        this.minId = min;
+        this.maxId = max;
+    }
+
+    /**
+     * Writes messages to a new segment file and maps it.
+     *
+     * @param file     The segment file, which must not exist.
+     * @param messages The messages, in history order.
+     * @return The segment, whose messages are the same objects as the written ones until
+     *         they are no longer used.
+     * @throws IOException If the file cannot be written or mapped.
+     */
+    static MessageSegment seal(final Path file, final List<Message> messages)
+            throws IOException {
+        List<byte[]> texts = new ArrayList<>(messages.size());
+        List<byte[]> foldedTexts = new ArrayList<>(messages.size());
+        int textsSize = 0;
+        for (Message message : messages) {
+            byte[] text = message.getText().getBytes(StandardCharsets.UTF_8);
+            byte[] folded = message.getFoldedText() == message.getLowerCaseText() ? null
+                    : message.getFoldedText().getBytes(StandardCharsets.UTF_8);
+            texts.add(text);
+            foldedTexts.add(folded);
+            textsSize += text.length + (folded == null ? 0 : folded.length);
+        }
+        int size = HEADER_SIZE
+                + messages.size() * (Long.BYTES + 2 * Integer.BYTES + Byte.BYTES)
+                + 2 * Integer.BYTES + textsSize;
+        ByteBuffer content = ByteBuffer.allocate(size);
+        content.putInt(MAGIC).putInt(VERSION).putInt(messages.size());
+        for (Message message : messages) {
+            content.putLong(message.getId());
+        }
+        putOffsets(content, texts);
+        putOffsets(content, foldedTexts);
+        for (int i = 0; i < messages.size(); i++) {
+            int sender = messages.get(i).getSender().ordinal();
+            content.put((byte) (foldedTexts.get(i) == null ? sender : sender | FOLDED));
+        }
+        for (byte[] text : texts) {
+            content.put(text);
+        }
+        for (byte[] folded : foldedTexts) {
+            if (folded != null) {
+                content.put(folded);
+            }
+        }
+        content.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            MessageSegment segment = new MessageSegment(file,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            for (int slot = 0; slot < messages.size(); slot++) {
+                segment.decoded.set(slot, segment.new DecodedMessage(messages.get(slot), slot));
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * Gets the number of messages of the segment, tombstones excluded.
+     *
+     * @return The number of messages.
+     */
+    int size() {
+        return liveCount;
+    }
+
+    /**
+     * Gets the number of slots of the segment, tombstones included.
+     *
+     * @return The number of slots.
+     */
+    int getSlotCount() {
+        return count;
+    }
+
+    /**
+     * Tells whether the message of a slot has been deleted.
+     *
+     * @param slot The slot.
+     * @return true if the slot holds a tombstone.
+     */
+    boolean isDeleted(final int slot) {
+        return deleted.get(slot);
+    }
+
+    /**
+     * Gets the message at a position of the segment.
+     *
+     * @param index The position, tombstones excluded.
+     * @return The message, decoded if it is not already used elsewhere.
+     */
+    Message get(final int index) {
+        return getSlot(slotOf(index));
+    }
+
+    /**
+     * Gets the message of a slot.
+     *
+     * @param slot The slot, which must not hold a tombstone.
+     * @return The message, decoded if it is not already used elsewhere.
+     */
+    Message getSlot(final int slot) {
+        expungeCollected();
+        while (true) {
+            DecodedMessage reference = decoded.get(slot);
+            Message message = reference == null ? null : reference.get();
+            if (message != null) {
+                return message;
+            }
+            message = decode(slot);
+            // Another thread may have decoded the slot meanwhile: its message is kept.
+            if (decoded.compareAndSet(slot, reference, new DecodedMessage(message, slot))) {
+                return message;
+            }
+        }
+    }
+
+    /**
+     * Deletes the message at a position of the segment.
+     *
+     * @param index The position, tombstones excluded.
+     * @return The deleted message.
+     */
+    Message remove(final int index) {
+        return removeSlot(slotOf(index));
+    }
+
+    /**
+     * Deletes the message of a slot.
+     *
+     * @param slot The slot, which must not hold a tombstone.
+     * @return The deleted message.
+     */
+    Message removeSlot(final int slot) {
+        Message removed = getSlot(slot);
+        bury(slot);
+        return removed;
+    }
+
+    /**
+     * Deletes the messages with an identifier.
+     *
+     * @param id The identifier.
+     * @return The deleted messages, in history order.
+     */
+    List<Message> removeById(final long id) {
+        List<Message> removed = new ArrayList<>(1);
+        if (id < minId || id > maxId) {
+            return removed;
+        }
+        for (int slot = 0; slot < count; slot++) {
+            if (getId(slot) == id && !deleted.get(slot)) {
+                removed.add(removeSlot(slot));
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Deletes the file of the segment, which must no longer be used.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private long getId(final int slot) {
+        return buffer.getLong(HEADER_SIZE + slot * Long.BYTES);
+    }
+
+    private static void putOffsets(final ByteBuffer content, final List<byte[]> texts) {
+        int offset = 0;
+        for (byte[] text : texts) {
+            content.putInt(offset);
+            offset += text == null ? 0 : text.length;
+        }
+        content.putInt(offset);
+    }
+
+    private Message decode(final int slot) {
+        int sender = buffer.get(sendersOffset + slot) & 0xFF;
+        String folded = (sender & FOLDED) == 0 ? null
+                : decodeText(foldedOffsetsOffset, foldedTextsOffset, slot);
+        return new Message(decodeText(offsetsOffset, textsOffset, slot), folded,
+                Message.Sender.values()[sender & ~FOLDED], getId(slot));
+    }
+
+    private String decodeText(final int offsets, final int texts, final int slot) {
+        int start = buffer.getInt(offsets + slot * Integer.BYTES);
+        int end = buffer.getInt(offsets + (slot + 1) * Integer.BYTES);
+        byte[] text = new byte[end - start];
+        ByteBuffer source = buffer.duplicate();
+        source.position(texts + start);
+        source.get(text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds the slot of a position, skipping the tombstones.
+     */
+    private int slotOf(final int index) {
+        if (index < 0 || index >= liveCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + liveCount);
+        }
+        if (liveCount == count) {
+            return index;
+        }
+        int[] slots = liveSlots;
+        if (slots == null) {
+            slots = new int[liveCount];
+            int live = 0;
+            for (int slot = deleted.nextClearBit(0); slot < count;
+                    slot = deleted.nextClearBit(slot + 1)) {
+                slots[live++] = slot;
+            }
+            liveSlots = slots;
+        }
+        return slots[index];
+    }
+
+    private void bury(final int slot) {
+        deleted.set(slot);
+        decoded.set(slot, null);
+        liveCount--;
+        liveSlots = null;
+    }
+
+    /**
+     * Forgets the weak references whose messages have been collected.
+     */
+    private void expungeCollected() {
+        DecodedMessage reference;
+        while ((reference = (DecodedMessage) collected.poll()) != null) {
+            decoded.compareAndSet(reference.slot, reference, null);
+        }
+    }
+
+    /**
+     * A weak reference to the decoded message of a slot.
+     */
+    private final class DecodedMessage extends WeakReference<Message> {
+        private final int slot;
+
+        private DecodedMessage(final Message message, final int slot) {
+            super(message, collected);
+            this.slot = slot;
+        }
+    }
+}
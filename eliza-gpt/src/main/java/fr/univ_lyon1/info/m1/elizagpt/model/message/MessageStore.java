@@ -0,0 +1,324 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * The MessageStore class holds the messages of a {@link MessageHistory} in slots, in
+ * history order, along with the slot of each message identifier, so that a message is
+ * deleted by identifier without scanning or shifting the others.
+ *
+ * <p>A deleted message leaves a tombstone in its slot. The positions of the messages
+ * skip the tombstones: a Fenwick tree counts the messages of the slots, and finds the
+ * slot of a position in O(log n). Iterating skips the tombstones directly. Once the
+ * tombstones reach {@value #MIN_COMPACTION} and a quarter of the slots, the messages are
+ * compacted into consecutive slots.</p>
+ *
+ * <p>Appending and deleting cost O(log n); inserting or replacing a message in the middle
+ * compacts the store first.</p>
+ *
+ * @version 1.0
+ */
+final class MessageStore implements Iterable<Message> {
+
+    /**
+     * The minimal number of tombstones before the store is compacted.
+     */
+    static final int MIN_COMPACTION = 64;
+
+    private static final int HELD_SEVERAL_TIMES = -1;
+
+    private Message[] slots = new Message[16];
+    private int[] tree = new int[slots.length + 1];
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private int slotCount;
+    private int tombstoneCount;
+
+    /**
+     * Gets the number of messages, tombstones excluded.
+     *
+     * @return The number of messages.
+     */
+    int size() {
+        return slotCount - tombstoneCount;
+    }
+
+    /**
+     * Gets the number of tombstones left by deleted messages, until the next compaction.
+     *
+     * @return The number of tombstones.
+     */
+    int getTombstoneCount() {
+        return tombstoneCount;
+    }
+
+    /**
+     * Gets the message at a position.
+     *
+     * @param index The position, tombstones excluded.
+     * @return The message.
+     * @throws IndexOutOfBoundsException If there is no such position.
+     */
+    Message get(final int index) {
+        return slots[slotOf(index)];
+    }
+
+    /**
+     * Appends a message.
+     *
+     * @param message The message.
+     */
+    void add(final Message message) {
+        if (slotCount == slots.length) {
+            slots = Arrays.copyOf(slots, slotCount * 2);
+            buildTree();
+        }
+        int slot = slotCount++;
+        slots[slot] = message;
+        addToTree(slot, 1);
+        slotsById.merge(message.getId(), slot, (previous, next) -> HELD_SEVERAL_TIMES);
+    }
+
+    /**
+     * Inserts a message at a position, compacting the store first.
+     *
+     * @param index   The position.
+     * @param message The message.
+     */
+    void add(final int index, final Message message) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        compact();
+        if (slotCount == slots.length) {
+            slots = Arrays.copyOf(slots, slotCount * 2);
+        }
+        System.arraycopy(slots, index, slots, index + 1, slotCount - index);
+        slots[index] = message;
+        slotCount++;
+        reindex();
+    }
+
+    /**
+     * Replaces the message at a position.
+     *
+     * @param index   The position.
+     * @param message The new message.
+     * @return The replaced message.
+     */
+    Message set(final int index, final Message message) {
+        int slot = slotOf(index);
+        Message previous = slots[slot];
+        slots[slot] = message;
+        forget(previous);
+        slotsById.merge(message.getId(), slot, (old, next) -> HELD_SEVERAL_TIMES);
+        return previous;
+    }
+
+    /**
+     * Deletes the message at a position.
+     *
+     * @param index The position.
+     * @return The deleted message.
+     */
+    Message remove(final int index) {
+        int slot = slotOf(index);
+        Message removed = slots[slot];
+        forget(removed);
+        bury(slot);
+        compactIfNeeded();
+        return removed;
+    }
+
+    /**
+     * Deletes the messages with an identifier.
+     *
+     * @param id The identifier.
+     * @return The deleted messages, several if the same message was added several times.
+     */
+    List<Message> removeById(final long id) {
+        Integer slot = slotsById.get(id);
+        if (slot == null) {
+            return new ArrayList<>();
+        }
+        if (slot != HELD_SEVERAL_TIMES) {
+            List<Message> removed = new ArrayList<>(1);
+            removed.add(slots[slot]);
+            slotsById.remove(id);
+            bury(slot);
+            compactIfNeeded();
+            return removed;
+        }
+        return removeIf(message -> message.getId() == id);
+    }
+
+    /**
+     * Deletes the messages matching a predicate.
+     *
+     * @param filter The predicate.
+     * @return The deleted messages, in history order.
+     */
+    List<Message> removeIf(final Predicate<? super Message> filter) {
+        List<Message> removed = new ArrayList<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            Message message = slots[slot];
+            if (message != null && filter.test(message)) {
+                removed.add(message);
+                forget(message);
+                bury(slot);
+            }
+        }
+        compactIfNeeded();
+        return removed;
+    }
+
+    /**
+     * Deletes all the messages.
+     */
+    void clear() {
+        slots = new Message[16];
+        tree = new int[slots.length + 1];
+        slotsById.clear();
+        slotCount = 0;
+        tombstoneCount = 0;
+    }
+
+    /**
+     * Iterates over the messages in history order, skipping the tombstones.
+     *
+     * @return The iterator, which must not be used once the store has changed.
+     */
+    @Override
+    public Iterator<Message> iterator() {
+        return new Iterator<>() {
+            private int slot = skipTombstones(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < slotCount;
+            }
+
+            @Override
+            public Message next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Message message = slots[slot];
+                slot = skipTombstones(slot + 1);
+                return message;
+            }
+        };
+    }
+
+    private int skipTombstones(final int from) {
+        int slot = from;
+        while (slot < slotCount && slots[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the slot of a position: the slot before which there are index messages.
+     */
+    private int slotOf(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (tombstoneCount == 0) {
+            return index;
+        }
+        int slot = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next < tree.length && tree[next] < remaining) {
+                slot = next;
+                remaining -= tree[next];
+            }
+        }
+        return slot;
+    }
+
+    private void addToTree(final int slot, final int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Builds the Fenwick tree of the slots in linear time.
+     */
+    private void buildTree() {
+        tree = new int[slots.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= slotCount && slots[i - 1] != null) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void bury(final int slot) {
+        slots[slot] = null;
+        addToTree(slot, -1);
+        tombstoneCount++;
+    }
+
+    /**
+     * Forgets the slot of a message leaving the store, unless it was held several times.
+     */
+    private void forget(final Message message) {
+        Integer slot = slotsById.get(message.getId());
+        if (slot != null && slot != HELD_SEVERAL_TIMES) {
+            slotsById.remove(message.getId());
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (tombstoneCount >= MIN_COMPACTION && tombstoneCount * 4 >= slotCount) {
+            compact();
+        }
+    }
+
+    /**
+     * Moves the messages to consecutive slots, dropping the tombstones.
+     */
+    private void compact() {
+        if (tombstoneCount == 0) {
+            return;
+        }
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots[slot] != null) {
+                slots[count++] = slots[slot];
+            }
+        }
+        Arrays.fill(slots, count, slotCount, null);
+        slotCount = count;
+        tombstoneCount = 0;
+        reindex();
+    }
+
+    /**
+     * Computes the slots of the identifiers and the tree again, after messages moved.
+     */
+    private void reindex() {
+        slotsById.clear();
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slots[slot] != null) {
+                slotsById.merge(slots[slot].getId(), slot, (previous, next) -> HELD_SEVERAL_TIMES);
+            }
+        }
+        buildTree();
+    }
+}
@@ -0,0 +1,411 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The RelevanceIndex class ranks the messages of a {@link MessageHistory} by their
+ * <a href="https://en.wikipedia.org/wiki/Okapi_BM25">BM25</a> relevance to a text.
+ *
+ * <p>Terms are the runs of letters and digits of the folded text of the messages (see
+ * {@link TextFolding#fold(String)}), so that the ranking ignores case and diacritics.
+ * Each term maps to its postings, the messages using it with the number of times they do,
+ * so that removing a message only costs its own terms.
+ * The number of messages and their total length are kept as messages are added and
+ * removed, so that the frequencies of the terms are always up to date.</p>
+ *
+ * <p>Ranking only reads the postings of the terms of the text, and keeps the best
+ * messages in a heap bounded by the number of messages asked for: it costs
+ * O(postings &middot; log k) instead of sorting every scored message.</p>
+ *
+ * <p>The terms are also kept in a {@link BkTree}, to find the terms close to a misspelled
+ * one. The tree keeps the terms no longer used until they outnumber the others.</p>
+ *
+ * <p>Each posting also records how the message spells the term, as a word of the
+ * {@link WordIndex}: the postings are the only ones of the history, and the exact words
+ * are looked up from them instead of from postings of their own.</p>
+ *
+ * @version 1.1
+ */
+public final class RelevanceIndex {
+
+    /**
+     * The saturation of the term frequency.
+     */
+    public static final double K1 = 1.2;
+
+    /**
+     * The weight of the normalization by the length of the message.
+     */
+    public static final double B = 0.75;
+
+    /**
+     * Orders the scored messages from the least to the most relevant, the older
+     * messages being the least relevant on equal scores.
+     */
+    private static final Comparator<ScoredMessage> LEAST_RELEVANT_FIRST =
+            Comparator.<ScoredMessage>comparingDouble(scored -> scored.score)
+                    .thenComparingLong(scored -> scored.message.getId());
+
+    /**
+     * The minimal number of unused terms of the tree before it is rebuilt.
+     */
+    private static final int MIN_UNUSED_TERMS_TO_REBUILD = 64;
+
+    /**
+     * The spelling of a term spelled several ways by a message, or within a longer word.
+     */
+    private static final String SEVERAL_SPELLINGS = new String();
+
+    private final Map<String, Map<Message, Posting>> postings = new HashMap<>();
+    private final BkTree termTree = new BkTree();
+    private int messageCount;
+    private long totalLength;
+
+    /**
+     * Constructs a new, empty RelevanceIndex.
+     */
+    RelevanceIndex() { }
+
+    /**
+     * Builds an index of the specified messages, to rank a list that is not a history.
+     *
+     * @param messages The messages.
+     * @return The index of the messages.
+     */
+    public static RelevanceIndex of(final List<Message> messages) {
+        RelevanceIndex index = new RelevanceIndex();
+        for (Message message : messages) {
+            index.add(message);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the messages most relevant to the specified text.
+     *
+     * @param text  The text.
+     * @param limit The maximal number of messages.
+     * @return A new list of the messages using at least one term of the text, the most
+     *         relevant first.
+     */
+    public List<Message> findMostRelevant(final String text, final int limit) {
+        Map<Message, ScoredMessage> scores = new HashMap<>();
+        double averageLength = messageCount == 0 ? 0 : (double) totalLength / messageCount;
+        for (String term : terms(text)) {
+            Map<Message, Posting> termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (messageCount - termPostings.size() + 0.5)
+                    / (termPostings.size() + 0.5));
+            for (Map.Entry<Message, Posting> entry : termPostings.entrySet()) {
+                Posting posting = entry.getValue();
+                double lengthRatio = averageLength == 0 ? 1 : posting.length / averageLength;
+                double score = posting.copies * idf * posting.count * (K1 + 1)
+                        / (posting.count + K1 * (1 - B + B * lengthRatio));
+                scores.computeIfAbsent(entry.getKey(), ScoredMessage::new).score += score;
+            }
+        }
+
+        PriorityQueue<ScoredMessage> best = new PriorityQueue<>(LEAST_RELEVANT_FIRST);
+        for (ScoredMessage scored : scores.values()) {
+            if (best.size() < limit) {
+                best.add(scored);
+            } else if (limit > 0 && LEAST_RELEVANT_FIRST.compare(scored, best.peek()) > 0) {
+                best.poll();
+                best.add(scored);
+            }
+        }
+        List<Message> messages = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            messages.add(best.poll().message);
+        }
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * Finds the indexed terms within an edit distance of a term.
+     *
+     * @param term        The term, folded and compared as it is indexed.
+     * @param maxDistance The maximal edit distance.
+     * @return A new list of the terms used by the messages within maxDistance of the term.
+     */
+    public List<String> findSimilarTerms(final String term, final int maxDistance) {
+        List<String> terms = termTree.find(TextFolding.fold(term), maxDistance);
+        terms.removeIf(similarTerm -> !postings.containsKey(similarTerm));
+        return terms;
+    }
+
+    /**
+     * Finds the messages using at least one of the specified terms.
+     *
+     * @param terms The indexed terms.
+     * @return A new set of the messages.
+     */
+    public Set<Message> findMessages(final Collection<String> terms) {
+        Set<Message> messages = new HashSet<>();
+        for (String term : terms) {
+            messages.addAll(postings.getOrDefault(term, Collections.emptyMap()).keySet());
+        }
+        return messages;
+    }
+
+    /**
+     * Gets the messages using a term, without copying them.
+     *
+     * @param term The indexed term.
+     * @return An unmodifiable view of the messages, not to be kept across changes.
+     */
+    Collection<Message> getMessages(final String term) {
+        return Collections.unmodifiableSet(
+                postings.getOrDefault(term, Collections.emptyMap()).keySet());
+    }
+
+    /**
+     * Gets the messages using a term with the specified spelling, without copying them.
+     *
+     * @param term     The indexed term.
+     * @param spelling The word spelling the term, as folded by the {@link WordIndex}, or
+     *                 null for the messages spelling the term several ways, or within
+     *                 words of several terms.
+     * @return A new list of the messages.
+     */
+    List<Message> getMessages(final String term, final String spelling) {
+        List<Message> messages = new ArrayList<>();
+        for (Map.Entry<Message, Posting> entry
+                : postings.getOrDefault(term, Collections.emptyMap()).entrySet()) {
+            String used = entry.getValue().spelling;
+            if (spelling == null ? used == SEVERAL_SPELLINGS
+                    : used == null ? spelling.equals(term)
+                    : used != SEVERAL_SPELLINGS && spelling.equals(used)) {
+                messages.add(entry.getKey());
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Gets the terms of a text, as they are indexed.
+     *
+     * @param text The text.
+     * @return The distinct folded terms of the text, in order of first use.
+     */
+    public static Set<String> terms(final String text) {
+        return termCounts(TextFolding.fold(text)).keySet();
+    }
+
+    /**
+     * Gets the sequence of the terms of a text, as they are indexed.
+     *
+     * @param text The text.
+     * @return The folded terms of the text, in order, repeated terms included.
+     */
+    public static List<String> termList(final String text) {
+        return split(TextFolding.fold(text));
+    }
+
+    /**
+     * Gets the tree of the terms, which may still hold terms no longer used.
+     *
+     * @return The term tree.
+     */
+    BkTree getTermTree() {
+        return termTree;
+    }
+
+    /**
+     * Gets the number of distinct terms of the indexed messages.
+     *
+     * @return The number of terms.
+     */
+    public int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * Indexes a message added to the history.
+     *
+     * @param message The message.
+     */
+    void add(final Message message) {
+        Map<String, Integer> counts = termCounts(message.getFoldedText());
+        Map<String, String> spellings = spellings(message.getText());
+        int length = 0;
+        for (int count : counts.values()) {
+            length += count;
+        }
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            Map<Message, Posting> termPostings = postings.get(entry.getKey());
+            if (termPostings == null) {
+                termPostings = new HashMap<>(2);
+                postings.put(entry.getKey(), termPostings);
+                termTree.add(entry.getKey());
+            }
+            Posting posting = termPostings.get(message);
+            if (posting == null) {
+                termPostings.put(message, new Posting(entry.getValue(), length,
+                        spelling(entry.getKey(), spellings.get(entry.getKey()))));
+            } else {
+                posting.copies++;
+            }
+        }
+        messageCount++;
+        totalLength += length;
+    }
+
+    /**
+     * Removes a message from the index.
+     *
+     * @param message The message, whose text must not have changed since it was indexed.
+     */
+    void remove(final Message message) {
+        int length = 0;
+        for (String term : termCounts(message.getFoldedText()).keySet()) {
+            Map<Message, Posting> termPostings = postings.get(term);
+            Posting posting = termPostings == null ? null : termPostings.get(message);
+            if (posting == null) {
+                continue;
+            }
+            length = posting.length;
+            if (--posting.copies == 0) {
+                termPostings.remove(message);
+            }
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        messageCount--;
+        totalLength -= length;
+        int unusedTerms = termTree.size() - postings.size();
+        if (unusedTerms >= MIN_UNUSED_TERMS_TO_REBUILD && unusedTerms > postings.size()) {
+            termTree.clear();
+            for (String term : postings.keySet()) {
+                termTree.add(term);
+            }
+        }
+    }
+
+    /**
+     * Removes all the messages from the index.
+     */
+    void clear() {
+        postings.clear();
+        termTree.clear();
+        messageCount = 0;
+        totalLength = 0;
+    }
+
+    /**
+     * Counts the terms of a folded text.
+     *
+     * @param foldedText The folded text.
+     * @return The number of times each term is used, in order of first use.
+     */
+    static Map<String, Integer> termCounts(final String foldedText) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String term : split(foldedText)) {
+            counts.merge(term, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Gets how a text spells its terms, as words of the {@link WordIndex}.
+     *
+     * @param text The text.
+     * @return The word spelling each term, or {@link #SEVERAL_SPELLINGS}.
+     */
+    private static Map<String, String> spellings(final String text) {
+        Map<String, String> spellings = new HashMap<>();
+        int start = -1;
+        boolean ascii = true;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (WordIndex.isWordChar(c)) {
+                if (start < 0) {
+                    start = i;
+                    ascii = true;
+                }
+                ascii &= c < 0x80 && c != '_';
+            } else if (start >= 0) {
+                String word = WordIndex.fold(text.substring(start, i));
+                // ASCII letters and digits are their own term once folded
+                List<String> terms = ascii ? List.of(word) : termList(word);
+                for (String term : terms) {
+                    spellings.merge(term, terms.size() == 1 ? word : SEVERAL_SPELLINGS,
+                            (spelling, other) -> spelling.equals(other)
+                                    ? spelling : SEVERAL_SPELLINGS);
+                }
+                start = -1;
+            }
+        }
+        return spellings;
+    }
+
+    /**
+     * Gets the spelling kept by a posting: null for the term itself, the most common one.
+     */
+    private static String spelling(final String term, final String spelling) {
+        if (spelling == null || spelling == SEVERAL_SPELLINGS) {
+            return SEVERAL_SPELLINGS;
+        }
+        return spelling.equals(term) ? null : TextInterner.getShared().intern(spelling);
+    }
+
+    private static List<String> split(final String foldedText) {
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= foldedText.length(); i++) {
+            boolean termChar = i < foldedText.length()
+                    && Character.isLetterOrDigit(foldedText.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                terms.add(foldedText.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The use of a term by a message: the number of times it does, its number of terms,
+     * the word spelling it, null when it is the term itself, and the number of times the
+     * history holds the message.
+     */
+    private static final class Posting {
+        private final int count;
+        private final int length;
+        private final String spelling;
+        private int copies = 1;
+
+        private Posting(final int count, final int length, final String spelling) {
+            this.count = count;
+            this.length = length;
+            this.spelling = spelling;
+        }
+    }
+
+    /**
+     * A message with its score, summed over the terms of the searched text.
+     */
+    private static final class ScoredMessage {
+        private final Message message;
+        private double score;
+
+        private ScoredMessage(final Message message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * The SegmentedHistory class is the list of the messages of a very long conversation,
+ * keeping only the recent messages on the heap.
+ *
+ * <p>Once twice {@link #getSegmentSize() a segment size} of recent messages are held,
+ * the older half is sealed into a {@link MessageSegment}: a file of the directory of the
+ * history, read through a memory-mapped buffer. The text of a sealed message is only
+ * decoded when a search or the view gets it, and the decoded messages no longer used are
+ * left to the garbage collector, so that the heap does not grow with the conversation.
+ * The position of a message is found by a binary search over the first positions of the
+ * segments.</p>
+ *
+ * <p>It is an ordinary {@link List}, which searches scan since it has no index: it suits
+ * the conversations too long for the indexes of a {@link MessageHistory} to fit in
+ * memory, and the strategies that only search through an index refuse it. The segments
+ * keep the folded texts, so that decoding a message does not fold it again. Messages are
+ * appended and removed; inserting or replacing a message is not supported. Closing the
+ * history deletes its segment files.</p>
+ *
+ * @version 1.0
+ */
+public final class SegmentedHistory extends AbstractList<Message>
+        implements RandomAccess, Closeable {
+
+    /**
+     * The default number of messages of a segment.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 4096;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<MessageSegment> segments = new ArrayList<>();
+    private final List<Message> recent = new ArrayList<>();
+    private int[] segmentStarts = {0};
+    private int sealedCount;
+
+    /**
+     * Constructs a new, empty SegmentedHistory of segments of
+     * {@value #DEFAULT_SEGMENT_SIZE} messages.
+     *
+     * @param directory The directory of the segment files, created if needed.
+     * @throws IOException If the directory cannot be created.
+     */
+    public SegmentedHistory(final Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructs a new, empty SegmentedHistory.
+     *
+     * @param directory   The directory of the segment files, created if needed.
+     * @param segmentSize The number of messages of a segment.
+     * @throws IOException If the directory cannot be created.
+     */
+    public SegmentedHistory(final Path directory, final int segmentSize) throws IOException {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Gets the number of messages of a segment.
+     *
+     * @return The segment size.
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Gets the number of sealed segments still holding messages.
+     *
+     * @return The number of segments.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Gets the number of recent messages, held on the heap.
+     *
+     * @return The number of recent messages.
+     */
+    public int getRecentCount() {
+        return recent.size();
+    }
+
+    @Override
+    public Message get(final int index) {
+        int sealed = segmentStarts[segments.size()];
+        if (index >= sealed) {
+            if (index - sealed >= recent.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return recent.get(index - sealed);
+        }
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int segment = segmentOf(index);
+        return segments.get(segment).get(index - segmentStarts[segment]);
+    }
+
+    @Override
+    public int size() {
+        return segmentStarts[segments.size()] + recent.size();
+    }
+
+    /**
+     * Iterates over the messages, one segment after another. The iterator does not
+     * support removal; use {@link #removeIf(Predicate)} instead.
+     *
+     * @return The iterator.
+     */
+    @Override
+    public Iterator<Message> iterator() {
+        int expectedModCount = modCount;
+        return new Iterator<>() {
+            private int segment;
+            private int slot = -1;
+            private int recentIndex;
+
+            {
+                advance();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return segment < segments.size() || recentIndex < recent.size();
+            }
+
+            @Override
+            public Message next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (segment == segments.size()) {
+                    return recent.get(recentIndex++);
+                }
+                Message message = segments.get(segment).getSlot(slot);
+                advance();
+                return message;
+            }
+
+            /**
+             * Moves to the next slot of a segment that is not a tombstone, if any.
+             */
+            private void advance() {
+                while (segment < segments.size()) {
+                    MessageSegment current = segments.get(segment);
+                    while (++slot < current.getSlotCount()) {
+                        if (!current.isDeleted(slot)) {
+                            return;
+                        }
+                    }
+                    segment++;
+                    slot = -1;
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends a message, sealing the older recent messages into a segment once there
+     * are twice a segment size of them.
+     *
+     * @param message The message.
+     * @return true.
+     * @throws UncheckedIOException If the segment cannot be written.
+     */
+    @Override
+    public boolean add(final Message message) {
+        recent.add(message);
+        modCount++;
+        if (recent.size() >= 2 * segmentSize) {
+            seal();
+        }
+        return true;
+    }
+
+    @Override
+    public Message remove(final int index) {
+        int sealed = segmentStarts[segments.size()];
+        Message removed;
+        if (index >= sealed) {
+            removed = recent.remove(index - sealed);
+        } else {
+            if (index < 0) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            int segment = segmentOf(index);
+            removed = segments.get(segment).remove(index - segmentStarts[segment]);
+            segmentsChanged();
+        }
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Removes the messages with the specified identifier. Only the segments whose range
+     * of identifiers holds it are read.
+     *
+     * @param id The identifier of the messages.
+     * @return The removed messages.
+     */
+    public List<Message> removeById(final long id) {
+        List<Message> removed = new ArrayList<>(1);
+        for (MessageSegment segment : segments) {
+            removed.addAll(segment.removeById(id));
+        }
+        if (!removed.isEmpty()) {
+            segmentsChanged();
+        }
+        recent.removeIf(message -> {
+            if (message.getId() == id) {
+                removed.add(message);
+                return true;
+            }
+            return false;
+        });
+        if (!removed.isEmpty()) {
+            modCount++;
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super Message> filter) {
+        boolean removed = false;
+        for (MessageSegment segment : segments) {
+            for (int slot = 0; slot < segment.getSlotCount(); slot++) {
+                if (!segment.isDeleted(slot) && filter.test(segment.getSlot(slot))) {
+                    segment.removeSlot(slot);
+                    removed = true;
+                }
+            }
+        }
+        if (removed) {
+            segmentsChanged();
+        }
+        removed |= recent.removeIf(filter);
+        if (removed) {
+            modCount++;
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all the messages, deleting the segment files.
+     *
+     * @throws UncheckedIOException If a segment file cannot be deleted.
+     */
+    @Override
+    public void clear() {
+        try {
+            deleteSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            recent.clear();
+            modCount++;
+        }
+    }
+
+    /**
+     * Deletes the segment files. The history is then empty.
+     *
+     * @throws IOException If a segment file cannot be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        deleteSegments();
+        recent.clear();
+        modCount++;
+    }
+
+    private void seal() {
+        List<Message> sealed = recent.subList(0, segmentSize);
+        Path file = directory.resolve(String.format("segment-%08d.seg", sealedCount));
+        try {
+            segments.add(MessageSegment.seal(file, new ArrayList<>(sealed)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        sealedCount++;
+        sealed.clear();
+        segmentsChanged();
+    }
+
+    /**
+     * Finds the segment holding a sealed position.
+     */
+    private int segmentOf(final int index) {
+        int segment = Arrays.binarySearch(segmentStarts, 0, segments.size(), index);
+        return segment < 0 ? -segment - 2 : segment;
+    }
+
+    /**
+     * Drops the emptied segments and computes the first positions of the segments again.
+     */
+    private void segmentsChanged() {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            if (segments.get(i).size() == 0) {
+                try {
+                    segments.remove(i).delete();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        segmentStarts = new int[segments.size() + 1];
+        for (int i = 0; i < segments.size(); i++) {
+            segmentStarts[i + 1] = segmentStarts[i] + segments.get(i).size();
+        }
+    }
+
+    private void deleteSegments() throws IOException {
+        try {
+            for (MessageSegment segment : segments) {
+                segment.delete();
+            }
+        } finally {
+            segments.clear();
+            segmentStarts = new int[] {0};
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.text.Normalizer;
+
+/**
+ * The TextFolding class gives the forms of a text that searches compare: lower-cased,
+ * and lower-cased without diacritics, so that "Élève" and "eleve" match.
+ *
+ * <p>Diacritics are stripped by decomposing the text (NFD) and dropping its combining
+ * marks; the ligatures "œ" and "æ", which do not decompose, are spelled out.</p>
+ *
+ * @version 1.0
+ */
+public final class TextFolding {
+
+    // Private constructor to prevent instantiation
+    private TextFolding() { }
+
+    /**
+     * Lower-cases a text the way the substring search always did.
+     *
+     * @param text The text.
+     * @return The lower-cased text.
+     */
+    public static String lowerCase(final String text) {
+        return text.toLowerCase();
+    }
+
+    /**
+     * Lower-cases a text and strips its diacritics.
+     *
+     * @param text The text.
+     * @return The folded text, that is the text itself if it has nothing to fold.
+     */
+    public static String fold(final String text) {
+        return foldLowerCase(lowerCase(text));
+    }
+
+    /**
+     * Strips the diacritics of a text already lower-cased by {@link #lowerCase(String)}.
+     *
+     * @param lowerCase The lower-cased text.
+     * @return The folded text, that is the lower-cased text itself if it has nothing to
+     *         fold, so that both forms share the same string.
+     */
+    public static String foldLowerCase(final String lowerCase) {
+        if (isAscii(lowerCase)) {
+            return lowerCase;
+        }
+        String decomposed = Normalizer.normalize(lowerCase, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'œ') {
+                folded.append("oe");
+            } else if (c == 'æ') {
+                folded.append("ae");
+            } else {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private static boolean isAscii(final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+/**
+ * The TextInterner class shares the strings of the texts used again and again, such as
+ * the few replies Eliza picks from, so that the messages repeating a text hold the same
+ * string instead of a copy each.
+ *
+ * <p>The table is bounded and direct-mapped: each text goes to the slot of its hash, and
+ * replaces the text of another hash there. A frequent text thus stays in the table, while
+ * a text seen once is soon forgotten, without counting uses or allocating entries. Texts
+ * longer than {@value #MAX_LENGTH} chars, which seldom repeat, are not interned.</p>
+ *
+ * <p>The slots are read and written without locking: a thread may miss a text another
+ * one has just interned, which only costs a copy, since strings are immutable.</p>
+ *
+ * <p>The text itself needs no other encoding: strings whose chars are all Latin-1 are
+ * already stored one byte per char by the JVM.</p>
+ *
+ * <p>Interning only shrinks the messages themselves. In a {@link MessageHistory}, the
+ * postings of its indexes take several times more memory than the messages, and are not
+ * affected.</p>
+ *
+ * @version 1.0
+ */
+public final class TextInterner {
+
+    /**
+     * The number of slots of the shared table.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The maximal length of the interned texts.
+     */
+    public static final int MAX_LENGTH = 256;
+
+    private static final TextInterner SHARED = new TextInterner(DEFAULT_CAPACITY);
+
+    private final String[] table;
+
+    /**
+     * Constructs a new TextInterner.
+     *
+     * @param capacity The number of slots, rounded up to a power of two.
+     */
+    public TextInterner(final int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.table = new String[size];
+    }
+
+    /**
+     * Gets the interner of the texts of the messages.
+     *
+     * @return The shared interner.
+     */
+    public static TextInterner getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the string shared by the texts equal to the specified one.
+     *
+     * @param text The text.
+     * @return An equal string seen before and still in the table, or the text itself.
+     */
+    public String intern(final String text) {
+        if (text.length() > MAX_LENGTH) {
+            return text;
+        }
+        int hash = text.hashCode();
+        int slot = (hash ^ hash >>> 16) & (table.length - 1);
+        String interned = table[slot];
+        if (text.equals(interned)) {
+            return interned;
+        }
+        table[slot] = text;
+        return text;
+    }
+
+    /**
+     * Gets the number of slots of the table.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return table.length;
+    }
+}
@@ -0,0 +1,255 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The TrigramIndex class is an index from the trigrams (the runs of three characters)
+ * of the lower-cased text of the messages of a {@link MessageHistory} to the messages
+ * containing them.
+ *
+ * <p>A text containing a fragment contains all the trigrams of the fragment: the
+ * messages containing all the trigrams of a fragment are the only candidates that
+ * need to be checked. Each message gets a sequence number in history order, and each
+ * trigram maps to the sorted sequence numbers of its messages, so that the candidates
+ * are found by intersecting sorted arrays. The numbers of removed messages are left in
+ * the arrays, and skipped, until the numbering is compacted.</p>
+ *
+ * <p>The texts are lower-cased with {@link TextFolding#lowerCase(String)}, and the
+ * fragments must be lower-cased the same way.</p>
+ *
+ * @version 1.0
+ */
+public final class TrigramIndex {
+
+    /**
+     * The length of the indexed character runs: shorter fragments cannot be looked up.
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    private static final int MIN_COMPACTION = 64;
+    private static final int HELD_SEVERAL_TIMES = -1;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Message, Integer> sequences = new IdentityHashMap<>();
+    private List<Message> bySequence = new ArrayList<>();
+    private int removedCount;
+
+    /**
+     * Constructs a new, empty TrigramIndex.
+     */
+    TrigramIndex() { }
+
+    /**
+     * Gets the messages whose lower-cased text contains all the trigrams of all the
+     * specified fragments, in history order. The messages containing the fragments are
+     * among them; the other candidates still have to be checked by the caller.
+     *
+     * @param fragments The lower-cased fragments; those shorter than
+     *                  {@link #GRAM_LENGTH} are ignored.
+     * @return A new list of the candidates, or of all the messages if no fragment can be
+     *         looked up.
+     */
+    public List<Message> findCandidates(final Collection<String> fragments) {
+        List<Postings> lists = new ArrayList<>();
+        for (String fragment : fragments) {
+            for (long trigram : trigrams(fragment)) {
+                Postings list = postings.get(trigram);
+                if (list == null) {
+                    return new ArrayList<>();
+                }
+                lists.add(list);
+            }
+        }
+        if (lists.isEmpty()) {
+            return getMessages();
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] candidates = Arrays.copyOf(lists.get(0).entries, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainAll(candidates, count);
+        }
+        List<Message> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Message message = bySequence.get(candidates[i]);
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Gets the number of distinct trigrams of the indexed messages.
+     *
+     * @return The number of trigrams.
+     */
+    public int getTrigramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Indexes a message appended to the history.
+     *
+     * @param message The message.
+     */
+    void add(final Message message) {
+        int sequence = bySequence.size();
+        bySequence.add(message);
+        sequences.merge(message, sequence, (previous, next) -> HELD_SEVERAL_TIMES);
+        for (long trigram : trigrams(message.getLowerCaseText())) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(sequence);
+        }
+    }
+
+    /**
+     * Removes a message from the index.
+     *
+     * @param message The message, whose text must not have changed since it was indexed.
+     * @return false if the message was held several times by the history, which must then
+     *         rebuild the index to know which one was removed.
+     */
+    boolean remove(final Message message) {
+        Integer sequence = sequences.get(message);
+        if (sequence == null) {
+            return true;
+        }
+        if (sequence == HELD_SEVERAL_TIMES) {
+            return false;
+        }
+        sequences.remove(message);
+        bySequence.set(sequence, null);
+        for (long trigram : trigrams(message.getLowerCaseText())) {
+            Postings list = postings.get(trigram);
+            if (list != null && --list.liveCount == 0) {
+                postings.remove(trigram);
+            }
+        }
+        removedCount++;
+        if (removedCount >= MIN_COMPACTION && removedCount > sequences.size()) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Removes all the messages from the index.
+     */
+    void clear() {
+        postings.clear();
+        sequences.clear();
+        bySequence = new ArrayList<>();
+        removedCount = 0;
+    }
+
+    /**
+     * Gives consecutive sequence numbers to the remaining messages, once many have been
+     * removed, dropping the numbers of the removed ones from the postings. The numbering
+     * keeps the history order, so the postings stay sorted.
+     */
+    private void compact() {
+        int[] renumbering = new int[bySequence.size()];
+        Arrays.fill(renumbering, -1);
+        List<Message> compacted = new ArrayList<>(bySequence.size() - removedCount);
+        for (int sequence = 0; sequence < bySequence.size(); sequence++) {
+            Message message = bySequence.get(sequence);
+            if (message != null) {
+                int renumbered = compacted.size();
+                renumbering[sequence] = renumbered;
+                sequences.computeIfPresent(message, (m, previous) ->
+                        previous == HELD_SEVERAL_TIMES ? previous : renumbered);
+                compacted.add(message);
+            }
+        }
+        for (Postings list : postings.values()) {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int renumbered = renumbering[list.entries[i]];
+                if (renumbered >= 0) {
+                    list.entries[kept++] = renumbered;
+                }
+            }
+            list.size = kept;
+        }
+        bySequence = compacted;
+        removedCount = 0;
+    }
+
+    private List<Message> getMessages() {
+        List<Message> messages = new ArrayList<>(bySequence.size() - removedCount);
+        for (Message message : bySequence) {
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Gets the distinct trigrams of a text, each packed in the 48 low bits of a long.
+     */
+    private static long[] trigrams(final String text) {
+        if (text.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = (long) text.charAt(i) << 32
+                    | (long) text.charAt(i + 1) << 16
+                    | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int count = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[count++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, count);
+    }
+
+    /**
+     * The sorted sequence numbers of the messages containing a trigram, including those
+     * of the messages removed since the last compaction.
+     */
+    private static final class Postings {
+        private int[] entries = new int[2];
+        private int size;
+        private int liveCount;
+
+        private void add(final int sequence) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = sequence;
+            liveCount++;
+        }
+
+        /**
+         * Keeps the candidates that are also in this list, searching them in this list.
+         *
+         * @return The number of candidates kept at the start of the array.
+         */
+        private int retainAll(final int[] candidates, final int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int found = Arrays.binarySearch(entries, from, size, candidates[i]);
+                if (found >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
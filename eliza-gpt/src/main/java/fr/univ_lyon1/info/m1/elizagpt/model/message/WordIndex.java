@@ -0,0 +1,173 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The WordIndex class finds the messages of a {@link MessageHistory} using a word.
+ *
+ * <p>Words are split and compared like the case-insensitive {@code \b} boundaries
+ * of {@link java.util.regex.Pattern}: a word is a run of letters, digits and
+ * underscores, and only ASCII letters are case-folded. Looking a word up thus
+ * gives the same messages as matching {@code .*\bword\b.*} against each of them,
+ * line terminators included.</p>
+ *
+ * <p>The index keeps no postings of its own: the postings of the {@link RelevanceIndex}
+ * of the history record how each message spells its folded terms, and the messages
+ * spelling the term of the word as the word itself are read from the {@link BitmapIndex}
+ * built on them, so that the history holds a single term dictionary. Only the messages
+ * spelling the term several ways, and the words of several terms, which folding splits
+ * at their underscores, are checked against their text.</p>
+ *
+ * @version 1.1
+ */
+public final class WordIndex {
+
+    private final BitmapIndex bitmapIndex;
+
+    /**
+     * Constructs a new WordIndex.
+     *
+     * @param bitmapIndex The index of the terms of the same messages.
+     */
+    WordIndex(final BitmapIndex bitmapIndex) {
+        this.bitmapIndex = bitmapIndex;
+    }
+
+    /**
+     * Tells whether the specified text is a single word, that can be looked up.
+     *
+     * @param text The text.
+     * @return true if the text is a non-empty run of word characters.
+     */
+    public static boolean isWord(final String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!isWordChar(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the messages using the specified word, in history order.
+     *
+     * @param word The word, in any ASCII case.
+     * @return A new list of the messages using the word.
+     */
+    public List<Message> find(final String word) {
+        String folded = fold(word);
+        Set<String> terms = RelevanceIndex.terms(word);
+        if (terms.size() == 1 && folded.indexOf('_') < 0) {
+            String term = terms.iterator().next();
+            MessageBitmap found = bitmapIndex.findSpelling(term, folded);
+            MessageBitmap severalSpellings = bitmapIndex.findSpelling(term, null);
+            if (!severalSpellings.isEmpty()) {
+                found = found.or(bitmapIndex.filter(severalSpellings,
+                        message -> usesWord(message.getText(), folded)));
+            }
+            return bitmapIndex.getMessages(found);
+        }
+        MessageBitmap candidates = null;
+        for (String term : RelevanceIndex.terms(word)) {
+            MessageBitmap termMessages = bitmapIndex.findTerm(term);
+            candidates = candidates == null ? termMessages : candidates.and(termMessages);
+        }
+        if (candidates == null) {
+            candidates = bitmapIndex.getAll();
+        }
+        return bitmapIndex.getMessages(bitmapIndex.filter(candidates,
+                message -> usesWord(message.getText(), folded)));
+    }
+
+    /**
+     * Splits a text into its distinct, case-folded words.
+     *
+     * @param text The text.
+     * @return The words, in order of first use.
+     */
+    static Set<String> words(final String text) {
+        Set<String> words = null;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && isWordChar(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (words == null) {
+                    words = new LinkedHashSet<>();
+                }
+                words.add(fold(text.substring(start, i)));
+                start = -1;
+            }
+        }
+        return words == null ? Collections.emptySet() : words;
+    }
+
+    /**
+     * Tells whether a text uses a case-folded word, looking for the word boundaries only
+     * where the word is found.
+     */
+    private static boolean usesWord(final String text, final String foldedWord) {
+        int last = text.length() - foldedWord.length();
+        for (int i = 0; i <= last; i++) {
+            if (isFoldedWord(text, i, foldedWord)
+                    && (i == 0 || !isWordChar(text.charAt(i - 1)))
+                    && (i == last || !isWordChar(text.charAt(i + foldedWord.length())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFoldedWord(final String text, final int start,
+                                        final String foldedWord) {
+        for (int i = 0; i < foldedWord.length(); i++) {
+            char c = text.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != foldedWord.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether a character belongs to a word.
+     *
+     * @param c The character.
+     * @return true for a letter, a digit or an underscore.
+     */
+    static boolean isWordChar(final char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * Folds the ASCII letters of a word to lower case, the only case folding of words.
+     *
+     * @param word The word.
+     * @return The folded word.
+     */
+    static String fold(final String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                char[] folded = word.toCharArray();
+                for (int j = i; j < folded.length; j++) {
+                    if (folded[j] >= 'A' && folded[j] <= 'Z') {
+                        folded[j] += 'a' - 'A';
+                    }
+                }
+                return new String(folded);
+            }
+        }
+        return word;
+    }
+}
@@ -17,7 +17,7 @@ package fr.univ_lyon1.info.m1.elizagpt.model.payload;
  * @see fr.univ_lyon1.info.m1.elizagpt.controller.Controller
  */
 public class DeleteUpdate extends Update {
-    private final int deletedMessageId;
+    private final long deletedMessageId;
 
     /**
      * Constructs a new DeleteUpdate instance with the
@@ -25,7 +25,7 @@ public class DeleteUpdate extends Update {
      *
      * @param deletedMessageId The identifier of the message to be deleted.
      */
-    public DeleteUpdate(final int deletedMessageId) {
+    public DeleteUpdate(final long deletedMessageId) {
         this.deletedMessageId = deletedMessageId;
     }
 
@@ -34,7 +34,7 @@ public class DeleteUpdate extends Update {
      *
      * @return The deleted message's identifier.
      */
-    public int getDeletedMessageId() {
+    public long getDeletedMessageId() {
         return deletedMessageId;
     }
 }
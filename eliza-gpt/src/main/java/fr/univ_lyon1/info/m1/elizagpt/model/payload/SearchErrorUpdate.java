@@ -0,0 +1,47 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.payload;
+
+/**
+ * Represents a specific update type for a search that failed in the ElizaGPT application,
+ * such as an invalid regular expression or a search out of its budget. Instances of this
+ * class encapsulate the searched text and a description of the error, to be shown while
+ * the previous results stay in place.
+ *
+ * <p>This class extends the {@link Update} abstract class and follows the Command Pattern
+ * to provide a standardized way of representing failed searches.</p>
+ *
+ * @see Update
+ * @see fr.univ_lyon1.info.m1.elizagpt.controller.Controller
+ */
+public class SearchErrorUpdate extends Update {
+    private final String searchText;
+    private final String errorMessage;
+
+    /**
+     * Constructs a new SearchErrorUpdate instance.
+     *
+     * @param searchText   The text whose search failed.
+     * @param errorMessage The description of the error.
+     */
+    public SearchErrorUpdate(final String searchText, final String errorMessage) {
+        this.searchText = searchText;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Gets the text whose search failed.
+     *
+     * @return The search text.
+     */
+    public String getSearchText() {
+        return searchText;
+    }
+
+    /**
+     * Gets the description of the error.
+     *
+     * @return The error message.
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -1,6 +1,7 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.payload;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchPage;
 
 import java.util.List;
 
@@ -17,12 +18,16 @@ import java.util.List;
  * such as the {@link fr.univ_lyon1.info.m1.elizagpt.controller.Controller}, to communicate and
  * execute search-related updates.</p>
  *
+ * <p>A live search carries a {@link SearchPage} instead of all its results: the observers
+ * display its messages, and the next page is only searched when it is asked for.</p>
+ *
  * @see Update
  * @see fr.univ_lyon1.info.m1.elizagpt.controller.Controller
  */
 public class SearchUpdate extends Update {
     private final String searchText;
     private final List<Message> searchResult;
+    private final SearchPage page;
 
     /**
      * Constructs a new SearchUpdate instance with the specified search text and search result.
@@ -33,6 +38,20 @@ public class SearchUpdate extends Update {
     public SearchUpdate(final String searchText, final List<Message> searchResult) {
         this.searchText = searchText;
         this.searchResult = searchResult;
+        this.page = null;
+    }
+
+    /**
+     * Constructs a new SearchUpdate instance with the specified search text and page of
+     * search results.
+     *
+     * @param searchText The text used for searching messages.
+     * @param page       The page of the messages matching the search criteria.
+     */
+    public SearchUpdate(final String searchText, final SearchPage page) {
+        this.searchText = searchText;
+        this.searchResult = page.getMessages();
+        this.page = page;
     }
 
     /**
@@ -45,7 +64,16 @@ public class SearchUpdate extends Update {
     }
 
     /**
-     * Gets the list of messages matching the search criteria.
+     * Gets the page of search results carried by this update.
+     *
+     * @return The page, or null if the update carries all the results.
+     */
+    public SearchPage getPage() {
+        return page;
+    }
+
+    /**
+     * Gets the list of messages matching the search criteria, or those of the page.
      *
      * @return The search result, represented as an ArrayList of Message objects.
      */
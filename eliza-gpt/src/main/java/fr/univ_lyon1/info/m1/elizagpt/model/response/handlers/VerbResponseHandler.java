@@ -1,18 +1,20 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.response.handlers;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.response.ResponseHandler;
-import fr.univ_lyon1.info.m1.elizagpt.model.verb.Verb;
+import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbDictionary;
 import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbManager;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * The VerbResponseHandler class handles responses
  * related to verb conjugations in the ElizaGPT application.
- * It specifically responds to statements starting with "Je" (I)
- * by converting them to second-person questions.
+ * It specifically responds to statements starting with "Je" or "J'" (I)
+ * by converting them to second-person questions, and to statements starting
+ * with "Vous" (you) by converting them to first-person questions.
  *
  * <p>This class extends the {@link RandomResponse} class
  * to incorporate randomization in responses
@@ -20,6 +22,10 @@ import java.util.regex.Pattern;
  * to provide a standardized way of handling
  * responses in a chain of responsibility.</p>
  *
+ * <p>Verbs are loaded in the background by the {@link VerbManager}. Until they are
+ * available, only pronouns are rewritten, so that the first replies are never
+ * delayed by the loading of the dictionary.</p>
+ *
  * @see RandomResponse
  * @see ResponseHandler
  * @version 1.0
@@ -27,35 +33,79 @@ import java.util.regex.Pattern;
 public class VerbResponseHandler extends RandomResponse implements ResponseHandler {
 
     private ResponseHandler nextHandler;
-    protected static final List<Verb> VERBS = VerbManager
-                            .getInstance("./src/main/resources/french-verb-conjugation.csv")
-                            .getVerbs();
+    private final Supplier<CompletableFuture<VerbDictionary>> verbDictionary;
+
+    /**
+     * Constructs a new VerbResponseHandler using the verbs of the {@link VerbManager}.
+     * Each message is handled with the verbs published when it is received, so that
+     * reloading the verbs does not require a new handler.
+     */
+    public VerbResponseHandler() {
+        this(VerbManager.getInstance()::getDictionary);
+    }
+
+    /**
+     * Constructs a new VerbResponseHandler using the specified verbs,
+     * once they are available.
+     *
+     * @param verbDictionary A future completed with the verb dictionary.
+     */
+    public VerbResponseHandler(final CompletableFuture<VerbDictionary> verbDictionary) {
+        this(() -> verbDictionary);
+    }
+
+    /**
+     * Constructs a new VerbResponseHandler asking for the verbs to use
+     * each time a message is handled.
+     *
+     * @param verbDictionary Gives the future verb dictionary to use.
+     */
+    public VerbResponseHandler(
+            final Supplier<CompletableFuture<VerbDictionary>> verbDictionary) {
+        this.verbDictionary = verbDictionary;
+    }
 
     /**
      * Handles the user's message, responding to statements starting
-     * with "Je" (I) by converting them
+     * with "Je" or "J'" (I) by converting them
      * to second-person questions related to verb conjugations.
+     * Statements starting with "Vous" (you) are answered the other way round,
+     * once the verbs are loaded.
      *
      * @param userMessage The user's message.
      * @return The response related to verb conjugations.
      */
     @Override
     public String handleResponse(final String userMessage) {
-        Pattern pattern = Pattern.compile("(Je .*)\\.", Pattern.CASE_INSENSITIVE);
+        Pattern pattern = Pattern.compile("(J(?:e |['’]).*)\\.",
+                Pattern.CASE_INSENSITIVE);
         Matcher matcher = pattern.matcher(userMessage);
         if (matcher.matches()) {
-            final String startQuestion = pickRandom(new String[]{
-                    "Pourquoi dites-vous que ",
-                    "Pourquoi pensez-vous que ",
-                    "Êtes-vous sûr que ",
-            });
-            return startQuestion + firstToSecondPerson(matcher.group(1)) + " ?";
+            return pickStartQuestion() + firstToSecondPerson(matcher.group(1)) + " ?";
+        }
+        matcher = Pattern.compile("(Vous .*)\\.", Pattern.CASE_INSENSITIVE)
+                .matcher(userMessage);
+        if (matcher.matches()) {
+            String mirrored = secondToFirstPerson(matcher.group(1));
+            if (mirrored != null) {
+                return pickStartQuestion() + Character.toLowerCase(mirrored.charAt(0))
+                        + mirrored.substring(1) + " ?";
+            }
         }
         return nextHandler.handleResponse(userMessage);
     }
 
+    private String pickStartQuestion() {
+        return pickRandom(new String[]{
+                "Pourquoi dites-vous que ",
+                "Pourquoi pensez-vous que ",
+                "Êtes-vous sûr que ",
+        });
+    }
+
     /**
      * Converts first-person statements to second-person questions related to verb conjugations.
+     * While the verbs are still loading, only the pronoun "je" is replaced.
      *
      * @param text The text containing first-person statements.
      * @return The processed text with converted pronouns and verb conjugations.
@@ -67,12 +117,29 @@ public class VerbResponseHandler extends RandomResponse implements ResponseHandl
                 .replace("mes ", "vos ")
                 .replace("moi", "vous");
 
-        for (Verb v : VERBS) {
-            processedText = processedText.replaceAll(
-                    "[Jj]e " + v.getFirstSingular(),
-                    "vous " + v.getSecondPlural());
+        CompletableFuture<VerbDictionary> verbs = verbDictionary.get();
+        if (!verbs.isDone() || verbs.isCompletedExceptionally()) {
+            return processedText.replaceAll("\\b[Jj](?:e |['’])", "vous ");
+        }
+        return verbs.join().getConjugationEngine().rewrite(processedText);
+    }
+
+    /**
+     * Converts second-person statements to first-person ones: "vous êtes" becomes
+     * "je suis". The whole text is mirrored in a single pass, so a first person
+     * verb of the text becomes a second person one.
+     *
+     * @param text The text containing second-person statements.
+     * @return The mirrored text, or null if the verbs are not loaded yet or if
+     *         no verb of the text is known.
+     */
+    public String secondToFirstPerson(final String text) {
+        CompletableFuture<VerbDictionary> verbs = verbDictionary.get();
+        if (!verbs.isDone() || verbs.isCompletedExceptionally()) {
+            return null;
         }
-        return processedText;
+        String mirrored = verbs.join().getConjugationIndex().mirror(text);
+        return mirrored.equals(text) ? null : mirrored;
     }
 
     /**
@@ -0,0 +1,150 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The MessageFilter class keeps the messages of a list that match a predicate, in the
+ * order of the list, for the search strategies.
+ *
+ * <p>Lists shorter than the parallel threshold are filtered sequentially, on the calling
+ * thread. Longer lists are split into ranges filtered on a {@link ForkJoinPool}, whose
+ * results are concatenated in the order of the ranges. Each range gets its own predicate,
+ * so that predicates holding state, such as a {@link java.util.regex.Matcher}, are never
+ * shared between threads.</p>
+ *
+ * <p>The default filter reads its threshold from the {@value #PARALLEL_THRESHOLD_PROPERTY}
+ * system property, or uses {@value #DEFAULT_PARALLEL_THRESHOLD}.</p>
+ *
+ * @version 1.0
+ */
+public final class MessageFilter {
+
+    /**
+     * The system property setting the parallel threshold of the default filter.
+     */
+    public static final String PARALLEL_THRESHOLD_PROPERTY = "elizagpt.search.parallelThreshold";
+
+    /**
+     * The default number of messages from which a list is filtered in parallel. Splitting
+     * and joining the ranges costs some tens of microseconds, which a substring scan of
+     * this many messages outweighs (see MessageFilterBenchmark).
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+
+    /**
+     * The minimal number of messages of a range filtered by one task.
+     */
+    static final int MIN_RANGE_SIZE = 4096;
+
+    private static MessageFilter instance = null;
+
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a new MessageFilter.
+     *
+     * @param parallelThreshold The number of messages from which a list is filtered in
+     *                          parallel.
+     * @param pool              The pool filtering the ranges of long lists.
+     */
+    public MessageFilter(final int parallelThreshold, final ForkJoinPool pool) {
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Gets the default filter, running on the common pool.
+     *
+     * @return The default filter.
+     */
+    public static MessageFilter getInstance() {
+        if (instance == null) {
+            instance = new MessageFilter(
+                    Integer.getInteger(PARALLEL_THRESHOLD_PROPERTY, DEFAULT_PARALLEL_THRESHOLD),
+                    ForkJoinPool.commonPool());
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the number of messages from which a list is filtered in parallel.
+     *
+     * @return The parallel threshold.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Keeps the messages matching a predicate.
+     *
+     * @param messages  The messages.
+     * @param predicate The supplier of the predicate, called once per filtered range.
+     * @return A new list of the matching messages, in the order of the messages.
+     */
+    public List<Message> filter(final List<Message> messages,
+                                final Supplier<? extends Predicate<Message>> predicate) {
+        if (messages.size() < parallelThreshold || pool.getParallelism() < 2) {
+            return filterRange(messages, 0, messages.size(), predicate.get());
+        }
+        int rangeSize = Math.max(MIN_RANGE_SIZE,
+                messages.size() / (pool.getParallelism() * 4) + 1);
+        return pool.invoke(new FilterTask(messages, 0, messages.size(), rangeSize, predicate));
+    }
+
+    private static List<Message> filterRange(final List<Message> messages, final int from,
+                                             final int to, final Predicate<Message> predicate) {
+        List<Message> filteredMessages = new ArrayList<>();
+        for (Message message : messages.subList(from, to)) {
+            if (predicate.test(message)) {
+                filteredMessages.add(message);
+            }
+        }
+        return filteredMessages;
+    }
+
+    /**
+     * Filters a range of messages, splitting it in halves until it is small enough.
+     */
+    private static final class FilterTask extends RecursiveTask<List<Message>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Message> messages;
+        private final int from;
+        private final int to;
+        private final int rangeSize;
+        private final Supplier<? extends Predicate<Message>> predicate;
+
+        private FilterTask(final List<Message> messages, final int from, final int to,
+                           final int rangeSize,
+                           final Supplier<? extends Predicate<Message>> predicate) {
+            this.messages = messages;
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected List<Message> compute() {
+            if (to - from <= rangeSize) {
+                return filterRange(messages, from, to, predicate.get());
+            }
+            int middle = (from + to) >>> 1;
+            FilterTask right = new FilterTask(messages, middle, to, rangeSize, predicate);
+            right.fork();
+            List<Message> filteredMessages =
+                    new FilterTask(messages, from, middle, rangeSize, predicate).compute();
+            filteredMessages.addAll(right.join());
+            return filteredMessages;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * The SearchCache class keeps the results of the latest searches, so that a repeated
+ * search of an unchanged history is answered without searching it again.
+ *
+ * <p>Results are keyed by strategy, searched text and version of the history. Once a
+ * newer version is seen, the results of the older ones can never be asked for again, so
+ * they are all dropped. Beyond its capacity, the cache drops the least recently used
+ * results.</p>
+ *
+ * <p>The cache counts its hits and misses, and estimates the memory held by the results
+ * from the number of messages of each, given by a weigher.</p>
+ *
+ * @param <R> The type of the results.
+ * @version 1.0
+ */
+public final class SearchCache<R> {
+
+    /**
+     * The default maximal number of cached results.
+     */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * The estimated size of a reference to a message in a result, in bytes.
+     */
+    static final int REFERENCE_BYTES = 8;
+
+    /**
+     * The estimated size of an entry of the cache without its messages and text, in bytes.
+     */
+    static final int ENTRY_BYTES = 96;
+
+    private final int capacity;
+    private final ToIntFunction<? super R> weigher;
+    private final Map<Key, R> entries;
+    private long version;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Constructs a new, empty SearchCache.
+     *
+     * @param capacity The maximal number of cached results.
+     * @param weigher  Gives the number of messages of a result.
+     */
+    public SearchCache(final int capacity, final ToIntFunction<? super R> weigher) {
+        this.capacity = capacity;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, R> eldest) {
+                return size() > SearchCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached results of a search, or searches and caches them.
+     *
+     * @param strategy The search strategy.
+     * @param text     The searched text.
+     * @param version  The version of the searched history.
+     * @param search   Searches the results when they are not cached.
+     * @return The results.
+     */
+    public R computeIfAbsent(final SearchStrategy strategy, final String text,
+                             final long version, final Supplier<? extends R> search) {
+        if (version != this.version) {
+            entries.clear();
+            this.version = version;
+        }
+        Key key = new Key(strategy, text, version);
+        R results = entries.get(key);
+        if (results != null) {
+            hitCount++;
+            return results;
+        }
+        missCount++;
+        results = search.get();
+        if (capacity > 0) {
+            entries.put(key, results);
+        }
+        return results;
+    }
+
+    /**
+     * Drops the cached results of a search, such as results that can no longer be read.
+     *
+     * @param strategy The search strategy.
+     * @param text     The searched text.
+     * @param version  The version of the searched history.
+     */
+    public void remove(final SearchStrategy strategy, final String text, final long version) {
+        entries.remove(new Key(strategy, text, version));
+    }
+
+    /**
+     * Drops all the cached results, keeping the counts of hits and misses.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return The number of results.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the maximal number of cached results.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of searches answered from the cache.
+     *
+     * @return The number of hits.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of searches not answered from the cache.
+     *
+     * @return The number of misses.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the share of the searches answered from the cache.
+     *
+     * @return The hit rate, between 0 and 1, or 0 before any search.
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Gets the number of messages held by the cached results.
+     *
+     * @return The number of messages, counted once per result holding them.
+     */
+    public long getCachedMessageCount() {
+        long messageCount = 0;
+        for (R results : entries.values()) {
+            messageCount += weigher.applyAsInt(results);
+        }
+        return messageCount;
+    }
+
+    /**
+     * Estimates the memory held by the cache, not counting the messages themselves,
+     * which are held by the history anyway.
+     *
+     * @return The estimated footprint, in bytes.
+     */
+    public long getEstimatedFootprint() {
+        long footprint = getCachedMessageCount() * REFERENCE_BYTES;
+        for (Key key : entries.keySet()) {
+            footprint += ENTRY_BYTES + 2L * key.text.length();
+        }
+        return footprint;
+    }
+
+    /**
+     * The key of cached results.
+     */
+    private static final class Key {
+        private final SearchStrategy strategy;
+        private final String text;
+        private final long version;
+
+        private Key(final SearchStrategy strategy, final String text, final long version) {
+            this.strategy = strategy;
+            this.text = text;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return strategy == key.strategy && text.equals(key.text) && version == key.version;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(strategy), text, version);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+
+import java.util.List;
+
+/**
+ * The SearchPage class is a page of {@link SearchResults}: the messages of the page,
+ * and a handle to get the next one, which is only searched when it is asked for.
+ *
+ * @version 1.0
+ */
+public final class SearchPage {
+    private final SearchResults results;
+    private final int offset;
+    private final int size;
+    private final List<Message> messages;
+    private final boolean hasNext;
+
+    private SearchPage(final SearchResults results, final int offset, final int size) {
+        this.results = results;
+        this.offset = offset;
+        this.size = size;
+        this.messages = results.getPage(offset, size);
+        this.hasNext = results.hasMoreThan(offset + size);
+    }
+
+    /**
+     * Gets the first page of search results.
+     *
+     * @param results The search results.
+     * @param size    The maximal number of messages of each page.
+     * @return The first page, searched right away.
+     */
+    public static SearchPage first(final SearchResults results, final int size) {
+        return new SearchPage(results, 0, size);
+    }
+
+    /**
+     * Gets the page following this one.
+     *
+     * @return The next page, searched right away.
+     * @throws java.util.ConcurrentModificationException If the history has changed since
+     *                                                   the search started.
+     */
+    public SearchPage next() {
+        return new SearchPage(results, offset + size, size);
+    }
+
+    /**
+     * Gets the search results this page belongs to.
+     *
+     * @return The search results.
+     */
+    public SearchResults getResults() {
+        return results;
+    }
+
+    /**
+     * Gets the number of results before this page.
+     *
+     * @return The offset of the page.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the messages of this page.
+     *
+     * @return The messages, at most the page size.
+     */
+    public List<Message> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Tells whether there are results after this page.
+     *
+     * @return true if there is a next page.
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+}
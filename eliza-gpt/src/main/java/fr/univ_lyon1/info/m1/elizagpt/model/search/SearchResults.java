@@ -0,0 +1,281 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The SearchResults class holds the messages matching a search, found lazily: the
+ * candidates of the strategy are only matched as far as the requested pages need.
+ *
+ * <p>The results are in history order, or newest first, unless the strategy ranks them
+ * by relevance. The matching messages found so
+ * far are kept, so that earlier pages can be read again without matching anything.
+ * Results refined by a longer text (see {@link #refine(Predicate)}) read these results
+ * instead of the history.</p>
+ *
+ * <p>The messages searched may come with their version, such as the one of their
+ * {@link fr.univ_lyon1.info.m1.elizagpt.model.message.MessageManager}. Once it has
+ * changed, the results are stale: reading further than what has been found throws a
+ * {@link ConcurrentModificationException}, and the search should be run again. A
+ * {@link MessageHistory} comes with its own version.</p>
+ *
+ * <p>A matcher may give up with a {@link CancellationException}, such as a regular
+ * expression out of its step budget. The results are then exhausted: the candidate it
+ * gave up on is lost, so reading further than what has been found throws again, and the
+ * search should be run again rather than the results be kept.</p>
+ *
+ * @version 1.0
+ */
+public final class SearchResults implements Iterable<Message> {
+
+    private final Iterator<Message> candidates;
+    private final Predicate<Message> matcher;
+    private final LongSupplier versions;
+    private final long version;
+    private final boolean newestFirst;
+    private final List<Message> found = new ArrayList<>();
+    private boolean exhausted;
+
+    private SearchResults(final Iterator<Message> candidates, final Predicate<Message> matcher,
+                          final LongSupplier versions, final long version,
+                          final boolean newestFirst) {
+        this.candidates = candidates;
+        this.matcher = matcher;
+        this.versions = versions;
+        this.version = version;
+        this.newestFirst = newestFirst;
+    }
+
+    /**
+     * Starts a search of the specified messages, without matching any message yet. Only
+     * the results of a {@link MessageHistory} can become stale.
+     *
+     * @param strategy    The search strategy.
+     * @param messages    The messages to search.
+     * @param text        The text to search for.
+     * @param newestFirst true to find the newest messages first, ignored by a ranked
+     *                    strategy.
+     * @return The lazy results.
+     */
+    public static SearchResults search(final SearchStrategy strategy,
+                                       final List<Message> messages, final String text,
+                                       final boolean newestFirst) {
+        return search(strategy, messages, text, newestFirst, versionsOf(messages));
+    }
+
+    /**
+     * Starts a search of the specified messages, without matching any message yet.
+     *
+     * @param strategy    The search strategy.
+     * @param messages    The messages to search.
+     * @param text        The text to search for.
+     * @param newestFirst true to find the newest messages first, ignored by a ranked
+     *                    strategy.
+     * @param versions    Gives the version of the messages, that changes each time they
+     *                    change, or null if they are not followed.
+     * @return The lazy results.
+     */
+    public static SearchResults search(final SearchStrategy strategy,
+                                       final List<Message> messages, final String text,
+                                       final boolean newestFirst,
+                                       final LongSupplier versions) {
+        // The matcher first, to reject an invalid text before looking its candidates up
+        Predicate<Message> matcher = strategy.matcher(text);
+        List<Message> candidates = strategy.candidates(messages, text);
+        boolean reversed = newestFirst && !strategy.isRanked();
+        return new SearchResults(iterate(candidates, reversed), matcher, versions,
+                versions == null ? 0 : versions.getAsLong(), newestFirst);
+    }
+
+    /**
+     * Gets the version of a list that follows its own changes.
+     *
+     * @return The version of a {@link MessageHistory}, or null for other lists.
+     */
+    static LongSupplier versionsOf(final List<Message> messages) {
+        return messages instanceof MessageHistory ? ((MessageHistory) messages)::getVersion
+                : null;
+    }
+
+    /**
+     * Searches these results again for the messages matching a narrower predicate.
+     *
+     * @param narrowerMatcher The predicate, that only matches messages of these results.
+     * @return The lazy results, in the same order.
+     */
+    public SearchResults refine(final Predicate<Message> narrowerMatcher) {
+        return new SearchResults(iterator(), narrowerMatcher, versions, version, newestFirst);
+    }
+
+    /**
+     * Gets a page of the results, matching messages until it is full.
+     *
+     * @param offset The number of results to skip.
+     * @param limit  The maximal number of results of the page.
+     * @return A new list of at most limit messages, empty past the last result.
+     */
+    public List<Message> getPage(final int offset, final int limit) {
+        fetch(offset + limit);
+        int from = Math.min(offset, found.size());
+        int to = Math.min(offset + limit, found.size());
+        return new ArrayList<>(found.subList(from, to));
+    }
+
+    /**
+     * Tells whether there are more than the specified number of results.
+     *
+     * @param count The number of results.
+     * @return true if there is a result after the first count ones.
+     */
+    public boolean hasMoreThan(final int count) {
+        return fetch(count + 1);
+    }
+
+    /**
+     * Gets the number of results found so far.
+     *
+     * @return The number of messages matched so far.
+     */
+    public int getFoundCount() {
+        return found.size();
+    }
+
+    /**
+     * Tells whether all the candidates have been matched.
+     *
+     * @return true if no result is left to find.
+     */
+    public boolean isComplete() {
+        return !candidates.hasNext();
+    }
+
+    /**
+     * Tells whether the messages have changed since the search started.
+     *
+     * @return true if the results must not be read further.
+     */
+    public boolean isStale() {
+        return versions != null && versions.getAsLong() != version;
+    }
+
+    /**
+     * Tells whether the matcher gave up before all the candidates were matched.
+     *
+     * @return true if the results must not be read further.
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * Tells whether the newest messages are found first.
+     *
+     * @return true for the newest first, false for the history order.
+     */
+    public boolean isNewestFirst() {
+        return newestFirst;
+    }
+
+    /**
+     * Gets an iterator over all the results, that finds them as it goes.
+     *
+     * @return The iterator.
+     */
+    @Override
+    public Iterator<Message> iterator() {
+        return new Iterator<Message>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return fetch(next + 1);
+            }
+
+            @Override
+            public Message next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return found.get(next++);
+            }
+        };
+    }
+
+    /**
+     * Gets a sequential stream of all the results, that finds them as it goes: limiting
+     * the stream limits the matching.
+     *
+     * @return The stream.
+     */
+    public Stream<Message> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Matches candidates until the specified number of results is found.
+     *
+     * @return true if there are at least count results.
+     * @throws CancellationException If the matcher gives up, now or before.
+     */
+    private boolean fetch(final int count) {
+        if (found.size() >= count) {
+            return true;
+        }
+        if (isStale()) {
+            throw new ConcurrentModificationException("The history changed during the search");
+        }
+        if (exhausted) {
+            throw new CancellationException("The search gave up before its end");
+        }
+        try {
+            while (found.size() < count && candidates.hasNext()) {
+                Message candidate = candidates.next();
+                if (matcher.test(candidate)) {
+                    found.add(candidate);
+                }
+            }
+        } catch (CancellationException e) {
+            exhausted = true;
+            throw e;
+        }
+        return found.size() >= count;
+    }
+
+    /**
+     * Iterates over the messages of a list as they were when the search started.
+     */
+    private static Iterator<Message> iterate(final List<Message> messages,
+                                             final boolean newestFirst) {
+        int size = messages.size();
+        return new Iterator<Message>() {
+            private int next = newestFirst ? size - 1 : 0;
+
+            @Override
+            public boolean hasNext() {
+                return newestFirst ? next >= 0 : next < size;
+            }
+
+            @Override
+            public Message next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return messages.get(newestFirst ? next-- : next++);
+            }
+        };
+    }
+}
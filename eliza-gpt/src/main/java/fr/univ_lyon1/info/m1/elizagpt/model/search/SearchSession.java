@@ -0,0 +1,140 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * The SearchSession class searches the messages as the user types, reusing the results
+ * of the previous search when it can.
+ *
+ * <p>When the new text refines the previous one for the same strategy and order (see
+ * {@link SearchStrategy#isRefinement(String, String)}), for instance a longer substring,
+ * only the previous results are searched again instead of the whole history. The
+ * searches are lazy: the previous results are only read as far as the new ones need.
+ * The previous results are only reused while they are not
+ * {@link SearchResults#isStale() stale}, which needs the version of the messages, such
+ * as the one of their {@link fr.univ_lyon1.info.m1.elizagpt.model.message.MessageManager};
+ * messages without a version are always searched from scratch.</p>
+ *
+ * <p>The results of the latest searches are cached for the current version of the
+ * messages, one cache per order: typing a text back, such as after erasing a
+ * character, gets its results again without searching, along with the pages already
+ * found. Results {@link SearchResults#isExhausted() exhausted} by their matcher are
+ * neither refined nor reused: searching their text again starts a new search.</p>
+ *
+ * @version 1.3
+ */
+public final class SearchSession {
+
+    private final List<Message> messages;
+    private final LongSupplier versions;
+    private final SearchCache<SearchResults> oldestFirstCache =
+            new SearchCache<>(SearchCache.DEFAULT_CAPACITY, SearchResults::getFoundCount);
+    private final SearchCache<SearchResults> newestFirstCache =
+            new SearchCache<>(SearchCache.DEFAULT_CAPACITY, SearchResults::getFoundCount);
+    private SearchStrategy lastStrategy;
+    private String lastText;
+    private SearchResults lastResults;
+
+    /**
+     * Constructs a new SearchSession over the specified messages, whose version is only
+     * known if they are a {@link fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory}.
+     *
+     * @param messages The messages to search.
+     */
+    public SearchSession(final List<Message> messages) {
+        this(messages, SearchResults.versionsOf(messages));
+    }
+
+    /**
+     * Constructs a new SearchSession over the specified messages.
+     *
+     * @param messages The messages to search.
+     * @param versions Gives the version of the messages, that changes each time they
+     *                 change, or null if they are not followed.
+     */
+    public SearchSession(final List<Message> messages, final LongSupplier versions) {
+        this.messages = messages;
+        this.versions = versions;
+    }
+
+    /**
+     * Searches the messages for a text, refining the previous results if possible.
+     *
+     * @param strategy    The search strategy.
+     * @param text        The text to search for.
+     * @param newestFirst true to find the newest messages first.
+     * @return The lazy results.
+     */
+    public SearchResults search(final SearchStrategy strategy, final String text,
+                                final boolean newestFirst) {
+        if (versions != null) {
+            SearchCache<SearchResults> cache = getCache(newestFirst);
+            long version = versions.getAsLong();
+            lastResults = cache.computeIfAbsent(strategy, text, version,
+                    () -> searchOrRefine(strategy, text, newestFirst));
+            if (lastResults.isExhausted()) {
+                cache.remove(strategy, text, version);
+                lastResults = cache.computeIfAbsent(strategy, text, version, () ->
+                        SearchResults.search(strategy, messages, text, newestFirst, versions));
+            }
+        } else {
+            lastResults = searchOrRefine(strategy, text, newestFirst);
+        }
+        lastStrategy = strategy;
+        lastText = text;
+        return lastResults;
+    }
+
+    /**
+     * Forgets the previous and cached searches, so that the next one searches the whole
+     * history.
+     */
+    public void reset() {
+        lastStrategy = null;
+        lastText = null;
+        lastResults = null;
+        oldestFirstCache.clear();
+        newestFirstCache.clear();
+    }
+
+    /**
+     * Gets the cache of the results in the specified order.
+     *
+     * @param newestFirst true for the results finding the newest messages first.
+     * @return The cache.
+     */
+    public SearchCache<SearchResults> getCache(final boolean newestFirst) {
+        return newestFirst ? newestFirstCache : oldestFirstCache;
+    }
+
+    private SearchResults searchOrRefine(final SearchStrategy strategy, final String text,
+                                         final boolean newestFirst) {
+        return canRefine(strategy, text, newestFirst)
+                ? lastResults.refine(strategy.matcher(text))
+                : SearchResults.search(strategy, messages, text, newestFirst, versions);
+    }
+
+    /**
+     * Tells whether the next search of the specified text can only search the previous
+     * results.
+     *
+     * @param strategy    The search strategy.
+     * @param text        The text to search for.
+     * @param newestFirst true to find the newest messages first.
+     * @return true if the previous results are up to date and not exhausted, in the same
+     *         order, and the text refines their text.
+     */
+    public boolean canRefine(final SearchStrategy strategy, final String text,
+                             final boolean newestFirst) {
+        return lastResults != null
+                && strategy == lastStrategy
+                && newestFirst == lastResults.isNewestFirst()
+                && versions != null
+                && !lastResults.isStale()
+                && !lastResults.isExhausted()
+                && strategy.isRefinement(lastText, text);
+    }
+}
@@ -2,13 +2,22 @@ package fr.univ_lyon1.info.m1.elizagpt.model.search;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * The SearchStrategy interface defines the contract for implementing different strategies
  * for searching messages within a chatbot system.
  *
- * @version 1.0
+ * <p>The strategies filter the messages through {@link MessageFilter}, which searches
+ * long histories in parallel and keeps the messages in their original order.</p>
+ *
+ * <p>A strategy also gives its {@link #candidates(List, String) candidates} and its
+ * {@link #matcher(String) matcher}, so that {@link SearchResults} can find the matching
+ * messages lazily, one page at a time.</p>
+ *
+ * @version 1.2
  */
 public interface SearchStrategy {
 
@@ -20,4 +29,51 @@ public interface SearchStrategy {
      * @return A list of messages that contain the specified text.
      */
     List<Message> search(List<Message> messages, String text);
+
+    /**
+     * Gets the messages that may match the specified text, in their original order:
+     * all the messages by default, or fewer when an index of the history tells that the
+     * others cannot match. A {@link #isRanked() ranked} strategy gives them from the most
+     * to the least relevant instead.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The text to search for within messages.
+     * @return The candidate messages, that must not be modified.
+     */
+    default List<Message> candidates(final List<Message> messages, final String text) {
+        return messages;
+    }
+
+    /**
+     * Gets a predicate telling whether a message matches the specified text, that must
+     * not be shared between threads. By default, the message is searched on its own.
+     *
+     * @param text The text to search for within messages.
+     * @return The predicate.
+     */
+    default Predicate<Message> matcher(final String text) {
+        return message -> !search(Collections.singletonList(message), text).isEmpty();
+    }
+
+    /**
+     * Tells whether every message matching a text also matches a previous text, so that
+     * the text can be searched among the result of the previous text only.
+     *
+     * @param previousText The previously searched text.
+     * @param text         The text to search for.
+     * @return true if the text refines the previous text; false by default.
+     */
+    default boolean isRefinement(final String previousText, final String text) {
+        return false;
+    }
+
+    /**
+     * Tells whether the strategy orders the messages by relevance instead of keeping
+     * their original order, in which case its results are never reversed.
+     *
+     * @return true if the results are ranked; false by default.
+     */
+    default boolean isRanked() {
+        return false;
+    }
 }
@@ -0,0 +1,140 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The StandingQuery class keeps the results of a search up to date as messages are added
+ * and deleted, without searching the history again.
+ *
+ * <p>It starts from the results already shown for the search. Each added message is
+ * matched on its own by a new {@link SearchStrategy#matcher(String) matcher} of the
+ * strategy, so that no budget is shared between the messages, and each deleted message
+ * is removed from the results. A message whose match gives up is left out of the
+ * results. The {@link Subscriber} is told of each message entering or leaving the
+ * results.</p>
+ *
+ * <p>A standing query listens to a
+ * {@link fr.univ_lyon1.info.m1.elizagpt.model.message.MessageManager} from the moment it
+ * is registered to it, until it is unregistered.</p>
+ *
+ * @version 1.1
+ */
+public final class StandingQuery implements MessageListener {
+
+    /**
+     * The Subscriber interface is implemented by the classes that follow the results of a
+     * standing query.
+     */
+    public interface Subscriber {
+
+        /**
+         * Called when an added message matches the query.
+         *
+         * @param message The matching message.
+         */
+        void onMatchAdded(Message message);
+
+        /**
+         * Called when a message of the results has been deleted.
+         *
+         * @param message The deleted message.
+         */
+        void onMatchRemoved(Message message);
+    }
+
+    private final SearchStrategy strategy;
+    private final String text;
+    private final Set<Message> matches;
+    private final Subscriber subscriber;
+
+    /**
+     * Constructs a new StandingQuery.
+     *
+     * @param strategy   The search strategy.
+     * @param text       The searched text.
+     * @param matches    The results already found for the text.
+     * @param subscriber The subscriber to tell of the changes of the results.
+     */
+    public StandingQuery(final SearchStrategy strategy, final String text,
+                         final Collection<Message> matches, final Subscriber subscriber) {
+        this.strategy = strategy;
+        this.text = text;
+        this.matches = new LinkedHashSet<>(matches);
+        this.subscriber = subscriber;
+    }
+
+    /**
+     * Adds results found later for the text, such as the next page of a live search.
+     *
+     * @param moreMatches The messages matching the text.
+     */
+    public void addMatches(final Collection<Message> moreMatches) {
+        matches.addAll(moreMatches);
+    }
+
+    /**
+     * Matches an added message, and adds it to the results if it matches.
+     *
+     * @param message The added message.
+     */
+    @Override
+    public void onMessageAdded(final Message message) {
+        boolean matching;
+        try {
+            matching = strategy.matcher(text).test(message);
+        } catch (CancellationException e) {
+            matching = false;
+        }
+        if (matching && matches.add(message)) {
+            subscriber.onMatchAdded(message);
+        }
+    }
+
+    /**
+     * Removes a deleted message from the results.
+     *
+     * @param message The deleted message.
+     */
+    @Override
+    public void onMessageDeleted(final Message message) {
+        if (matches.remove(message)) {
+            subscriber.onMatchRemoved(message);
+        }
+    }
+
+    /**
+     * Gets the current results, in the order they were found.
+     *
+     * @return An unmodifiable copy of the results.
+     */
+    public List<Message> getMatches() {
+        return Collections.unmodifiableList(new ArrayList<>(matches));
+    }
+
+    /**
+     * Gets the search strategy of the query.
+     *
+     * @return The search strategy.
+     */
+    public SearchStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Gets the searched text.
+     *
+     * @return The text.
+     */
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,87 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.TextFolding;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.MessageFilter;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The AccentInsensitiveSearchStrategy class implements the SearchStrategy interface and
+ * represents a strategy for searching messages based on substring matches, ignoring both
+ * case and diacritics: "eleve" finds "Élève".
+ *
+ * <p>The folded text of each message is computed once, when the message is created, so
+ * a search only folds the searched text.</p>
+ *
+ * @version 1.0
+ */
+public final class AccentInsensitiveSearchStrategy implements SearchStrategy {
+
+    private static AccentInsensitiveSearchStrategy instance = null;
+
+    /**
+     * Searches for messages containing the specified substring, ignoring case and
+     * diacritics, within the provided list of messages.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The substring to search for within messages.
+     * @return A list of messages that contain the specified substring.
+     */
+    @Override
+    public List<Message> search(final List<Message> messages, final String text) {
+        return MessageFilter.getInstance().filter(messages, () -> matcher(text));
+    }
+
+    /**
+     * Gets a predicate telling whether a message contains the substring, ignoring case
+     * and diacritics.
+     *
+     * @param text The substring to search for within messages.
+     * @return The predicate.
+     */
+    @Override
+    public Predicate<Message> matcher(final String text) {
+        String foldedText = TextFolding.fold(text);
+        return message -> message.getFoldedText().contains(foldedText);
+    }
+
+    /**
+     * Tells whether a text contains a previous text, ignoring case and diacritics.
+     *
+     * @param previousText The previously searched substring.
+     * @param text         The substring to search for.
+     * @return true if the folded text contains the folded previous text.
+     */
+    @Override
+    public boolean isRefinement(final String previousText, final String text) {
+        return TextFolding.fold(text).contains(TextFolding.fold(previousText));
+    }
+
+    /**
+     * Gets the singleton instance of AccentInsensitiveSearchStrategy.
+     *
+     * @return The singleton instance of AccentInsensitiveSearchStrategy.
+     */
+    public static AccentInsensitiveSearchStrategy getInstance() {
+        if (instance == null) {
+            instance = new AccentInsensitiveSearchStrategy();
+        }
+        return instance;
+    }
+
+    // Private constructor to enforce singleton pattern
+    private AccentInsensitiveSearchStrategy() { }
+
+    /**
+     * Returns a string representation of the AccentInsensitiveSearchStrategy.
+     *
+     * @return The string representation of the AccentInsensitiveSearchStrategy.
+     */
+    @Override
+    public String toString() {
+        return "Sans accents";
+    }
+}
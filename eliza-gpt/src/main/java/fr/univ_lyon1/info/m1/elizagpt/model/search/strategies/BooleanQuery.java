@@ -0,0 +1,371 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.BitmapIndex;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageBitmap;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.RelevanceIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The BooleanQuery class is a parsed boolean query, evaluated over the bitmaps of a
+ * {@link BitmapIndex} or against a single message.
+ *
+ * <p>The syntax is, from the loosest to the tightest binding:</p>
+ * <ul>
+ *     <li>{@code a OR b}: the messages matching either side;</li>
+ *     <li>{@code a AND b}, or just {@code a b}: the messages matching both sides;</li>
+ *     <li>{@code NOT a}: the messages not matching a;</li>
+ *     <li>{@code (a)}, a quoted phrase {@code "je suis"}, {@code sender:USER} or
+ *     {@code sender:ELIZA}, or a word.</li>
+ * </ul>
+ *
+ * <p>Words and phrases are split into folded terms like in the {@link RelevanceIndex}, so
+ * case and diacritics are ignored. A phrase, or a word made of several terms such as
+ * "c'est", matches the messages using its terms in a row. Operators are only recognized
+ * in upper case; words without any term are ignored.</p>
+ *
+ * @version 1.0
+ */
+final class BooleanQuery {
+
+    private static final String SENDER_PREFIX = "sender:";
+
+    private final Node root;
+
+    private BooleanQuery(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Parses a query.
+     *
+     * @param text The query.
+     * @return The parsed query.
+     * @throws IllegalArgumentException If the query is malformed.
+     */
+    static BooleanQuery parse(final String text) {
+        return new BooleanQuery(new Parser(tokenize(text)).parse());
+    }
+
+    /**
+     * Gets the messages of an index matching the query.
+     *
+     * @param index The index.
+     * @return The bitmap of the matching messages, not to be changed, empty for an empty
+     *         query.
+     */
+    MessageBitmap evaluate(final BitmapIndex index) {
+        return root == null ? new MessageBitmap() : root.evaluate(index);
+    }
+
+    /**
+     * Tells whether a message matches the query.
+     *
+     * @param message The message.
+     * @return true if the message matches, false for an empty query.
+     */
+    boolean matches(final Message message) {
+        return root != null
+                && root.matches(message, RelevanceIndex.terms(message.getFoldedText()));
+    }
+
+    private static List<Token> tokenize(final String text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(new Token(String.valueOf(c), false));
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed quote in: " + text);
+                }
+                tokens.add(new Token(text.substring(i + 1, end), true));
+                i = end + 1;
+            } else {
+                int start = i;
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                        && "()\"".indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(new Token(text.substring(start, i), false));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * A word, an operator or a parenthesis, or a quoted phrase.
+     */
+    private static final class Token {
+        private final String text;
+        private final boolean quoted;
+
+        private Token(final String text, final boolean quoted) {
+            this.text = text;
+            this.quoted = quoted;
+        }
+
+        private boolean is(final String keyword) {
+            return !quoted && text.equals(keyword);
+        }
+    }
+
+    /**
+     * Parses tokens into a tree of nodes, null standing for a query without terms.
+     */
+    private static final class Parser {
+        private final List<Token> tokens;
+        private int position;
+
+        private Parser(final List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        private Node parse() {
+            if (tokens.isEmpty()) {
+                return null;
+            }
+            Node node = parseOr();
+            if (position < tokens.size()) {
+                throw new IllegalArgumentException(
+                        "Unexpected \"" + tokens.get(position).text + "\"");
+            }
+            return node;
+        }
+
+        private boolean accept(final String keyword) {
+            if (position < tokens.size() && tokens.get(position).is(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean atOperand() {
+            return position < tokens.size() && !tokens.get(position).is(")")
+                    && !tokens.get(position).is("OR") && !tokens.get(position).is("AND");
+        }
+
+        private Node parseOr() {
+            Node node = parseAnd();
+            while (accept("OR")) {
+                node = combine(node, parseAnd(), false);
+            }
+            return node;
+        }
+
+        private Node parseAnd() {
+            Node node = parseNot();
+            while (true) {
+                if (accept("AND")) {
+                    node = combine(node, parseNot(), true);
+                } else if (atOperand()) {
+                    node = combine(node, parseNot(), true);
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        private Node parseNot() {
+            if (accept("NOT")) {
+                Node node = parseNot();
+                return node == null ? null : new NotNode(node);
+            }
+            return parsePrimary();
+        }
+
+        private Node parsePrimary() {
+            if (!atOperand()) {
+                throw new IllegalArgumentException(position < tokens.size()
+                        ? "Unexpected \"" + tokens.get(position).text + "\""
+                        : "Missing operand at the end of the query");
+            }
+            Token token = tokens.get(position++);
+            if (token.is("(")) {
+                Node node = parseOr();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException("Unclosed parenthesis");
+                }
+                return node;
+            }
+            if (!token.quoted && token.text.regionMatches(true, 0, SENDER_PREFIX, 0,
+                    SENDER_PREFIX.length())) {
+                return new SenderNode(parseSender(token.text.substring(SENDER_PREFIX.length())));
+            }
+            List<String> terms = RelevanceIndex.termList(token.text);
+            if (terms.isEmpty()) {
+                return null;
+            }
+            return terms.size() == 1 ? new TermNode(terms.get(0)) : new PhraseNode(terms);
+        }
+
+        private static Message.Sender parseSender(final String sender) {
+            for (Message.Sender value : Message.Sender.values()) {
+                if (value.name().equals(sender.toUpperCase(Locale.ROOT))) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Unknown sender: " + sender);
+        }
+
+        private static Node combine(final Node left, final Node right, final boolean and) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            return new BinaryNode(left, right, and);
+        }
+    }
+
+    /**
+     * A node of a query.
+     */
+    private interface Node {
+        /**
+         * Gets the messages of an index matching the node.
+         */
+        MessageBitmap evaluate(BitmapIndex index);
+
+        /**
+         * Tells whether a message, using the specified folded terms, matches the node.
+         */
+        boolean matches(Message message, Set<String> terms);
+    }
+
+    /**
+     * A single term.
+     */
+    private static final class TermNode implements Node {
+        private final String term;
+
+        private TermNode(final String term) {
+            this.term = term;
+        }
+
+        @Override
+        public MessageBitmap evaluate(final BitmapIndex index) {
+            return index.findTerm(term);
+        }
+
+        @Override
+        public boolean matches(final Message message, final Set<String> terms) {
+            return terms.contains(term);
+        }
+    }
+
+    /**
+     * Terms used in a row.
+     */
+    private static final class PhraseNode implements Node {
+        private final List<String> terms;
+
+        private PhraseNode(final List<String> terms) {
+            this.terms = terms;
+        }
+
+        @Override
+        public MessageBitmap evaluate(final BitmapIndex index) {
+            MessageBitmap bitmap = index.findTerm(terms.get(0));
+            for (int i = 1; i < terms.size() && !bitmap.isEmpty(); i++) {
+                bitmap = bitmap.and(index.findTerm(terms.get(i)));
+            }
+            return index.filter(bitmap, this::inRow);
+        }
+
+        @Override
+        public boolean matches(final Message message, final Set<String> messageTerms) {
+            return messageTerms.containsAll(terms) && inRow(message);
+        }
+
+        private boolean inRow(final Message message) {
+            return Collections.indexOfSubList(
+                    RelevanceIndex.termList(message.getFoldedText()), terms) >= 0;
+        }
+    }
+
+    /**
+     * The messages of a sender.
+     */
+    private static final class SenderNode implements Node {
+        private final Message.Sender sender;
+
+        private SenderNode(final Message.Sender sender) {
+            this.sender = sender;
+        }
+
+        @Override
+        public MessageBitmap evaluate(final BitmapIndex index) {
+            return index.findSender(sender);
+        }
+
+        @Override
+        public boolean matches(final Message message, final Set<String> terms) {
+            return message.getSender() == sender;
+        }
+    }
+
+    /**
+     * The messages not matching a node.
+     */
+    private static final class NotNode implements Node {
+        private final Node node;
+
+        private NotNode(final Node node) {
+            this.node = node;
+        }
+
+        @Override
+        public MessageBitmap evaluate(final BitmapIndex index) {
+            return index.getAll().andNot(node.evaluate(index));
+        }
+
+        @Override
+        public boolean matches(final Message message, final Set<String> terms) {
+            return !node.matches(message, terms);
+        }
+    }
+
+    /**
+     * The messages matching both nodes, or either.
+     */
+    private static final class BinaryNode implements Node {
+        private final Node left;
+        private final Node right;
+        private final boolean and;
+
+        private BinaryNode(final Node left, final Node right, final boolean and) {
+            this.left = left;
+            this.right = right;
+            this.and = and;
+        }
+
+        @Override
+        public MessageBitmap evaluate(final BitmapIndex index) {
+            MessageBitmap leftBitmap = left.evaluate(index);
+            if (and && leftBitmap.isEmpty()) {
+                return leftBitmap;
+            }
+            MessageBitmap rightBitmap = right.evaluate(index);
+            return and ? leftBitmap.and(rightBitmap) : leftBitmap.or(rightBitmap);
+        }
+
+        @Override
+        public boolean matches(final Message message, final Set<String> terms) {
+            return and ? left.matches(message, terms) && right.matches(message, terms)
+                    : left.matches(message, terms) || right.matches(message, terms);
+        }
+    }
+}
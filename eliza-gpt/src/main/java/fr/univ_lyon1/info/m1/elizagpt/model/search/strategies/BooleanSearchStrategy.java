@@ -0,0 +1,93 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.BitmapIndex;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The BooleanSearchStrategy class implements the SearchStrategy interface and represents
+ * a strategy for searching messages with a boolean query combining words, quoted phrases
+ * and senders with AND, OR and NOT: {@code (fatigue OR "mal dormi") AND NOT sender:ELIZA}.
+ *
+ * <p>The query is evaluated over the {@link BitmapIndex} of a
+ * {@link fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory}, each word giving
+ * the bitmap of its messages and each operator combining bitmaps word by word; any other
+ * list is indexed for the search only, except a
+ * {@link fr.univ_lyon1.info.m1.elizagpt.model.message.SegmentedHistory}, which is refused.
+ * See {@link BooleanQuery} for the syntax.</p>
+ *
+ * @version 1.0
+ */
+public final class BooleanSearchStrategy implements SearchStrategy {
+
+    private static BooleanSearchStrategy instance = null;
+
+    /**
+     * Searches for messages matching the specified query within the provided list of
+     * messages.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The boolean query.
+     * @return A list of the messages matching the query, in their original order.
+     * @throws IllegalArgumentException If the query is malformed, or the messages are a
+     *                                  segmented history.
+     */
+    @Override
+    public List<Message> search(final List<Message> messages, final String text) {
+        BooleanQuery query = BooleanQuery.parse(text);
+        BitmapIndex index = HistoryIndexes.bitmapIndex(messages, this);
+        return index.getMessages(query.evaluate(index));
+    }
+
+    /**
+     * Gets the messages matching the query, which are the results of the search.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The boolean query.
+     * @return The matching messages, in their original order.
+     */
+    @Override
+    public List<Message> candidates(final List<Message> messages, final String text) {
+        return search(messages, text);
+    }
+
+    /**
+     * Gets a predicate telling whether a message matches the query.
+     *
+     * @param text The boolean query.
+     * @return The predicate.
+     * @throws IllegalArgumentException If the query is malformed.
+     */
+    @Override
+    public Predicate<Message> matcher(final String text) {
+        return BooleanQuery.parse(text)::matches;
+    }
+
+    /**
+     * Gets the singleton instance of BooleanSearchStrategy.
+     *
+     * @return The singleton instance of BooleanSearchStrategy.
+     */
+    public static BooleanSearchStrategy getInstance() {
+        if (instance == null) {
+            instance = new BooleanSearchStrategy();
+        }
+        return instance;
+    }
+
+    // Private constructor to enforce singleton pattern
+    private BooleanSearchStrategy() { }
+
+    /**
+     * Returns a string representation of the BooleanSearchStrategy.
+     *
+     * @return The string representation of the BooleanSearchStrategy.
+     */
+    @Override
+    public String toString() {
+        return "Requête booléenne";
+    }
+}
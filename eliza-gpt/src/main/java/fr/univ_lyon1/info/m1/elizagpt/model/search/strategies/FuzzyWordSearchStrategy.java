@@ -0,0 +1,134 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.BitmapIndex;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.BkTree;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageBitmap;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.RelevanceIndex;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The FuzzyWordSearchStrategy class implements the SearchStrategy interface and represents
+ * a strategy for searching messages containing words close to the searched ones, so that
+ * misspelled words are still found: "fatiguer" finds "fatigué", "bonjoru" finds "Bonjour".
+ *
+ * <p>Words are compared folded, ignoring case and diacritics, and may differ by up to
+ * {@link #maxDistance(String)} inserted, deleted or replaced characters. Every searched word
+ * must be close to a word of the message. The close words are looked up in the
+ * {@link BkTree} of the {@link RelevanceIndex} of the history, instead of being
+ * compared to every word, and their messages are combined as {@link MessageBitmap}s of
+ * the {@link BitmapIndex}, which gives them in history order without going through the
+ * other messages. A {@link fr.univ_lyon1.info.m1.elizagpt.model.message.SegmentedHistory},
+ * having no index, is refused.</p>
+ *
+ * @version 1.1
+ */
+public final class FuzzyWordSearchStrategy implements SearchStrategy {
+
+    private static FuzzyWordSearchStrategy instance = null;
+
+    /**
+     * Searches for messages containing words close to the specified words within the
+     * provided list of messages.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The words to search for within messages.
+     * @return A list of messages with a close word for each searched word.
+     * @throws IllegalArgumentException If the messages are a segmented history.
+     */
+    @Override
+    public List<Message> search(final List<Message> messages, final String text) {
+        BitmapIndex index = HistoryIndexes.bitmapIndex(messages, this);
+        RelevanceIndex terms = index.getRelevanceIndex();
+        MessageBitmap found = null;
+        for (String term : RelevanceIndex.terms(text)) {
+            MessageBitmap termMessages = new MessageBitmap();
+            for (String similarTerm : terms.findSimilarTerms(term, maxDistance(term))) {
+                termMessages = termMessages.or(index.findTerm(similarTerm));
+            }
+            found = found == null ? termMessages : found.and(termMessages);
+            if (found.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        if (found == null) {
+            return Collections.emptyList();
+        }
+        return index.getMessages(found);
+    }
+
+    /**
+     * Gets the messages found through the term tree, which are the results of the search.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The words to search for within messages.
+     * @return The matching messages, in their original order.
+     */
+    @Override
+    public List<Message> candidates(final List<Message> messages, final String text) {
+        return search(messages, text);
+    }
+
+    /**
+     * Gets a predicate telling whether a message has a close word for each searched word.
+     *
+     * @param text The words to search for within messages.
+     * @return The predicate.
+     */
+    @Override
+    public Predicate<Message> matcher(final String text) {
+        Set<String> searchedTerms = RelevanceIndex.terms(text);
+        return message -> {
+            if (searchedTerms.isEmpty()) {
+                return false;
+            }
+            Set<String> terms = RelevanceIndex.terms(message.getFoldedText());
+            return searchedTerms.stream().allMatch(searchedTerm -> terms.stream().anyMatch(
+                    term -> BkTree.distance(searchedTerm, term) <= maxDistance(searchedTerm)));
+        };
+    }
+
+    /**
+     * Gets the maximal edit distance tolerated for a searched word: none for words of one
+     * or two characters, one for words of up to five characters, and two beyond.
+     *
+     * @param term The folded searched word.
+     * @return The maximal edit distance.
+     */
+    public static int maxDistance(final String term) {
+        if (term.length() <= 2) {
+            return 0;
+        }
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Gets the singleton instance of FuzzyWordSearchStrategy.
+     *
+     * @return The singleton instance of FuzzyWordSearchStrategy.
+     */
+    public static FuzzyWordSearchStrategy getInstance() {
+        if (instance == null) {
+            instance = new FuzzyWordSearchStrategy();
+        }
+        return instance;
+    }
+
+    // Private constructor to enforce singleton pattern
+    private FuzzyWordSearchStrategy() { }
+
+    /**
+     * Returns a string representation of the FuzzyWordSearchStrategy.
+     *
+     * @return The string representation of the FuzzyWordSearchStrategy.
+     */
+    @Override
+    public String toString() {
+        return "Mot approché";
+    }
+}
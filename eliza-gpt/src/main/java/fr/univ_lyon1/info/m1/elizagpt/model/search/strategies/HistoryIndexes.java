@@ -0,0 +1,68 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.BitmapIndex;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.RelevanceIndex;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.SegmentedHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
+
+import java.util.List;
+
+/**
+ * The HistoryIndexes class gives the strategies that can only search through an index
+ * the index of the messages: the one kept up to date by a {@link MessageHistory}, or one
+ * built for the search only over any other list.
+ *
+ * <p>A {@link SegmentedHistory} keeps no index, and is too long to be indexed again for
+ * each search: these strategies refuse it with an {@link IllegalArgumentException}.</p>
+ *
+ * @version 1.0
+ */
+final class HistoryIndexes {
+
+    // Private constructor to prevent instantiation
+    private HistoryIndexes() { }
+
+    /**
+     * Gets the index of the term frequencies of the messages.
+     *
+     * @param messages The messages to search.
+     * @param strategy The strategy searching them.
+     * @return The relevance index of the messages.
+     * @throws IllegalArgumentException If the messages are a {@link SegmentedHistory}.
+     */
+    static RelevanceIndex relevanceIndex(final List<Message> messages,
+                                         final SearchStrategy strategy) {
+        if (messages instanceof MessageHistory) {
+            return ((MessageHistory) messages).getRelevanceIndex();
+        }
+        checkIndexable(messages, strategy);
+        return RelevanceIndex.of(messages);
+    }
+
+    /**
+     * Gets the index of the bitmaps of the terms and senders of the messages.
+     *
+     * @param messages The messages to search.
+     * @param strategy The strategy searching them.
+     * @return The bitmap index of the messages.
+     * @throws IllegalArgumentException If the messages are a {@link SegmentedHistory}.
+     */
+    static BitmapIndex bitmapIndex(final List<Message> messages,
+                                   final SearchStrategy strategy) {
+        if (messages instanceof MessageHistory) {
+            return ((MessageHistory) messages).getBitmapIndex();
+        }
+        checkIndexable(messages, strategy);
+        return BitmapIndex.of(messages);
+    }
+
+    private static void checkIndexable(final List<Message> messages,
+                                       final SearchStrategy strategy) {
+        if (messages instanceof SegmentedHistory) {
+            throw new IllegalArgumentException("The search \"" + strategy
+                    + "\" needs indexes, which a history kept on disk does not have");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The RegexBudget class bounds the work of a regular expression search: the matchers of
+ * the search charge it the steps they take, and the search stops with a
+ * {@link CancellationException} once the steps run out or the search is cancelled.
+ *
+ * <p>A budget is shared by all the matchers of a search, possibly on several threads.
+ * Matchers charge it by batches of steps, so a search may take slightly more steps than
+ * its budget before it stops.</p>
+ *
+ * @version 1.0
+ */
+public final class RegexBudget {
+
+    /**
+     * The number of steps a matcher takes before charging them to the budget.
+     */
+    static final int BATCH_STEPS = 4096;
+
+    private final AtomicLong remainingSteps;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructs a new RegexBudget.
+     *
+     * @param maxSteps The number of steps of the search.
+     */
+    public RegexBudget(final long maxSteps) {
+        this.remainingSteps = new AtomicLong(maxSteps);
+    }
+
+    /**
+     * Cancels the search: its matchers stop the next time they charge the budget.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Tells whether the search has been cancelled.
+     *
+     * @return true if the search has been cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the number of steps left.
+     *
+     * @return The remaining steps, negative once they have run out.
+     */
+    public long getRemainingSteps() {
+        return remainingSteps.get();
+    }
+
+    /**
+     * Charges steps taken by a matcher.
+     *
+     * @param steps The number of steps.
+     * @throws CancellationException If the search is cancelled or out of steps.
+     */
+    void charge(final long steps) {
+        if (cancelled) {
+            throw new CancellationException("The search has been cancelled");
+        }
+        if (remainingSteps.addAndGet(-steps) < 0) {
+            throw new CancellationException("The regular expression exceeded its step budget");
+        }
+    }
+}
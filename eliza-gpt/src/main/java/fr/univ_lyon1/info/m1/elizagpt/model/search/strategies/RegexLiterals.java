@@ -0,0 +1,166 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The RegexLiterals class extracts from a regular expression the literal fragments that
+ * any text it matches must contain, to look them up in a
+ * {@link fr.univ_lyon1.info.m1.elizagpt.model.message.TrigramIndex}.
+ *
+ * <p>Only the top level of the expression is read: groups, classes, escapes and quantified
+ * characters end a fragment, and an alternation, a quotation or an unknown construct gives
+ * no fragment at all. Only ASCII characters are kept and lower-cased, which is how
+ * {@link java.util.regex.Pattern#CASE_INSENSITIVE} compares them.</p>
+ *
+ * @version 1.0
+ */
+final class RegexLiterals {
+
+    private static final String QUANTIFIERS = "?*+{";
+    private static final String ANCHORS = ".^$";
+    private static final String GROUP_CONSTRUCTS = ":=!><";
+    private static final String SHORT_ESCAPES = "tnrfaedDsSwWhHvVbBAzZGRX";
+
+    // Private constructor to prevent instantiation
+    private RegexLiterals() { }
+
+    /**
+     * Extracts the literal fragments required by a regular expression.
+     *
+     * @param regex The regular expression, that must be valid.
+     * @return The lower-cased fragments, possibly none.
+     */
+    static List<String> extract(final String regex) {
+        // Under a Turkish locale, String.toLowerCase() does not fold 'I' to 'i'
+        if (!"I".toLowerCase().equals("i") || regex.contains("\\Q")) {
+            return Collections.emptyList();
+        }
+        List<String> fragments = new ArrayList<>();
+        StringBuilder fragment = new StringBuilder();
+        boolean lastIsLiteral = false;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int next = i + 1;
+            boolean literal = false;
+            if (c == '|') {
+                return Collections.emptyList();
+            } else if (c == '\\') {
+                if (next == regex.length()) {
+                    return Collections.emptyList();
+                }
+                char escaped = regex.charAt(next++);
+                if (isAsciiLetterOrDigit(escaped)) {
+                    if (SHORT_ESCAPES.indexOf(escaped) < 0) {
+                        return Collections.emptyList();
+                    }
+                } else if (escaped < 128) {
+                    fragment.append(escaped);
+                    literal = true;
+                }
+            } else if (c == '(') {
+                if (next < regex.length() && regex.charAt(next) == '?'
+                        && (next + 1 == regex.length()
+                        || GROUP_CONSTRUCTS.indexOf(regex.charAt(next + 1)) < 0)) {
+                    // Inline flags may change the meaning of what follows
+                    return Collections.emptyList();
+                }
+                next = skipGroup(regex, i);
+            } else if (c == '[') {
+                next = skipClass(regex, i);
+            } else if (QUANTIFIERS.indexOf(c) >= 0) {
+                if (lastIsLiteral) {
+                    fragment.setLength(fragment.length() - 1);
+                }
+                if (c == '{') {
+                    next = regex.indexOf('}', i) + 1;
+                }
+            } else if (ANCHORS.indexOf(c) < 0 && c < 128) {
+                fragment.append(c);
+                literal = true;
+            }
+            if (next <= 0) {
+                return Collections.emptyList();
+            }
+            if (!literal) {
+                endFragment(fragments, fragment);
+            }
+            lastIsLiteral = literal;
+            i = next;
+        }
+        endFragment(fragments, fragment);
+        return fragments;
+    }
+
+    private static void endFragment(final List<String> fragments,
+                                    final StringBuilder fragment) {
+        if (fragment.length() > 0) {
+            fragments.add(fragment.toString().toLowerCase());
+            fragment.setLength(0);
+        }
+    }
+
+    private static boolean isAsciiLetterOrDigit(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+    }
+
+    /**
+     * Gets the index following the group starting at the specified index, or -1.
+     */
+    private static int skipGroup(final String regex, final int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = skipClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the index following the character class starting at the specified index,
+     * or -1.
+     */
+    private static int skipClass(final String regex, final int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            return -1;
+        }
+        int depth = 1;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+}
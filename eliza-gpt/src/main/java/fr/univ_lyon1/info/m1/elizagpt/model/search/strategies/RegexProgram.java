@@ -0,0 +1,689 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The RegexProgram class is a regular expression compiled to a Thompson automaton, which
+ * is matched in time linear in the length of the text, whatever the expression.
+ *
+ * <p>The program is run as a Pike virtual machine: all the threads of the automaton
+ * advance together, one character at a time, and a state reached twice at the same
+ * position is only kept once. There is no backtracking, so no expression can take an
+ * exponential time.</p>
+ *
+ * <p>Only a subset of the {@link java.util.regex.Pattern} syntax is supported, with the
+ * semantics of {@link java.util.regex.Pattern#CASE_INSENSITIVE} and
+ * {@link java.util.regex.Matcher#matches()}: literals and escaped characters, {@code .},
+ * character classes with ranges and negation, {@code \d \w \s} and their negations,
+ * groups, non-capturing groups, alternation, greedy and lazy quantifiers, {@code ^} and
+ * {@code $}. Anything else, such as back-references, lookarounds, word boundaries, inline
+ * flags or possessive quantifiers, is not compiled.</p>
+ *
+ * @version 1.0
+ */
+final class RegexProgram {
+
+    /**
+     * The maximal number of instructions of a program, counted repetitions included.
+     */
+    static final int MAX_SIZE = 10_000;
+
+    private static final int CHAR = 0;
+    private static final int ANY = 1;
+    private static final int CLASS = 2;
+    private static final int SPLIT = 3;
+    private static final int JUMP = 4;
+    private static final int BEGIN = 5;
+    private static final int END = 6;
+    private static final int MATCH = 7;
+    private static final int CONCAT = 8;
+    private static final int ALTERNATION = 9;
+    private static final int REPEAT = 10;
+
+    private final int[] ops;
+    private final int[] args;
+    private final int[] jumps;
+    private final CharClass[] classes;
+
+    private RegexProgram(final Emitter emitter) {
+        this.ops = Arrays.copyOf(emitter.ops, emitter.size);
+        this.args = Arrays.copyOf(emitter.args, emitter.size);
+        this.jumps = Arrays.copyOf(emitter.jumps, emitter.size);
+        this.classes = emitter.classes.toArray(new CharClass[0]);
+    }
+
+    /**
+     * Compiles a regular expression.
+     *
+     * @param regex The regular expression, that must be valid for
+     *              {@link java.util.regex.Pattern}.
+     * @return The program, or null if the expression is not in the supported subset.
+     */
+    static RegexProgram compile(final String regex) {
+        try {
+            Node node = new Parser(regex).parse();
+            Emitter emitter = new Emitter();
+            emitter.emit(node);
+            emitter.add(MATCH, 0, 0);
+            return new RegexProgram(emitter);
+        } catch (UnsupportedSyntax e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the number of instructions of the program.
+     *
+     * @return The size of the program.
+     */
+    int size() {
+        return ops.length;
+    }
+
+    /**
+     * Creates a matcher of the program, that must not be shared between threads.
+     *
+     * @param budget The budget charged with the steps of the matcher.
+     * @return The matcher.
+     */
+    Matcher matcher(final RegexBudget budget) {
+        return new Matcher(budget);
+    }
+
+    private static boolean isLineTerminator(final int c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || (c | 1) == '\u2029';
+    }
+
+    private static boolean isAsciiLetter(final int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static int toAsciiLower(final int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /**
+     * Runs a program over texts, reusing its thread lists.
+     */
+    final class Matcher {
+        private final RegexBudget budget;
+        private final ThreadList current = new ThreadList(ops.length);
+        private final ThreadList next = new ThreadList(ops.length);
+        private final int[] stack = new int[ops.length];
+        private int steps;
+
+        private Matcher(final RegexBudget budget) {
+            this.budget = budget;
+        }
+
+        /**
+         * Tells whether the whole text matches the program.
+         *
+         * @param text The text.
+         * @return true if the text matches.
+         * @throws java.util.concurrent.CancellationException If the budget runs out.
+         */
+        boolean matches(final CharSequence text) {
+            ThreadList threads = current;
+            ThreadList nextThreads = next;
+            threads.clear();
+            boolean matched = addThread(threads, 0, text, 0);
+            int position = 0;
+            while (position < text.length() && threads.size > 0) {
+                int c = Character.codePointAt(text, position);
+                int nextPosition = position + Character.charCount(c);
+                nextThreads.clear();
+                matched = false;
+                for (int i = 0; i < threads.size; i++) {
+                    int pc = threads.dense[i];
+                    if (consumes(pc, c)) {
+                        matched |= addThread(nextThreads, pc + 1, text, nextPosition);
+                    }
+                }
+                ThreadList swap = threads;
+                threads = nextThreads;
+                nextThreads = swap;
+                position = nextPosition;
+            }
+            budget.charge(steps);
+            steps = 0;
+            return matched && position == text.length();
+        }
+
+        private boolean consumes(final int pc, final int c) {
+            switch (ops[pc]) {
+                case CHAR:
+                    return args[pc] == c || toAsciiLower(c) == args[pc];
+                case ANY:
+                    return !isLineTerminator(c);
+                case CLASS:
+                    return classes[args[pc]].matches(c);
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Adds the thread at a state, and the threads its empty transitions lead to.
+         *
+         * @return true if the match state has been reached.
+         */
+        private boolean addThread(final ThreadList threads, final int start,
+                                  final CharSequence text, final int position) {
+            boolean matched = false;
+            int top = 0;
+            stack[top++] = start;
+            while (top > 0) {
+                int pc = stack[--top];
+                if (!threads.add(pc)) {
+                    continue;
+                }
+                if (++steps >= RegexBudget.BATCH_STEPS) {
+                    budget.charge(steps);
+                    steps = 0;
+                }
+                switch (ops[pc]) {
+                    case SPLIT:
+                        stack[top++] = jumps[pc];
+                        stack[top++] = args[pc];
+                        break;
+                    case JUMP:
+                        stack[top++] = args[pc];
+                        break;
+                    case BEGIN:
+                        if (position == 0) {
+                            stack[top++] = pc + 1;
+                        }
+                        break;
+                    case END:
+                        if (isEnd(text, position)) {
+                            stack[top++] = pc + 1;
+                        }
+                        break;
+                    case MATCH:
+                        matched = true;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return matched;
+        }
+
+        /**
+         * Tells whether {@code $} holds at a position: at the end of the text, or before
+         * a line terminator ending it.
+         */
+        private boolean isEnd(final CharSequence text, final int position) {
+            int length = text.length();
+            if (position < length - 2) {
+                return false;
+            }
+            if (position == length - 2) {
+                return text.charAt(position) == '\r' && text.charAt(position + 1) == '\n';
+            }
+            if (position < length) {
+                char c = text.charAt(position);
+                if (c == '\n') {
+                    return position == 0 || text.charAt(position - 1) != '\r';
+                }
+                return isLineTerminator(c);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A set of states, cleared in constant time.
+     */
+    private static final class ThreadList {
+        private final int[] dense;
+        private final int[] sparse;
+        private int size;
+
+        private ThreadList(final int capacity) {
+            this.dense = new int[capacity];
+            this.sparse = new int[capacity];
+        }
+
+        private boolean add(final int pc) {
+            int index = sparse[pc];
+            if (index < size && dense[index] == pc) {
+                return false;
+            }
+            sparse[pc] = size;
+            dense[size++] = pc;
+            return true;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * A character class: ranges of code points and predefined classes, possibly negated.
+     */
+    private static final class CharClass {
+        private final int[] ranges;
+        private final List<CharClass> predefined;
+        private final boolean negated;
+
+        private CharClass(final int[] ranges, final List<CharClass> predefined,
+                          final boolean negated) {
+            this.ranges = ranges;
+            this.predefined = predefined;
+            this.negated = negated;
+        }
+
+        private static CharClass of(final boolean negated, final int... ranges) {
+            return new CharClass(ranges, List.of(), negated);
+        }
+
+        private boolean contains(final int c) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (c >= ranges[i] && c <= ranges[i + 1]) {
+                    return true;
+                }
+            }
+            for (CharClass charClass : predefined) {
+                if (charClass.matches(c)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean matches(final int c) {
+            boolean contained = contains(c)
+                    || isAsciiLetter(c) && contains(c ^ ('a' - 'A'));
+            return contained != negated;
+        }
+    }
+
+    /**
+     * A node of the syntax tree of an expression.
+     */
+    private static final class Node {
+        private final int op;
+        private final int value;
+        private final CharClass charClass;
+        private final List<Node> children;
+        private final int min;
+        private final int max;
+
+        private Node(final int op, final int value, final CharClass charClass,
+                     final List<Node> children, final int min, final int max) {
+            this.op = op;
+            this.value = value;
+            this.charClass = charClass;
+            this.children = children;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /**
+     * Thrown when the expression uses syntax outside the supported subset.
+     */
+    private static final class UnsupportedSyntax extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedSyntax() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Parses an expression into a syntax tree.
+     */
+    private static final class Parser {
+        private static final CharClass DIGIT = CharClass.of(false, '0', '9');
+        private static final CharClass WORD =
+                CharClass.of(false, 'a', 'z', 'A', 'Z', '0', '9', '_', '_');
+        private static final CharClass SPACE =
+                CharClass.of(false, ' ', ' ', '\t', '\r');
+
+        private final int[] pattern;
+        private int position;
+
+        private Parser(final String regex) {
+            this.pattern = regex.codePoints().toArray();
+        }
+
+        private Node parse() {
+            Node node = parseAlternation();
+            if (position != pattern.length) {
+                throw new UnsupportedSyntax();
+            }
+            return node;
+        }
+
+        private boolean peek(final int c) {
+            return position < pattern.length && pattern[position] == c;
+        }
+
+        private int next() {
+            if (position == pattern.length) {
+                throw new UnsupportedSyntax();
+            }
+            return pattern[position++];
+        }
+
+        private Node parseAlternation() {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseConcatenation());
+            while (peek('|')) {
+                position++;
+                alternatives.add(parseConcatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0)
+                    : new Node(ALTERNATION, 0, null, alternatives, 0, 0);
+        }
+
+        private Node parseConcatenation() {
+            List<Node> nodes = new ArrayList<>();
+            while (position < pattern.length && !peek('|') && !peek(')')) {
+                nodes.add(parseRepetition());
+            }
+            return new Node(CONCAT, 0, null, nodes, 0, 0);
+        }
+
+        private Node parseRepetition() {
+            Node atom = parseAtom();
+            if (position == pattern.length) {
+                return atom;
+            }
+            int min;
+            int max;
+            int c = pattern[position];
+            if (c == '*' || c == '+' || c == '?') {
+                position++;
+                min = c == '+' ? 1 : 0;
+                max = c == '?' ? 1 : -1;
+            } else if (c == '{') {
+                position++;
+                min = parseNumber();
+                max = min;
+                if (peek(',')) {
+                    position++;
+                    max = peek('}') ? -1 : parseNumber();
+                }
+                if (next() != '}' || max != -1 && max < min) {
+                    throw new UnsupportedSyntax();
+                }
+            } else {
+                return atom;
+            }
+            if (atom.op == BEGIN || atom.op == END) {
+                throw new UnsupportedSyntax();
+            }
+            if (peek('?')) {
+                // A lazy quantifier matches the same texts
+                position++;
+            }
+            if (peek('+') || peek('*') || peek('?') || peek('{')) {
+                throw new UnsupportedSyntax();
+            }
+            return new Node(REPEAT, 0, null, List.of(atom), min, max);
+        }
+
+        private int parseNumber() {
+            int start = position;
+            long value = 0;
+            while (position < pattern.length && pattern[position] >= '0'
+                    && pattern[position] <= '9') {
+                value = value * 10 + pattern[position++] - '0';
+                if (value > MAX_SIZE) {
+                    throw new UnsupportedSyntax();
+                }
+            }
+            if (position == start) {
+                throw new UnsupportedSyntax();
+            }
+            return (int) value;
+        }
+
+        private Node parseAtom() {
+            int c = next();
+            switch (c) {
+                case '(':
+                    if (peek('?')) {
+                        position++;
+                        if (next() != ':') {
+                            throw new UnsupportedSyntax();
+                        }
+                    }
+                    Node group = parseAlternation();
+                    if (next() != ')') {
+                        throw new UnsupportedSyntax();
+                    }
+                    return group;
+                case '[':
+                    return classNode(parseClass());
+                case '.':
+                    return new Node(ANY, 0, null, null, 0, 0);
+                case '^':
+                    return new Node(BEGIN, 0, null, null, 0, 0);
+                case '$':
+                    return new Node(END, 0, null, null, 0, 0);
+                case '\\':
+                    CharClass predefined = parsePredefined();
+                    return predefined != null ? classNode(predefined) : charNode(parseEscape());
+                case ')':
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new UnsupportedSyntax();
+                default:
+                    return charNode(c);
+            }
+        }
+
+        private static Node charNode(final int c) {
+            return new Node(CHAR, toAsciiLower(c), null, null, 0, 0);
+        }
+
+        private static Node classNode(final CharClass charClass) {
+            return new Node(CLASS, 0, charClass, null, 0, 0);
+        }
+
+        /**
+         * Parses the predefined class following a backslash, if any.
+         */
+        private CharClass parsePredefined() {
+            if (position == pattern.length) {
+                throw new UnsupportedSyntax();
+            }
+            CharClass predefined;
+            switch (pattern[position]) {
+                case 'd':
+                case 'D':
+                    predefined = DIGIT;
+                    break;
+                case 'w':
+                case 'W':
+                    predefined = WORD;
+                    break;
+                case 's':
+                case 'S':
+                    predefined = SPACE;
+                    break;
+                default:
+                    return null;
+            }
+            boolean negated = Character.isUpperCase(pattern[position++]);
+            return negated ? new CharClass(new int[0], List.of(predefined), true) : predefined;
+        }
+
+        /**
+         * Parses the escaped character following a backslash.
+         */
+        private int parseEscape() {
+            int c = next();
+            switch (c) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'e':
+                    return '\u001B';
+                case 'a':
+                    return '\u0007';
+                default:
+                    if (c >= 128 || Character.isLetterOrDigit(c)) {
+                        throw new UnsupportedSyntax();
+                    }
+                    return c;
+            }
+        }
+
+        private CharClass parseClass() {
+            boolean negated = peek('^');
+            if (negated) {
+                position++;
+            }
+            if (peek(']')) {
+                throw new UnsupportedSyntax();
+            }
+            List<Integer> ranges = new ArrayList<>();
+            List<CharClass> predefined = new ArrayList<>();
+            while (!peek(']')) {
+                int c = next();
+                if (c == '[' || c == '&' && peek('&')) {
+                    throw new UnsupportedSyntax();
+                }
+                if (c == '\\') {
+                    CharClass escapedClass = parsePredefined();
+                    if (escapedClass != null) {
+                        if (peek('-')) {
+                            throw new UnsupportedSyntax();
+                        }
+                        predefined.add(escapedClass);
+                        continue;
+                    }
+                    c = parseEscape();
+                }
+                int last = c;
+                if (peek('-') && position + 1 < pattern.length
+                        && pattern[position + 1] != ']') {
+                    position++;
+                    last = next();
+                    if (last == '[') {
+                        throw new UnsupportedSyntax();
+                    }
+                    if (last == '\\') {
+                        if (parsePredefined() != null) {
+                            throw new UnsupportedSyntax();
+                        }
+                        last = parseEscape();
+                    }
+                    if (last < c) {
+                        throw new UnsupportedSyntax();
+                    }
+                }
+                ranges.add(c);
+                ranges.add(last);
+            }
+            position++;
+            int[] bounds = ranges.stream().mapToInt(Integer::intValue).toArray();
+            return new CharClass(bounds, predefined, negated);
+        }
+    }
+
+    /**
+     * Emits the instructions of a syntax tree.
+     */
+    private static final class Emitter {
+        private int[] ops = new int[16];
+        private int[] args = new int[16];
+        private int[] jumps = new int[16];
+        private int size;
+        private final List<CharClass> classes = new ArrayList<>();
+
+        private int add(final int op, final int arg, final int jump) {
+            if (size == MAX_SIZE) {
+                throw new UnsupportedSyntax();
+            }
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                args = Arrays.copyOf(args, size * 2);
+                jumps = Arrays.copyOf(jumps, size * 2);
+            }
+            ops[size] = op;
+            args[size] = arg;
+            jumps[size] = jump;
+            return size++;
+        }
+
+        private void emit(final Node node) {
+            switch (node.op) {
+                case CHAR:
+                    add(CHAR, node.value, 0);
+                    break;
+                case CLASS:
+                    classes.add(node.charClass);
+                    add(CLASS, classes.size() - 1, 0);
+                    break;
+                case ANY:
+                case BEGIN:
+                case END:
+                    add(node.op, 0, 0);
+                    break;
+                case CONCAT:
+                    for (Node child : node.children) {
+                        emit(child);
+                    }
+                    break;
+                case ALTERNATION:
+                    emitAlternation(node.children);
+                    break;
+                default:
+                    emitRepetition(node.children.get(0), node.min, node.max);
+                    break;
+            }
+        }
+
+        private void emitAlternation(final List<Node> alternatives) {
+            List<Integer> exits = new ArrayList<>();
+            for (int i = 0; i < alternatives.size() - 1; i++) {
+                int split = add(SPLIT, size + 1, 0);
+                emit(alternatives.get(i));
+                exits.add(add(JUMP, 0, 0));
+                jumps[split] = size;
+            }
+            emit(alternatives.get(alternatives.size() - 1));
+            for (int exit : exits) {
+                args[exit] = size;
+            }
+        }
+
+        private void emitRepetition(final Node node, final int min, final int max) {
+            for (int i = 0; i < min; i++) {
+                emit(node);
+            }
+            if (max == -1) {
+                int split = add(SPLIT, size + 1, 0);
+                emit(node);
+                add(JUMP, split, 0);
+                jumps[split] = size;
+                return;
+            }
+            List<Integer> splits = new ArrayList<>();
+            for (int i = min; i < max; i++) {
+                splits.add(add(SPLIT, size + 1, 0));
+                emit(node);
+            }
+            for (int split : splits) {
+                jumps[split] = size;
+            }
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.MessageFilter;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,32 +17,169 @@ import java.util.regex.Pattern;
  * The RegexSearchStrategy class implements the SearchStrategy interface and represents
  * a strategy for searching messages based on regular expression matches.
  *
- * @version 1.0
+ * <p>In a {@link MessageHistory}, the literal fragments that the expression requires are
+ * looked up in its {@link fr.univ_lyon1.info.m1.elizagpt.model.message.TrigramIndex}, and
+ * only the messages containing them are matched. An expression without such fragments is
+ * matched against all the messages.</p>
+ *
+ * <p>Expressions are matched by a {@link RegexProgram}, in time linear in the length of
+ * the messages, so that no expression can stall the search. Expressions using syntax it
+ * does not support, such as back-references or word boundaries, are matched by
+ * {@link Pattern} instead, taking at most {@value #DEFAULT_STEP_BUDGET} steps per message
+ * unless the {@value #STEP_BUDGET_PROPERTY} system property says otherwise: a match
+ * backtracking beyond stops the search with a {@link CancellationException}. A search may
+ * also be given a {@link RegexBudget}, bounding the steps of all its matches, and through
+ * which it can be cancelled. The latest compiled expressions are kept, so that a repeated
+ * search does not compile them again.</p>
+ *
+ * @version 1.3
  */
 public final class RegexSearchStrategy implements SearchStrategy {
 
+    /**
+     * The system property setting the step budget of a message matched by {@link Pattern}.
+     */
+    public static final String STEP_BUDGET_PROPERTY = "elizagpt.search.regexStepBudget";
+
+    /**
+     * The default step budget of a message matched by {@link Pattern}: matchers take
+     * 100,000 to 160,000 steps per millisecond, so a backtracking match stops after about
+     * a frame of the view.
+     */
+    public static final long DEFAULT_STEP_BUDGET = 2_000_000L;
+
+    /**
+     * The maximal number of compiled expressions kept.
+     */
+    static final int COMPILED_CAPACITY = 64;
+
     private static RegexSearchStrategy instance = null;
 
+    private final Map<String, CompiledRegex> compiled =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<String, CompiledRegex> eldest) {
+                    return size() > COMPILED_CAPACITY;
+                }
+            };
+
     /**
      * Searches for messages containing the specified regular expression match
-     * within the provided list of messages.
+     * within the provided list of messages, without bounding the steps of the whole search.
      *
      * @param messages The list of messages to search within.
      * @param text     The regular expression to search for within messages.
      * @return A list of messages that contain the specified regular expression match.
+     * @throws CancellationException If the match of a message runs out of steps.
      */
     @Override
     public List<Message> search(final List<Message> messages, final String text) {
-        Pattern pattern = Pattern.compile(".*" + text + ".*", Pattern.CASE_INSENSITIVE);
+        return search(messages, text, newBudget());
+    }
 
-        ArrayList<Message> filteredMessages = new ArrayList<>();
-        for (Message message : messages) {
-            Matcher matcher = pattern.matcher(message.getText());
-            if (matcher.matches()) {
-                filteredMessages.add(message);
-            }
+    /**
+     * Searches for messages containing the specified regular expression match
+     * within the provided list of messages, within a step budget.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The regular expression to search for within messages.
+     * @param budget   The budget of the search, which may be cancelled from another thread.
+     * @return A list of messages that contain the specified regular expression match.
+     * @throws CancellationException If the budget or the match of a message runs out, or
+     *                               the search is cancelled.
+     */
+    public List<Message> search(final List<Message> messages, final String text,
+                                final RegexBudget budget) {
+        CompiledRegex regex = compile(text);
+        return MessageFilter.getInstance().filter(candidates(messages, text),
+                () -> matcher(regex, budget));
+    }
+
+    /**
+     * Gets the messages containing the literal fragments required by the regular
+     * expression in a {@link MessageHistory}, or all the messages of another list.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The regular expression, that must be valid.
+     * @return The candidate messages.
+     */
+    @Override
+    public List<Message> candidates(final List<Message> messages, final String text) {
+        if (messages instanceof MessageHistory) {
+            return ((MessageHistory) messages).getTrigramIndex()
+                    .findCandidates(RegexLiterals.extract(text));
+        }
+        return messages;
+    }
+
+    /**
+     * Gets a predicate telling whether a message contains a match of the regular
+     * expression, without bounding the steps of all its matches.
+     *
+     * @param text The regular expression to search for within messages.
+     * @return The predicate.
+     * @throws java.util.regex.PatternSyntaxException If the expression is not valid.
+     */
+    @Override
+    public Predicate<Message> matcher(final String text) {
+        return matcher(text, newBudget());
+    }
+
+    /**
+     * Gets a predicate telling whether a message contains a match of the regular
+     * expression, within a step budget.
+     *
+     * @param text   The regular expression to search for within messages.
+     * @param budget The budget charged by the predicate.
+     * @return The predicate, throwing a {@link CancellationException} once the budget or
+     *         the match of a message runs out, or the budget is cancelled.
+     * @throws java.util.regex.PatternSyntaxException If the expression is not valid.
+     */
+    public Predicate<Message> matcher(final String text, final RegexBudget budget) {
+        return matcher(compile(text), budget);
+    }
+
+    /**
+     * Tells whether a regular expression is matched in linear time, or by {@link Pattern}.
+     *
+     * @param text The regular expression.
+     * @return true if the expression is matched in linear time.
+     * @throws java.util.regex.PatternSyntaxException If the expression is not valid.
+     */
+    public boolean isLinear(final String text) {
+        return compile(text).program != null;
+    }
+
+    private synchronized CompiledRegex compile(final String text) {
+        CompiledRegex regex = compiled.get(text);
+        if (regex == null) {
+            String expression = ".*" + text + ".*";
+            Pattern pattern = Pattern.compile(expression, Pattern.CASE_INSENSITIVE);
+            regex = new CompiledRegex(pattern, RegexProgram.compile(expression));
+            compiled.put(text, regex);
+        }
+        return regex;
+    }
+
+    private static RegexBudget newBudget() {
+        return new RegexBudget(Long.MAX_VALUE);
+    }
+
+    private static Predicate<Message> matcher(final CompiledRegex regex,
+                                              final RegexBudget budget) {
+        if (regex.program != null) {
+            RegexProgram.Matcher matcher = regex.program.matcher(budget);
+            return message -> matcher.matches(message.getText());
         }
-        return filteredMessages;
+        BudgetedText text = new BudgetedText(budget,
+                Long.getLong(STEP_BUDGET_PROPERTY, DEFAULT_STEP_BUDGET));
+        Matcher matcher = regex.pattern.matcher(text);
+        return message -> {
+            boolean matches = matcher.reset(text.wrap(message.getText())).matches();
+            text.chargeSteps();
+            return matches;
+        };
     }
 
     /**
@@ -64,4 +206,75 @@ public final class RegexSearchStrategy implements SearchStrategy {
     public String toString() {
         return "Regexp";
     }
+
+    /**
+     * A regular expression compiled for {@link Pattern}, and for {@link RegexProgram} if
+     * it is in the supported subset.
+     */
+    private static final class CompiledRegex {
+        private final Pattern pattern;
+        private final RegexProgram program;
+
+        private CompiledRegex(final Pattern pattern, final RegexProgram program) {
+            this.pattern = pattern;
+            this.program = program;
+        }
+    }
+
+    /**
+     * A text charging a budget with each character {@link Pattern} reads, so that a
+     * backtracking match stops once the budget, or the steps of the current message, run
+     * out.
+     */
+    private static final class BudgetedText implements CharSequence {
+        private final RegexBudget budget;
+        private final long messageSteps;
+        private CharSequence text = "";
+        private int steps;
+        private long chargedSteps;
+
+        private BudgetedText(final RegexBudget budget, final long messageSteps) {
+            this.budget = budget;
+            this.messageSteps = messageSteps;
+        }
+
+        private BudgetedText wrap(final CharSequence wrapped) {
+            this.text = wrapped;
+            chargedSteps = 0;
+            return this;
+        }
+
+        private void chargeSteps() {
+            budget.charge(steps);
+            chargedSteps += steps;
+            steps = 0;
+            if (chargedSteps > messageSteps) {
+                throw new CancellationException(
+                        "The regular expression exceeded its step budget");
+            }
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (++steps >= RegexBudget.BATCH_STEPS) {
+                chargeSteps();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
 }
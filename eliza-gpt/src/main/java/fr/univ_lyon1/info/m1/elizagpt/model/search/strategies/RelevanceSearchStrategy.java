@@ -0,0 +1,109 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.RelevanceIndex;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The RelevanceSearchStrategy class implements the SearchStrategy interface and represents
+ * a strategy returning the messages most relevant to the searched words, the most
+ * relevant first, ranked by BM25 over their folded terms.
+ *
+ * <p>A {@link fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory} keeps the
+ * frequencies of its terms in its {@link RelevanceIndex}; any other list is indexed for
+ * the search only, except a
+ * {@link fr.univ_lyon1.info.m1.elizagpt.model.message.SegmentedHistory}, which is refused.</p>
+ *
+ * @version 1.0
+ */
+public final class RelevanceSearchStrategy implements SearchStrategy {
+
+    /**
+     * The maximal number of messages returned by a search.
+     */
+    public static final int MAX_RESULTS = 100;
+
+    private static RelevanceSearchStrategy instance = null;
+
+    /**
+     * Searches for the messages most relevant to the specified words within the provided
+     * list of messages.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The words to search for within messages.
+     * @return A list of at most {@value #MAX_RESULTS} messages using at least one of the
+     *         words, the most relevant first.
+     * @throws IllegalArgumentException If the messages are a segmented history.
+     */
+    @Override
+    public List<Message> search(final List<Message> messages, final String text) {
+        RelevanceIndex index = HistoryIndexes.relevanceIndex(messages, this);
+        return index.findMostRelevant(text, MAX_RESULTS);
+    }
+
+    /**
+     * Gets the most relevant messages, which are the results of the search.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The words to search for within messages.
+     * @return The most relevant messages, the most relevant first.
+     */
+    @Override
+    public List<Message> candidates(final List<Message> messages, final String text) {
+        return search(messages, text);
+    }
+
+    /**
+     * Gets a predicate telling whether a message uses at least one of the words, which
+     * every candidate does.
+     *
+     * @param text The words to search for within messages.
+     * @return The predicate.
+     */
+    @Override
+    public Predicate<Message> matcher(final String text) {
+        Set<String> terms = RelevanceIndex.terms(text);
+        return message -> !Collections.disjoint(
+                RelevanceIndex.terms(message.getFoldedText()), terms);
+    }
+
+    /**
+     * Tells that the results are ordered by relevance.
+     *
+     * @return true.
+     */
+    @Override
+    public boolean isRanked() {
+        return true;
+    }
+
+    /**
+     * Gets the singleton instance of RelevanceSearchStrategy.
+     *
+     * @return The singleton instance of RelevanceSearchStrategy.
+     */
+    public static RelevanceSearchStrategy getInstance() {
+        if (instance == null) {
+            instance = new RelevanceSearchStrategy();
+        }
+        return instance;
+    }
+
+    // Private constructor to enforce singleton pattern
+    private RelevanceSearchStrategy() { }
+
+    /**
+     * Returns a string representation of the RelevanceSearchStrategy.
+     *
+     * @return The string representation of the RelevanceSearchStrategy.
+     */
+    @Override
+    public String toString() {
+        return "Pertinence";
+    }
+}
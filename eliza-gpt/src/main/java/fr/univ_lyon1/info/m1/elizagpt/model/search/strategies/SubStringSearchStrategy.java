@@ -1,16 +1,24 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.TextFolding;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.MessageFilter;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * The SubStringSearchStrategy class implements the SearchStrategy interface and represents
  * a strategy for searching messages based on substring matches.
  *
- * @version 1.0
+ * <p>In a {@link MessageHistory}, only the messages containing all the trigrams of the
+ * substring, found by its {@link fr.univ_lyon1.info.m1.elizagpt.model.message.TrigramIndex},
+ * are checked.</p>
+ *
+ * @version 1.1
  */
 public final class SubStringSearchStrategy implements SearchStrategy {
 
@@ -21,18 +29,55 @@ public final class SubStringSearchStrategy implements SearchStrategy {
      * within the provided list of messages.
      *
      * @param messages The list of messages to search within.
-     * @param text     The substring to search for within messages.
+     * @param text     The substring to search for within messages, in any case.
      * @return A list of messages that contain the specified substring.
      */
     @Override
     public List<Message> search(final List<Message> messages, final String text) {
-        ArrayList<Message> filteredMessages = new ArrayList<>();
-        for (Message message : messages) {
-            if (message.getText().toLowerCase().contains(text.toLowerCase())) {
-                filteredMessages.add(message);
-            }
+        return MessageFilter.getInstance().filter(candidates(messages, text),
+                () -> matcher(text));
+    }
+
+    /**
+     * Gets the messages containing all the trigrams of the substring in a
+     * {@link MessageHistory}, or all the messages of another list.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The substring to search for within messages.
+     * @return The candidate messages.
+     */
+    @Override
+    public List<Message> candidates(final List<Message> messages, final String text) {
+        if (messages instanceof MessageHistory) {
+            return ((MessageHistory) messages).getTrigramIndex()
+                    .findCandidates(Collections.singletonList(TextFolding.lowerCase(text)));
         }
-        return filteredMessages;
+        return messages;
+    }
+
+    /**
+     * Gets a predicate telling whether a message contains the substring, in any case.
+     *
+     * @param text The substring to search for within messages.
+     * @return The predicate.
+     */
+    @Override
+    public Predicate<Message> matcher(final String text) {
+        String lowerCaseText = TextFolding.lowerCase(text);
+        return message -> message.getLowerCaseText().contains(lowerCaseText);
+    }
+
+    /**
+     * Tells whether a text contains a previous text, so that every message containing
+     * the text also contains the previous one.
+     *
+     * @param previousText The previously searched substring.
+     * @param text         The substring to search for.
+     * @return true if the lower-cased text contains the lower-cased previous text.
+     */
+    @Override
+    public boolean isRefinement(final String previousText, final String text) {
+        return TextFolding.lowerCase(text).contains(TextFolding.lowerCase(previousText));
     }
 
     /**
@@ -1,10 +1,13 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.WordIndex;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.MessageFilter;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,7 +15,12 @@ import java.util.regex.Pattern;
  * The WordSearchStrategy class implements the SearchStrategy interface and represents
  * a strategy for searching messages based on complete word matches.
  *
- * @version 1.0
+ * <p>When the messages are a {@link MessageHistory} and the searched text is a single
+ * word, the messages are read from the {@link WordIndex} of the history instead of
+ * being matched one by one. Otherwise, the words are matched across the lines of the
+ * messages, like the index finds them.</p>
+ *
+ * @version 1.2
  */
 public final class WordSearchStrategy implements SearchStrategy {
 
@@ -28,15 +36,74 @@ public final class WordSearchStrategy implements SearchStrategy {
      */
     @Override
     public List<Message> search(final List<Message> messages, final String text) {
-        ArrayList<Message> filteredMessages = new ArrayList<>();
-        Pattern pattern = Pattern.compile(".*\\b" + text + "\\b.*", Pattern.CASE_INSENSITIVE);
-        for (Message message : messages) {
-            Matcher matcher = pattern.matcher(message.getText());
-            if (matcher.matches()) {
-                filteredMessages.add(message);
+        if (messages instanceof MessageHistory && WordIndex.isWord(text)) {
+            return ((MessageHistory) messages).getWordIndex().find(text);
+        }
+        Pattern pattern = compile(text);
+        return MessageFilter.getInstance().filter(candidates(messages, text),
+                () -> matcher(pattern));
+    }
+
+    /**
+     * Gets the messages using the first word of the text in a {@link MessageHistory},
+     * when the text is made of words separated by spaces, or all the messages otherwise.
+     *
+     * @param messages The list of messages to search within.
+     * @param text     The complete words to search for within messages.
+     * @return The candidate messages.
+     */
+    @Override
+    public List<Message> candidates(final List<Message> messages, final String text) {
+        if (messages instanceof MessageHistory && areWords(text)) {
+            int firstSpace = text.indexOf(' ');
+            return ((MessageHistory) messages).getWordIndex()
+                    .find(firstSpace < 0 ? text : text.substring(0, firstSpace));
+        }
+        return messages;
+    }
+
+    /**
+     * Gets a predicate telling whether a message contains the complete words.
+     *
+     * @param text The complete words to search for within messages.
+     * @return The predicate.
+     */
+    @Override
+    public Predicate<Message> matcher(final String text) {
+        return matcher(compile(text));
+    }
+
+    private static Pattern compile(final String text) {
+        return Pattern.compile(".*\\b" + text + "\\b.*",
+                Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+
+    private static Predicate<Message> matcher(final Pattern pattern) {
+        Matcher matcher = pattern.matcher("");
+        return message -> matcher.reset(message.getText()).matches();
+    }
+
+    /**
+     * Tells whether a text adds words after a previous text: "je suis" is only found
+     * in messages where "je" is a complete word.
+     *
+     * @param previousText The previously searched words.
+     * @param text         The words to search for.
+     * @return true if both texts are words separated by single spaces, and the text
+     *         starts with the words of the previous text.
+     */
+    @Override
+    public boolean isRefinement(final String previousText, final String text) {
+        return text.startsWith(previousText + " ") && areWords(text);
+    }
+
+    private static boolean areWords(final String text) {
+        for (String word : text.split(" ", -1)) {
+            if (!WordIndex.isWord(word)) {
+                return false;
             }
         }
-        return filteredMessages;
+        return true;
     }
 
     /**
@@ -0,0 +1,358 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The CompiledVerbDictionary class is a read-only, binary version of the verb
+ * conjugation CSV file.
+ *
+ * <p>The file is made of a string pool, where each distinct form is stored once in
+ * UTF-8, and of a table giving, for each (verb, column) cell, the index of its form
+ * in the pool. All integers are big-endian:</p>
+ * <pre>
+ * int    magic ("ELZV")
+ * int    version
+ * int    columnCount
+ * int    rowCount
+ * int    poolSize
+ * int[]  column names, as pool indices          (columnCount)
+ * int[]  cells, row by row, as pool indices     (rowCount * columnCount)
+ * int[]  byte offset of each pooled string      (poolSize + 1)
+ * byte[] UTF-8 bytes of the pooled strings
+ * </pre>
+ *
+ * <p>The dictionary is read directly from a (usually memory-mapped) buffer and
+ * forms are only decoded when they are asked for; they can even be hashed and compared
+ * without being decoded.</p>
+ *
+ * @version 1.2
+ */
+public final class CompiledVerbDictionary {
+
+    /**
+     * The magic number at the start of every compiled dictionary.
+     */
+    public static final int MAGIC = 0x454C5A56;
+
+    /**
+     * The version of the binary format.
+     */
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int columnCount;
+    private final int rowCount;
+    private final int poolSize;
+    private final int cellsOffset;
+    private final int poolOffsetsOffset;
+    private final int poolDataOffset;
+    private final String[] columnNames;
+
+    private CompiledVerbDictionary(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Not a compiled verb dictionary");
+        }
+        this.columnCount = buffer.getInt(2 * Integer.BYTES);
+        this.rowCount = buffer.getInt(3 * Integer.BYTES);
+        this.poolSize = buffer.getInt(4 * Integer.BYTES);
+        this.cellsOffset = HEADER_SIZE + columnCount * Integer.BYTES;
+        this.poolOffsetsOffset = cellsOffset + rowCount * columnCount * Integer.BYTES;
+        this.poolDataOffset = poolOffsetsOffset + (poolSize + 1) * Integer.BYTES;
+        this.columnNames = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnNames[i] = poolString(buffer.getInt(HEADER_SIZE + i * Integer.BYTES));
+        }
+    }
+
+    /**
+     * Maps the specified compiled dictionary file in memory, read-only.
+     *
+     * @param file The compiled dictionary file.
+     * @return The dictionary backed by the mapped file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static CompiledVerbDictionary open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CompiledVerbDictionary(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a compiled dictionary from the specified buffer.
+     *
+     * @param buffer The buffer holding the compiled dictionary.
+     * @return The dictionary backed by the buffer.
+     */
+    public static CompiledVerbDictionary wrap(final ByteBuffer buffer) {
+        return new CompiledVerbDictionary(buffer);
+    }
+
+    /**
+     * Gets the number of verbs in the dictionary.
+     *
+     * @return The number of verbs.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the number of distinct forms stored in the string pool.
+     *
+     * @return The size of the string pool.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Gets the index of the column with the specified title.
+     *
+     * @param columnName The title of the column, as in the CSV header.
+     * @return The index of the column, or -1 if the dictionary does not hold it.
+     */
+    public int getColumnIndex(final String columnName) {
+        return Arrays.asList(columnNames).indexOf(columnName);
+    }
+
+    /**
+     * Gets the form stored in the specified cell, decoding it from the pool.
+     *
+     * @param row    The index of the verb.
+     * @param column The index of the column.
+     * @return The form, or an empty string if the cell is empty.
+     */
+    public String get(final int row, final int column) {
+        return poolString(getPoolIndex(row, column));
+    }
+
+    /**
+     * Gets the pool index of the form stored in the specified cell.
+     *
+     * @param row    The index of the verb.
+     * @param column The index of the column.
+     * @return The index of the form in the string pool.
+     */
+    public int getPoolIndex(final int row, final int column) {
+        return buffer.getInt(cellsOffset + (row * columnCount + column) * Integer.BYTES);
+    }
+
+    /**
+     * Decodes the string stored at the specified index of the pool.
+     *
+     * @param index The index in the string pool.
+     * @return The decoded string.
+     */
+    public String poolString(final int index) {
+        int start = poolStart(index);
+        int end = poolStart(index + 1);
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(poolDataOffset + start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks whether the string stored at the specified index of the pool is empty.
+     *
+     * @param index The index in the string pool.
+     * @return true if the string is empty.
+     */
+    public boolean isPoolStringEmpty(final int index) {
+        return poolStart(index) == poolStart(index + 1);
+    }
+
+    /**
+     * Computes the {@link String#hashCode()} of the string stored at the specified index
+     * of the pool, without decoding it.
+     *
+     * @param index The index in the string pool.
+     * @return The hash code of the string.
+     */
+    public int poolHashCode(final int index) {
+        int hash = 0;
+        int end = poolDataOffset + poolStart(index + 1);
+        for (int position = poolDataOffset + poolStart(index); position < end;
+                position += sequenceLength(position)) {
+            int codePoint = codePointAt(position);
+            if (Character.isBmpCodePoint(codePoint)) {
+                hash = 31 * hash + codePoint;
+            } else {
+                hash = 31 * (31 * hash + Character.highSurrogate(codePoint))
+                        + Character.lowSurrogate(codePoint);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Checks whether the string stored at the specified index of the pool is equal to
+     * the specified string, without decoding it.
+     *
+     * @param index The index in the string pool.
+     * @param value The string to compare with.
+     * @return true if the strings are equal.
+     */
+    public boolean poolEquals(final int index, final String value) {
+        int end = poolDataOffset + poolStart(index + 1);
+        int position = poolDataOffset + poolStart(index);
+        // Each char takes one to three bytes in UTF-8.
+        if (end - position < value.length() || end - position > 3 * value.length()) {
+            return false;
+        }
+        int i = 0;
+        for (; position < end; position += sequenceLength(position)) {
+            int codePoint = codePointAt(position);
+            if (i >= value.length() || value.codePointAt(i) != codePoint) {
+                return false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return i == value.length();
+    }
+
+    private int poolStart(final int index) {
+        return buffer.getInt(poolOffsetsOffset + index * Integer.BYTES);
+    }
+
+    private int sequenceLength(final int position) {
+        int first = buffer.get(position) & 0xFF;
+        if (first < 0x80) {
+            return 1;
+        }
+        if (first < 0xE0) {
+            return 2;
+        }
+        return first < 0xF0 ? 3 : 4;
+    }
+
+    private int codePointAt(final int position) {
+        int first = buffer.get(position) & 0xFF;
+        switch (sequenceLength(position)) {
+            case 1:
+                return first;
+            case 2:
+                return (first & 0x1F) << 6 | continuation(position + 1, 0);
+            case 3:
+                return (first & 0x0F) << 12 | continuation(position + 1, 6)
+                        | continuation(position + 2, 0);
+            default:
+                return (first & 0x07) << 18 | continuation(position + 1, 12)
+                        | continuation(position + 2, 6) | continuation(position + 3, 0);
+        }
+    }
+
+    private int continuation(final int position, final int shift) {
+        return (buffer.get(position) & 0x3F) << shift;
+    }
+
+    /**
+     * Compiles the specified columns of a conjugation CSV file into a binary dictionary.
+     * Rows whose selected columns are all empty are skipped, and columns missing from
+     * the file are compiled as empty.
+     *
+     * @param csvFile The CSV file, with a header line holding the column titles.
+     * @param output  The file to write the compiled dictionary to.
+     * @param columns The titles of the columns to keep.
+     * @throws IOException If the CSV file cannot be read or the output cannot be written.
+     */
+    public static void compile(final Path csvFile, final Path output,
+                               final String... columns) throws IOException {
+        Map<String, Integer> poolIndex = new HashMap<>();
+        List<String> pool = new ArrayList<>();
+        List<int[]> rows = new ArrayList<>();
+        int[] columnIndices = new int[columns.length];
+
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IOException("Empty conjugation file: " + csvFile);
+            }
+            List<String> titles = Arrays.asList(line.split(","));
+            for (int i = 0; i < columns.length; i++) {
+                columnIndices[i] = titles.indexOf(columns[i]);
+            }
+            while ((line = reader.readLine()) != null) {
+                String[] cells = line.split(",", -1);
+                String[] row = new String[columns.length];
+                boolean empty = true;
+                for (int i = 0; i < columns.length; i++) {
+                    int index = columnIndices[i];
+                    row[i] = index >= 0 && index < cells.length ? cells[index] : "";
+                    empty &= row[i].isEmpty();
+                }
+                if (!empty) {
+                    int[] indices = new int[columns.length];
+                    for (int i = 0; i < columns.length; i++) {
+                        indices[i] = intern(row[i], poolIndex, pool);
+                    }
+                    rows.add(indices);
+                }
+            }
+        }
+        int[] names = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            names[i] = intern(columns[i], poolIndex, pool);
+        }
+        write(output, names, rows, pool);
+    }
+
+    private static int intern(final String value, final Map<String, Integer> poolIndex,
+                              final List<String> pool) {
+        return poolIndex.computeIfAbsent(value, v -> {
+            pool.add(v);
+            return pool.size() - 1;
+        });
+    }
+
+    private static void write(final Path output, final int[] names, final List<int[]> rows,
+                              final List<String> pool) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(names.length);
+            out.writeInt(rows.size());
+            out.writeInt(pool.size());
+            for (int name : names) {
+                out.writeInt(name);
+            }
+            for (int[] row : rows) {
+                for (int cell : row) {
+                    out.writeInt(cell);
+                }
+            }
+            List<byte[]> encoded = new ArrayList<>(pool.size());
+            int offset = 0;
+            out.writeInt(offset);
+            for (String value : pool) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                offset += bytes.length;
+                out.writeInt(offset);
+            }
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+    }
+}
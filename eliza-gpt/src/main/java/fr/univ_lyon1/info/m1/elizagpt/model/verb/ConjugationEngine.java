@@ -0,0 +1,171 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ConjugationEngine class rewrites first person singular statements
+ * ("je sais ...", "j'étais ...") into second person plural ones
+ * ("vous savez ...", "vous étiez ...").
+ *
+ * <p>The engine is built once from a list of verbs, or from all the tenses of a
+ * {@link ConjugationTable}, and stores every first person singular form in a trie.
+ * A sentence is then rewritten in a single left-to-right pass: each time a "je "
+ * or a "j'" is found, the trie is walked from the next character and the matched
+ * form is replaced by its second person plural.</p>
+ *
+ * <p>When several forms match at the same position, the verb that comes first
+ * in the list wins, which is the behavior of applying one replacement per verb
+ * in list order. With a table, only the forms followed by the end of a word are
+ * replaced, and the longest of them wins, so that "je finissais" is not read as
+ * "je finis" followed by "sais"; a form shared by several tenses is taken in the
+ * present.</p>
+ *
+ * @version 1.2
+ */
+public final class ConjugationEngine {
+
+    private static final String PRONOUN = "e ";
+    private static final String REPLACEMENT_PRONOUN = "vous ";
+    private static final String ELIDED_PRONOUN_QUOTES = "'’";
+
+    private final Node root = new Node();
+    private final boolean wholeWords;
+
+    /**
+     * A node of the trie, indexed by the next character of the form.
+     */
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private int rank = -1;
+        private String secondPlural;
+    }
+
+    /**
+     * Constructs a new ConjugationEngine from the specified verbs.
+     *
+     * @param verbs The verbs to index, in priority order.
+     */
+    public ConjugationEngine(final List<Verb> verbs) {
+        this.wholeWords = false;
+        int rank = 0;
+        for (Verb verb : verbs) {
+            insert(verb.getFirstSingular(), verb.getSecondPlural(), rank++);
+        }
+    }
+
+    /**
+     * Constructs a new ConjugationEngine from all the tenses of the specified table.
+     * Tenses are prioritized in declaration order, starting with the present.
+     *
+     * @param table The conjugation table.
+     */
+    public ConjugationEngine(final ConjugationTable table) {
+        this.wholeWords = true;
+        int rank = 0;
+        for (Tense tense : Tense.values()) {
+            for (int verb = 0; verb < table.getVerbCount(); verb++) {
+                String form = table.get(verb, tense, Person.FIRST_SINGULAR);
+                String secondPlural = table.get(verb, tense, Person.SECOND_PLURAL);
+                if (!form.isEmpty() && !secondPlural.isEmpty()) {
+                    insert(form, secondPlural, rank);
+                }
+                rank++;
+            }
+        }
+    }
+
+    private void insert(final String form, final String secondPlural, final int rank) {
+        Node node = root;
+        for (int i = 0; i < form.length(); i++) {
+            node = node.children.computeIfAbsent(form.charAt(i), c -> new Node());
+        }
+        // Keep the first verb using this form, as later ones could never be applied.
+        if (node.rank < 0) {
+            node.rank = rank;
+            node.secondPlural = secondPlural;
+        }
+    }
+
+    /**
+     * Replaces every "je &lt;form&gt;" or "j'&lt;form&gt;" of the text
+     * by "vous &lt;second plural&gt;".
+     *
+     * @param text The text to rewrite.
+     * @return The rewritten text.
+     */
+    public String rewrite(final String text) {
+        StringBuilder result = null;
+        int copied = 0;
+        int i = 0;
+        while (i < text.length()) {
+            int pronounLength = pronounLength(text, i);
+            if (pronounLength == 0) {
+                i++;
+                continue;
+            }
+            Node best = null;
+            int bestEnd = -1;
+            Node node = root;
+            int j = i + pronounLength;
+            while (j < text.length()) {
+                node = node.children.get(text.charAt(j));
+                if (node == null) {
+                    break;
+                }
+                j++;
+                if (node.rank < 0) {
+                    continue;
+                }
+                if (wholeWords ? isWordEnd(text, j) : best == null || node.rank < best.rank) {
+                    best = node;
+                    bestEnd = j;
+                }
+            }
+            if (best == null) {
+                i++;
+                continue;
+            }
+            if (result == null) {
+                result = new StringBuilder(text.length() + 16);
+            }
+            result.append(text, copied, i)
+                    .append(REPLACEMENT_PRONOUN)
+                    .append(best.secondPlural);
+            copied = bestEnd;
+            i = bestEnd;
+        }
+        if (result == null) {
+            return text;
+        }
+        return result.append(text, copied, text.length()).toString();
+    }
+
+    /**
+     * Tells whether a word of the text ends at the specified index.
+     */
+    private static boolean isWordEnd(final String text, final int index) {
+        return index == text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    /**
+     * Gets the length of the "je " or "j'" pronoun starting at the specified index.
+     *
+     * @return The length of the pronoun, or 0 if there is none at this index.
+     */
+    private static int pronounLength(final String text, final int index) {
+        char first = text.charAt(index);
+        if (first != 'j' && first != 'J') {
+            return 0;
+        }
+        if (text.startsWith(PRONOUN, index + 1)) {
+            return 1 + PRONOUN.length();
+        }
+        if (index + 1 < text.length()
+                && ELIDED_PRONOUN_QUOTES.indexOf(text.charAt(index + 1)) >= 0) {
+            return 2;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,156 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ConjugationIndex class maps first person singular forms to second person plural
+ * forms, and back, for all the tenses of a {@link ConjugationTable}.
+ *
+ * <p>Both directions are hash maps keyed by the conjugated form, built once when the
+ * verbs are loaded, so that a lookup costs the same whatever the size of the dictionary.
+ * When a form belongs to several verbs or tenses, the present tense and then the first
+ * verb of the table win.</p>
+ *
+ * <p>{@link #mirror(String)} swaps the speaker of a sentence in a single pass over its
+ * words: "je sais" becomes "vous savez" and "vous êtes" becomes "je suis".</p>
+ *
+ * @version 1.0
+ */
+public final class ConjugationIndex {
+
+    private static final String FIRST_PRONOUN = "je";
+    private static final String SECOND_PRONOUN = "vous";
+    private static final String ELIDED_PRONOUN_QUOTES = "'’";
+    private static final String VOWELS = "aàâäeéèêëiîïoôöuùûüyœæ";
+
+    private final Map<String, String> firstSingularToSecondPlural = new HashMap<>();
+    private final Map<String, String> secondPluralToFirstSingular = new HashMap<>();
+
+    /**
+     * Constructs a new ConjugationIndex from all the tenses of the specified table.
+     *
+     * @param table The conjugation table.
+     */
+    public ConjugationIndex(final ConjugationTable table) {
+        for (Tense tense : Tense.values()) {
+            for (int verb = 0; verb < table.getVerbCount(); verb++) {
+                String firstSingular = table.get(verb, tense, Person.FIRST_SINGULAR);
+                String secondPlural = table.get(verb, tense, Person.SECOND_PLURAL);
+                if (!firstSingular.isEmpty() && !secondPlural.isEmpty()) {
+                    firstSingularToSecondPlural.putIfAbsent(firstSingular, secondPlural);
+                    secondPluralToFirstSingular.putIfAbsent(secondPlural, firstSingular);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the second person plural of a first person singular form, at the same tense.
+     *
+     * @param firstSingular The first person singular form, e.g. "suis".
+     * @return The second person plural form, e.g. "êtes", or null if the form is unknown.
+     */
+    public String toSecondPlural(final String firstSingular) {
+        return firstSingularToSecondPlural.get(firstSingular);
+    }
+
+    /**
+     * Gets the first person singular of a second person plural form, at the same tense.
+     *
+     * @param secondPlural The second person plural form, e.g. "êtes".
+     * @return The first person singular form, e.g. "suis", or null if the form is unknown.
+     */
+    public String toFirstSingular(final String secondPlural) {
+        return secondPluralToFirstSingular.get(secondPlural);
+    }
+
+    /**
+     * Swaps the first person singular and the second person plural of a text.
+     * Each "je &lt;form&gt;" or "j'&lt;form&gt;" whose form is known becomes
+     * "vous &lt;second plural&gt;", and each "vous &lt;form&gt;" whose form is known
+     * becomes "je &lt;first singular&gt;", elided before a vowel. Other words are kept.
+     *
+     * @param text The text to rewrite.
+     * @return The rewritten text.
+     */
+    public String mirror(final String text) {
+        StringBuilder result = null;
+        int copied = 0;
+        int wordStart = nextWord(text, 0);
+        while (wordStart < text.length()) {
+            int wordEnd = wordEnd(text, wordStart);
+            int verbStart = -1;
+            Map<String, String> index = null;
+            if (isWord(text, wordStart, wordEnd, FIRST_PRONOUN) && wordEnd < text.length()
+                    && text.charAt(wordEnd) == ' ') {
+                verbStart = wordEnd + 1;
+                index = firstSingularToSecondPlural;
+            } else if (isWord(text, wordStart, wordEnd, "j") && wordEnd < text.length()
+                    && ELIDED_PRONOUN_QUOTES.indexOf(text.charAt(wordEnd)) >= 0) {
+                verbStart = wordEnd + 1;
+                index = firstSingularToSecondPlural;
+            } else if (isWord(text, wordStart, wordEnd, SECOND_PRONOUN)
+                    && wordEnd < text.length() && text.charAt(wordEnd) == ' ') {
+                verbStart = wordEnd + 1;
+                index = secondPluralToFirstSingular;
+            }
+            if (index == null) {
+                wordStart = nextWord(text, wordEnd);
+                continue;
+            }
+            int verbEnd = wordEnd(text, verbStart);
+            String form = verbEnd > verbStart
+                    ? index.get(text.substring(verbStart, verbEnd)) : null;
+            if (form == null) {
+                wordStart = nextWord(text, wordEnd);
+                continue;
+            }
+            if (result == null) {
+                result = new StringBuilder(text.length() + 16);
+            }
+            result.append(text, copied, wordStart);
+            boolean capitalized = Character.isUpperCase(text.charAt(wordStart));
+            if (index == firstSingularToSecondPlural) {
+                result.append(capitalized ? "Vous" : SECOND_PRONOUN).append(' ');
+            } else if (VOWELS.indexOf(Character.toLowerCase(form.charAt(0))) >= 0) {
+                result.append(capitalized ? "J'" : "j'");
+            } else {
+                result.append(capitalized ? "Je" : FIRST_PRONOUN).append(' ');
+            }
+            result.append(form);
+            copied = verbEnd;
+            wordStart = nextWord(text, verbEnd);
+        }
+        if (result == null) {
+            return text;
+        }
+        return result.append(text, copied, text.length()).toString();
+    }
+
+    private static boolean isWord(final String text, final int start, final int end,
+                                  final String word) {
+        return end - start == word.length()
+                && text.regionMatches(true, start, word, 0, word.length());
+    }
+
+    private static boolean isWordChar(final char c) {
+        return Character.isLetter(c) || c == '-';
+    }
+
+    private static int wordEnd(final String text, final int from) {
+        int i = from;
+        while (i < text.length() && isWordChar(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int nextWord(final String text, final int from) {
+        int i = from;
+        while (i < text.length() && !isWordChar(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
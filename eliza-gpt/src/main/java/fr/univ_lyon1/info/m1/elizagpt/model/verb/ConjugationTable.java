@@ -0,0 +1,445 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The ConjugationTable class stores every conjugated form of every verb, for all the
+ * {@link Tense}s and {@link Person}s, in a columnar layout.
+ *
+ * <p>Each distinct form is stored once in a string pool, and each (verb, tense, person)
+ * cell only holds the int index of its form in the pool. Two more int arrays chain
+ * together the cells sharing a form, so that finding the verb of a conjugated form
+ * is a hash lookup followed by a walk over the few cells using that form.</p>
+ *
+ * <p>A table read from a {@link CompiledVerbDictionary} does not copy its cells and its
+ * pool: they are read from the (usually memory-mapped) buffer of the dictionary, and a
+ * form is only decoded the first time it is asked for. Only the lookup arrays are held
+ * on the heap.</p>
+ *
+ * @version 1.1
+ */
+public final class ConjugationTable {
+
+    private static final Tense[] TENSES = Tense.values();
+    private static final Person[] PERSONS = Person.values();
+
+    /**
+     * The number of (tense, person) columns of the table.
+     */
+    public static final int COLUMN_COUNT = TENSES.length * PERSONS.length;
+
+    private final Forms forms;
+    private final int verbCount;
+    private final int formCount;
+    private final int[] poolSlots;
+    private final int[] firstCell;
+    private final int[] nextCell;
+
+    /**
+     * Constructs a new ConjugationTable from its string pool and its cells.
+     *
+     * @param pool  The distinct forms; index 0 must be the empty string.
+     * @param cells The pool index of each cell, verb by verb, in column order.
+     */
+    ConjugationTable(final String[] pool, final int[] cells) {
+        this(new PooledForms(pool, cells));
+    }
+
+    private ConjugationTable(final Forms forms) {
+        this.forms = forms;
+        this.verbCount = forms.getVerbCount();
+
+        this.firstCell = new int[forms.getPoolSize()];
+        this.nextCell = new int[verbCount * COLUMN_COUNT];
+        Arrays.fill(firstCell, -1);
+        for (int cell = nextCell.length - 1; cell >= 0; cell--) {
+            int index = forms.getCell(cell);
+            nextCell[cell] = firstCell[index];
+            firstCell[index] = cell;
+        }
+
+        // Only the forms used by a cell are looked up: the pool of a compiled
+        // dictionary also holds its column titles.
+        int usedCount = 0;
+        for (int first : firstCell) {
+            if (first >= 0) {
+                usedCount++;
+            }
+        }
+        int empty = forms.getEmptyIndex();
+        this.formCount = firstCell[empty] >= 0 ? usedCount : usedCount + 1;
+
+        int capacity = Integer.highestOneBit(Math.max(usedCount, 1) * 2) * 2;
+        this.poolSlots = new int[capacity];
+        for (int i = 0; i < firstCell.length; i++) {
+            if (firstCell[i] < 0) {
+                continue;
+            }
+            int slot = slotOf(forms.hashCode(i));
+            while (poolSlots[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            poolSlots[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Gets the CSV column title of the specified tense and person.
+     *
+     * @param tense  The tense.
+     * @param person The person.
+     * @return The column title, e.g. "indicative|present|first person singular".
+     */
+    public static String columnTitle(final Tense tense, final Person person) {
+        return tense.getTitle() + "|" + person.getTitle();
+    }
+
+    /**
+     * Gets the CSV column titles of all the columns of the table, in column order.
+     *
+     * @return The column titles.
+     */
+    public static String[] columnTitles() {
+        String[] titles = new String[COLUMN_COUNT];
+        for (Tense tense : TENSES) {
+            for (Person person : PERSONS) {
+                titles[column(tense, person)] = columnTitle(tense, person);
+            }
+        }
+        return titles;
+    }
+
+    private static int column(final Tense tense, final Person person) {
+        return tense.ordinal() * PERSONS.length + person.ordinal();
+    }
+
+    /**
+     * Reads a conjugation table from a CSV file whose header holds the column titles.
+     * Columns that are missing from the file are left empty.
+     *
+     * @param reader The reader of the CSV file.
+     * @return The conjugation table.
+     * @throws IOException If the file cannot be read.
+     */
+    public static ConjugationTable fromCsv(final Reader reader) throws IOException {
+        return new VerbCsvParser().parse(reader);
+    }
+
+    /**
+     * Builds a conjugation table backed by a compiled dictionary, without copying its
+     * cells nor its forms.
+     *
+     * @param dictionary The compiled dictionary.
+     * @return The conjugation table.
+     */
+    public static ConjugationTable fromCompiled(final CompiledVerbDictionary dictionary) {
+        return new ConjugationTable(new CompiledForms(dictionary));
+    }
+
+    /**
+     * Gets the number of verbs in the table.
+     *
+     * @return The number of verbs.
+     */
+    public int getVerbCount() {
+        return verbCount;
+    }
+
+    /**
+     * Gets the number of distinct forms in the string pool, including the empty form.
+     *
+     * @return The size of the string pool.
+     */
+    public int getPoolSize() {
+        return formCount;
+    }
+
+    /**
+     * Gets the form of a verb conjugated at the specified tense and person.
+     *
+     * @param verb   The index of the verb.
+     * @param tense  The tense.
+     * @param person The person.
+     * @return The conjugated form, or an empty string if the verb has none.
+     */
+    public String get(final int verb, final Tense tense, final Person person) {
+        return forms.getForm(forms.getCell(verb * COLUMN_COUNT + column(tense, person)));
+    }
+
+    /**
+     * Finds the first verb whose conjugation at the specified tense and person is
+     * the specified form.
+     *
+     * @param form   The conjugated form.
+     * @param tense  The tense of the form.
+     * @param person The person of the form.
+     * @return The index of the verb, or -1 if no verb has this form.
+     */
+    public int findVerb(final String form, final Tense tense, final Person person) {
+        int index = indexOf(form);
+        if (index < 0 || index == forms.getEmptyIndex()) {
+            return -1;
+        }
+        int column = column(tense, person);
+        for (int cell = firstCell[index]; cell >= 0; cell = nextCell[cell]) {
+            if (cell % COLUMN_COUNT == column) {
+                return cell / COLUMN_COUNT;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Conjugates a form at another person, keeping its tense.
+     *
+     * @param form  The conjugated form.
+     * @param tense The tense of the form.
+     * @param from  The person of the form.
+     * @param to    The person to conjugate the verb at.
+     * @return The form at the new person, or null if the form is unknown or the verb
+     *         has no form at the new person.
+     */
+    public String translate(final String form, final Tense tense,
+                            final Person from, final Person to) {
+        int verb = findVerb(form, tense, from);
+        if (verb < 0) {
+            return null;
+        }
+        String translated = get(verb, tense, to);
+        return translated.isEmpty() ? null : translated;
+    }
+
+    /**
+     * Gets a view of the table as a list of verbs, holding the present indicative
+     * first person singular and second person plural. Verbs without a first person
+     * singular are left out.
+     *
+     * @return The list of verbs.
+     */
+    public List<Verb> asVerbs() {
+        int first = column(Tense.INDICATIVE_PRESENT, Person.FIRST_SINGULAR);
+        int[] rows = new int[verbCount];
+        int size = 0;
+        for (int verb = 0; verb < verbCount; verb++) {
+            if (forms.getCell(verb * COLUMN_COUNT + first) != forms.getEmptyIndex()) {
+                rows[size++] = verb;
+            }
+        }
+        return new VerbList(Arrays.copyOf(rows, size));
+    }
+
+    private int indexOf(final String form) {
+        int slot = slotOf(form.hashCode());
+        while (poolSlots[slot] != 0) {
+            if (forms.matches(poolSlots[slot] - 1, form)) {
+                return poolSlots[slot] - 1;
+            }
+            slot = (slot + 1) & (poolSlots.length - 1);
+        }
+        return -1;
+    }
+
+    private int slotOf(final int hashCode) {
+        int hash = hashCode * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (poolSlots.length - 1);
+    }
+
+    /**
+     * A read-only list of the present tense verbs of the table.
+     */
+    private final class VerbList extends AbstractList<Verb> implements RandomAccess {
+        private final int[] rows;
+
+        VerbList(final int[] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Verb get(final int index) {
+            return new Verb(
+                    ConjugationTable.this.get(rows[index],
+                            Tense.INDICATIVE_PRESENT, Person.FIRST_SINGULAR),
+                    ConjugationTable.this.get(rows[index],
+                            Tense.INDICATIVE_PRESENT, Person.SECOND_PLURAL));
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+    }
+
+    /**
+     * The storage of the cells and of the forms of a table.
+     */
+    private interface Forms {
+        /**
+         * Gets the number of verbs.
+         */
+        int getVerbCount();
+
+        /**
+         * Gets the size of the pool, including forms no cell uses.
+         */
+        int getPoolSize();
+
+        /**
+         * Gets the pool index of the empty form.
+         */
+        int getEmptyIndex();
+
+        /**
+         * Gets the pool index of the form of a cell, cells being numbered verb by verb.
+         */
+        int getCell(int cell);
+
+        /**
+         * Gets the form stored at a pool index.
+         */
+        String getForm(int index);
+
+        /**
+         * Gets the {@link String#hashCode()} of the form stored at a pool index.
+         */
+        int hashCode(int index);
+
+        /**
+         * Checks whether the form stored at a pool index is the specified form.
+         */
+        boolean matches(int index, String form);
+    }
+
+    /**
+     * Forms held in heap arrays, as read from a CSV file.
+     */
+    private static final class PooledForms implements Forms {
+        private final String[] pool;
+        private final int[] cells;
+
+        PooledForms(final String[] pool, final int[] cells) {
+            if (pool.length == 0 || !pool[0].isEmpty() || cells.length % COLUMN_COUNT != 0) {
+                throw new IllegalArgumentException("Malformed conjugation table");
+            }
+            this.pool = pool;
+            this.cells = cells;
+        }
+
+        @Override
+        public int getVerbCount() {
+            return cells.length / COLUMN_COUNT;
+        }
+
+        @Override
+        public int getPoolSize() {
+            return pool.length;
+        }
+
+        @Override
+        public int getEmptyIndex() {
+            return 0;
+        }
+
+        @Override
+        public int getCell(final int cell) {
+            return cells[cell];
+        }
+
+        @Override
+        public String getForm(final int index) {
+            return pool[index];
+        }
+
+        @Override
+        public int hashCode(final int index) {
+            return pool[index].hashCode();
+        }
+
+        @Override
+        public boolean matches(final int index, final String form) {
+            return pool[index].equals(form);
+        }
+    }
+
+    /**
+     * Forms read from the buffer of a compiled dictionary. The columns the dictionary
+     * does not hold are empty; if no cell of the dictionary is empty, the empty form
+     * gets an extra index after its pool.
+     *
+     * <p>Decoded forms are cached, and then compared as strings. Threads may race to
+     * decode the same form, which only decodes it twice: strings are immutable.</p>
+     */
+    private static final class CompiledForms implements Forms {
+        private final CompiledVerbDictionary dictionary;
+        private final int[] sourceColumns = new int[COLUMN_COUNT];
+        private final int emptyIndex;
+        private final String[] decoded;
+
+        CompiledForms(final CompiledVerbDictionary dictionary) {
+            this.dictionary = dictionary;
+            String[] columns = columnTitles();
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                sourceColumns[column] = dictionary.getColumnIndex(columns[column]);
+            }
+            int empty = dictionary.getPoolSize();
+            for (int i = 0; i < dictionary.getPoolSize(); i++) {
+                if (dictionary.isPoolStringEmpty(i)) {
+                    empty = i;
+                    break;
+                }
+            }
+            this.emptyIndex = empty;
+            this.decoded = new String[dictionary.getPoolSize() + 1];
+            decoded[dictionary.getPoolSize()] = "";
+        }
+
+        @Override
+        public int getVerbCount() {
+            return dictionary.getRowCount();
+        }
+
+        @Override
+        public int getPoolSize() {
+            return decoded.length;
+        }
+
+        @Override
+        public int getEmptyIndex() {
+            return emptyIndex;
+        }
+
+        @Override
+        public int getCell(final int cell) {
+            int source = sourceColumns[cell % COLUMN_COUNT];
+            if (source < 0) {
+                return emptyIndex;
+            }
+            return dictionary.getPoolIndex(cell / COLUMN_COUNT, source);
+        }
+
+        @Override
+        public String getForm(final int index) {
+            String form = decoded[index];
+            if (form == null) {
+                form = dictionary.poolString(index);
+                decoded[index] = form;
+            }
+            return form;
+        }
+
+        @Override
+        public int hashCode(final int index) {
+            return index == dictionary.getPoolSize() ? 0 : dictionary.poolHashCode(index);
+        }
+
+        @Override
+        public boolean matches(final int index, final String form) {
+            String cached = decoded[index];
+            return cached != null ? cached.equals(form) : dictionary.poolEquals(index, form);
+        }
+    }
+}
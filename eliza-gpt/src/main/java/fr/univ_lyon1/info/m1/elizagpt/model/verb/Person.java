@@ -0,0 +1,31 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+/**
+ * Enum representing the grammatical persons stored in a {@link ConjugationTable}.
+ * Each person knows the suffix of its columns in the verb conjugation CSV file.
+ *
+ * @version 1.0
+ */
+public enum Person {
+    FIRST_SINGULAR("first person singular"),
+    SECOND_SINGULAR("second person singular"),
+    THIRD_SINGULAR("third person singular"),
+    FIRST_PLURAL("first person plural"),
+    SECOND_PLURAL("second person plural"),
+    THIRD_PLURAL("third person plural");
+
+    private final String title;
+
+    Person(final String title) {
+        this.title = title;
+    }
+
+    /**
+     * Gets the suffix of the CSV column titles of this person.
+     *
+     * @return The title of the person, e.g. "first person singular".
+     */
+    public String getTitle() {
+        return title;
+    }
+}
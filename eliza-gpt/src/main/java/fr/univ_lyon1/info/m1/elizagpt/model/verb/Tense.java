@@ -0,0 +1,33 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+/**
+ * Enum representing the tenses (mood and tense) stored in a {@link ConjugationTable}.
+ * Each tense knows the prefix of its columns in the verb conjugation CSV file.
+ *
+ * @version 1.0
+ */
+public enum Tense {
+    INDICATIVE_PRESENT("indicative|present"),
+    INDICATIVE_IMPERFECT("indicative|imperfect"),
+    INDICATIVE_PAST_HISTORIC("indicative|past historic"),
+    INDICATIVE_FUTURE("indicative|future"),
+    INDICATIVE_CONDITIONAL("indicative|conditional"),
+    SUBJUNCTIVE_PRESENT("subjunctive|present"),
+    SUBJUNCTIVE_IMPERFECT("subjunctive|imperfect"),
+    IMPERATIVE("imperative");
+
+    private final String title;
+
+    Tense(final String title) {
+        this.title = title;
+    }
+
+    /**
+     * Gets the prefix of the CSV column titles of this tense.
+     *
+     * @return The title of the tense, e.g. "indicative|present".
+     */
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,330 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The VerbCsvParser class reads a conjugation CSV file into a {@link ConjugationTable}.
+ *
+ * <p>The file is read once into a char buffer, which is then scanned in place: only the
+ * fields of the columns known by the table are looked at, and a string is only created
+ * the first time a form is met. Fields are separated by commas and are not quoted.</p>
+ *
+ * <p>Files larger than the chunk size are split into line-aligned chunks, which are parsed
+ * in parallel on a fork-join pool, each with its own string pool. The chunks are then
+ * merged in file order into the pool of the first one, so that the table is the same as
+ * the one of a sequential parse.</p>
+ *
+ * @version 1.0
+ */
+public final class VerbCsvParser {
+
+    /**
+     * The default number of chars parsed by a single task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final int chunkSize;
+    private final ForkJoinPool forkJoinPool;
+
+    /**
+     * Constructs a new VerbCsvParser splitting large files into chunks of
+     * {@link #DEFAULT_CHUNK_SIZE} chars, parsed on the common fork-join pool.
+     */
+    public VerbCsvParser() {
+        this(DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new VerbCsvParser.
+     *
+     * @param chunkSize    The number of chars above which a file is split into chunks.
+     * @param forkJoinPool The pool parsing the chunks.
+     */
+    public VerbCsvParser(final int chunkSize, final ForkJoinPool forkJoinPool) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Parses a UTF-8 encoded conjugation CSV file.
+     *
+     * @param in The stream of the CSV file. It is not closed.
+     * @return The conjugation table.
+     * @throws IOException If the stream cannot be read.
+     */
+    public ConjugationTable parse(final InputStream in) throws IOException {
+        return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a conjugation CSV file whose header holds the column titles.
+     * Columns that are missing from the file are left empty.
+     *
+     * @param reader The reader of the CSV file. It is not closed.
+     * @return The conjugation table.
+     * @throws IOException If the file cannot be read.
+     */
+    public ConjugationTable parse(final Reader reader) throws IOException {
+        char[] data = new char[READ_BUFFER_SIZE];
+        int length = 0;
+        int read;
+        while ((read = reader.read(data, length, data.length - length)) >= 0) {
+            length += read;
+            if (length == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+        }
+        return parse(data, length);
+    }
+
+    /**
+     * Parses the conjugation CSV file held by the first chars of the specified buffer.
+     *
+     * @param data   The chars of the CSV file.
+     * @param length The number of chars of the file.
+     * @return The conjugation table.
+     */
+    public ConjugationTable parse(final char[] data, final int length) {
+        int headerEnd = lineEnd(data, 0, length);
+        int[] fieldColumns = fieldColumns(
+                new String(data, 0, trimmedEnd(data, 0, headerEnd)).split(","));
+
+        List<Chunk> chunks = new ArrayList<>();
+        int start = Math.min(headerEnd + 1, length);
+        while (start < length) {
+            int end = chunkSize >= length - start
+                    ? length : Math.min(lineEnd(data, start + chunkSize, length) + 1, length);
+            chunks.add(new Chunk(data, start, end, fieldColumns));
+            start = end;
+        }
+        if (chunks.size() == 1) {
+            chunks.get(0).compute();
+        } else if (chunks.size() > 1) {
+            forkJoinPool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(chunks);
+                }
+            });
+        }
+        return merge(chunks);
+    }
+
+    /**
+     * Maps each field of a CSV line to the table column it holds.
+     *
+     * @param titles The titles of the CSV header.
+     * @return The table column of each field, or -1 for the fields to skip.
+     */
+    private static int[] fieldColumns(final String[] titles) {
+        List<String> columns = Arrays.asList(ConjugationTable.columnTitles());
+        int[] fieldColumns = new int[titles.length];
+        int last = -1;
+        for (int field = 0; field < titles.length; field++) {
+            fieldColumns[field] = columns.indexOf(titles[field]);
+            if (fieldColumns[field] >= 0) {
+                last = field;
+            }
+        }
+        // Fields after the last useful one are never scanned.
+        return Arrays.copyOf(fieldColumns, last + 1);
+    }
+
+    /**
+     * Merges the chunks into the pool of the first one, which is then the pool of the table.
+     */
+    private static ConjugationTable merge(final List<Chunk> chunks) {
+        if (chunks.isEmpty()) {
+            return new ConjugationTable(new String[] {""}, new int[0]);
+        }
+        Chunk first = chunks.get(0);
+        int size = 0;
+        for (Chunk chunk : chunks) {
+            size += chunk.cellCount;
+        }
+        int[] cells = Arrays.copyOf(first.cells, size);
+        int offset = first.cellCount;
+        for (Chunk chunk : chunks.subList(1, chunks.size())) {
+            int[] remap = new int[chunk.poolSize];
+            for (int i = 1; i < chunk.poolSize; i++) {
+                remap[i] = first.intern(chunk.values[i], chunk.hashes[i]);
+            }
+            for (int cell = 0; cell < chunk.cellCount; cell++) {
+                cells[offset++] = remap[chunk.cells[cell]];
+            }
+        }
+        return new ConjugationTable(Arrays.copyOf(first.values, first.poolSize), cells);
+    }
+
+    private static int lineEnd(final char[] data, final int from, final int length) {
+        for (int i = from; i < length; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private static int trimmedEnd(final char[] data, final int start, final int end) {
+        return end > start && data[end - 1] == '\r' ? end - 1 : end;
+    }
+
+    /**
+     * A range of lines of the file, parsed into cells indexing a local string pool.
+     */
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int COLUMN_COUNT = ConjugationTable.COLUMN_COUNT;
+
+        private final char[] data;
+        private final int start;
+        private final int end;
+        private final int[] fieldColumns;
+
+        private String[] values = new String[1024];
+        private int[] hashes = new int[1024];
+        private int poolSize = 1;
+        private int[] slots = new int[2048];
+        private int[] cells = new int[COLUMN_COUNT * 256];
+        private int cellCount;
+
+        Chunk(final char[] data, final int start, final int end, final int[] fieldColumns) {
+            this.data = data;
+            this.start = start;
+            this.end = end;
+            this.fieldColumns = fieldColumns;
+            this.values[0] = "";
+        }
+
+        @Override
+        protected void compute() {
+            int lineStart = start;
+            while (lineStart < end) {
+                int lineEnd = lineEnd(data, lineStart, end);
+                parseLine(lineStart, trimmedEnd(data, lineStart, lineEnd));
+                lineStart = lineEnd + 1;
+            }
+        }
+
+        private void parseLine(final int lineStart, final int lineEnd) {
+            if (cellCount + COLUMN_COUNT > cells.length) {
+                cells = Arrays.copyOf(cells, cells.length * 2);
+            }
+            int row = cellCount;
+            cellCount += COLUMN_COUNT;
+            int fieldStart = lineStart;
+            int field = 0;
+            for (int i = lineStart; field < fieldColumns.length; i++) {
+                if (i < lineEnd && data[i] != ',') {
+                    continue;
+                }
+                int column = fieldColumns[field++];
+                if (column >= 0 && i > fieldStart) {
+                    cells[row + column] = intern(fieldStart, i);
+                }
+                if (i == lineEnd) {
+                    break;
+                }
+                fieldStart = i + 1;
+            }
+        }
+
+        /**
+         * Gets the index of the form held by the specified chars in the local pool,
+         * adding it to the pool if it is not there yet. The hash is the one of
+         * {@link String#hashCode()}, so that the pools of two chunks can be merged
+         * without hashing their forms again.
+         */
+        private int intern(final int from, final int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + data[i];
+            }
+            int mask = slots.length - 1;
+            int slot = spread(hash) & mask;
+            while (slots[slot] != 0) {
+                int index = slots[slot];
+                if (hashes[index] == hash && matches(values[index], from, to)) {
+                    return index;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return add(new String(data, from, to - from), hash, slot);
+        }
+
+        /**
+         * Gets the index of the specified form in the local pool, adding it to the pool
+         * if it is not there yet.
+         */
+        private int intern(final String value, final int hash) {
+            int mask = slots.length - 1;
+            int slot = spread(hash) & mask;
+            while (slots[slot] != 0) {
+                int index = slots[slot];
+                if (hashes[index] == hash && values[index].equals(value)) {
+                    return index;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return add(value, hash, slot);
+        }
+
+        private int add(final String value, final int hash, final int slot) {
+            if (poolSize == values.length) {
+                values = Arrays.copyOf(values, poolSize * 2);
+                hashes = Arrays.copyOf(hashes, poolSize * 2);
+            }
+            int index = poolSize++;
+            values[index] = value;
+            hashes[index] = hash;
+            slots[slot] = index;
+            if (poolSize * 2 > slots.length) {
+                rehash();
+            }
+            return index;
+        }
+
+        private boolean matches(final String value, final int from, final int to) {
+            if (value.length() != to - from) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) != data[from + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int spread(final int hash) {
+            int mixed = hash * 0x9E3779B9;
+            return mixed ^ (mixed >>> 16);
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int index = 1; index < poolSize; index++) {
+                int slot = spread(hashes[index]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = index;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import java.util.List;
+
+/**
+ * The VerbDictionary class is an immutable snapshot of the loaded verbs: their
+ * conjugation table, the engine and the index built from it and the report of
+ * their loading.
+ *
+ * <p>The {@link VerbManager} publishes a new snapshot each time the verbs are reloaded.
+ * A caller that keeps a snapshot keeps using the same verbs, whatever the reloads.</p>
+ *
+ * @version 1.0
+ */
+public final class VerbDictionary {
+    private final ConjugationTable conjugationTable;
+    private final List<Verb> verbs;
+    private final ConjugationEngine conjugationEngine;
+    private final ConjugationIndex conjugationIndex;
+    private final VerbLoadReport loadReport;
+
+    /**
+     * Constructs a new VerbDictionary, building its conjugation engine and index.
+     *
+     * @param conjugationTable The conjugation table.
+     * @param loadReport       The report of the loading of the table.
+     */
+    VerbDictionary(final ConjugationTable conjugationTable, final VerbLoadReport loadReport) {
+        this.conjugationTable = conjugationTable;
+        this.verbs = conjugationTable.asVerbs();
+        this.conjugationEngine = new ConjugationEngine(conjugationTable);
+        this.conjugationIndex = new ConjugationIndex(conjugationTable);
+        this.loadReport = loadReport;
+    }
+
+    /**
+     * Gets the table of all the conjugations.
+     *
+     * @return The conjugation table.
+     */
+    public ConjugationTable getConjugationTable() {
+        return conjugationTable;
+    }
+
+    /**
+     * Gets the present tense verb conjugations.
+     *
+     * @return A read-only list of verbs.
+     */
+    public List<Verb> getVerbs() {
+        return verbs;
+    }
+
+    /**
+     * Gets the conjugation engine built from all the tenses of the table.
+     *
+     * @return The conjugation engine.
+     */
+    public ConjugationEngine getConjugationEngine() {
+        return conjugationEngine;
+    }
+
+    /**
+     * Gets the index mapping first person singular forms to second person plural forms,
+     * and back.
+     *
+     * @return The conjugation index.
+     */
+    public ConjugationIndex getConjugationIndex() {
+        return conjugationIndex;
+    }
+
+    /**
+     * Gets the report of the loading of the verbs.
+     *
+     * @return The load report.
+     */
+    public VerbLoadReport getLoadReport() {
+        return loadReport;
+    }
+}
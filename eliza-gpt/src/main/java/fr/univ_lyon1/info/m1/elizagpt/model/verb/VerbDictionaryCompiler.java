@@ -0,0 +1,40 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Build-time entry point compiling the verb conjugation CSV file into a
+ * {@link CompiledVerbDictionary}. It is run by Maven during the
+ * {@code process-classes} phase, so that the compiled dictionary is shipped
+ * next to the CSV file on the classpath.
+ *
+ * <p>Usage: {@code VerbDictionaryCompiler <input.csv> <output.bin>}</p>
+ *
+ * @version 1.0
+ */
+public final class VerbDictionaryCompiler {
+
+    private VerbDictionaryCompiler() { }
+
+    /**
+     * Compiles the CSV file given as first argument into the file given as second argument.
+     *
+     * @param args The input CSV file and the output binary file.
+     * @throws IOException If the CSV file cannot be read or the output cannot be written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException(
+                    "Usage: VerbDictionaryCompiler <input.csv> <output.bin>");
+        }
+        Path output = Paths.get(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        CompiledVerbDictionary.compile(Paths.get(args[0]), output,
+                ConjugationTable.columnTitles());
+    }
+}
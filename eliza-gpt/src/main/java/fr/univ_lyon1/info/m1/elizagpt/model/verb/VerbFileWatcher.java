@@ -0,0 +1,107 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The VerbFileWatcher class reloads the verbs of a {@link VerbManager} each time
+ * a verb file is created or modified.
+ *
+ * <p>The directory of the file is watched by a {@link WatchService} on a daemon thread.
+ * A file being written sends several events: the verbs are only reloaded once no event
+ * has been received for {@link #QUIET_PERIOD_MILLIS} milliseconds. To never load a
+ * partially written file, the new file should rather be written next to the watched one
+ * and then moved onto it.</p>
+ *
+ * @version 1.0
+ */
+public final class VerbFileWatcher implements Closeable {
+
+    /**
+     * The time without any change to wait before reloading the file.
+     */
+    public static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final VerbManager verbManager;
+    private final Path file;
+    private final WatchService watchService;
+    private volatile CompletableFuture<VerbDictionary> lastReload;
+
+    /**
+     * Constructs a new VerbFileWatcher and starts watching the specified file.
+     *
+     * @param verbManager The manager to reload.
+     * @param file        The file containing verb conjugations.
+     * @throws IOException If the directory of the file cannot be watched.
+     */
+    VerbFileWatcher(final VerbManager verbManager, final Path file) throws IOException {
+        this.verbManager = verbManager;
+        this.file = file.toAbsolutePath();
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread thread = new Thread(this::watch, "verb-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gets the last reload triggered by a change of the file.
+     *
+     * @return A future completed with the reloaded dictionary, or null if the file has
+     *         not changed yet.
+     */
+    public CompletableFuture<VerbDictionary> getLastReload() {
+        return lastReload;
+    }
+
+    /**
+     * Stops watching the file.
+     *
+     * @throws IOException If the watch service cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                if (!concernsFile(watchService.take())) {
+                    continue;
+                }
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS))
+                        != null) {
+                    concernsFile(key);
+                }
+                lastReload = verbManager.reload(file);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The watcher was closed.
+        }
+    }
+
+    /**
+     * Consumes the events of a watch key and tells whether one of them is about the file.
+     */
+    private boolean concernsFile(final WatchKey key) {
+        boolean concernsFile = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            concernsFile |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context());
+        }
+        key.reset();
+        return concernsFile;
+    }
+}
@@ -0,0 +1,102 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The VerbLoadReport class describes how the verb dictionary was loaded: where it
+ * was read from, how many verbs and forms it holds and how long it took.
+ *
+ * <p>When a compiled dictionary was found but could not be read, the CSV file is
+ * parsed instead and the error is kept in the report.</p>
+ *
+ * @version 1.0
+ */
+public final class VerbLoadReport {
+    private final String source;
+    private final boolean compiled;
+    private final int verbCount;
+    private final int poolSize;
+    private final long elapsedNanos;
+    private final Exception compiledError;
+
+    /**
+     * Constructs a new VerbLoadReport.
+     *
+     * @param source        The classpath resource the verbs were read from.
+     * @param compiled      Whether the resource is a compiled dictionary.
+     * @param table         The loaded conjugation table.
+     * @param elapsedNanos  The loading time, in nanoseconds.
+     * @param compiledError The error raised by the compiled dictionary, or null.
+     */
+    VerbLoadReport(final String source, final boolean compiled, final ConjugationTable table,
+                   final long elapsedNanos, final Exception compiledError) {
+        this.source = source;
+        this.compiled = compiled;
+        this.verbCount = table.getVerbCount();
+        this.poolSize = table.getPoolSize();
+        this.elapsedNanos = elapsedNanos;
+        this.compiledError = compiledError;
+    }
+
+    /**
+     * Gets the classpath resource the verbs were read from.
+     *
+     * @return The name of the resource.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Tells whether the verbs were read from a compiled dictionary.
+     *
+     * @return true for a compiled dictionary, false for a CSV file.
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Gets the number of verbs loaded.
+     *
+     * @return The number of verbs.
+     */
+    public int getVerbCount() {
+        return verbCount;
+    }
+
+    /**
+     * Gets the number of distinct forms loaded, including the empty form.
+     *
+     * @return The size of the string pool.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Gets the time spent loading the verbs.
+     *
+     * @param unit The unit of the result.
+     * @return The loading time, in the specified unit.
+     */
+    public long getElapsed(final TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the error raised while reading the compiled dictionary, if any.
+     *
+     * @return The error, or null if the compiled dictionary was missing or was read.
+     */
+    public Exception getCompiledError() {
+        return compiledError;
+    }
+
+    @Override
+    public String toString() {
+        return "Loaded " + verbCount + " verbs (" + poolSize + " forms) from " + source
+                + " in " + getElapsed(TimeUnit.MILLISECONDS) + " ms"
+                + (compiledError == null ? "" : ", compiled dictionary failed: " + compiledError);
+    }
+}
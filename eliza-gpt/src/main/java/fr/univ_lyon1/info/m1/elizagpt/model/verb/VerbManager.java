@@ -1,88 +1,327 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.verb;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
- * The VerbManager class is responsible for managing and loading verb conjugations from a file.
+ * The VerbManager class is responsible for managing and loading verb conjugations
+ * from a classpath resource.
  *
- * @version 1.0
+ * <p>Verbs are loaded on a background thread, so that creating the manager never
+ * blocks its caller: {@link #getDictionary()} returns a future completed once the
+ * dictionary is ready.</p>
+ *
+ * <p>All tenses are kept in a {@link ConjugationTable}. When a
+ * {@link CompiledVerbDictionary} built from the CSV file is available on the classpath
+ * (it is produced by the build), it is memory-mapped and the table is filled from it.
+ * Otherwise, the CSV file is parsed by a {@link VerbCsvParser}. How the verbs were
+ * loaded, or why they could not be, is reported by {@link #getLoadReport()}.</p>
+ *
+ * <p>The verbs can be reloaded, from the resource or from a file, without restarting
+ * the application, either on demand with {@link #reload()} or each time a file changes
+ * with {@link #watch(Path)}. The new {@link VerbDictionary} is built in the background
+ * and is then published by a single volatile write: callers holding the previous
+ * snapshot keep using it, and the next calls to the getters see the new one.
+ * A failed reload keeps the previous dictionary.</p>
+ *
+ * @version 1.5
  */
 public final class VerbManager {
 
+    /**
+     * The classpath resource holding the French verb conjugations.
+     */
+    public static final String DEFAULT_RESOURCE = "/french-verb-conjugation.csv";
+
+    /**
+     * The title of the CSV column holding the present first person singular.
+     */
+    public static final String FIRST_SINGULAR_COLUMN = "indicative|present|first person singular";
+
+    /**
+     * The title of the CSV column holding the present second person plural.
+     */
+    public static final String SECOND_PLURAL_COLUMN = "indicative|present|second person plural";
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "verb-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private static VerbManager instance = null;
-    private final List<Verb> verbs;
+    private final String resource;
+    private volatile CompletableFuture<VerbDictionary> dictionary;
 
     /**
-     * Constructs a new VerbManager instance with an empty
-     * list of verbs and loads verbs from the specified file.
+     * Constructs a new VerbManager instance and starts loading verbs from the
+     * compiled dictionary matching the specified resource, or from the resource itself.
      *
-     * @param filePath The path to the file containing verb conjugations.
+     * @param resource The classpath resource containing verb conjugations.
      */
-    private VerbManager(final String filePath) {
-        this.verbs = new ArrayList<>();
-        this.loadVerbsFromFile(filePath);
+    VerbManager(final String resource) {
+        this.resource = resource;
+        this.dictionary = CompletableFuture.supplyAsync(() -> load(resource), LOADER);
     }
 
     /**
      * Gets the singleton instance of the VerbManager, creating it if it doesn't exist.
+     * Verbs are loaded in the background from {@link #DEFAULT_RESOURCE}.
      *
-     * @param filePath The path to the file containing verb conjugations.
      * @return The singleton instance of the VerbManager.
      */
-    public static VerbManager getInstance(final String filePath) {
+    public static synchronized VerbManager getInstance() {
         if (instance == null) {
-            instance = new VerbManager(filePath);
+            instance = new VerbManager(DEFAULT_RESOURCE);
         }
         return instance;
     }
 
     /**
-     * Gets the list of loaded verb conjugations.
+     * Gets the current verb dictionary. The returned future is completed with the
+     * dictionary that was published when this method was called; it does not follow
+     * the later reloads.
+     *
+     * @return A future completed with the current verb dictionary.
+     */
+    public CompletableFuture<VerbDictionary> getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Gets the report of the loading of the current verbs, telling where they were read
+     * from and how long it took. If the verbs cannot be loaded, the future completes
+     * exceptionally with the cause of the failure.
+     *
+     * @return A future completed with the load report.
+     */
+    public CompletableFuture<VerbLoadReport> getLoadReport() {
+        return dictionary.thenApply(VerbDictionary::getLoadReport);
+    }
+
+    /**
+     * Gets the table of all the current conjugations once it is loaded.
      *
-     * @return The list of verb conjugations.
+     * @return A future completed with the conjugation table.
+     */
+    public CompletableFuture<ConjugationTable> getConjugationTable() {
+        return dictionary.thenApply(VerbDictionary::getConjugationTable);
+    }
+
+    /**
+     * Gets the present tense verb conjugations, waiting for the loading to finish.
+     *
+     * @return The read-only list of verb conjugations.
      */
     public List<Verb> getVerbs() {
-        return verbs;
+        return dictionary.join().getVerbs();
     }
 
     /**
-     * Loads verb conjugations from the specified file.
+     * Gets the present tense verb conjugations once they are loaded.
      *
-     * @param filePath The path to the file containing verb conjugations.
+     * @return A future completed with the read-only list of verb conjugations.
      */
-    private void loadVerbsFromFile(final String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
+    public CompletableFuture<List<Verb>> getVerbsAsync() {
+        return dictionary.thenApply(VerbDictionary::getVerbs);
+    }
 
-            // Read the first line to get column titles
-            line = reader.readLine();
-            if (line != null) {
-                // Split the line into cells using a comma as the delimiter
-                String[] columnTitles = line.split(",");
+    /**
+     * Gets the conjugation engine built from the current verbs.
+     * The engine is built once, in the background, right after the verbs are loaded.
+     *
+     * @return A future completed with the conjugation engine.
+     */
+    public CompletableFuture<ConjugationEngine> getConjugationEngine() {
+        return dictionary.thenApply(VerbDictionary::getConjugationEngine);
+    }
 
-                int firstSingularIndex = Arrays.asList(columnTitles)
-                        .indexOf("indicative|present|first person singular");
-                int secondPluralIndex = Arrays.asList(columnTitles)
-                        .indexOf("indicative|present|second person plural");
+    /**
+     * Gets the index mapping the first person singular forms of the current verbs to
+     * their second person plural forms, and back. Both directions are built once, right
+     * after the verbs are loaded.
+     *
+     * @return A future completed with the conjugation index.
+     */
+    public CompletableFuture<ConjugationIndex> getConjugationIndex() {
+        return dictionary.thenApply(VerbDictionary::getConjugationIndex);
+    }
 
-                while ((line = reader.readLine()) != null) {
-                    // Split the line into cells using a comma as the delimiter
-                    String[] verbs = line.split(",");
+    /**
+     * Tells whether the verbs are loaded and the conjugation engine is ready.
+     *
+     * @return true if the conjugation engine can be used without waiting.
+     */
+    public boolean isLoaded() {
+        CompletableFuture<VerbDictionary> current = dictionary;
+        return current.isDone() && !current.isCompletedExceptionally();
+    }
+
+    /**
+     * Reloads the verbs from the classpath resource of the manager, in the background.
+     *
+     * @return A future completed with the new dictionary once it is published,
+     *         or exceptionally if it cannot be loaded.
+     */
+    public CompletableFuture<VerbDictionary> reload() {
+        return reload(() -> load(resource));
+    }
 
-                    String firstSingular = Arrays.asList(verbs).get(firstSingularIndex);
-                    String secondPlural = Arrays.asList(verbs).get(secondPluralIndex);
-                    if (!firstSingular.isEmpty()) {
-                        this.verbs.add(new Verb(firstSingular, secondPlural));
-                    }
+    /**
+     * Reloads the verbs from the specified file, in the background. The file is a
+     * compiled dictionary when its name ends with ".bin", a CSV file otherwise.
+     *
+     * @param file The file containing verb conjugations.
+     * @return A future completed with the new dictionary once it is published,
+     *         or exceptionally if it cannot be loaded.
+     */
+    public CompletableFuture<VerbDictionary> reload(final Path file) {
+        return reload(() -> loadFile(file));
+    }
+
+    /**
+     * Reloads the verbs from the specified file each time it is created or modified.
+     *
+     * @param file The file containing verb conjugations.
+     * @return The watcher, to close to stop watching the file.
+     * @throws IOException If the directory of the file cannot be watched.
+     */
+    public VerbFileWatcher watch(final Path file) throws IOException {
+        return new VerbFileWatcher(this, file);
+    }
+
+    private CompletableFuture<VerbDictionary> reload(final Supplier<VerbDictionary> loader) {
+        // Loads run one at a time on the loader thread, so they are published in order.
+        return CompletableFuture.supplyAsync(() -> {
+            VerbDictionary loaded = loader.get();
+            dictionary = CompletableFuture.completedFuture(loaded);
+            return loaded;
+        }, LOADER);
+    }
+
+    /**
+     * Loads the conjugations of the specified resource, preferring its compiled dictionary.
+     *
+     * @param resource The classpath resource containing verb conjugations.
+     * @return The verb dictionary.
+     */
+    private static VerbDictionary load(final String resource) {
+        long start = System.nanoTime();
+        String compiledResource = compiledResourceName(resource);
+        Exception compiledError = null;
+        URL url = VerbManager.class.getResource(compiledResource);
+        if (url != null) {
+            try {
+                ConjugationTable table = loadCompiledTable(url);
+                return new VerbDictionary(table, new VerbLoadReport(compiledResource, true,
+                        table, System.nanoTime() - start, null));
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                compiledError = e;
+            }
+        }
+        try {
+            ConjugationTable table = loadTableFromResource(resource);
+            return new VerbDictionary(table, new VerbLoadReport(resource, false, table,
+                    System.nanoTime() - start, compiledError));
+        } catch (IOException e) {
+            UncheckedIOException error =
+                    new UncheckedIOException("Cannot load verbs from " + resource, e);
+            if (compiledError != null) {
+                error.addSuppressed(compiledError);
+            }
+            throw error;
+        }
+    }
+
+    /**
+     * Gets the classpath resource name of the compiled dictionary built from a CSV file.
+     *
+     * @param resource The name of the CSV resource.
+     * @return The resource name of the compiled dictionary.
+     */
+    static String compiledResourceName(final String resource) {
+        int extension = resource.lastIndexOf('.');
+        if (extension > resource.lastIndexOf('/')) {
+            return resource.substring(0, extension) + ".bin";
+        }
+        return resource + ".bin";
+    }
+
+    /**
+     * Opens the compiled dictionary found on the classpath. It is memory-mapped when
+     * it is a plain file, and read in memory when it is packaged in a jar.
+     *
+     * @param url The location of the compiled dictionary.
+     * @return The conjugations of the compiled dictionary.
+     * @throws IOException        If the dictionary cannot be read.
+     * @throws URISyntaxException If the location of the dictionary is malformed.
+     */
+    private static ConjugationTable loadCompiledTable(final URL url)
+            throws IOException, URISyntaxException {
+        CompiledVerbDictionary dictionary;
+        if ("file".equals(url.getProtocol())) {
+            dictionary = CompiledVerbDictionary.open(Paths.get(url.toURI()));
+        } else {
+            try (InputStream in = url.openStream()) {
+                dictionary = CompiledVerbDictionary.wrap(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        }
+        return ConjugationTable.fromCompiled(dictionary);
+    }
+
+    /**
+     * Loads verb conjugations from the specified CSV resource.
+     *
+     * @param resource The classpath resource containing verb conjugations.
+     * @return The conjugation table.
+     * @throws IOException If the resource is missing or cannot be read.
+     */
+    private static ConjugationTable loadTableFromResource(final String resource)
+            throws IOException {
+        InputStream in = VerbManager.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IOException("Missing resource " + resource);
+        }
+        try (in) {
+            return new VerbCsvParser().parse(in);
+        }
+    }
+
+    /**
+     * Loads verb conjugations from the specified file: a compiled dictionary when its
+     * name ends with ".bin", a CSV file otherwise.
+     *
+     * @param file The file containing verb conjugations.
+     * @return The verb dictionary.
+     */
+    private static VerbDictionary loadFile(final Path file) {
+        long start = System.nanoTime();
+        boolean compiled = file.getFileName().toString().endsWith(".bin");
+        try {
+            ConjugationTable table;
+            if (compiled) {
+                table = ConjugationTable.fromCompiled(CompiledVerbDictionary.open(file));
+            } else {
+                try (InputStream in = Files.newInputStream(file)) {
+                    table = new VerbCsvParser().parse(in);
                 }
             }
+            return new VerbDictionary(table, new VerbLoadReport(file.toString(), compiled,
+                    table, System.nanoTime() - start, null));
         } catch (IOException e) {
-            System.out.println("Something went wrong!");
+            throw new UncheckedIOException("Cannot load verbs from " + file, e);
         }
     }
 }
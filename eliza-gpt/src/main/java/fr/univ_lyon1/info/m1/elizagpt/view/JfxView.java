@@ -2,11 +2,14 @@ package fr.univ_lyon1.info.m1.elizagpt.view;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.payload.AddUpdate;
 import fr.univ_lyon1.info.m1.elizagpt.model.payload.DeleteUpdate;
+import fr.univ_lyon1.info.m1.elizagpt.model.payload.SearchErrorUpdate;
 import fr.univ_lyon1.info.m1.elizagpt.model.payload.SearchUpdate;
 import fr.univ_lyon1.info.m1.elizagpt.model.payload.Update;
 import fr.univ_lyon1.info.m1.elizagpt.controller.Controller;
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchPage;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
+import javafx.animation.PauseTransition;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
 import javafx.scene.Scene;
@@ -21,7 +24,9 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.Label;
 import javafx.scene.control.Button;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
+import javafx.util.Duration;
 
 
 import java.util.Map;
@@ -29,6 +34,8 @@ import java.util.HashMap;
 import java.util.Objects;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * The JfxView class represents the JavaFX-based
@@ -41,11 +48,15 @@ public class JfxView implements Observer {
     private TextField text = null;
     private TextField searchText = null;
     private Label searchTextLabel = null;
+    private Button moreResultsButton = null;
+    private CheckBox newestFirstBox = null;
+    private boolean searchShown = false;
     private final Controller controller;
     private ComboBox<SearchStrategy> searchComboBox = null;
+    private final PauseTransition searchPause = new PauseTransition(SEARCH_DELAY);
 
 
-    private final Map<Integer, HBox> messageToHbox = new HashMap<>();
+    private final Map<Long, HBox> messageToHbox = new HashMap<>();
 
     /**
      * Creates the main view of the application.
@@ -85,6 +96,11 @@ public class JfxView implements Observer {
         stage.show();
     }
 
+    /**
+     * The time without typing after which the typed search text is searched.
+     */
+    static final Duration SEARCH_DELAY = Duration.millis(150);
+
     static final String BASE_STYLE = "-fx-padding: 8px; "
             + "-fx-margin: 5px; "
             + "-fx-background-radius: 5px;";
@@ -109,6 +125,10 @@ public class JfxView implements Observer {
 
         searchText = new TextField();
         searchText.setOnAction(e -> searchText());
+        // Search as the user types, once the typing pauses
+        searchText.textProperty().addListener((observable, oldText, newText) ->
+                searchPause.playFromStart());
+        searchPause.setOnFinished(e -> searchText());
 
         searchComboBox = createComboBox();
 
@@ -126,13 +146,28 @@ public class JfxView implements Observer {
                 .add(Objects.requireNonNull(getClass()
                         .getResource("/styles/buttons.css")).toExternalForm());
         undoSearchButton.getStyleClass().add("undo-search-button");
-        undoSearchButton.setOnAction(e -> controller.undoSearch());
+        undoSearchButton.setOnAction(e -> {
+            searchText.clear();
+            searchPause.stop();
+            controller.undoSearch();
+        });
         undoSearchButton.setOnMouseEntered(event -> undoSearchButton.setCursor(Cursor.HAND));
 
         firstLine.getChildren().addAll(searchText, searchButton, undoSearchButton, searchComboBox);
 
+        newestFirstBox = new CheckBox("Récents d'abord");
+        newestFirstBox.setOnAction(e -> {
+            controller.setNewestFirst(newestFirstBox.isSelected());
+            searchText();
+        });
+        firstLine.getChildren().add(newestFirstBox);
+
         searchTextLabel = new Label();
-        secondLine.getChildren().addAll(searchTextLabel);
+        moreResultsButton = new Button("Plus de résultats");
+        moreResultsButton.setOnAction(e -> controller.showMoreResults());
+        moreResultsButton.setVisible(false);
+        secondLine.setSpacing(10);
+        secondLine.getChildren().addAll(searchTextLabel, moreResultsButton);
 
         final VBox input = new VBox();
         input.getChildren().addAll(firstLine, secondLine);
@@ -154,19 +189,20 @@ public class JfxView implements Observer {
         return searchBox;
     }
     /**
-     * Handles the user's action when initiating a search.
+     * Handles the user's action when initiating a search, or pausing while typing one.
      * <p>
-     * If the search text is not empty, this method triggers a search operation
-     * through the controller, updates the search label, and clears the search text field.
-     * If the search text is empty, it updates the search label to indicate no active search.
+     * If the search text is not empty, this method triggers a live search operation
+     * through the controller, which refines the previous search when the text extends it.
+     * A search still waiting for the typing to pause is cancelled, since it is replaced.
+     * If the search text is empty, the search is undone.
      */
     private void searchText() {
+        searchPause.stop();
         String currentSearchText = this.searchText.getText();
-        if (currentSearchText == null) {
-            searchTextLabel.setText("No active search");
+        if (currentSearchText == null || currentSearchText.isEmpty()) {
+            controller.undoSearch();
         } else {
-            controller.search(currentSearchText);
-            this.searchText.setText("");
+            controller.liveSearch(currentSearchText);
         }
     }
 
@@ -222,7 +258,8 @@ public class JfxView implements Observer {
 
     /**
      * Handles the update when a new message is added.
-     * Adds the new message to the user interface.
+     * Adds the new message to the user interface, unless search results are shown:
+     * the message is then only shown if it matches the search.
      *
      * @param update The update object containing information about the added message.
      * @throws IllegalArgumentException If the provided update is not of type {@link AddUpdate}.
@@ -231,9 +268,9 @@ public class JfxView implements Observer {
     public void onMessageAddUpdate(final Update update) throws IllegalArgumentException {
         try {
             AddUpdate addUpdate = (AddUpdate) update;
-            HBox newHbox = createHBoxFromMessage(addUpdate.getNewMessage());
-            messageToHbox.put(addUpdate.getNewMessage().getId(), newHbox);
-            dialog.getChildren().add(newHbox);
+            if (!searchShown) {
+                dialog.getChildren().addAll(getHBoxes(List.of(addUpdate.getNewMessage())));
+            }
         } catch (ClassCastException exception) {
             throw new IllegalArgumentException("Expected AddUpdate object but found another");
         }
@@ -252,7 +289,7 @@ public class JfxView implements Observer {
     public void onDeleteUpdate(final Update update) throws IllegalArgumentException {
             try {
                 DeleteUpdate deleteUpdate = (DeleteUpdate) update;
-                int messageId = deleteUpdate.getDeletedMessageId();
+                long messageId = deleteUpdate.getDeletedMessageId();
                 HBox toBeDeleted = messageToHbox.get(messageId);
                 dialog.getChildren().remove(toBeDeleted);
                 messageToHbox.remove(messageId);
@@ -272,9 +309,16 @@ public class JfxView implements Observer {
     public void onSearchUpdate(final Update update) throws IllegalArgumentException {
         try {
             SearchUpdate searchUpdate = (SearchUpdate) update;
+            searchShown = true;
             searchTextLabel.setText("Searching for: " + searchUpdate.getSearchText());
             List<Message> searchResult = searchUpdate.getSearchResult();
-            processSearchResult(searchResult);
+            SearchPage page = searchUpdate.getPage();
+            if (page != null && page.getOffset() > 0) {
+                appendSearchResult(searchResult);
+            } else {
+                processSearchResult(searchResult);
+            }
+            moreResultsButton.setVisible(page != null && page.hasNext());
         } catch (ClassCastException exception) {
              throw new IllegalArgumentException("Expected SearchUpdate object but found another");
         }
@@ -292,7 +336,9 @@ public class JfxView implements Observer {
     public void onUndoSearchUpdate(final Update update) throws IllegalArgumentException {
             try {
                 SearchUpdate undoSearchUpdate = (SearchUpdate) update;
+                searchShown = false;
                 searchTextLabel.setText(null);
+                moreResultsButton.setVisible(false);
                 List<Message> allMessages = undoSearchUpdate.getSearchResult();
                 processSearchResult(allMessages);
             } catch (ClassCastException exception) {
@@ -302,6 +348,66 @@ public class JfxView implements Observer {
     }
 
 
+    /**
+     * Handles the update when an added message matches the shown search.
+     * Adds the message to the search results, first if the newest messages are shown
+     * first.
+     *
+     * @param update The update object containing the matching message.
+     * @throws IllegalArgumentException If the provided update is not of type {@link AddUpdate}.
+     */
+    @Override
+    public void onSearchMatchAddUpdate(final Update update) throws IllegalArgumentException {
+        try {
+            AddUpdate addUpdate = (AddUpdate) update;
+            List<HBox> hBoxes = getHBoxes(List.of(addUpdate.getNewMessage()));
+            if (newestFirstBox.isSelected()) {
+                dialog.getChildren().addAll(0, hBoxes);
+            } else {
+                dialog.getChildren().addAll(hBoxes);
+            }
+        } catch (ClassCastException exception) {
+            throw new IllegalArgumentException("Expected AddUpdate object but found another");
+        }
+    }
+
+    /**
+     * Handles the update when a message of the shown search results is deleted.
+     * Removes the message from the search results.
+     *
+     * @param update The update object containing the deleted message's identifier.
+     * @throws IllegalArgumentException If the provided update is not of type {@link DeleteUpdate}.
+     */
+    @Override
+    public void onSearchMatchDeleteUpdate(final Update update) throws IllegalArgumentException {
+        try {
+            DeleteUpdate deleteUpdate = (DeleteUpdate) update;
+            dialog.getChildren().remove(messageToHbox.remove(deleteUpdate.getDeletedMessageId()));
+        } catch (ClassCastException exception) {
+            throw new IllegalArgumentException("Expected DeleteUpdate object but found another");
+        }
+    }
+
+    /**
+     * Handles the update when a search fails.
+     * Shows the error in the search label, leaving the shown messages as they are.
+     *
+     * @param update The update object containing the searched text and the error.
+     * @throws IllegalArgumentException If the provided update is not of type
+     *                                  {@link SearchErrorUpdate}.
+     */
+    @Override
+    public void onSearchErrorUpdate(final Update update) throws IllegalArgumentException {
+        try {
+            SearchErrorUpdate searchErrorUpdate = (SearchErrorUpdate) update;
+            searchTextLabel.setText("Cannot search for " + searchErrorUpdate.getSearchText()
+                    + ": " + searchErrorUpdate.getErrorMessage());
+        } catch (ClassCastException exception) {
+            throw new IllegalArgumentException("Expected SearchErrorUpdate object"
+                    + " but found another");
+        }
+    }
+
     /**
      * Creates an HBox from a message for display in the dialog.
      *
@@ -363,23 +469,47 @@ public class JfxView implements Observer {
 
     /**
      * Processes the search result messages and displays them in the dialog.
-     * Clears the existing mapping of message IDs to HBoxes, creates new HBoxes
-     * from the search result messages, and adds them to the dialog.
+     * Reuses the HBoxes of the messages displayed before, creates the missing
+     * ones, and adds them to the dialog: a search refined at each keystroke does
+     * not rebuild the whole dialog. The HBoxes of the messages no longer displayed
+     * are dropped, so that only the shown messages keep theirs.
      *
      * @param messages The list of messages resulting from a search operation.
      */
     private void processSearchResult(final List<Message> messages) {
-        messageToHbox.clear();
-
-        ArrayList<HBox> result = new ArrayList<>();
+        List<HBox> hBoxes = getHBoxes(messages);
+        Set<Long> shownIds = new HashSet<>();
         for (Message message : messages) {
-            HBox hBox = createHBoxFromMessage(message);
-            result.add(hBox);
-            messageToHbox.put(message.getId(), hBox);
+            shownIds.add(message.getId());
         }
-
+        messageToHbox.keySet().retainAll(shownIds);
         dialog.getChildren().clear();
-        dialog.getChildren().addAll(result);
+        dialog.getChildren().addAll(hBoxes);
+    }
+
+    /**
+     * Displays the messages of the next page of a search result after those already
+     * displayed.
+     *
+     * @param messages The messages of the page.
+     */
+    private void appendSearchResult(final List<Message> messages) {
+        dialog.getChildren().addAll(getHBoxes(messages));
+    }
+
+    /**
+     * Gets the HBoxes of messages, creating those of the messages not displayed.
+     *
+     * @param messages The messages.
+     * @return The HBoxes, in the order of the messages.
+     */
+    private List<HBox> getHBoxes(final List<Message> messages) {
+        ArrayList<HBox> result = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            result.add(messageToHbox.computeIfAbsent(message.getId(),
+                    id -> createHBoxFromMessage(message)));
+        }
+        return result;
     }
 
 }
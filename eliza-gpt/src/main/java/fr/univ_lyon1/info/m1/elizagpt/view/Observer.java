@@ -5,7 +5,9 @@ import fr.univ_lyon1.info.m1.elizagpt.model.payload.Update;
 /**
  * The {@code Observer} interface defines methods to be implemented by classes
  * observing changes in the view of the Eliza GPT application. Observers can react to
- * updates related to message addition, deletion, search, and undo search operations.
+ * updates related to message addition, deletion, search, and undo search operations,
+ * to the messages entering or leaving the results of the current search, and to the
+ * searches that fail.
  * <p>
  * Classes implementing this interface should handle updates received through the
  * specified methods to maintain synchronization with the application's model.
@@ -41,4 +43,26 @@ public interface Observer {
       * @param searchUpdate The update object containing information about the search result.
       */
      void onUndoSearchUpdate(Update searchUpdate);
+
+     /**
+      * Notifies the observer when an added message matches the current search.
+      *
+      * @param addUpdate The update object containing the matching message.
+      */
+     void onSearchMatchAddUpdate(Update addUpdate);
+
+     /**
+      * Notifies the observer when a message of the current search results is deleted.
+      *
+      * @param deleteUpdate The update object containing the deleted message's identifier.
+      */
+     void onSearchMatchDeleteUpdate(Update deleteUpdate);
+
+     /**
+      * Notifies the observer when a search fails, the previous results staying current.
+      *
+      * @param searchErrorUpdate The update object containing the searched text and the
+      *                          description of the error.
+      */
+     void onSearchErrorUpdate(Update searchErrorUpdate);
 }
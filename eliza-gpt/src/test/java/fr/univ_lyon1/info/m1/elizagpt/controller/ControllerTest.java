@@ -2,11 +2,27 @@ package fr.univ_lyon1.info.m1.elizagpt.controller;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.MessageProcessor;
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.payload.AddUpdate;
+import fr.univ_lyon1.info.m1.elizagpt.model.payload.DeleteUpdate;
+import fr.univ_lyon1.info.m1.elizagpt.model.payload.SearchErrorUpdate;
+import fr.univ_lyon1.info.m1.elizagpt.model.payload.SearchUpdate;
+import fr.univ_lyon1.info.m1.elizagpt.model.payload.Update;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchPage;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchResults;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.StandingQuery;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.view.Observer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.regex.PatternSyntaxException;
+
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -14,6 +30,10 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 
 class ControllerTest {
@@ -30,7 +50,7 @@ class ControllerTest {
     @Test
     void addUserMessage() {
         String inputMessage = "a new message";
-        Message expectedMessage = new Message(inputMessage, Message.Sender.USER);
+        Message expectedMessage = new Message(inputMessage, Message.Sender.USER, 1);
         when(messageProcessorMock.addMessage(inputMessage, Message.Sender.USER))
                 .thenReturn(expectedMessage);
         controller.addUserMessage(inputMessage);
@@ -54,6 +74,89 @@ class ControllerTest {
         verify(messageProcessorMock).search(inputMessage);
     }
 
+    @Test
+    void liveSearch() {
+        String inputMessage = "a mess";
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < Controller.PAGE_SIZE + 1; i++) {
+            messages.add(new Message(inputMessage + i, Message.Sender.USER, i + 1));
+        }
+        when(messageProcessorMock.refineSearch(inputMessage)).thenReturn(
+                SearchResults.search(SubStringSearchStrategy.getInstance(), messages,
+                        inputMessage, false));
+        Observer observer = mock(Observer.class);
+        controller.registerObserver(observer);
+
+        controller.liveSearch(inputMessage);
+        controller.showMoreResults();
+        controller.showMoreResults();
+
+        verify(messageProcessorMock).refineSearch(inputMessage);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(observer, times(2)).onSearchUpdate(updates.capture());
+        SearchPage page = ((SearchUpdate) updates.getAllValues().get(1)).getPage();
+        assertEquals(Controller.PAGE_SIZE, page.getOffset());
+        assertEquals(List.of(messages.get(Controller.PAGE_SIZE)), page.getMessages());
+    }
+
+    @Test
+    void searchErrors() {
+        when(messageProcessorMock.refineSearch("(a")).thenThrow(
+                new PatternSyntaxException("Unclosed group", ".*(a.*", 6));
+        when(messageProcessorMock.refineSearch("(.*a){12}")).thenThrow(
+                new CancellationException("The regular expression exceeded its step budget"));
+        when(messageProcessorMock.search("chat ET")).thenThrow(
+                new IllegalArgumentException("Missing term after ET"));
+        Observer observer = mock(Observer.class);
+        controller.registerObserver(observer);
+
+        controller.liveSearch("(a");
+        controller.liveSearch("(.*a){12}");
+        controller.search("chat ET");
+        controller.showMoreResults();
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(observer, times(3)).onSearchErrorUpdate(updates.capture());
+        SearchErrorUpdate invalid = (SearchErrorUpdate) updates.getAllValues().get(0);
+        assertEquals("(a", invalid.getSearchText());
+        assertEquals("Unclosed group", invalid.getErrorMessage());
+        assertEquals("Missing term after ET",
+                ((SearchErrorUpdate) updates.getAllValues().get(2)).getErrorMessage());
+        verify(observer, never()).onSearchUpdate(any());
+        verify(messageProcessorMock, never()).startStandingQuery(any(), any(), any());
+    }
+
+    @Test
+    void searchMatches() {
+        String inputMessage = "a mess";
+        List<Message> result = List.of(new Message("a message", Message.Sender.USER, 3));
+        when(messageProcessorMock.search(inputMessage)).thenReturn(result);
+        StandingQuery query = mock(StandingQuery.class);
+        ArgumentCaptor<StandingQuery.Subscriber> subscriber =
+                ArgumentCaptor.forClass(StandingQuery.Subscriber.class);
+        when(messageProcessorMock.startStandingQuery(eq(inputMessage), eq(result),
+                subscriber.capture())).thenReturn(query);
+        Observer observer = mock(Observer.class);
+        controller.registerObserver(observer);
+
+        controller.search(inputMessage);
+        Message match = new Message("another message", Message.Sender.ELIZA, 4);
+        subscriber.getValue().onMatchAdded(match);
+        subscriber.getValue().onMatchRemoved(match);
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(observer).onSearchMatchAddUpdate(updates.capture());
+        assertSame(match, ((AddUpdate) updates.getValue()).getNewMessage());
+        verify(observer).onSearchMatchDeleteUpdate(updates.capture());
+        assertEquals(match.getId(), ((DeleteUpdate) updates.getValue()).getDeletedMessageId());
+
+        controller.search(inputMessage);
+        verify(messageProcessorMock).stopStandingQuery(query);
+        controller.undoSearch();
+        verify(messageProcessorMock, times(2)).stopStandingQuery(query);
+        verify(messageProcessorMock, times(2)).startStandingQuery(any(), any(), any());
+    }
+
     @Test
     void deleteMessage() {
         int messageID = 2;
@@ -2,6 +2,7 @@ package fr.univ_lyon1.info.m1.elizagpt.model;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
 import fr.univ_lyon1.info.m1.elizagpt.model.response.ResponseGenerator;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchResults;
 import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,10 +10,12 @@ import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageManager;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.List;
@@ -40,9 +43,9 @@ public class MessageProcessorTest {
         searchStrategyMock = mock(SearchStrategy.class);
         responseGeneratorMock = mock(ResponseGenerator.class);
         messages = new ArrayList<>();
-        messages.add(new Message("a test text !", Message.Sender.USER));
-        messages.add(new Message("a new test text !", Message.Sender.ELIZA));
-        messages.add(new Message("another one !", Message.Sender.ELIZA));
+        messages.add(new Message("a test text !", Message.Sender.USER, 1));
+        messages.add(new Message("a new test text !", Message.Sender.ELIZA, 2));
+        messages.add(new Message("another one !", Message.Sender.ELIZA, 3));
         messageProcessor = new MessageProcessor(messageManagerMock, searchStrategyMock,
                 responseGeneratorMock, messages);
     }
@@ -68,7 +71,7 @@ public class MessageProcessorTest {
         String input = "  test  input.   ";
         String normalizedInput = "test input.";
         Message.Sender sender = Message.Sender.USER;
-        Message expectedMessage = new Message(normalizedInput, sender);
+        Message expectedMessage = new Message(normalizedInput, sender, 4);
 
         when(messageManagerMock.addMessage(eq(normalizedInput),
                 eq(sender))).thenReturn(expectedMessage);
@@ -84,8 +87,8 @@ public class MessageProcessorTest {
     @Test
     void deleteMessage() {
         ArrayList<Message> expectedList = new ArrayList<>();
-        expectedList.add(new Message("a test text !", Message.Sender.USER));
-        expectedList.add(new Message("a new test text !", Message.Sender.ELIZA));
+        expectedList.add(new Message("a test text !", Message.Sender.USER, 5));
+        expectedList.add(new Message("a new test text !", Message.Sender.ELIZA, 6));
         int messageId = 2;
         messageProcessor.deleteMessage(messageId);
         verify(messageManagerMock).deleteMessage(messageId);
@@ -96,7 +99,7 @@ public class MessageProcessorTest {
         //initialisation of the variables
         String toSearch = "a new test text !";
         ArrayList<Message> expectedList = new ArrayList<>();
-        expectedList.add(new Message(toSearch, any()));
+        expectedList.add(new Message(toSearch, any(), 7));
 
         when(searchStrategyMock.search(messages, eq(toSearch))).thenReturn(expectedList);
         List<Message> result = messageProcessor.search(toSearch);
@@ -107,6 +110,36 @@ public class MessageProcessorTest {
 
     }
 
+    @Test
+    void searchIsCachedUntilMessagesChange() {
+        when(searchStrategyMock.search(messages, "text")).thenReturn(List.of(messages.get(0)));
+        when(messageManagerMock.getVersion()).thenReturn(1L);
+        messageProcessor.search("text");
+        messageProcessor.search("text");
+        verify(searchStrategyMock, times(1)).search(messages, "text");
+        assertEquals(1, messageProcessor.getSearchCache().getHitCount());
+
+        when(messageManagerMock.getVersion()).thenReturn(2L);
+        assertEquals(List.of(messages.get(0)), messageProcessor.search("text"));
+        verify(searchStrategyMock, times(2)).search(messages, "text");
+    }
+
+    @Test
+    void refineSearch() {
+        when(searchStrategyMock.candidates(messages, "new")).thenReturn(messages);
+        when(searchStrategyMock.matcher("new"))
+                .thenReturn(message -> message.getText().contains("new"));
+
+        SearchResults result = messageProcessor.refineSearch("new");
+
+        verify(searchStrategyMock).candidates(messages, "new");
+        assertEquals(List.of(messages.get(1)), result.getPage(0, 10));
+
+        messageProcessor.setNewestFirst(true);
+        assertTrue(messageProcessor.isNewestFirst());
+        assertTrue(messageProcessor.refineSearch("new").isNewestFirst());
+    }
+
     @Test
     void generateElizaResponse() {
         String input = "  Quelle  est la   meilleure  équipe  du  foot \\?  ";
@@ -0,0 +1,253 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.journal;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.MessageProcessor;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageIdAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageJournalTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() {
+        file = tempDir.resolve("conversation.journal");
+    }
+
+    @Test
+    void newJournal() throws IOException {
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.GROUP)) {
+            assertTrue(journal.takeRecoveredMessages().isEmpty());
+            assertEquals(1, journal.getNextId());
+            assertEquals(FsyncPolicy.GROUP, journal.getPolicy());
+        }
+        assertEquals(MessageJournal.HEADER_SIZE, Files.size(file));
+    }
+
+    @Test
+    void replayRebuildsConversation() throws IOException {
+        List<Message> expected;
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.GROUP)) {
+            MessageProcessor processor = new MessageProcessor(journal);
+            processor.addMessage("Je suis fatigué", Message.Sender.USER);
+            Message deleted = processor.addMessage("Pourquoi ?", Message.Sender.ELIZA);
+            processor.addMessage("J'ai faim", Message.Sender.USER);
+            processor.deleteMessage(deleted.getId());
+            expected = new ArrayList<>(processor.getMessages());
+        }
+
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.GROUP)) {
+            MessageProcessor processor = new MessageProcessor(journal);
+            List<Message> messages = processor.getMessages();
+            assertEquals(expected.size(), messages.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), messages.get(i).getId());
+                assertEquals(expected.get(i).getText(), messages.get(i).getText());
+                assertEquals(expected.get(i).getSender(), messages.get(i).getSender());
+            }
+            assertEquals("Bonjour.", messages.get(0).getText());
+            // The deleted message was the last but one: its identifier is not reused.
+            assertEquals(5, processor.addMessage("Encore", Message.Sender.USER).getId());
+        }
+    }
+
+    @Test
+    void tornRecordIsTruncated() throws IOException {
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            journal.onMessageAdded(new Message("first", Message.Sender.USER, 1));
+            journal.onMessageAdded(new Message("second", Message.Sender.ELIZA, 2));
+        }
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            List<Message> recovered = journal.takeRecoveredMessages();
+            assertEquals(1, recovered.size());
+            assertEquals("first", recovered.get(0).getText());
+            assertEquals(2, journal.getNextId());
+            journal.onMessageAdded(new Message("third", Message.Sender.USER, 3));
+        }
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            List<Message> recovered = journal.takeRecoveredMessages();
+            assertEquals(2, recovered.size());
+            assertEquals("third", recovered.get(1).getText());
+        }
+    }
+
+    @Test
+    void corruptRecordEndsJournal() throws IOException {
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            journal.onMessageAdded(new Message("first", Message.Sender.USER, 1));
+            journal.onMessageAdded(new Message("second", Message.Sender.ELIZA, 2));
+            journal.onMessageAdded(new Message("third", Message.Sender.USER, 3));
+        }
+        long secondText = MessageJournal.HEADER_SIZE + 8 + 10 + "first".length() + 8 + 10;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("X".getBytes(StandardCharsets.UTF_8)), secondText);
+        }
+
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            assertEquals(1, journal.takeRecoveredMessages().size());
+        }
+        assertEquals(MessageJournal.HEADER_SIZE + 8 + 10 + "first".length(), Files.size(file));
+    }
+
+    @Test
+    void recoveredMessagesAreHandedOverOnce() throws IOException {
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            journal.onMessageAdded(new Message("first", Message.Sender.USER, 1));
+        }
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            assertEquals(1, journal.takeRecoveredMessages().size());
+            assertTrue(journal.takeRecoveredMessages().isEmpty());
+        }
+    }
+
+    @Test
+    void recordsLargerThanTheReplayBuffer() throws IOException {
+        String large = "a".repeat(MessageJournal.REPLAY_BUFFER_SIZE * 3);
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            for (int i = 1; i <= 100; i++) {
+                String text = i % 10 == 0 ? large : "message " + i;
+                journal.onMessageAdded(new Message(text, Message.Sender.USER, i));
+            }
+        }
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            List<Message> recovered = journal.takeRecoveredMessages();
+            assertEquals(100, recovered.size());
+            assertEquals(large, recovered.get(49).getText());
+            assertEquals("message 51", recovered.get(50).getText());
+        }
+    }
+
+    @Test
+    void deadRecordsAreCompacted() throws IOException {
+        String text = "x".repeat(1000);
+        int count = (int) (MessageJournal.COMPACTION_MIN_BYTES / 1000) * 2;
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            for (int i = 1; i <= count; i++) {
+                journal.onMessageAdded(new Message(text + i, Message.Sender.USER, i));
+            }
+            for (int i = 11; i <= count; i++) {
+                journal.onMessageDeleted(new Message(text + i, Message.Sender.USER, i));
+            }
+        }
+        long size = Files.size(file);
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            assertEquals(10, journal.takeRecoveredMessages().size());
+            // The greatest identifier was deleted, but is still never reused.
+            assertEquals(count + 1, journal.getNextId());
+            journal.onMessageAdded(new Message("after", Message.Sender.ELIZA, count + 1));
+        }
+        assertTrue(Files.size(file) < size / 100, "size: " + Files.size(file));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(file), files.collect(Collectors.toList()));
+        }
+
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.NEVER)) {
+            List<Message> recovered = journal.takeRecoveredMessages();
+            assertEquals(11, recovered.size());
+            assertEquals(text + 1, recovered.get(0).getText());
+            assertEquals("after", recovered.get(10).getText());
+            assertEquals(count + 2, journal.getNextId());
+        }
+    }
+
+    @Test
+    void notAJournal() throws IOException {
+        Files.write(file, "Bonjour".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> MessageJournal.open(file, FsyncPolicy.GROUP));
+    }
+
+    @Test
+    void groupCommitBatchesRecords() throws IOException {
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.GROUP, 200)) {
+            for (int i = 1; i <= 100; i++) {
+                journal.onMessageAdded(new Message("message " + i, Message.Sender.USER, i));
+            }
+            journal.sync();
+            assertTrue(journal.getCommitCount() < 10, "commits: " + journal.getCommitCount());
+        }
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.GROUP)) {
+            assertEquals(100, journal.takeRecoveredMessages().size());
+        }
+    }
+
+    @Test
+    void alwaysWaitsForCommit() throws IOException {
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.ALWAYS)) {
+            journal.onMessageAdded(new Message("durable", Message.Sender.USER, 1));
+            assertEquals(1, journal.getCommitCount());
+            assertTrue(Files.size(file) > MessageJournal.HEADER_SIZE);
+        }
+    }
+
+    @Test
+    void closedJournalRejectsRecords() throws IOException {
+        MessageJournal journal = MessageJournal.open(file, FsyncPolicy.GROUP);
+        journal.close();
+        journal.close();
+        assertThrows(IllegalStateException.class,
+                () -> journal.onMessageDeleted(new Message("late", Message.Sender.USER, 1)));
+    }
+
+    @Test
+    void concurrentRecords() throws Exception {
+        MessageIdAllocator allocator = new MessageIdAllocator();
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.GROUP)) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    futures.add(executor.submit(() -> {
+                        for (int j = 0; j < 500; j++) {
+                            Message message = new Message("message " + j,
+                                    Message.Sender.USER, allocator.nextId());
+                            journal.onMessageAdded(message);
+                            if (j % 5 == 0) {
+                                journal.onMessageDeleted(message);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(1, TimeUnit.MINUTES);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        try (MessageJournal journal = MessageJournal.open(file, FsyncPolicy.GROUP)) {
+            assertEquals(8 * 400, journal.takeRecoveredMessages().size());
+            assertEquals(allocator.peekNextId(), journal.getNextId());
+        }
+    }
+}
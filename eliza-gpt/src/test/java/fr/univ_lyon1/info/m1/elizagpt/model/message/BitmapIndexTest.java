@@ -0,0 +1,103 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitmapIndexTest {
+    private Message tired;
+    private Message why;
+    private Message sleep;
+    private MessageHistory history;
+
+    @BeforeEach
+    public void setUp() {
+        tired = new Message("Je suis fatigué.", Message.Sender.USER, 1);
+        why = new Message("Pourquoi êtes-vous FATIGUÉ ?", Message.Sender.ELIZA, 2);
+        sleep = new Message("J'ai mal dormi.", Message.Sender.USER, 3);
+        history = new MessageHistory(Arrays.asList(tired, why, sleep));
+    }
+
+    @Test
+    void findTerm() {
+        BitmapIndex index = history.getBitmapIndex();
+        assertEquals(List.of(tired, why), index.getMessages(index.findTerm("fatigue")));
+        assertEquals(List.of(sleep), index.getMessages(index.findTerm("j")));
+        assertTrue(index.findTerm("fatigué").isEmpty());
+        assertTrue(index.findTerm("absent").isEmpty());
+    }
+
+    @Test
+    void findSender() {
+        BitmapIndex index = history.getBitmapIndex();
+        assertEquals(List.of(tired, sleep),
+                index.getMessages(index.findSender(Message.Sender.USER)));
+        assertEquals(List.of(why), index.getMessages(index.findSender(Message.Sender.ELIZA)));
+        assertEquals(history, index.getMessages(index.getAll()));
+    }
+
+    @Test
+    void filter() {
+        BitmapIndex index = history.getBitmapIndex();
+        assertEquals(List.of(why), index.getMessages(
+                index.filter(index.getAll(), message -> message.getText().contains("?"))));
+    }
+
+    @Test
+    void removeAndCompact() {
+        for (int i = 0; i < 200; i++) {
+            history.add(new Message("fatigue " + i, Message.Sender.ELIZA, i + 10));
+        }
+        history.removeIf(message -> message.getText().startsWith("fatigue "));
+        BitmapIndex index = history.getBitmapIndex();
+        assertEquals(List.of(tired, why), index.getMessages(index.findTerm("fatigue")));
+        history.remove(1);
+        Message again = new Message("Encore fatigué", Message.Sender.USER, 5);
+        history.add(again);
+        assertEquals(List.of(tired, again), index.getMessages(index.findTerm("fatigue")));
+        assertEquals(List.of(tired, sleep, again), index.getMessages(index.getAll()));
+        assertTrue(index.findTerm("0").isEmpty());
+    }
+
+    @Test
+    void messageHeldSeveralTimes() {
+        history.add(tired);
+        history.remove(0);
+        BitmapIndex index = history.getBitmapIndex();
+        assertEquals(List.of(why, tired), index.getMessages(index.findTerm("fatigue")));
+    }
+
+    @Test
+    void termBitmapsFollowChanges() {
+        BitmapIndex index = history.getBitmapIndex();
+        MessageBitmap tiredMessages = index.findTerm("fatigue");
+        assertSame(tiredMessages, index.findTerm("fatigue"));
+        Message again = new Message("Encore fatigué", Message.Sender.USER, 4);
+        history.add(again);
+        assertEquals(List.of(tired, why, again), index.getMessages(index.findTerm("fatigue")));
+        history.removeById(why.getId());
+        assertEquals(List.of(tired, again), index.getMessages(index.findTerm("fatigue")));
+    }
+
+    @Test
+    void messageAddedTwice() {
+        history.add(tired);
+        BitmapIndex index = history.getBitmapIndex();
+        assertEquals(List.of(tired, why, tired), index.getMessages(index.findTerm("fatigue")));
+        assertEquals(history.getRelevanceIndex().getTermCount(), index.getTermCount());
+    }
+
+    @Test
+    void of() {
+        BitmapIndex index = BitmapIndex.of(List.of(sleep, tired));
+        assertEquals(List.of(sleep, tired),
+                index.getMessages(index.findSender(Message.Sender.USER)));
+        assertEquals(7, index.getTermCount());
+    }
+}
@@ -0,0 +1,76 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BkTreeTest {
+    private BkTree tree;
+
+    @BeforeEach
+    public void setUp() {
+        tree = new BkTree();
+        for (String term : Arrays.asList("bonjour", "bonsoir", "fatigue", "fatiguer",
+                "triste", "tristes", "chat", "chats", "chien", "cher")) {
+            tree.add(term);
+        }
+    }
+
+    @Test
+    void distance() {
+        assertEquals(0, BkTree.distance("chat", "chat"));
+        assertEquals(1, BkTree.distance("chat", "chats"));
+        assertEquals(1, BkTree.distance("chat", "chut"));
+        assertEquals(2, BkTree.distance("bonjour", "bonjuor"));
+        assertEquals(4, BkTree.distance("", "chat"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+    }
+
+    @Test
+    void add() {
+        assertEquals(10, tree.size());
+        assertFalse(tree.add("chat"));
+        assertTrue(tree.add("chut"));
+        assertEquals(11, tree.size());
+    }
+
+    @Test
+    void find() {
+        assertEquals(Set.of("chat", "chats"), new HashSet<>(tree.find("chat", 1)));
+        assertEquals(Set.of("bonjour"), new HashSet<>(tree.find("bonjuor", 2)));
+        assertEquals(Set.of("chat"), new HashSet<>(tree.find("chat", 0)));
+        assertTrue(tree.find("oiseau", 2).isEmpty());
+    }
+
+    @Test
+    void findMatchesLinearScan() {
+        List<String> terms = Arrays.asList("bonjour", "bonsoir", "fatigue", "fatiguer",
+                "triste", "tristes", "chat", "chats", "chien", "cher");
+        for (String query : Arrays.asList("chet", "fatigé", "bonsoire", "tritse", "c")) {
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                Set<String> expected = new HashSet<>();
+                for (String term : terms) {
+                    if (BkTree.distance(query, term) <= maxDistance) {
+                        expected.add(term);
+                    }
+                }
+                assertEquals(expected, new HashSet<>(tree.find(query, maxDistance)));
+            }
+        }
+    }
+
+    @Test
+    void clear() {
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertTrue(tree.find("chat", 2).isEmpty());
+    }
+}
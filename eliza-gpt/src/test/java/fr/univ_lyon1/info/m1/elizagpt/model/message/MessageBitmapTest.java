@@ -0,0 +1,95 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageBitmapTest {
+
+    private MessageBitmap bitmap;
+
+    @BeforeEach
+    public void setUp() {
+        bitmap = new MessageBitmap();
+        bitmap.set(3);
+        bitmap.set(70);
+        bitmap.set(1_000_000);
+    }
+
+    @Test
+    void setAndGet() {
+        assertTrue(bitmap.get(3));
+        assertTrue(bitmap.get(70));
+        assertTrue(bitmap.get(1_000_000));
+        assertFalse(bitmap.get(4));
+        assertFalse(bitmap.get(999_999));
+        assertEquals(3, bitmap.cardinality());
+        assertArrayEquals(new int[] {3, 70, 1_000_000}, bitmap.toArray());
+    }
+
+    @Test
+    void isCompressed() {
+        assertEquals(3, bitmap.getWordCount());
+        bitmap.set(5);
+        bitmap.set(1);
+        assertEquals(3, bitmap.getWordCount());
+        assertArrayEquals(new int[] {1, 3, 5, 70, 1_000_000}, bitmap.toArray());
+    }
+
+    @Test
+    void clear() {
+        bitmap.clear(70);
+        bitmap.clear(71);
+        assertFalse(bitmap.get(70));
+        assertEquals(2, bitmap.getWordCount());
+        bitmap.clear(3);
+        bitmap.clear(1_000_000);
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    void combineLikeBitSet() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            MessageBitmap left = new MessageBitmap();
+            MessageBitmap right = new MessageBitmap();
+            BitSet leftBits = new BitSet();
+            BitSet rightBits = new BitSet();
+            for (int i = 0; i < 200; i++) {
+                int bit = random.nextInt(2000);
+                left.set(bit);
+                leftBits.set(bit);
+                bit = random.nextInt(2000);
+                right.set(bit);
+                rightBits.set(bit);
+            }
+            BitSet and = (BitSet) leftBits.clone();
+            and.and(rightBits);
+            BitSet or = (BitSet) leftBits.clone();
+            or.or(rightBits);
+            BitSet andNot = (BitSet) leftBits.clone();
+            andNot.andNot(rightBits);
+            assertArrayEquals(and.stream().toArray(), left.and(right).toArray());
+            assertArrayEquals(or.stream().toArray(), left.or(right).toArray());
+            assertArrayEquals(andNot.stream().toArray(), left.andNot(right).toArray());
+            assertEquals(or.cardinality(), left.or(right).cardinality());
+        }
+    }
+
+    @Test
+    void combineWithEmpty() {
+        MessageBitmap empty = new MessageBitmap();
+        assertTrue(bitmap.and(empty).isEmpty());
+        assertArrayEquals(bitmap.toArray(), bitmap.or(empty).toArray());
+        assertArrayEquals(bitmap.toArray(), empty.or(bitmap).toArray());
+        assertArrayEquals(bitmap.toArray(), bitmap.andNot(empty).toArray());
+        assertTrue(empty.andNot(bitmap).isEmpty());
+    }
+}
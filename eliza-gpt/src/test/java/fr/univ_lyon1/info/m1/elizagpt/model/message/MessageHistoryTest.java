@@ -0,0 +1,123 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageHistoryTest {
+    private Message hello;
+    private Message well;
+    private Message joke;
+    private MessageHistory history;
+
+    @BeforeEach
+    public void setUp() {
+        hello = new Message("Hello, how are you?", Message.Sender.USER, 1);
+        well = new Message("I'm doing well, thank you!", Message.Sender.ELIZA, 2);
+        joke = new Message("Can you tell me a joke?", Message.Sender.USER, 3);
+        history = new MessageHistory(Arrays.asList(hello, well, joke));
+    }
+
+    @Test
+    void listOperations() {
+        assertEquals(3, history.size());
+        assertEquals(well, history.get(1));
+        assertEquals(Arrays.asList(hello, well, joke), history);
+    }
+
+    @Test
+    void removeById() {
+        long version = history.getVersion();
+        assertEquals(List.of(well), history.removeById(well.getId()));
+        assertEquals(Arrays.asList(hello, joke), history);
+        assertTrue(history.getVersion() > version);
+        assertEquals(List.of(hello, joke), history.getWordIndex().find("you"));
+        assertFalse(history.getTrigramIndex().findCandidates(List.of("well")).contains(well));
+        version = history.getVersion();
+        assertTrue(history.removeById(well.getId()).isEmpty());
+        assertEquals(version, history.getVersion());
+    }
+
+    @Test
+    void iterateAfterRemovals() {
+        for (int i = 0; i < 10; i++) {
+            history.add(new Message("filler " + i, Message.Sender.ELIZA, i + 10));
+        }
+        history.removeIf(message -> message.getText().startsWith("filler"));
+        history.remove(1);
+        List<Message> iterated = new ArrayList<>();
+        for (Message message : history) {
+            iterated.add(message);
+        }
+        assertEquals(Arrays.asList(hello, joke), iterated);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            for (Message message : history) {
+                history.add(message);
+            }
+        });
+        assertTrue(history.removeAll(List.of(joke)));
+        assertTrue(history.retainAll(List.of(joke)));
+        assertTrue(history.isEmpty());
+    }
+
+    @Test
+    void getVersion() {
+        long version = history.getVersion();
+        history.add(new Message("Thank YOU.", Message.Sender.USER, 5));
+        assertTrue(history.getVersion() > version);
+        version = history.getVersion();
+        history.set(0, joke);
+        assertTrue(history.getVersion() > version);
+        version = history.getVersion();
+        assertFalse(history.removeIf(message -> false));
+        assertEquals(version, history.getVersion());
+        history.remove(0);
+        assertTrue(history.getVersion() > version);
+    }
+
+    @Test
+    void addUpdatesIndex() {
+        Message thanks = new Message("Thank YOU.", Message.Sender.USER, 6);
+        history.add(thanks);
+        assertEquals(Arrays.asList(well, thanks), history.getWordIndex().find("thank"));
+        assertEquals(Arrays.asList(hello, well, joke, thanks),
+                history.getWordIndex().find("you"));
+    }
+
+    @Test
+    void removeUpdatesIndex() {
+        history.remove(1);
+        assertEquals(Arrays.asList(hello, joke), history.getWordIndex().find("you"));
+        assertTrue(history.getWordIndex().find("thank").isEmpty());
+        assertTrue(history.getRelevanceIndex().findMostRelevant("thank", 10).isEmpty());
+
+        assertTrue(history.removeIf(message -> message == joke));
+        assertEquals(List.of(hello), history.getWordIndex().find("you"));
+        assertEquals(List.of(hello), history);
+
+        history.clear();
+        assertTrue(history.getWordIndex().find("hello").isEmpty());
+        assertEquals(0, history.getRelevanceIndex().getTermCount());
+    }
+
+    @Test
+    void insertKeepsHistoryOrder() {
+        Message thanks = new Message("thank you", Message.Sender.USER, 7);
+        history.add(0, thanks);
+        assertEquals(Arrays.asList(thanks, well), history.getWordIndex().find("THANK"));
+
+        Message other = new Message("no thanks", Message.Sender.ELIZA, 8);
+        history.set(2, other);
+        assertEquals(List.of(thanks), history.getWordIndex().find("thank"));
+        assertEquals(List.of(other), history.getWordIndex().find("thanks"));
+    }
+}
@@ -0,0 +1,78 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessageIdAllocatorTest {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int MESSAGES_PER_THREAD = 10_000;
+
+    private MessageIdAllocator allocator;
+
+    @BeforeEach
+    public void setUp() {
+        allocator = new MessageIdAllocator();
+    }
+
+    @Test
+    void nextId() {
+        assertEquals(1, allocator.peekNextId());
+        assertEquals(1, allocator.nextId());
+        assertEquals(2, allocator.nextId());
+        assertEquals(3, allocator.peekNextId());
+    }
+
+    @Test
+    void idsBeyondIntRange() {
+        MessageIdAllocator large = new MessageIdAllocator(Integer.MAX_VALUE);
+        large.nextId();
+        Message message = new Message("after int ids", Message.Sender.USER, large.nextId());
+        assertEquals(Integer.MAX_VALUE + 1L, message.getId());
+    }
+
+    /**
+     * Creates messages from many threads at once, and checks that no identifier is given
+     * out twice.
+     */
+    @Test
+    void concurrentMessagesGetUniqueIds() throws Exception {
+        Set<Long> conversationIds = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < MESSAGES_PER_THREAD; j++) {
+                        conversationIds.add(new Message("conversation", Message.Sender.USER,
+                                allocator.nextId()).getId());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        int messageCount = THREAD_COUNT * MESSAGES_PER_THREAD;
+        assertEquals(messageCount, conversationIds.size());
+        assertEquals(messageCount + 1, allocator.peekNextId());
+    }
+}
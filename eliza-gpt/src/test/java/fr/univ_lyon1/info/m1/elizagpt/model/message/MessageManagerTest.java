@@ -6,6 +6,13 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 
 class MessageManagerTest {
@@ -14,9 +21,9 @@ class MessageManagerTest {
     @BeforeEach
     public void setUp() {
         messages = new ArrayList<>();
-        messages.add(new Message("a test text !", Message.Sender.USER));
-        messages.add(new Message("a new test text !", Message.Sender.ELIZA));
-        messages.add(new Message("another one !", Message.Sender.ELIZA));
+        messages.add(new Message("a test text !", Message.Sender.USER, 1));
+        messages.add(new Message("a new test text !", Message.Sender.ELIZA, 2));
+        messages.add(new Message("another one !", Message.Sender.ELIZA, 3));
         messageManager = new MessageManager(messages);
     }
 
@@ -38,7 +45,7 @@ class MessageManagerTest {
 
     @Test
     void deleteMessage() {
-        int messageId = messages.get(0).getId();
+        long messageId = messages.get(0).getId();
 
         int oldSize = messages.size();
         messageManager.deleteMessage(messageId);
@@ -46,4 +53,59 @@ class MessageManagerTest {
         assertEquals(oldSize - 1, newSize);
         assertEquals(messages.get(1).getText(), "another one !");
     }
+
+    @Test
+    void idsArePerConversation() {
+        long nextId = messages.get(2).getId() + 1;
+        assertEquals(nextId, messageManager.getIdAllocator().peekNextId());
+        MessageManager otherManager = new MessageManager(new MessageHistory());
+        assertEquals(1, otherManager.addMessage("first", Message.Sender.USER).getId());
+        assertEquals(nextId, messageManager.addMessage("next", Message.Sender.USER).getId());
+        assertEquals(2, otherManager.addMessage("second", Message.Sender.ELIZA).getId());
+    }
+
+    @Test
+    void getVersion() {
+        long version = messageManager.getVersion();
+        messageManager.addMessage("new message text", Message.Sender.USER);
+        assertEquals(version + 1, messageManager.getVersion());
+        messageManager.deleteMessage(-1);
+        assertEquals(version + 1, messageManager.getVersion());
+        messageManager.deleteMessage(messages.get(0).getId());
+        assertEquals(version + 2, messageManager.getVersion());
+    }
+
+    @Test
+    void messageListeners() {
+        MessageListener listener = mock(MessageListener.class);
+        messageManager.addMessageListener(listener);
+        Message added = messageManager.addMessage("new message text", Message.Sender.USER);
+        Message deleted = messages.get(0);
+        messageManager.deleteMessage(deleted.getId());
+        messageManager.deleteMessage(-1);
+
+        verify(listener).onMessageAdded(added);
+        verify(listener).onMessageDeleted(deleted);
+        verifyNoMoreInteractions(listener);
+
+        messageManager.removeMessageListener(listener);
+        messageManager.addMessage("another message", Message.Sender.USER);
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    void failingListenerDoesNotStopTheOthers() {
+        MessageListener failing = mock(MessageListener.class);
+        IllegalStateException failure = new IllegalStateException("listener failure");
+        doThrow(failure).when(failing).onMessageAdded(any());
+        MessageListener listener = mock(MessageListener.class);
+        messageManager.addMessageListener(failing);
+        messageManager.addMessageListener(listener);
+
+        assertSame(failure, assertThrows(IllegalStateException.class,
+                () -> messageManager.addMessage("new message text", Message.Sender.USER)));
+        Message added = messages.get(messages.size() - 1);
+        assertEquals("new message text", added.getText());
+        verify(listener).onMessageAdded(added);
+    }
 }
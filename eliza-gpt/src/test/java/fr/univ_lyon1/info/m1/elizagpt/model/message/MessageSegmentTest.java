@@ -0,0 +1,96 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageSegmentTest {
+    @TempDir
+    private Path tempDir;
+
+    private Path file;
+    private List<Message> messages;
+    private MessageSegment segment;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = tempDir.resolve("segment.seg");
+        messages = new ArrayList<>();
+        messages.add(new Message("Bonjour", Message.Sender.ELIZA, 10));
+        messages.add(new Message("Je suis fatigué", Message.Sender.USER, 11));
+        messages.add(new Message("", Message.Sender.ELIZA, 12));
+        messages.add(new Message("Pourquoi êtes-vous fatigué ?",
+                Message.Sender.ELIZA, 13));
+        segment = MessageSegment.seal(file, messages);
+    }
+
+    @Test
+    void sealedMessagesAreTheWrittenOnes() {
+        assertEquals(4, segment.size());
+        assertEquals(4, segment.getSlotCount());
+        for (int i = 0; i < messages.size(); i++) {
+            assertSame(messages.get(i), segment.get(i));
+        }
+        assertThrows(IOException.class, () -> MessageSegment.seal(file, messages));
+    }
+
+    @Test
+    void messagesAreDecodedFromTheFile() throws IOException {
+        MessageSegment copy = MessageSegment.seal(tempDir.resolve("copy.seg"),
+                new ArrayList<>(List.of(
+                        new Message("Je suis fatigué", Message.Sender.USER, 11),
+                        new Message("", Message.Sender.ELIZA, 12),
+                        new Message("Bonjour", Message.Sender.ELIZA, 14))));
+        System.gc();
+        Message decoded = copy.get(0);
+        assertEquals("Je suis fatigué", decoded.getText());
+        assertEquals("je suis fatigué", decoded.getLowerCaseText());
+        assertEquals("je suis fatigue", decoded.getFoldedText());
+        // Without diacritics, no folded text is stored: it is the lower-cased one.
+        assertSame(copy.get(2).getLowerCaseText(), copy.get(2).getFoldedText());
+        assertEquals(Message.Sender.USER, decoded.getSender());
+        assertEquals(11, decoded.getId());
+        assertSame(decoded, copy.get(0));
+        assertEquals("", copy.get(1).getText());
+        assertNotSame(messages.get(1), decoded);
+    }
+
+    @Test
+    void removeLeavesTombstones() {
+        assertSame(messages.get(1), segment.remove(1));
+        assertTrue(segment.isDeleted(1));
+        assertFalse(segment.isDeleted(2));
+        assertEquals(3, segment.size());
+        assertEquals(4, segment.getSlotCount());
+        assertSame(messages.get(2), segment.get(1));
+        assertSame(messages.get(3), segment.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> segment.get(3));
+    }
+
+    @Test
+    void removeById() {
+        assertEquals(List.of(messages.get(3)), segment.removeById(13));
+        assertTrue(segment.removeById(13).isEmpty());
+        assertTrue(segment.removeById(42).isEmpty());
+        assertEquals(3, segment.size());
+    }
+
+    @Test
+    void delete() throws IOException {
+        segment.delete();
+        assertFalse(Files.exists(file));
+    }
+}
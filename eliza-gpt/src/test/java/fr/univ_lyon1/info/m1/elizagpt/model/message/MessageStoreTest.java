@@ -0,0 +1,118 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageStoreTest {
+    private MessageStore store;
+    private List<Message> expected;
+
+    @BeforeEach
+    public void setUp() {
+        store = new MessageStore();
+        expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Message message = new Message("message " + i, Message.Sender.USER, i + 1);
+            store.add(message);
+            expected.add(message);
+        }
+    }
+
+    private void assertSameMessages() {
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), store.get(i));
+        }
+        List<Message> iterated = new ArrayList<>();
+        store.forEach(iterated::add);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    void removeLeavesTombstones() {
+        assertEquals(expected.get(10), store.remove(10));
+        expected.remove(10);
+        assertEquals(1, store.getTombstoneCount());
+        assertSameMessages();
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(99));
+    }
+
+    @Test
+    void removeById() {
+        Message message = expected.get(42);
+        assertEquals(List.of(message), store.removeById(message.getId()));
+        expected.remove(message);
+        assertTrue(store.removeById(message.getId()).isEmpty());
+        assertSameMessages();
+    }
+
+    @Test
+    void removeByIdOfMessageHeldSeveralTimes() {
+        Message message = expected.get(3);
+        store.add(message);
+        assertEquals(List.of(message, message), store.removeById(message.getId()));
+        expected.remove(message);
+        assertSameMessages();
+    }
+
+    @Test
+    void compactsOnceManyTombstones() {
+        for (int i = 0; i < MessageStore.MIN_COMPACTION - 1; i++) {
+            store.removeById(expected.remove(0).getId());
+        }
+        assertEquals(MessageStore.MIN_COMPACTION - 1, store.getTombstoneCount());
+        store.removeById(expected.remove(0).getId());
+        assertEquals(0, store.getTombstoneCount());
+        assertSameMessages();
+    }
+
+    @Test
+    void randomOperations() {
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            int operation = random.nextInt(5);
+            if (operation == 0 || expected.isEmpty()) {
+                Message message = new Message("added " + i, Message.Sender.ELIZA, 101 + i);
+                store.add(message);
+                expected.add(message);
+            } else if (operation == 1) {
+                int index = random.nextInt(expected.size() + 1);
+                Message message = new Message("inserted " + i, Message.Sender.ELIZA, 101 + i);
+                store.add(index, message);
+                expected.add(index, message);
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size());
+                Message message = new Message("set " + i, Message.Sender.ELIZA, 101 + i);
+                assertEquals(expected.set(index, message), store.set(index, message));
+            } else if (operation == 3) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), store.remove(index));
+            } else {
+                Message message = expected.remove(random.nextInt(expected.size()));
+                assertEquals(List.of(message), store.removeById(message.getId()));
+            }
+        }
+        assertSameMessages();
+    }
+
+    @Test
+    void removeIfAndClear() {
+        List<Message> removed = store.removeIf(message -> message.getId() % 2 == 0);
+        List<Message> even = new ArrayList<>(expected);
+        expected.removeIf(message -> message.getId() % 2 == 0);
+        even.removeAll(expected);
+        assertEquals(even, removed);
+        assertSameMessages();
+        store.clear();
+        expected.clear();
+        assertSameMessages();
+    }
+}
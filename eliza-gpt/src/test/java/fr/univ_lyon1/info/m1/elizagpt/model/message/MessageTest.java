@@ -6,13 +6,14 @@ import org.junit.jupiter.api.Test;
 import static fr.univ_lyon1.info.m1.elizagpt.model.message.Message.Sender.ELIZA;
 import static fr.univ_lyon1.info.m1.elizagpt.model.message.Message.Sender.USER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class MessageTest {
     private Message message;
 
     @BeforeEach
     public void setUp() {
-        message = new Message("the text", ELIZA);
+        message = new Message("the text", ELIZA, 1);
     }
 
     @Test
@@ -31,6 +32,27 @@ class MessageTest {
         assertEquals("the new text", message.getText());
     }
 
+    @Test
+    void foldedForms() {
+        message.setText("Mon Élève a ÇA dans le cœur");
+        assertEquals("mon élève a ça dans le cœur", message.getLowerCaseText());
+        assertEquals("mon eleve a ca dans le coeur", message.getFoldedText());
+        assertEquals("the text", new Message("The TEXT", USER, 2).getFoldedText());
+    }
+
+    @Test
+    void repeatedTextsShareStrings() {
+        Message first =
+                new Message(new StringBuilder("Je ne comprends pas.").toString(), ELIZA, 3);
+        Message second =
+                new Message(new StringBuilder("Je ne comprends pas.").toString(), ELIZA, 4);
+        assertSame(first.getText(), second.getText());
+        assertSame(first.getLowerCaseText(), second.getLowerCaseText());
+        // Without diacritics, the folded text is the lower-cased one.
+        assertSame(first.getLowerCaseText(), first.getFoldedText());
+        assertSame(message.getText(), message.getFoldedText());
+    }
+
     @Test
     void setSender() {
         message.setSender(USER);
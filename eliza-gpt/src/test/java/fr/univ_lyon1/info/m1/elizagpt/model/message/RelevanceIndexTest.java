@@ -0,0 +1,103 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RelevanceIndexTest {
+    private Message cat;
+    private Message cats;
+    private Message long1;
+    private Message dog;
+    private RelevanceIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        cat = new Message("J'ai un chat.", Message.Sender.USER, 1);
+        cats = new Message("Un chat, encore un chat !", Message.Sender.ELIZA, 2);
+        long1 = new Message("Parlez-moi de votre enfance, de vos parents et de votre chat.",
+                Message.Sender.ELIZA, 3);
+        dog = new Message("Mon chien est malade.", Message.Sender.USER, 4);
+        index = RelevanceIndex.of(Arrays.asList(cat, cats, long1, dog));
+    }
+
+    @Test
+    void findMostRelevant() {
+        assertEquals(Arrays.asList(cats, cat, long1), index.findMostRelevant("chat", 10));
+        assertEquals(List.of(dog), index.findMostRelevant("CHIEN", 10));
+        assertTrue(index.findMostRelevant("oiseau", 10).isEmpty());
+        assertTrue(index.findMostRelevant("", 10).isEmpty());
+    }
+
+    @Test
+    void rareTermsWeighMore() {
+        assertEquals(dog, index.findMostRelevant("chat chien", 10).get(0));
+    }
+
+    @Test
+    void limit() {
+        assertEquals(List.of(cats), index.findMostRelevant("chat", 1));
+        assertEquals(Arrays.asList(cats, cat), index.findMostRelevant("chat", 2));
+        assertTrue(index.findMostRelevant("chat", 0).isEmpty());
+    }
+
+    @Test
+    void equalScoresNewestFirst() {
+        Message same = new Message("J'ai un chat.", Message.Sender.USER, 5);
+        index.add(same);
+        assertEquals(Arrays.asList(same, cat), index.findMostRelevant("chat", 4).subList(1, 3));
+    }
+
+    @Test
+    void ignoresCaseAndDiacritics() {
+        Message student = new Message("Je suis un ÉLÈVE.", Message.Sender.USER, 6);
+        index.add(student);
+        assertEquals(List.of(student), index.findMostRelevant("eleve", 10));
+        assertEquals(List.of(student), index.findMostRelevant("élève", 10));
+    }
+
+    @Test
+    void remove() {
+        int termCount = index.getTermCount();
+        index.remove(dog);
+        assertTrue(index.findMostRelevant("chien", 10).isEmpty());
+        assertEquals(termCount - 4, index.getTermCount());
+        index.remove(cats);
+        assertEquals(Arrays.asList(cat, long1), index.findMostRelevant("chat", 10));
+        index.clear();
+        assertEquals(0, index.getTermCount());
+    }
+
+    @Test
+    void findSimilarTerms() {
+        assertEquals(List.of("chat"), index.findSimilarTerms("CHAT", 0));
+        assertEquals(List.of("chien"), index.findSimilarTerms("chein", 2));
+        assertTrue(index.findMessages(index.findSimilarTerms("chein", 1)).isEmpty());
+        assertEquals(Set.of(cat, cats, long1), index.findMessages(List.of("chat", "un")));
+    }
+
+    @Test
+    void unusedTermsAreIgnoredThenDropped() {
+        index.remove(dog);
+        assertTrue(index.findSimilarTerms("chien", 1).isEmpty());
+        index.add(dog);
+        assertEquals(List.of("chien"), index.findSimilarTerms("chien", 1));
+
+        List<Message> words = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            words.add(new Message("mot" + i, Message.Sender.USER, i + 7));
+        }
+        words.forEach(index::add);
+        int usedTerms = index.getTermCount();
+        words.forEach(index::remove);
+        assertTrue(index.getTermTree().size() < usedTerms);
+        assertEquals(List.of("chien"), index.findSimilarTerms("chien", 1));
+    }
+}
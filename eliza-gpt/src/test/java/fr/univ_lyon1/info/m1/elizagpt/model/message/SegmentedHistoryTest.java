@@ -0,0 +1,220 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.search.MessageFilter;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.BooleanSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.FuzzyWordSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.RelevanceSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentedHistoryTest {
+    private static final int SEGMENT_SIZE = 8;
+
+    @TempDir
+    private Path tempDir;
+
+    private SegmentedHistory history;
+    private List<Message> expected;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        history = new SegmentedHistory(tempDir.resolve("segments"), SEGMENT_SIZE);
+        expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Message message = new Message("message n°" + i,
+                    i % 2 == 0 ? Message.Sender.USER : Message.Sender.ELIZA, i + 1);
+            history.add(message);
+            expected.add(message);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        history.close();
+    }
+
+    private long segmentFileCount() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir.resolve("segments"))) {
+            return files.count();
+        }
+    }
+
+    private static List<String> describe(final List<Message> messages) {
+        return messages.stream()
+                .map(message -> message.getId() + " " + message.getSender() + " "
+                        + message.getText())
+                .collect(Collectors.toList());
+    }
+
+    private void assertSameMessages() {
+        assertEquals(expected.size(), history.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), history.get(i));
+        }
+        List<Message> iterated = new ArrayList<>();
+        history.forEach(iterated::add);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    void olderMessagesAreSealed() throws IOException {
+        // 50 messages: 5 segments of 8 are sealed, the last 10 are recent.
+        assertEquals(5, history.getSegmentCount());
+        assertEquals(10, history.getRecentCount());
+        assertEquals(5, segmentFileCount());
+        assertSameMessages();
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(50));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(-1));
+    }
+
+    @Test
+    void sealedMessagesAreDecoded() throws IOException {
+        List<String> described = describe(expected);
+        expected.clear();
+        System.gc();
+        assertEquals(described, describe(history));
+        assertEquals(described, describe(new ArrayList<>(history)));
+        Message decoded = history.get(3);
+        assertSame(decoded, history.get(3));
+    }
+
+    @Test
+    void remove() {
+        assertSame(expected.get(3), history.remove(3));
+        expected.remove(3);
+        assertSame(expected.get(45), history.remove(45));
+        expected.remove(45);
+        assertSameMessages();
+    }
+
+    @Test
+    void removeById() throws IOException {
+        Message sealed = expected.get(12);
+        Message recent = expected.get(47);
+        assertEquals(List.of(sealed), history.removeById(sealed.getId()));
+        assertEquals(List.of(recent), history.removeById(recent.getId()));
+        assertTrue(history.removeById(sealed.getId()).isEmpty());
+        expected.remove(sealed);
+        expected.remove(recent);
+        assertSameMessages();
+    }
+
+    @Test
+    void emptiedSegmentsAreDeleted() throws IOException {
+        for (int i = 8; i < 16; i++) {
+            history.removeById(expected.get(i).getId());
+        }
+        expected.subList(8, 16).clear();
+        assertEquals(4, history.getSegmentCount());
+        assertEquals(4, segmentFileCount());
+        assertSameMessages();
+    }
+
+    @Test
+    void removeIf() {
+        assertTrue(history.removeIf(message -> message.getId() % 3 == 0));
+        expected.removeIf(message -> message.getId() % 3 == 0);
+        assertSameMessages();
+    }
+
+    @Test
+    void iteratorIsFailFast() {
+        Iterator<Message> iterator = history.iterator();
+        iterator.next();
+        history.add(new Message("late", Message.Sender.USER, 51));
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void clearAndClose() throws IOException {
+        history.clear();
+        assertEquals(0, history.size());
+        assertEquals(0, segmentFileCount());
+        history.add(expected.get(0));
+        assertEquals(1, history.size());
+    }
+
+    @Test
+    void searchScansSegments() {
+        List<Message> found = SubStringSearchStrategy.getInstance()
+                .search(history, "n°4");
+        assertEquals(List.of(expected.get(4), expected.get(40), expected.get(41),
+                expected.get(42), expected.get(43), expected.get(44), expected.get(45),
+                expected.get(46), expected.get(47), expected.get(48), expected.get(49)), found);
+    }
+
+    @Test
+    void indexOnlySearchesAreRefused() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RelevanceSearchStrategy.getInstance().search(history, "message"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FuzzyWordSearchStrategy.getInstance().search(history, "mesage"));
+        assertThrows(IllegalArgumentException.class,
+                () -> BooleanSearchStrategy.getInstance().search(history, "message"));
+        assertEquals(expected.get(1), RelevanceSearchStrategy.getInstance()
+                .search(new ArrayList<>(expected), "n°1").get(0));
+    }
+
+    @Test
+    void parallelFilterOverTombstones() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (SegmentedHistory large = new SegmentedHistory(tempDir.resolve("large"), 64)) {
+            int count = 12_000;
+            for (int i = 1; i <= count; i++) {
+                large.add(new Message("message " + i, Message.Sender.USER, i));
+            }
+            for (int i = 1; i <= count; i += 7) {
+                large.removeById(i);
+            }
+            // The decoded messages are not held here: the workers decode them again.
+            List<String> expectedTexts = new ArrayList<>();
+            for (int i = 1; i <= count; i++) {
+                if (i % 7 != 1 && i % 10 == 3) {
+                    expectedTexts.add("message " + i);
+                }
+            }
+            MessageFilter filter = new MessageFilter(0, pool);
+            for (int run = 0; run < 5; run++) {
+                List<Message> found = filter.filter(large,
+                        () -> message -> message.getText().endsWith("3"));
+                assertEquals(expectedTexts, found.stream().map(Message::getText)
+                        .collect(Collectors.toList()));
+                for (int i = 0; i < found.size(); i += 97) {
+                    assertSame(found.get(i), large.get(large.indexOf(found.get(i))));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void managedBySegments() {
+        MessageManager manager = new MessageManager(history);
+        Message added = manager.addMessage("added", Message.Sender.USER);
+        assertEquals(51, added.getId());
+        manager.deleteMessage(expected.get(20).getId());
+        expected.remove(20);
+        expected.add(added);
+        assertSameMessages();
+    }
+}
@@ -0,0 +1,61 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TextInternerTest {
+    private TextInterner interner;
+
+    @BeforeEach
+    public void setUp() {
+        interner = new TextInterner(16);
+    }
+
+    private static String copy(final String text) {
+        return new StringBuilder(text).toString();
+    }
+
+    @Test
+    void intern() {
+        String reply = copy("Hmmm, hmm ...");
+        assertSame(reply, interner.intern(reply));
+        assertSame(reply, interner.intern(copy("Hmmm, hmm ...")));
+        assertSame(reply, TextInterner.getShared().intern(TextInterner.getShared()
+                .intern(reply)));
+    }
+
+    @Test
+    void longTextsAreNotInterned() {
+        String text = "a".repeat(TextInterner.MAX_LENGTH + 1);
+        interner.intern(text);
+        String copy = copy(text);
+        assertSame(copy, interner.intern(copy));
+    }
+
+    @Test
+    void tableIsBounded() {
+        String reply = copy("Je ne comprends pas.");
+        interner.intern(reply);
+        // Many other texts replace the reply in its slot.
+        for (int i = 0; i < 1000; i++) {
+            interner.intern("texte " + i);
+        }
+        String again = copy("Je ne comprends pas.");
+        assertNotSame(reply, interner.intern(again));
+        assertSame(again, interner.intern(copy("Je ne comprends pas.")));
+    }
+
+    @Test
+    void capacity() {
+        assertEquals(16, interner.getCapacity());
+        assertEquals(32, new TextInterner(17).getCapacity());
+        assertEquals(1, new TextInterner(1).getCapacity());
+        assertEquals(TextInterner.DEFAULT_CAPACITY, TextInterner.getShared().getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new TextInterner(0));
+    }
+}
@@ -0,0 +1,67 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+    private Message hello;
+    private Message well;
+    private Message joke;
+    private MessageHistory history;
+
+    @BeforeEach
+    public void setUp() {
+        hello = new Message("Hello, how are you?", Message.Sender.USER, 1);
+        well = new Message("I'm doing WELL, thank you!", Message.Sender.ELIZA, 2);
+        joke = new Message("Can you tell me a joke?", Message.Sender.USER, 3);
+        history = new MessageHistory(Arrays.asList(hello, well, joke));
+    }
+
+    @Test
+    void findCandidates() {
+        TrigramIndex index = history.getTrigramIndex();
+        assertEquals(Arrays.asList(hello, well, joke), index.findCandidates(List.of("you")));
+        assertEquals(List.of(well), index.findCandidates(List.of("well", "thank")));
+        assertEquals(Arrays.asList(hello, well, joke), index.findCandidates(List.of("ell")));
+        assertTrue(index.findCandidates(List.of("xyz")).isEmpty());
+        assertTrue(index.findCandidates(List.of("WELL")).isEmpty());
+    }
+
+    @Test
+    void findCandidatesWithoutTrigram() {
+        TrigramIndex index = history.getTrigramIndex();
+        assertEquals(history, index.findCandidates(List.of("ll", "")));
+        assertEquals(history, index.findCandidates(List.of()));
+    }
+
+    @Test
+    void removeAndCompact() {
+        for (int i = 0; i < 200; i++) {
+            history.add(new Message("filler " + i, Message.Sender.ELIZA, i + 10));
+        }
+        history.removeIf(message -> message.getText().startsWith("filler"));
+        assertEquals(Arrays.asList(hello, well, joke),
+                history.getTrigramIndex().findCandidates(List.of("you")));
+        history.remove(1);
+        Message again = new Message("you again", Message.Sender.USER, 5);
+        history.add(again);
+        assertEquals(Arrays.asList(hello, joke, again),
+                history.getTrigramIndex().findCandidates(List.of("you")));
+        assertTrue(history.getTrigramIndex().findCandidates(List.of("fil")).isEmpty());
+    }
+
+    @Test
+    void messageHeldSeveralTimes() {
+        history.add(hello);
+        history.remove(0);
+        assertEquals(Arrays.asList(well, joke, hello),
+                history.getTrigramIndex().findCandidates(List.of("you")));
+        assertEquals(List.of(hello), history.getTrigramIndex().findCandidates(List.of("hello")));
+    }
+}
@@ -0,0 +1,54 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.message;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WordIndexTest {
+
+    @Test
+    void isWord() {
+        assertTrue(WordIndex.isWord("thank"));
+        assertTrue(WordIndex.isWord("été_2"));
+        assertFalse(WordIndex.isWord(""));
+        assertFalse(WordIndex.isWord("thank you"));
+        assertFalse(WordIndex.isWord("th.nk"));
+    }
+
+    @Test
+    void words() {
+        assertEquals(Arrays.asList("j", "étais", "là", "hello_2"),
+                List.copyOf(WordIndex.words("J'étais là, HELLO_2 j'")));
+        assertTrue(WordIndex.words(" ?! ").isEmpty());
+    }
+
+    @Test
+    void findMatchesWordPattern() {
+        MessageHistory history = new MessageHistory();
+        String[] texts = {
+            "Je suis là.", "ÉTÉ comme été", "foo_bar baz", "x1 X1 x12", "l'été", "Été",
+            "Bonjour\nje suis\r\nlà", "fatigué fatigue", "FATIGUÉ", "_x y_x", "Je suis là.",
+        };
+        for (String text : texts) {
+            history.add(new Message(text, Message.Sender.USER, history.size() + 1));
+        }
+        String[] queries = {
+            "je", "JE", "été", "Été", "ete", "foo", "foo_bar", "bar", "x1", "l", "suis",
+            "fatigue", "fatigué", "FATIGUÉ", "_", "x", "_x", "y",
+        };
+        for (String query : queries) {
+            Pattern pattern = Pattern.compile(".*\\b" + query + "\\b.*",
+                    Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+            Object[] expected = history.stream()
+                    .filter(message -> pattern.matcher(message.getText()).matches())
+                    .toArray();
+            assertEquals(Arrays.asList(expected), history.getWordIndex().find(query), query);
+        }
+    }
+}
@@ -10,7 +10,7 @@ class AddUpdateTest {
     private Message message;
     @Test
     void getNewMessage() {
-        message = new Message("test input", Message.Sender.USER);
+        message = new Message("test input", Message.Sender.USER, 1);
         addupdate = new AddUpdate(message);
         Message result = addupdate.getNewMessage();
 
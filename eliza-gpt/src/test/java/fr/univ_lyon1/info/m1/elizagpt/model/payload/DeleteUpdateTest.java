@@ -8,10 +8,10 @@ class DeleteUpdateTest {
     private DeleteUpdate deleteUpdate;
     @Test
     void getDeletedMessageId() {
-        int deletedMessageId = 3;
+        long deletedMessageId = 3;
         deleteUpdate = new DeleteUpdate(deletedMessageId);
 
-        int result = deleteUpdate.getDeletedMessageId();
+        long result = deleteUpdate.getDeletedMessageId();
 
         assertSame(deletedMessageId, result);
     }
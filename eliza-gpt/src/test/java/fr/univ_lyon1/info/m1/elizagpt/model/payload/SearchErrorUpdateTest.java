@@ -0,0 +1,29 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.payload;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SearchErrorUpdateTest {
+    private SearchErrorUpdate searchErrorUpdate;
+    private String searchText;
+    private String errorMessage;
+
+    @BeforeEach
+    public void setUp() {
+        searchText = "(a";
+        errorMessage = "Unclosed group";
+        searchErrorUpdate = new SearchErrorUpdate(searchText, errorMessage);
+    }
+
+    @Test
+    void getSearchText() {
+        assertSame(searchText, searchErrorUpdate.getSearchText());
+    }
+
+    @Test
+    void getErrorMessage() {
+        assertSame(errorMessage, searchErrorUpdate.getErrorMessage());
+    }
+}
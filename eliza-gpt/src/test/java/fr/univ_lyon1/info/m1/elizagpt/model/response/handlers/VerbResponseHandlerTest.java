@@ -1,10 +1,17 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.response.handlers;
 
+import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbDictionary;
+import fr.univ_lyon1.info.m1.elizagpt.model.verb.VerbManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -18,6 +25,7 @@ class VerbResponseHandlerTest {
         bestClubHandlerMock = mock(BestClubHandler.class);
         verbResponseHandler = new VerbResponseHandler();
         verbResponseHandler.setNextHandler(bestClubHandlerMock);
+        VerbManager.getInstance().getConjugationEngine().join();
     }
 
     @Test
@@ -45,5 +53,62 @@ class VerbResponseHandlerTest {
         assertEquals("vous devez étudier",
                 verbResponseHandler.firstToSecondPerson("je dois étudier"));
         //assertEquals("vous m'aidez", ver_obj.firstToSecondPerson("tu m'aides"));
+        assertEquals("vous étiez content",
+                verbResponseHandler.firstToSecondPerson("j'étais content"));
+        assertEquals("vous saurez nager",
+                verbResponseHandler.firstToSecondPerson("je saurai nager"));
+    }
+
+    @Test
+    void generateResponseWithElidedPronoun() {
+        String response = verbResponseHandler.handleResponse("J'étais fatigué.");
+        assertTrue(response.endsWith(" que vous étiez fatigué ?"));
+    }
+
+    @Test
+    void generateResponseToSecondPerson() {
+        String response = verbResponseHandler.handleResponse("Vous êtes intelligent.");
+        assertTrue(response.endsWith(" que je suis intelligent ?"));
+        response = verbResponseHandler.handleResponse("Vous avez dit que je sais nager.");
+        assertTrue(response.endsWith(" que j'ai dit que vous savez nager ?"));
+
+        String userMessage = "Vous zorglubez.";
+        when(bestClubHandlerMock.handleResponse(userMessage)).thenReturn("Ah.");
+        assertEquals("Ah.", verbResponseHandler.handleResponse(userMessage));
+    }
+
+    @Test
+    void secondToFirstPerson() {
+        assertEquals("je dois étudier",
+                verbResponseHandler.secondToFirstPerson("vous devez étudier"));
+        assertEquals("j'étais content",
+                verbResponseHandler.secondToFirstPerson("vous étiez content"));
+        assertNull(verbResponseHandler.secondToFirstPerson("vous zorglubez"));
+        assertNull(new VerbResponseHandler(new CompletableFuture<VerbDictionary>())
+                .secondToFirstPerson("vous devez étudier"));
+    }
+
+    @Test
+    void firstReplyIsNotGatedOnVerbLoading() {
+        CompletableFuture<VerbDictionary> loading = new CompletableFuture<>();
+        VerbResponseHandler handler = new VerbResponseHandler(loading);
+
+        // The dictionary never finishes loading: a reply waiting for it would never come.
+        // VerbManagerTest and FirstReplyBenchmark time the first reply of a real load.
+        String response = assertTimeout(Duration.ofMillis(200),
+                () -> handler.handleResponse("Je sais nager."));
+        assertTrue(response.endsWith("vous sais nager ?"));
+
+        loading.complete(VerbManager.getInstance().getDictionary().join());
+        assertEquals("vous savez nager", handler.firstToSecondPerson("je sais nager"));
+    }
+
+    @Test
+    void firstToSecondPersonWhenLoadingFailed() {
+        CompletableFuture<VerbDictionary> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("no verbs"));
+        VerbResponseHandler handler = new VerbResponseHandler(failed);
+
+        assertEquals("vous sais nager", handler.firstToSecondPerson("je sais nager"));
     }
 }
@@ -0,0 +1,69 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageFilterTest {
+    private ForkJoinPool pool;
+    private List<Message> messages;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        messages = new ArrayList<>();
+        for (int i = 0; i < 5 * MessageFilter.MIN_RANGE_SIZE + 17; i++) {
+            messages.add(new Message("message " + i, Message.Sender.USER, i + 1));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void filterInParallelKeepsOrder() {
+        Predicate<Message> predicate = message -> message.getText().endsWith("7");
+        List<Message> expected = messages.stream().filter(predicate)
+                .collect(Collectors.toList());
+        AtomicInteger predicates = new AtomicInteger();
+        List<Message> result = new MessageFilter(0, pool).filter(messages, () -> {
+            predicates.incrementAndGet();
+            return predicate;
+        });
+        assertEquals(expected, result);
+        assertTrue(predicates.get() > 1);
+    }
+
+    @Test
+    void filterSequentiallyBelowThreshold() {
+        AtomicInteger predicates = new AtomicInteger();
+        List<Message> result = new MessageFilter(messages.size() + 1, pool).filter(messages,
+                () -> {
+                    predicates.incrementAndGet();
+                    return message -> true;
+                });
+        assertEquals(messages, result);
+        assertEquals(1, predicates.get());
+    }
+
+    @Test
+    void getInstance() {
+        assertSame(MessageFilter.getInstance(), MessageFilter.getInstance());
+        assertEquals(MessageFilter.DEFAULT_PARALLEL_THRESHOLD,
+                MessageFilter.getInstance().getParallelThreshold());
+    }
+}
@@ -0,0 +1,92 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.RegexSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCacheTest {
+    private SearchCache<List<Message>> cache;
+    private SearchStrategy strategy;
+    private int searchCount;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new SearchCache<>(2, List::size);
+        strategy = SubStringSearchStrategy.getInstance();
+        searchCount = 0;
+    }
+
+    private List<Message> search(final String text, final long version) {
+        return cache.computeIfAbsent(strategy, text, version, () -> {
+            searchCount++;
+            return List.of(new Message(text, Message.Sender.USER, 1));
+        });
+    }
+
+    @Test
+    void repeatedSearchIsCached() {
+        List<Message> results = search("chat", 1);
+        assertSame(results, search("chat", 1));
+        assertEquals(1, searchCount);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate());
+
+        cache.computeIfAbsent(RegexSearchStrategy.getInstance(), "chat", 1, List::of);
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void removedSearchIsSearchedAgain() {
+        search("chat", 1);
+        search("chien", 1);
+        cache.remove(strategy, "chat", 1);
+        assertEquals(1, cache.size());
+        search("chat", 1);
+        assertEquals(3, searchCount);
+    }
+
+    @Test
+    void newVersionInvalidates() {
+        search("chat", 1);
+        search("chien", 1);
+        search("chat", 2);
+        assertEquals(3, searchCount);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedIsDropped() {
+        search("chat", 1);
+        search("chien", 1);
+        search("chat", 1);
+        search("oiseau", 1);
+        assertEquals(2, cache.size());
+        search("chat", 1);
+        assertEquals(3, searchCount);
+        search("chien", 1);
+        assertEquals(4, searchCount);
+    }
+
+    @Test
+    void footprint() {
+        assertEquals(0, cache.getHitRate());
+        assertEquals(0, cache.getEstimatedFootprint());
+        search("chat", 1);
+        search("chien", 1);
+        assertEquals(2, cache.getCachedMessageCount());
+        assertTrue(cache.getEstimatedFootprint()
+                >= 2 * (SearchCache.ENTRY_BYTES + SearchCache.REFERENCE_BYTES));
+        cache.clear();
+        assertEquals(0, cache.getCachedMessageCount());
+        assertEquals(0, cache.size());
+    }
+}
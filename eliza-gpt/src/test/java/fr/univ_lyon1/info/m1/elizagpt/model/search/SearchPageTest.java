@@ -0,0 +1,37 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchPageTest {
+
+    @Test
+    void pages() {
+        MessageHistory messages = new MessageHistory();
+        for (int i = 0; i < 5; i++) {
+            messages.add(new Message("message " + i, Message.Sender.USER, i + 1));
+        }
+        SearchResults results = SearchResults.search(SubStringSearchStrategy.getInstance(),
+                messages, "message", false);
+
+        SearchPage first = SearchPage.first(results, 2);
+        assertSame(results, first.getResults());
+        assertEquals(0, first.getOffset());
+        assertEquals(messages.subList(0, 2), first.getMessages());
+        assertTrue(first.hasNext());
+
+        SearchPage last = first.next().next();
+        assertEquals(4, last.getOffset());
+        assertEquals(List.of(messages.get(4)), last.getMessages());
+        assertFalse(last.hasNext());
+    }
+}
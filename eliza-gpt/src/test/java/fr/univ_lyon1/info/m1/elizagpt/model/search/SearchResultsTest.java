@@ -0,0 +1,112 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.AccentInsensitiveSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.RegexSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.WordSearchStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchResultsTest {
+    private MessageHistory messages;
+
+    @BeforeEach
+    public void setUp() {
+        messages = new MessageHistory();
+        for (int i = 0; i < 50; i++) {
+            messages.add(new Message("Message " + i + (i % 3 == 0 ? " je suis là" : " été"),
+                    i % 2 == 0 ? Message.Sender.USER : Message.Sender.ELIZA, i + 1));
+        }
+    }
+
+    @Test
+    void sameResultsAsSearch() {
+        SearchStrategy[] strategies = {
+            SubStringSearchStrategy.getInstance(), RegexSearchStrategy.getInstance(),
+            WordSearchStrategy.getInstance(), AccentInsensitiveSearchStrategy.getInstance(),
+        };
+        for (SearchStrategy strategy : strategies) {
+            for (String text : new String[] {"je suis", "ete", "été", "Message 1", "4.*"}) {
+                List<Message> expected = strategy.search(messages, text);
+                assertEquals(expected, SearchResults.search(strategy, messages, text, false)
+                        .stream().collect(Collectors.toList()), strategy + " " + text);
+                List<Message> reversed = new ArrayList<>(expected);
+                Collections.reverse(reversed);
+                assertEquals(reversed, SearchResults.search(strategy, messages, text, true)
+                        .stream().collect(Collectors.toList()), strategy + " " + text);
+            }
+        }
+    }
+
+    @Test
+    void getPageIsLazy() {
+        AtomicInteger matched = new AtomicInteger();
+        SearchStrategy strategy = new SearchStrategy() {
+            @Override
+            public List<Message> search(final List<Message> list, final String text) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Predicate<Message> matcher(final String text) {
+                return message -> {
+                    matched.incrementAndGet();
+                    return message.getText().contains(text);
+                };
+            }
+        };
+        SearchResults results = SearchResults.search(strategy, messages, "je", true);
+        assertEquals(0, matched.get());
+        List<Message> page = results.getPage(0, 2);
+        assertEquals(List.of(messages.get(48), messages.get(45)), page);
+        assertEquals(5, matched.get());
+        assertTrue(results.hasMoreThan(2));
+        assertFalse(results.isComplete());
+        assertEquals(List.of(messages.get(48), messages.get(45)), results.getPage(0, 2));
+        assertEquals(17, results.stream().count());
+        assertTrue(results.isComplete());
+        assertTrue(results.getPage(20, 5).isEmpty());
+    }
+
+    @Test
+    void staleResults() {
+        SearchResults results = SearchResults.search(SubStringSearchStrategy.getInstance(),
+                messages, "je", false);
+        assertEquals(2, results.getPage(0, 2).size());
+        messages.add(new Message("je suis nouveau", Message.Sender.USER, 51));
+        assertTrue(results.isStale());
+        assertEquals(2, results.getPage(0, 2).size());
+        assertThrows(ConcurrentModificationException.class, () -> results.getPage(2, 2));
+    }
+
+    @Test
+    void staleResultsOfVersionedList() {
+        List<Message> list = new ArrayList<>(messages);
+        AtomicLong version = new AtomicLong();
+        SearchResults results = SearchResults.search(SubStringSearchStrategy.getInstance(),
+                list, "je", false, version::get);
+        assertEquals(2, results.getPage(0, 2).size());
+        assertFalse(results.isStale());
+        version.incrementAndGet();
+        assertTrue(results.isStale());
+        assertThrows(ConcurrentModificationException.class, () -> results.getPage(2, 2));
+        assertFalse(SearchResults.search(SubStringSearchStrategy.getInstance(),
+                list, "je", false).isStale());
+    }
+}
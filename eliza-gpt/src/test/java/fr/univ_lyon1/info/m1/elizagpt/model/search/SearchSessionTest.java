@@ -0,0 +1,138 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageManager;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.RegexSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.WordSearchStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchSessionTest {
+    private MessageHistory messages;
+    private SearchSession searchSession;
+
+    @BeforeEach
+    public void setUp() {
+        messages = new MessageHistory();
+        messages.add(new Message("Je suis fatigué.", Message.Sender.USER, 1));
+        messages.add(new Message("Pourquoi êtes-vous fatigué ?", Message.Sender.ELIZA, 2));
+        messages.add(new Message("Je suis un élève.", Message.Sender.USER, 3));
+        searchSession = new SearchSession(messages);
+    }
+
+    @Test
+    void searchRefinesPreviousResults() {
+        SearchStrategy strategy = SubStringSearchStrategy.getInstance();
+        assertEquals(2, all(searchSession.search(strategy, "fa", false)).size());
+        assertTrue(searchSession.canRefine(strategy, "fat", false));
+        assertFalse(searchSession.canRefine(strategy, "fat", true));
+        assertFalse(searchSession.canRefine(strategy, "f", false));
+        assertFalse(searchSession.canRefine(RegexSearchStrategy.getInstance(), "fat", false));
+        for (String text : new String[] {"fat", "FATI", "fatigué ?", "fatigué ?!"}) {
+            boolean refines = searchSession.canRefine(strategy, text, false);
+            assertEquals(strategy.search(messages, text),
+                    all(searchSession.search(strategy, text, false)));
+            assertTrue(refines, text);
+        }
+        assertFalse(searchSession.canRefine(strategy, "je", false));
+        assertEquals(2, all(searchSession.search(strategy, "je", false)).size());
+    }
+
+    @Test
+    void searchRefinesPartialResults() {
+        SearchStrategy strategy = SubStringSearchStrategy.getInstance();
+        SearchResults results = searchSession.search(strategy, "e", true);
+        assertEquals(List.of(messages.get(2)), results.getPage(0, 1));
+        SearchResults refined = searchSession.search(strategy, "je", true);
+        assertEquals(List.of(messages.get(2), messages.get(0)), all(refined));
+        assertEquals(3, results.getFoundCount());
+    }
+
+    @Test
+    void searchAfterHistoryChange() {
+        SearchStrategy strategy = WordSearchStrategy.getInstance();
+        assertEquals(2, all(searchSession.search(strategy, "je", false)).size());
+        messages.add(new Message("Je suis là.", Message.Sender.USER, 4));
+        assertFalse(searchSession.canRefine(strategy, "je suis", false));
+        assertEquals(3, all(searchSession.search(strategy, "je suis", false)).size());
+        assertTrue(searchSession.canRefine(strategy, "je suis un", false));
+        assertEquals(1, all(searchSession.search(strategy, "je suis un", false)).size());
+
+        searchSession.reset();
+        assertFalse(searchSession.canRefine(strategy, "je suis un élève", false));
+    }
+
+    @Test
+    void searchPlainListFromScratch() {
+        List<Message> list = new ArrayList<>(messages);
+        SearchSession plainSession = new SearchSession(list);
+        SearchStrategy strategy = SubStringSearchStrategy.getInstance();
+        plainSession.search(strategy, "fa", false);
+        assertFalse(plainSession.canRefine(strategy, "fat", false));
+    }
+
+    @Test
+    void searchManagedListWithItsVersion() {
+        List<Message> list = new ArrayList<>(messages);
+        MessageManager manager = new MessageManager(list);
+        SearchSession managedSession = new SearchSession(list, manager::getVersion);
+        SearchStrategy strategy = SubStringSearchStrategy.getInstance();
+        SearchResults results = managedSession.search(strategy, "fa", false);
+        assertTrue(managedSession.canRefine(strategy, "fat", false));
+        assertSame(results, managedSession.search(strategy, "fa", false));
+
+        manager.addMessage("Fatigué, moi ?", Message.Sender.ELIZA);
+        assertTrue(results.isStale());
+        assertFalse(managedSession.canRefine(strategy, "fat", false));
+        assertEquals(3, all(managedSession.search(strategy, "fa", false)).size());
+    }
+
+    private static List<Message> all(final SearchResults results) {
+        return results.stream().collect(Collectors.toList());
+    }
+
+    @Test
+    void repeatedSearchIsCached() {
+        SearchStrategy strategy = SubStringSearchStrategy.getInstance();
+        SearchResults results = searchSession.search(strategy, "fa", false);
+        searchSession.search(strategy, "fat", false);
+        assertSame(results, searchSession.search(strategy, "fa", false));
+        assertNotSame(results, searchSession.search(strategy, "fa", true));
+        assertEquals(1, searchSession.getCache(false).getHitCount());
+
+        messages.add(new Message("Fatigué, moi ?", Message.Sender.ELIZA, 5));
+        SearchResults updated = searchSession.search(strategy, "fa", false);
+        assertNotSame(results, updated);
+        assertEquals(3, all(updated).size());
+    }
+
+    @Test
+    void exhaustedResultsAreNotReused() {
+        messages.add(new Message("a".repeat(30) + "!", Message.Sender.USER, 4));
+        SearchStrategy strategy = RegexSearchStrategy.getInstance();
+        String text = "(.*a){12}\\bx";
+        SearchResults results = searchSession.search(strategy, text, false);
+        assertThrows(CancellationException.class, () -> results.getPage(0, 1));
+        assertTrue(results.isExhausted());
+        assertThrows(CancellationException.class, () -> results.getPage(0, 1));
+
+        SearchResults again = searchSession.search(strategy, text, false);
+        assertNotSame(results, again);
+        assertFalse(again.isExhausted());
+        assertEquals(2, searchSession.getCache(false).getMissCount());
+    }
+}
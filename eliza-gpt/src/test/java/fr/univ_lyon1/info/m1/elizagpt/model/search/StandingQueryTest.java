@@ -0,0 +1,95 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageManager;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.RegexSearchStrategy;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.strategies.SubStringSearchStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class StandingQueryTest {
+    private MessageHistory history;
+    private MessageManager messageManager;
+    private StandingQuery.Subscriber subscriber;
+    private StandingQuery query;
+    private Message tired;
+
+    @BeforeEach
+    public void setUp() {
+        history = new MessageHistory();
+        messageManager = new MessageManager(history);
+        tired = messageManager.addMessage("Je suis fatigué.", Message.Sender.USER);
+        messageManager.addMessage("Bonjour.", Message.Sender.ELIZA);
+        subscriber = mock(StandingQuery.Subscriber.class);
+        SubStringSearchStrategy strategy = SubStringSearchStrategy.getInstance();
+        query = new StandingQuery(strategy, "fatigu", strategy.search(history, "fatigu"),
+                subscriber);
+        messageManager.addMessageListener(query);
+    }
+
+    @Test
+    void matchesAddedMessages() {
+        Message match = messageManager.addMessage("Vous êtes FATIGUÉ ?", Message.Sender.ELIZA);
+        Message other = messageManager.addMessage("Oui.", Message.Sender.USER);
+
+        verify(subscriber).onMatchAdded(match);
+        verify(subscriber, never()).onMatchAdded(other);
+        assertEquals(List.of(tired, match), query.getMatches());
+    }
+
+    @Test
+    void removesDeletedMatches() {
+        Message other = history.get(1);
+        messageManager.deleteMessage(other.getId());
+        messageManager.deleteMessage(tired.getId());
+
+        verify(subscriber).onMatchRemoved(tired);
+        verifyNoMoreInteractions(subscriber);
+        assertEquals(List.of(), query.getMatches());
+    }
+
+    @Test
+    void matchesGivingUpAreLeftOut() {
+        messageManager.removeMessageListener(query);
+        String text = "(.*a){12}\\b!";
+        StandingQuery regexQuery = new StandingQuery(RegexSearchStrategy.getInstance(), text,
+                List.of(), subscriber);
+        messageManager.addMessageListener(regexQuery);
+        for (int i = 0; i < 3; i++) {
+            messageManager.addMessage("a".repeat(30) + "?", Message.Sender.USER);
+        }
+        Message match = messageManager.addMessage("a".repeat(12) + "!", Message.Sender.USER);
+
+        verify(subscriber).onMatchAdded(match);
+        verifyNoMoreInteractions(subscriber);
+        assertEquals(List.of(match), regexQuery.getMatches());
+    }
+
+    @Test
+    void addMatches() {
+        Message later = new Message("fatigué", Message.Sender.USER, 1);
+        query.addMatches(List.of(later));
+        query.onMessageDeleted(later);
+
+        verify(subscriber).onMatchRemoved(later);
+    }
+
+    @Test
+    void stopsOnceUnregistered() {
+        messageManager.removeMessageListener(query);
+        messageManager.addMessage("Encore fatigué.", Message.Sender.USER);
+        messageManager.deleteMessage(tired.getId());
+
+        verifyNoMoreInteractions(subscriber);
+        assertEquals(List.of(tired), query.getMatches());
+    }
+}
@@ -0,0 +1,62 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AccentInsensitiveSearchStrategyTest {
+
+    private AccentInsensitiveSearchStrategy accentInsensitiveSearchStrategy;
+    private ArrayList<Message> messages;
+
+    @BeforeEach
+    public void setUp() {
+        accentInsensitiveSearchStrategy = AccentInsensitiveSearchStrategy.getInstance();
+        messages = new ArrayList<>();
+        messages.add(new Message("Je suis un élève.", Message.Sender.USER, 1));
+        messages.add(new Message("Vous êtes un ELEVE ?", Message.Sender.ELIZA, 2));
+        messages.add(new Message("Il a un cœur d'or.", Message.Sender.USER, 3));
+    }
+
+    @Test
+    void search() {
+        List<Message> result = accentInsensitiveSearchStrategy.search(messages, "eleve");
+        assertEquals(2, result.size());
+        assertEquals("Je suis un élève.", result.get(0).getText());
+
+        result = accentInsensitiveSearchStrategy.search(messages, "Élève");
+        assertEquals(2, result.size());
+
+        result = accentInsensitiveSearchStrategy.search(messages, "coeur");
+        assertEquals(1, result.size());
+        assertEquals("Il a un cœur d'or.", result.get(0).getText());
+
+        result = accentInsensitiveSearchStrategy.search(messages, "étés");
+        assertEquals(1, result.size());
+        assertEquals("Vous êtes un ELEVE ?", result.get(0).getText());
+
+        result = accentInsensitiveSearchStrategy.search(messages, "créé");
+        assertEquals(0, result.size());
+    }
+
+    @Test
+    void isRefinement() {
+        assertTrue(accentInsensitiveSearchStrategy.isRefinement("ele", "Élève"));
+        assertFalse(accentInsensitiveSearchStrategy.isRefinement("élève", "élé"));
+    }
+
+    @Test
+    void getInstance() {
+        AccentInsensitiveSearchStrategy instance1 = AccentInsensitiveSearchStrategy.getInstance();
+        AccentInsensitiveSearchStrategy instance2 = AccentInsensitiveSearchStrategy.getInstance();
+        assertSame(instance1, instance2);
+    }
+}
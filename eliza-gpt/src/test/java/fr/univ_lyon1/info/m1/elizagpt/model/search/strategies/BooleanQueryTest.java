@@ -0,0 +1,89 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.BitmapIndex;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BooleanQueryTest {
+
+    private List<Message> messages;
+    private BitmapIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        messages = new ArrayList<>();
+        messages.add(new Message("Je suis fatigué.", Message.Sender.USER, 1));
+        messages.add(new Message("Pourquoi êtes-vous fatigué ?", Message.Sender.ELIZA, 2));
+        messages.add(new Message("J'ai mal dormi, je suis triste.", Message.Sender.USER, 3));
+        messages.add(new Message("Suis-je triste ?", Message.Sender.ELIZA, 4));
+        index = BitmapIndex.of(messages);
+    }
+
+    private List<String> evaluate(final String text) {
+        BooleanQuery query = BooleanQuery.parse(text);
+        List<Message> found = index.getMessages(query.evaluate(index));
+        List<Message> matched = messages.stream().filter(query::matches)
+                .collect(Collectors.toList());
+        assertEquals(found, matched, text);
+        return found.stream().map(Message::getText).collect(Collectors.toList());
+    }
+
+    @Test
+    void terms() {
+        assertEquals(List.of("Je suis fatigué.", "Pourquoi êtes-vous fatigué ?"),
+                evaluate("FATIGUE"));
+        assertEquals(List.of("Je suis fatigué."), evaluate("suis fatigue"));
+        assertEquals(List.of("Je suis fatigué."), evaluate("suis AND fatigue"));
+        assertEquals(List.of(), evaluate("absent"));
+    }
+
+    @Test
+    void operators() {
+        assertEquals(List.of("Je suis fatigué.", "Pourquoi êtes-vous fatigué ?",
+                "Suis-je triste ?"), evaluate("fatigue OR suis-je"));
+        assertEquals(List.of("Pourquoi êtes-vous fatigué ?", "Suis-je triste ?"),
+                evaluate("NOT mal NOT je OR triste sender:ELIZA"));
+        assertEquals(List.of("J'ai mal dormi, je suis triste."),
+                evaluate("(triste OR fatigue) AND NOT (pourquoi OR \"suis je\")"
+                        + " AND NOT fatigue"));
+        assertEquals(List.of("Je suis fatigué.", "J'ai mal dormi, je suis triste."),
+                evaluate("NOT NOT sender:user"));
+    }
+
+    @Test
+    void phrases() {
+        assertEquals(List.of("Je suis fatigué.", "J'ai mal dormi, je suis triste."),
+                evaluate("\"JE SUIS\""));
+        assertEquals(List.of("Suis-je triste ?"), evaluate("\"suis je\""));
+        assertEquals(List.of("J'ai mal dormi, je suis triste."), evaluate("j'ai"));
+        assertEquals(List.of(), evaluate("\"fatigue je\""));
+    }
+
+    @Test
+    void emptyQueries() {
+        assertEquals(List.of(), evaluate(""));
+        assertEquals(List.of(), evaluate("  ?! "));
+        assertEquals(List.of("Je suis fatigué."), evaluate("... suis AND fatigue !"));
+        assertFalse(BooleanQuery.parse("").matches(messages.get(0)));
+    }
+
+    @Test
+    void malformedQueries() {
+        String[] malformed = {
+                "(fatigue", "fatigue)", "fatigue OR", "AND fatigue", "NOT", "\"je suis",
+                "sender:bot", "()",
+        };
+        for (String text : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> BooleanQuery.parse(text), text);
+        }
+    }
+}
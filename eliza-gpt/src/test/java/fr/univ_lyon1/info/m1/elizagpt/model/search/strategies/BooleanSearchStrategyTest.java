@@ -0,0 +1,72 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BooleanSearchStrategyTest {
+
+    private BooleanSearchStrategy booleanSearchStrategy;
+    private List<Message> messages;
+
+    @BeforeEach
+    public void setUp() {
+        booleanSearchStrategy = BooleanSearchStrategy.getInstance();
+        messages = new ArrayList<>();
+        messages.add(new Message("Bonjour, je m'appelle Paul.", Message.Sender.USER, 1));
+        messages.add(new Message("Bonjour Paul, comment allez-vous ?", Message.Sender.ELIZA, 2));
+        messages.add(new Message("Je vais bien, merci.", Message.Sender.USER, 3));
+    }
+
+    @Test
+    void search() {
+        assertEquals(List.of(messages.get(0)),
+                booleanSearchStrategy.search(messages, "bonjour sender:USER"));
+        assertEquals(List.of(messages.get(1), messages.get(2)),
+                booleanSearchStrategy.search(messages, "NOT \"m appelle\""));
+        assertEquals(List.of(), booleanSearchStrategy.search(messages, ""));
+    }
+
+    @Test
+    void searchHistory() {
+        MessageHistory history = new MessageHistory(messages);
+        String[] texts = {
+                "bonjour", "paul OR merci", "NOT paul", "\"je vais\"", "sender:eliza je",
+                "(bonjour AND NOT sender:ELIZA) OR bien",
+        };
+        for (String text : texts) {
+            assertEquals(booleanSearchStrategy.search(messages, text),
+                    booleanSearchStrategy.search(history, text), text);
+        }
+        assertEquals(booleanSearchStrategy.search(history, "paul"),
+                booleanSearchStrategy.candidates(history, "paul"));
+    }
+
+    @Test
+    void matcher() {
+        assertTrue(booleanSearchStrategy.matcher("vais OR allez").test(messages.get(1)));
+        assertFalse(booleanSearchStrategy.matcher("paul sender:USER").test(messages.get(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> booleanSearchStrategy.matcher("(paul"));
+    }
+
+    @Test
+    void getInstance() {
+        assertSame(booleanSearchStrategy, BooleanSearchStrategy.getInstance());
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("Requête booléenne", booleanSearchStrategy.toString());
+    }
+}
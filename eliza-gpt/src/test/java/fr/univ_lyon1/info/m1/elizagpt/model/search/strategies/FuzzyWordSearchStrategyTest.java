@@ -0,0 +1,100 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuzzyWordSearchStrategyTest {
+
+    private FuzzyWordSearchStrategy fuzzyWordSearchStrategy;
+    private ArrayList<Message> messages;
+
+    @BeforeEach
+    public void setUp() {
+        fuzzyWordSearchStrategy = FuzzyWordSearchStrategy.getInstance();
+        messages = new ArrayList<>();
+        messages.add(new Message("Bonjour, je suis fatigué.", Message.Sender.USER, 1));
+        messages.add(new Message("Pourquoi êtes-vous fatigué ?", Message.Sender.ELIZA, 2));
+        messages.add(new Message("Mon chat est malade.", Message.Sender.USER, 3));
+        messages.add(new Message("Bonsoir.", Message.Sender.ELIZA, 4));
+    }
+
+    @Test
+    void search() {
+        List<Message> result = fuzzyWordSearchStrategy.search(messages, "fatiguer");
+        assertEquals(2, result.size());
+        assertEquals("Bonjour, je suis fatigué.", result.get(0).getText());
+
+        result = fuzzyWordSearchStrategy.search(messages, "bonjoru");
+        assertEquals(1, result.size());
+
+        result = fuzzyWordSearchStrategy.search(messages, "bonjoru fatige");
+        assertEquals(1, result.size());
+        assertEquals("Bonjour, je suis fatigué.", result.get(0).getText());
+
+        result = fuzzyWordSearchStrategy.search(messages, "chien");
+        assertEquals(0, result.size());
+
+        result = fuzzyWordSearchStrategy.search(messages, "chta");
+        assertEquals(0, result.size());
+
+        assertTrue(fuzzyWordSearchStrategy.search(messages, "").isEmpty());
+    }
+
+    @Test
+    void searchIndexedHistory() {
+        MessageHistory history = new MessageHistory(messages);
+        for (String text : new String[] {"fatiguer", "bonsoir", "mon chta", "malades"}) {
+            assertEquals(fuzzyWordSearchStrategy.search(messages, text),
+                    fuzzyWordSearchStrategy.search(history, text));
+        }
+        history.remove(0);
+        assertEquals(1, fuzzyWordSearchStrategy.search(history, "fatiguer").size());
+    }
+
+    @Test
+    void searchKeepsHistoryOrder() {
+        messages.add(0, new Message("Encore fatiguée", Message.Sender.USER, 5));
+        messages.add(messages.get(1));
+        MessageHistory history = new MessageHistory(messages);
+        assertEquals(List.of(messages.get(0), messages.get(1), messages.get(2),
+                messages.get(5)), fuzzyWordSearchStrategy.search(history, "fatiguer"));
+        assertEquals(fuzzyWordSearchStrategy.search(messages, "fatiguer"),
+                fuzzyWordSearchStrategy.search(history, "fatiguer"));
+    }
+
+    @Test
+    void matcher() {
+        for (String text : new String[] {"fatiguer", "bonsoir", "mon chta", "malades", ""}) {
+            List<Message> expected = fuzzyWordSearchStrategy.search(messages, text);
+            for (Message message : messages) {
+                assertEquals(expected.contains(message),
+                        fuzzyWordSearchStrategy.matcher(text).test(message));
+            }
+        }
+    }
+
+    @Test
+    void maxDistance() {
+        assertEquals(0, FuzzyWordSearchStrategy.maxDistance("je"));
+        assertEquals(1, FuzzyWordSearchStrategy.maxDistance("chat"));
+        assertEquals(2, FuzzyWordSearchStrategy.maxDistance("bonjour"));
+        assertFalse(fuzzyWordSearchStrategy.isRefinement("chat", "chats"));
+    }
+
+    @Test
+    void getInstance() {
+        FuzzyWordSearchStrategy instance1 = FuzzyWordSearchStrategy.getInstance();
+        FuzzyWordSearchStrategy instance2 = FuzzyWordSearchStrategy.getInstance();
+        assertSame(instance1, instance2);
+    }
+}
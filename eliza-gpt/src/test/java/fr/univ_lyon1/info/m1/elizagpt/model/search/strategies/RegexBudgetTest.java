@@ -0,0 +1,40 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegexBudgetTest {
+
+    private RegexBudget budget;
+
+    @BeforeEach
+    public void setUp() {
+        budget = new RegexBudget(100);
+    }
+
+    @Test
+    void charge() {
+        budget.charge(60);
+        assertEquals(40, budget.getRemainingSteps());
+        budget.charge(40);
+        assertEquals(0, budget.getRemainingSteps());
+        assertThrows(CancellationException.class, () -> budget.charge(1));
+        assertTrue(budget.getRemainingSteps() < 0);
+    }
+
+    @Test
+    void cancel() {
+        assertFalse(budget.isCancelled());
+        budget.cancel();
+        assertTrue(budget.isCancelled());
+        assertThrows(CancellationException.class, () -> budget.charge(0));
+        assertEquals(100, budget.getRemainingSteps());
+    }
+}
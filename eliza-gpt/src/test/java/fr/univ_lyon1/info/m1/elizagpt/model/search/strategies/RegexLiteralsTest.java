@@ -0,0 +1,34 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegexLiteralsTest {
+
+    @Test
+    void extract() {
+        assertEquals(List.of("hello"), RegexLiterals.extract("Hello"));
+        assertEquals(Arrays.asList("he", "o wor", "d"), RegexLiterals.extract("hel+o wor.d"));
+        assertEquals(Arrays.asList("ab", "ef"), RegexLiterals.extract("ab[c)d]ef"));
+        assertEquals(Arrays.asList("ab", "ef"), RegexLiterals.extract("ab(c|d)*ef"));
+        assertEquals(Arrays.asList("a", "c"), RegexLiterals.extract("ab{2,3}c"));
+        assertEquals(List.of("a.b"), RegexLiterals.extract("A\\.b"));
+        assertEquals(Arrays.asList("vous ", "tes"), RegexLiterals.extract("^vous ê?tes\\b"));
+    }
+
+    @Test
+    void extractNothing() {
+        assertEquals(List.of("ho"), RegexLiterals.extract("ho.*"));
+        assertTrue(RegexLiterals.extract("abc|def").isEmpty());
+        assertTrue(RegexLiterals.extract("(?x)a b c").isEmpty());
+        assertTrue(RegexLiterals.extract("\\x41bc").isEmpty());
+        assertTrue(RegexLiterals.extract("\\Qa|b\\E").isEmpty());
+        assertTrue(RegexLiterals.extract("(a)\\1").isEmpty());
+        assertTrue(RegexLiterals.extract(".*").isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegexProgramTest {
+
+    private static final String[] TEXTS = {
+            "", "a", "A", "ab", "Hello, how are you?", "I'm doing well, thank you!",
+            "Can you tell me a joke?", "Il a ÉTÉ là, cet été.", "İstanbul, thank you all",
+            "line\n", "line\r\n", "line\r", "line\n\n", "two\nlines", "tab\there",
+            "x_1 = 42;", "aaaa", "aaaab", "[brackets] {braces}", "a b", "emoji 😀 ok",
+            "\u0085", "-", "$5.00", "CamelCase", "under_score", "ab\r\nc",
+    };
+
+    private static final String[] PATTERNS = {
+            "", "a", "A", "ab", "a|b", "hello|you", "^hello", "you\\?$", "^$", "$", "^",
+            "h.w", "h.*w", "h.+w", "a*", "a+b", "a?b", "(ab)+", "(?:ab)*c", "a{2}", "a{2,}",
+            "a{1,3}b", "a{0}", "[abc]", "[^abc]", "[a-z]+", "[A-Z]", "[^a-z ]", "[a\\-z]",
+            "[-a]", "[a-]", "[\\d]", "[\\w\\s]", "[^\\W]", "\\d+", "\\D", "\\w+", "\\W",
+            "\\s", "\\S+", "\\t", "\\n", "\\r\\n", "\\.", "\\$", "\\[", "\\]", "]", "}",
+            "a.*?b", "a+?", "a??", "(a|b)*", "(a*)*", "(a|)+", "()", "(|a)", "ÉTÉ", "été",
+            "İ", "[é]", "[à-ü]", ".\\n", "line$", "lines$", "e$", "^.*$", "[😀]", "😀",
+            ".😀", "x_\\d", "\\{braces\\}", "\\$\\d\\.\\d\\d", "(you|ok)$", "\r",
+            "[^\\n]", "\u0085", "a{1,2}?",
+    };
+
+    private RegexBudget budget;
+
+    @BeforeEach
+    public void setUp() {
+        budget = new RegexBudget(Long.MAX_VALUE);
+    }
+
+    private void assertSameMatches(final String regex) {
+        String expression = ".*" + regex + ".*";
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(expression, Pattern.CASE_INSENSITIVE);
+        } catch (PatternSyntaxException e) {
+            return;
+        }
+        RegexProgram program = RegexProgram.compile(expression);
+        if (program == null) {
+            return;
+        }
+        RegexProgram.Matcher matcher = program.matcher(budget);
+        for (String text : TEXTS) {
+            assertEquals(pattern.matcher(text).matches(), matcher.matches(text),
+                    () -> "/" + regex + "/ on \"" + text + "\"");
+        }
+    }
+
+    @Test
+    void matchesLikePattern() {
+        for (String regex : PATTERNS) {
+            assertNotNull(RegexProgram.compile(".*" + regex + ".*"), regex);
+            assertSameMatches(regex);
+        }
+    }
+
+    @Test
+    void matchesRandomExpressionsLikePattern() {
+        String[] tokens = {
+                "a", "b", "A", "é", ".", "|", "(", ")", "*", "+", "?", "{1,2}", "[ab]",
+                "[^a]", "\\w", "\\s", "^", "$", " ", "\\n", "o", "u",
+        };
+        Random random = new Random(42);
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder regex = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                regex.append(tokens[random.nextInt(tokens.length)]);
+            }
+            assertSameMatches(regex.toString());
+        }
+    }
+
+    @Test
+    void compileUnsupported() {
+        String[] unsupported = {
+                "\\byou\\b", "(a)\\1", "(?=a)", "(?!a)", "(?<=a)", "(?i)a", "(?<name>a)",
+                "a*+", "a++", "\\Qa\\E", "\\p{L}", "\\x41", "\\u0041", "\\0101", "[a[b]]",
+                "[a&&b]", "\\A", "\\z", "{", "\\R", "a{1}{2}",
+        };
+        for (String regex : unsupported) {
+            assertNull(RegexProgram.compile(".*" + regex + ".*"), regex);
+        }
+        assertNull(RegexProgram.compile("a{5000}b{5000}"));
+    }
+
+    @Test
+    void matchesPathologicalExpressionInLinearTime() {
+        RegexProgram program = RegexProgram.compile(".*(a+)+b.*");
+        assertNotNull(program);
+        String text = "a".repeat(10_000);
+        RegexBudget linearBudget = new RegexBudget(20L * program.size() * text.length());
+        assertFalse(program.matcher(linearBudget).matches(text));
+        assertTrue(program.matcher(linearBudget).matches(text + "b"));
+    }
+
+    @Test
+    void matchesWithinBudget() {
+        RegexProgram program = RegexProgram.compile(".*(a|aa)*c.*");
+        assertNotNull(program);
+        RegexProgram.Matcher matcher = program.matcher(new RegexBudget(1000));
+        assertThrows(CancellationException.class,
+                () -> matcher.matches("a".repeat(100_000)));
+    }
+
+    @Test
+    void size() {
+        assertEquals(4, RegexProgram.compile("abc").size());
+        assertEquals(11, RegexProgram.compile("a{10}").size());
+    }
+}
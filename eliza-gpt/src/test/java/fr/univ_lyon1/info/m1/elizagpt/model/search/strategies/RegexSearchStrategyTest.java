@@ -1,14 +1,20 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.regex.PatternSyntaxException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RegexSearchStrategyTest {
 
@@ -19,9 +25,9 @@ class RegexSearchStrategyTest {
     public void setUp() {
         regexSearchStrategy = RegexSearchStrategy.getInstance();
         messages = new ArrayList<>();
-        messages.add(new Message("Hello, how are you?", Message.Sender.USER));
-        messages.add(new Message("I'm doing well, thank you!", Message.Sender.ELIZA));
-        messages.add(new Message("Can you tell me a joke?", Message.Sender.USER));
+        messages.add(new Message("Hello, how are you?", Message.Sender.USER, 1));
+        messages.add(new Message("I'm doing well, thank you!", Message.Sender.ELIZA, 2));
+        messages.add(new Message("Can you tell me a joke?", Message.Sender.USER, 3));
     }
 
     @Test
@@ -37,6 +43,70 @@ class RegexSearchStrategyTest {
         assertEquals(0, result.size());
     }
 
+    @Test
+    void searchIndexedHistory() {
+        messages.add(new Message("Il a ÉTÉ là, cet été.", Message.Sender.USER, 4));
+        messages.add(new Message("İstanbul, thank you all", Message.Sender.ELIZA, 5));
+        MessageHistory history = new MessageHistory(messages);
+        String[] texts = {
+                "ho.*", "fr+", "you", "YOU!", "w(e|a)ll", "a jo", "(?i)Can", "\\byou\\b",
+                "thank(s)?", "ÉTÉ", "été", "İ", "[ck]an you", "e",
+        };
+        for (String text : texts) {
+            assertEquals(regexSearchStrategy.search(messages, text),
+                    regexSearchStrategy.search(history, text), text);
+        }
+    }
+
+    @Test
+    void searchWithinBudget() {
+        messages.add(new Message("a".repeat(30) + "!", Message.Sender.USER, 6));
+        String text = "(.*a){12}\\bx";
+        assertFalse(regexSearchStrategy.isLinear(text));
+        assertThrows(CancellationException.class,
+                () -> regexSearchStrategy.search(messages, text, new RegexBudget(100_000)));
+        assertTrue(regexSearchStrategy.isLinear("(.*a){12}x"));
+        assertEquals(List.of(), regexSearchStrategy.search(messages, "(.*a){12}x",
+                new RegexBudget(100_000)));
+    }
+
+    @Test
+    void searchLargeHistory() {
+        List<Message> history = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            history.add(new Message("Message numéro " + (100_000 + i) + " de la conversation",
+                    i % 2 == 0 ? Message.Sender.USER : Message.Sender.ELIZA, i + 10));
+        }
+        history.add(new Message("xxxy", Message.Sender.USER, 60_010));
+        assertEquals(List.of(history.get(50_000)), regexSearchStrategy.search(history, "x+y"));
+        assertEquals(50_000, regexSearchStrategy.search(history, "[0-9]{6}").size());
+        assertEquals(10, regexSearchStrategy.search(history, "\\b12345[0-9]\\b").size());
+    }
+
+    @Test
+    void searchCancelled() {
+        RegexBudget budget = new RegexBudget(Long.MAX_VALUE);
+        budget.cancel();
+        assertThrows(CancellationException.class,
+                () -> regexSearchStrategy.search(messages, "you", budget));
+        assertThrows(CancellationException.class,
+                () -> regexSearchStrategy.matcher("\\byou", budget).test(messages.get(0)));
+    }
+
+    @Test
+    void isLinear() {
+        assertTrue(regexSearchStrategy.isLinear("w(e|a)ll"));
+        assertTrue(regexSearchStrategy.isLinear("[ck]an you"));
+        assertFalse(regexSearchStrategy.isLinear("\\byou\\b"));
+        assertFalse(regexSearchStrategy.isLinear("(?i)Can"));
+        assertThrows(PatternSyntaxException.class, () -> regexSearchStrategy.isLinear("(a"));
+    }
+
+    @Test
+    void isRefinement() {
+        assertFalse(regexSearchStrategy.isRefinement("ho", "ho.*"));
+    }
+
     @Test
     void getInstance() {
         RegexSearchStrategy instance1 = RegexSearchStrategy.getInstance();
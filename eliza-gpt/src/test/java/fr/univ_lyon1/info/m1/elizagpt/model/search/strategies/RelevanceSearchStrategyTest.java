@@ -0,0 +1,87 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
+import fr.univ_lyon1.info.m1.elizagpt.model.search.SearchResults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RelevanceSearchStrategyTest {
+
+    private RelevanceSearchStrategy relevanceSearchStrategy;
+    private ArrayList<Message> messages;
+
+    @BeforeEach
+    public void setUp() {
+        relevanceSearchStrategy = RelevanceSearchStrategy.getInstance();
+        messages = new ArrayList<>();
+        messages.add(new Message("Je suis fatigué.", Message.Sender.USER, 1));
+        messages.add(new Message("Pourquoi êtes-vous fatigué ?", Message.Sender.ELIZA, 2));
+        messages.add(new Message("Fatigué, très fatigué.", Message.Sender.USER, 3));
+        messages.add(new Message("Bonjour.", Message.Sender.ELIZA, 4));
+    }
+
+    @Test
+    void search() {
+        List<Message> result = relevanceSearchStrategy.search(messages, "fatigue");
+        assertEquals(3, result.size());
+        assertEquals("Fatigué, très fatigué.", result.get(0).getText());
+
+        result = relevanceSearchStrategy.search(messages, "bonjour fatigue");
+        assertEquals(4, result.size());
+        assertEquals("Bonjour.", result.get(0).getText());
+
+        assertTrue(relevanceSearchStrategy.search(messages, "au revoir").isEmpty());
+    }
+
+    @Test
+    void searchIndexedHistory() {
+        MessageHistory history = new MessageHistory(messages);
+        assertEquals(relevanceSearchStrategy.search(messages, "suis fatigue"),
+                relevanceSearchStrategy.search(history, "suis fatigue"));
+        history.remove(0);
+        assertEquals(2, relevanceSearchStrategy.search(history, "suis fatigue").size());
+    }
+
+    @Test
+    void searchResultsKeepRanking() {
+        MessageHistory history = new MessageHistory(messages);
+        SearchResults results =
+                SearchResults.search(relevanceSearchStrategy, history, "fatigue", true);
+        assertEquals(relevanceSearchStrategy.search(history, "fatigue"), results.getPage(0, 10));
+    }
+
+    @Test
+    void matcher() {
+        assertTrue(relevanceSearchStrategy.matcher("FATIGUE").test(messages.get(1)));
+        assertFalse(relevanceSearchStrategy.matcher("fatig").test(messages.get(1)));
+    }
+
+    @Test
+    void maxResults() {
+        List<Message> many = new ArrayList<>();
+        for (int i = 0; i < RelevanceSearchStrategy.MAX_RESULTS + 10; i++) {
+            many.add(new Message("message " + i, Message.Sender.USER, i + 1));
+        }
+        assertEquals(RelevanceSearchStrategy.MAX_RESULTS,
+                relevanceSearchStrategy.search(many, "message").size());
+        assertEquals(Arrays.asList(many.get(many.size() - 1)),
+                relevanceSearchStrategy.search(many, "message").subList(0, 1));
+    }
+
+    @Test
+    void getInstance() {
+        RelevanceSearchStrategy instance1 = RelevanceSearchStrategy.getInstance();
+        RelevanceSearchStrategy instance2 = RelevanceSearchStrategy.getInstance();
+        assertSame(instance1, instance2);
+    }
+}
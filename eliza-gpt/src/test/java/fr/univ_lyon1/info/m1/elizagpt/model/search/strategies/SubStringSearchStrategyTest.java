@@ -1,6 +1,7 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -8,6 +9,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
 class SubStringSearchStrategyTest {
@@ -19,9 +22,9 @@ class SubStringSearchStrategyTest {
     public void setUp() {
         subStringSearchStrategy = SubStringSearchStrategy.getInstance();
         messages = new ArrayList<>();
-        messages.add(new Message("Hello, how are you?", Message.Sender.USER));
-        messages.add(new Message("I'm doing well, thank you!", Message.Sender.ELIZA));
-        messages.add(new Message("Can you tell me a joke?", Message.Sender.USER));
+        messages.add(new Message("Hello, how are you?", Message.Sender.USER, 1));
+        messages.add(new Message("I'm doing well, thank you!", Message.Sender.ELIZA, 2));
+        messages.add(new Message("Can you tell me a joke?", Message.Sender.USER, 3));
     }
 
     @Test
@@ -37,6 +40,27 @@ class SubStringSearchStrategyTest {
         assertEquals(0, result.size());
     }
 
+    @Test
+    void searchIndexedHistory() {
+        messages.add(new Message("Il a ÉTÉ là, cet été.", Message.Sender.USER, 4));
+        messages.add(new Message("İstanbul, thank you all", Message.Sender.ELIZA, 5));
+        MessageHistory history = new MessageHistory(messages);
+        String[] texts = {
+                "we", "ho.*", "you", "YOU!", "a jo", "ÉTÉ", "été", "i̇", "e", "",
+        };
+        for (String text : texts) {
+            assertEquals(subStringSearchStrategy.search(messages, text),
+                    subStringSearchStrategy.search(history, text), text);
+        }
+    }
+
+    @Test
+    void isRefinement() {
+        assertTrue(subStringSearchStrategy.isRefinement("we", "WELL"));
+        assertTrue(subStringSearchStrategy.isRefinement("ell", "well"));
+        assertFalse(subStringSearchStrategy.isRefinement("well", "we"));
+    }
+
     @Test
     void getInstance() {
         RegexSearchStrategy instance1 = RegexSearchStrategy.getInstance();
@@ -1,6 +1,7 @@
 package fr.univ_lyon1.info.m1.elizagpt.model.search.strategies;
 
 import fr.univ_lyon1.info.m1.elizagpt.model.message.Message;
+import fr.univ_lyon1.info.m1.elizagpt.model.message.MessageHistory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -8,6 +9,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
 class WordSearchStrategyTest {
@@ -19,9 +22,9 @@ class WordSearchStrategyTest {
     public void setUp() {
         wordSearchStrategy = WordSearchStrategy.getInstance();
         messages = new ArrayList<>();
-        messages.add(new Message("Hello, how are you?", Message.Sender.USER));
-        messages.add(new Message("I'm doing well, thank you!", Message.Sender.ELIZA));
-        messages.add(new Message("Can you tell me a joke?", Message.Sender.USER));
+        messages.add(new Message("Hello, how are you?", Message.Sender.USER, 1));
+        messages.add(new Message("I'm doing well, thank you!", Message.Sender.ELIZA, 2));
+        messages.add(new Message("Can you tell me a joke?", Message.Sender.USER, 3));
     }
 
     @Test
@@ -37,6 +40,36 @@ class WordSearchStrategyTest {
         assertEquals(0, result.size());
     }
 
+    @Test
+    void searchIndexedHistory() {
+        MessageHistory history = new MessageHistory(messages);
+        for (String text : new String[] {"thank", "YOU", "llo", "you?", "me a"}) {
+            assertEquals(wordSearchStrategy.search(messages, text),
+                    wordSearchStrategy.search(history, text), text);
+        }
+        assertEquals(3, wordSearchStrategy.search(history, "you").size());
+    }
+
+    @Test
+    void searchMultiLineMessages() {
+        Message lines = new Message("Bonjour,\nje suis\r\nfatigué", Message.Sender.USER, 4);
+        messages.add(lines);
+        MessageHistory history = new MessageHistory(messages);
+        for (String text : new String[] {"je", "suis", "fatigué", "bonjour", "je suis"}) {
+            assertEquals(List.of(lines), wordSearchStrategy.search(messages, text), text);
+            assertEquals(wordSearchStrategy.search(messages, text),
+                    wordSearchStrategy.search(history, text), text);
+        }
+    }
+
+    @Test
+    void isRefinement() {
+        assertTrue(wordSearchStrategy.isRefinement("thank", "thank you"));
+        assertFalse(wordSearchStrategy.isRefinement("than", "thank"));
+        assertFalse(wordSearchStrategy.isRefinement("thank", "thank |you"));
+        assertFalse(wordSearchStrategy.isRefinement("th.nk", "th.nk you"));
+    }
+
     @Test
     void getInstance() {
         RegexSearchStrategy instance1 = RegexSearchStrategy.getInstance();
@@ -0,0 +1,72 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledVerbDictionaryTest {
+    @TempDir
+    private Path tempDir;
+    private CompiledVerbDictionary dictionary;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path csv = tempDir.resolve("verbs.csv");
+        Files.write(csv, Arrays.asList(
+                "infinitive," + VerbManager.FIRST_SINGULAR_COLUMN + ",other,"
+                        + VerbManager.SECOND_PLURAL_COLUMN,
+                "être,suis,x,êtes",
+                "suivre,suis,x,suivez",
+                "pleuvoir,,x,",
+                "savoir,sais,x,savez"), StandardCharsets.UTF_8);
+        Path compiled = tempDir.resolve("verbs.bin");
+        CompiledVerbDictionary.compile(csv, compiled,
+                VerbManager.FIRST_SINGULAR_COLUMN, VerbManager.SECOND_PLURAL_COLUMN);
+        dictionary = CompiledVerbDictionary.open(compiled);
+    }
+
+    @Test
+    void get() {
+        assertEquals(3, dictionary.getRowCount());
+        int second = dictionary.getColumnIndex(VerbManager.SECOND_PLURAL_COLUMN);
+        assertEquals(1, second);
+        assertEquals("êtes", dictionary.get(0, second));
+        assertEquals("savez", dictionary.get(2, second));
+        assertEquals(-1, dictionary.getColumnIndex("other"));
+    }
+
+    @Test
+    void poolIsDeduplicated() {
+        // suis, êtes, suivez, sais, savez and the two column titles
+        assertEquals(7, dictionary.getPoolSize());
+        assertEquals(dictionary.getPoolIndex(0, 0), dictionary.getPoolIndex(1, 0));
+    }
+
+    @Test
+    void poolStringsAreComparedWithoutDecoding() {
+        int etes = dictionary.getPoolIndex(0, 1);
+        assertEquals("êtes".hashCode(), dictionary.poolHashCode(etes));
+        assertTrue(dictionary.poolEquals(etes, "êtes"));
+        assertFalse(dictionary.poolEquals(etes, "etes"));
+        assertFalse(dictionary.poolEquals(etes, "êtes!"));
+        assertFalse(dictionary.isPoolStringEmpty(etes));
+    }
+
+    @Test
+    void openRejectsOtherFiles() throws IOException {
+        Path other = tempDir.resolve("other.bin");
+        Files.write(other, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> CompiledVerbDictionary.open(other));
+    }
+}
@@ -0,0 +1,102 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ConjugationEngineTest {
+    private List<Verb> verbs;
+    private ConjugationEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        verbs = Arrays.asList(
+                new Verb("suis", "êtes"),
+                new Verb("sais", "savez"),
+                new Verb("dois", "devez"),
+                new Verb("suis", "suivez"),
+                new Verb("su", "sutez"));
+        engine = new ConjugationEngine(verbs);
+    }
+
+    @Test
+    void rewrite() {
+        assertEquals("vous savez nager", engine.rewrite("je sais nager"));
+        assertEquals("vous devez étudier", engine.rewrite("Je dois étudier"));
+        assertEquals("vous êtes là et vous savez", engine.rewrite("je suis là et je sais"));
+    }
+
+    @Test
+    void rewriteKeepsFirstVerbOnConflict() {
+        assertEquals("vous êtes intelligent", engine.rewrite("je suis intelligent"));
+        assertEquals("vous sutezr", engine.rewrite("je sur"));
+    }
+
+    @Test
+    void rewriteWithoutMatch() {
+        String text = "tu sais nager";
+        assertSame(text, engine.rewrite(text));
+        assertEquals("je ", engine.rewrite("je "));
+    }
+
+    @Test
+    void rewriteElidedPronoun() {
+        ConjugationEngine elided = new ConjugationEngine(Arrays.asList(
+                new Verb("ai", "avez"), new Verb("étais", "étiez")));
+        assertEquals("vous avez faim", elided.rewrite("j'ai faim"));
+        assertEquals("vous étiez là", elided.rewrite("J’étais là"));
+        assertEquals("j'aime", engine.rewrite("j'aime"));
+    }
+
+    @Test
+    void rewriteAllTenses() throws IOException {
+        ConjugationTable table = ConjugationTable.fromCsv(new BufferedReader(new StringReader(
+                "infinitive," + VerbManager.FIRST_SINGULAR_COLUMN + ","
+                        + VerbManager.SECOND_PLURAL_COLUMN + ","
+                        + "indicative|imperfect|first person singular,"
+                        + "indicative|imperfect|second person plural\n"
+                        + "être,suis,êtes,étais,étiez\n"
+                        + "savoir,sais,savez,savais,saviez\n")));
+        ConjugationEngine tenses = new ConjugationEngine(table);
+        assertEquals("vous étiez sûr que vous savez", tenses.rewrite("j'étais sûr que je sais"));
+        assertEquals("vous saviez", tenses.rewrite("je savais"));
+    }
+
+    @Test
+    void rewriteWholeWordsOfAllTenses() {
+        ConjugationEngine tenses = VerbManager.getInstance().getConjugationEngine().join();
+        assertEquals("vous finissiez votre travail", tenses.rewrite("je finissais votre travail"));
+        assertEquals("vous mangiez", tenses.rewrite("je mangeais"));
+        assertEquals("vous aimiez", tenses.rewrite("j'aimais"));
+        assertEquals("vous parlerez", tenses.rewrite("je parlerai"));
+        assertEquals("vous seriez content", tenses.rewrite("je serais content"));
+        assertEquals("vous êtes là, vous savez.", tenses.rewrite("je suis là, je sais."));
+        assertEquals("je suisse", tenses.rewrite("je suisse"));
+    }
+
+    @Test
+    void rewriteMatchesReplaceAllLoop() {
+        String[] sentences = {
+            "je suis intelligent",
+            "Je sais nager et je dois étudier",
+            "je sur la route",
+            "jeje suis",
+        };
+        for (String sentence : sentences) {
+            String expected = sentence;
+            for (Verb v : verbs) {
+                expected = expected.replaceAll("[Jj]e " + v.getFirstSingular(),
+                        "vous " + v.getSecondPlural());
+            }
+            assertEquals(expected, engine.rewrite(sentence));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Person.FIRST_SINGULAR;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Person.SECOND_PLURAL;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Tense.INDICATIVE_IMPERFECT;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Tense.INDICATIVE_PRESENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ConjugationIndexTest {
+    private static final String CSV = "infinitive,"
+            + ConjugationTable.columnTitle(INDICATIVE_PRESENT, FIRST_SINGULAR) + ","
+            + ConjugationTable.columnTitle(INDICATIVE_PRESENT, SECOND_PLURAL) + ","
+            + ConjugationTable.columnTitle(INDICATIVE_IMPERFECT, FIRST_SINGULAR) + ","
+            + ConjugationTable.columnTitle(INDICATIVE_IMPERFECT, SECOND_PLURAL) + "\n"
+            + "être,suis,êtes,étais,étiez\n"
+            + "suivre,suis,suivez,suivais,suiviez\n"
+            + "savoir,sais,savez,savais,saviez\n"
+            + "avoir,ai,avez,avais,aviez\n"
+            + "haïr,hais,haïssez,haïssais,haïssiez\n";
+
+    private ConjugationIndex index;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        index = new ConjugationIndex(ConjugationTable.fromCsv(new StringReader(CSV)));
+    }
+
+    @Test
+    void lookup() {
+        assertEquals("êtes", index.toSecondPlural("suis"));
+        assertEquals("saviez", index.toSecondPlural("savais"));
+        assertEquals("suis", index.toFirstSingular("êtes"));
+        assertEquals("suis", index.toFirstSingular("suivez"));
+        assertEquals("étais", index.toFirstSingular("étiez"));
+        assertNull(index.toSecondPlural("nage"));
+        assertNull(index.toFirstSingular(""));
+    }
+
+    @Test
+    void mirrorFirstToSecondPerson() {
+        assertEquals("vous êtes là et vous savez", index.mirror("je suis là et je sais"));
+        assertEquals("Vous étiez sûr", index.mirror("J'étais sûr"));
+        assertEquals("vous avez faim", index.mirror("j’ai faim"));
+    }
+
+    @Test
+    void mirrorSecondToFirstPerson() {
+        assertEquals("Je suis là", index.mirror("Vous êtes là"));
+        assertEquals("j'ai dit que vous savez", index.mirror("vous avez dit que je sais"));
+        assertEquals("je hais le lundi", index.mirror("vous haïssez le lundi"));
+        assertEquals("J'étais", index.mirror("Vous étiez"));
+    }
+
+    @Test
+    void mirrorKeepsUnknownWords() {
+        String text = "tu sais, je nage et vous nagez";
+        assertSame(text, index.mirror(text));
+        assertEquals("je vous aime", index.mirror("je vous aime"));
+        assertEquals("jeu suis", index.mirror("jeu suis"));
+        assertEquals("je suismaintenant", index.mirror("je suismaintenant"));
+        assertEquals("je ", index.mirror("je "));
+        assertEquals("", index.mirror(""));
+    }
+}
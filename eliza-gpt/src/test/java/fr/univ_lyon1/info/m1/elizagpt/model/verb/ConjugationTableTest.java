@@ -0,0 +1,123 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Person.FIRST_SINGULAR;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Person.SECOND_PLURAL;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Person.THIRD_SINGULAR;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Tense.INDICATIVE_IMPERFECT;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Tense.INDICATIVE_PRESENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConjugationTableTest {
+    private static final String CSV = "infinitive,"
+            + ConjugationTable.columnTitle(INDICATIVE_PRESENT, FIRST_SINGULAR) + ","
+            + ConjugationTable.columnTitle(INDICATIVE_PRESENT, THIRD_SINGULAR) + ","
+            + ConjugationTable.columnTitle(INDICATIVE_PRESENT, SECOND_PLURAL) + ","
+            + ConjugationTable.columnTitle(INDICATIVE_IMPERFECT, FIRST_SINGULAR) + ","
+            + ConjugationTable.columnTitle(INDICATIVE_IMPERFECT, SECOND_PLURAL) + "\n"
+            + "être,suis,est,êtes,étais,étiez\n"
+            + "suivre,suis,suit,suivez,suivais,suiviez\n"
+            + "pleuvoir,,pleut,,,\n"
+            + "savoir,sais,sait,savez,savais,saviez\n";
+
+    @TempDir
+    private Path tempDir;
+    private ConjugationTable table;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        table = ConjugationTable.fromCsv(new BufferedReader(new StringReader(CSV)));
+    }
+
+    @Test
+    void get() {
+        assertEquals(4, table.getVerbCount());
+        assertEquals("étiez", table.get(0, INDICATIVE_IMPERFECT, SECOND_PLURAL));
+        assertEquals("pleut", table.get(2, INDICATIVE_PRESENT, THIRD_SINGULAR));
+        assertEquals("", table.get(2, INDICATIVE_PRESENT, FIRST_SINGULAR));
+        assertEquals("", table.get(3, Tense.SUBJUNCTIVE_PRESENT, FIRST_SINGULAR));
+    }
+
+    @Test
+    void poolIsDeduplicated() {
+        // 16 non empty cells, "suis" is used twice, plus the empty form
+        assertEquals(16, table.getPoolSize());
+    }
+
+    @Test
+    void findVerb() {
+        assertEquals(0, table.findVerb("suis", INDICATIVE_PRESENT, FIRST_SINGULAR));
+        assertEquals(3, table.findVerb("savais", INDICATIVE_IMPERFECT, FIRST_SINGULAR));
+        assertEquals(-1, table.findVerb("suis", INDICATIVE_IMPERFECT, FIRST_SINGULAR));
+        assertEquals(-1, table.findVerb("", INDICATIVE_PRESENT, FIRST_SINGULAR));
+        assertEquals(-1, table.findVerb("nage", INDICATIVE_PRESENT, FIRST_SINGULAR));
+    }
+
+    @Test
+    void translate() {
+        assertEquals("étiez",
+                table.translate("étais", INDICATIVE_IMPERFECT, FIRST_SINGULAR, SECOND_PLURAL));
+        assertEquals("sais",
+                table.translate("savez", INDICATIVE_PRESENT, SECOND_PLURAL, FIRST_SINGULAR));
+        assertNull(table.translate("pleut", INDICATIVE_PRESENT, THIRD_SINGULAR, SECOND_PLURAL));
+    }
+
+    @Test
+    void asVerbs() {
+        List<Verb> verbs = table.asVerbs();
+        assertEquals(3, verbs.size());
+        assertEquals("sais", verbs.get(2).getFirstSingular());
+        assertEquals("savez", verbs.get(2).getSecondPlural());
+    }
+
+    @Test
+    void fromCompiled() throws IOException {
+        Path csv = tempDir.resolve("verbs.csv");
+        Files.write(csv, CSV.getBytes(StandardCharsets.UTF_8));
+        Path compiled = tempDir.resolve("verbs.bin");
+        CompiledVerbDictionary.compile(csv, compiled, ConjugationTable.columnTitles());
+        ConjugationTable fromCompiled = ConjugationTable.fromCompiled(
+                CompiledVerbDictionary.open(compiled));
+
+        assertEquals(table.getVerbCount(), fromCompiled.getVerbCount());
+        assertEquals(table.getPoolSize(), fromCompiled.getPoolSize());
+        assertEquals("suiviez", fromCompiled.get(1, INDICATIVE_IMPERFECT, SECOND_PLURAL));
+        assertEquals("", fromCompiled.get(2, INDICATIVE_PRESENT, FIRST_SINGULAR));
+        assertEquals(3, fromCompiled.findVerb("savais", INDICATIVE_IMPERFECT, FIRST_SINGULAR));
+        assertEquals(-1, fromCompiled.findVerb("", INDICATIVE_PRESENT, FIRST_SINGULAR));
+        assertEquals("étiez", fromCompiled.translate(
+                "étais", INDICATIVE_IMPERFECT, FIRST_SINGULAR, SECOND_PLURAL));
+        assertEquals(table.asVerbs().size(), fromCompiled.asVerbs().size());
+    }
+
+    @Test
+    void fromCompiledWithoutEmptyCells() throws IOException {
+        Path csv = tempDir.resolve("verbs.csv");
+        Files.write(csv, CSV.getBytes(StandardCharsets.UTF_8));
+        Path compiled = tempDir.resolve("verbs.bin");
+        CompiledVerbDictionary.compile(csv, compiled,
+                ConjugationTable.columnTitle(INDICATIVE_PRESENT, THIRD_SINGULAR));
+        ConjugationTable fromCompiled = ConjugationTable.fromCompiled(
+                CompiledVerbDictionary.open(compiled));
+
+        // The other columns are missing from the dictionary.
+        assertEquals("", fromCompiled.get(0, INDICATIVE_PRESENT, FIRST_SINGULAR));
+        assertEquals(2, fromCompiled.findVerb("pleut", INDICATIVE_PRESENT, THIRD_SINGULAR));
+        assertEquals(-1, fromCompiled.findVerb("", INDICATIVE_PRESENT, FIRST_SINGULAR));
+        assertEquals(5, fromCompiled.getPoolSize());
+        assertTrue(fromCompiled.asVerbs().isEmpty());
+    }
+}
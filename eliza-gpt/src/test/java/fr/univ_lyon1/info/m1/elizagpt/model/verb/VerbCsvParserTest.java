@@ -0,0 +1,100 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.concurrent.ForkJoinPool;
+
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Person.FIRST_SINGULAR;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Person.SECOND_PLURAL;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Tense.INDICATIVE_IMPERFECT;
+import static fr.univ_lyon1.info.m1.elizagpt.model.verb.Tense.INDICATIVE_PRESENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class VerbCsvParserTest {
+    private static final String CSV = "infinitive,"
+            + ConjugationTable.columnTitle(INDICATIVE_PRESENT, FIRST_SINGULAR) + ","
+            + ConjugationTable.columnTitle(INDICATIVE_PRESENT, SECOND_PLURAL) + ","
+            + ConjugationTable.columnTitle(INDICATIVE_IMPERFECT, FIRST_SINGULAR) + ",gerund\n"
+            + "être,suis,êtes,étais,étant\n"
+            + "suivre,suis,suivez,suivais,suivant\n"
+            + "pleuvoir,,,\n"
+            + "savoir,sais,savez,savais,sachant\n";
+
+    @Test
+    void parse() throws IOException {
+        ConjugationTable table = new VerbCsvParser().parse(new StringReader(CSV));
+        assertEquals(4, table.getVerbCount());
+        assertEquals("êtes", table.get(0, INDICATIVE_PRESENT, SECOND_PLURAL));
+        assertEquals("suivais", table.get(1, INDICATIVE_IMPERFECT, FIRST_SINGULAR));
+        assertEquals("", table.get(2, INDICATIVE_PRESENT, FIRST_SINGULAR));
+        assertEquals("", table.get(3, INDICATIVE_IMPERFECT, SECOND_PLURAL));
+        // 8 non empty cells, "suis" is used twice, plus the empty form
+        assertEquals(9, table.getPoolSize());
+    }
+
+    @Test
+    void parseCrLf() throws IOException {
+        ConjugationTable table = new VerbCsvParser().parse(
+                new StringReader(CSV.replace("\n", "\r\n")));
+        assertEquals(4, table.getVerbCount());
+        assertEquals("étais", table.get(0, INDICATIVE_IMPERFECT, FIRST_SINGULAR));
+        assertEquals(0, table.findVerb("suis", INDICATIVE_PRESENT, FIRST_SINGULAR));
+    }
+
+    @Test
+    void parseInChunks() throws IOException {
+        ConjugationTable expected = new VerbCsvParser().parse(new StringReader(CSV));
+        for (int chunkSize = 1; chunkSize < CSV.length(); chunkSize += 7) {
+            ConjugationTable table = new VerbCsvParser(chunkSize, ForkJoinPool.commonPool())
+                    .parse(new StringReader(CSV));
+            assertSameTable(expected, table);
+        }
+    }
+
+    @Test
+    void parseEmptyFile() throws IOException {
+        assertEquals(0, new VerbCsvParser().parse(new StringReader("")).getVerbCount());
+        assertEquals(0, new VerbCsvParser().parse(new StringReader(CSV.substring(
+                0, CSV.indexOf('\n') + 1))).getVerbCount());
+    }
+
+    @Test
+    void parseResourceInChunks() throws IOException {
+        ConjugationTable expected;
+        ConjugationTable table;
+        try (InputStream in = getResource()) {
+            expected = new VerbCsvParser(Integer.MAX_VALUE, ForkJoinPool.commonPool()).parse(in);
+        }
+        try (InputStream in = getResource()) {
+            table = new VerbCsvParser(64 * 1024, ForkJoinPool.commonPool()).parse(in);
+        }
+        assertEquals(expected.getPoolSize(), table.getPoolSize());
+        assertSameTable(expected, table);
+        assertEquals("vous étiez",
+                "vous " + table.translate("étais", INDICATIVE_IMPERFECT,
+                        FIRST_SINGULAR, SECOND_PLURAL));
+    }
+
+    private InputStream getResource() {
+        InputStream in = VerbCsvParser.class.getResourceAsStream(VerbManager.DEFAULT_RESOURCE);
+        assertNotNull(in);
+        return in;
+    }
+
+    private static void assertSameTable(final ConjugationTable expected,
+                                        final ConjugationTable actual) {
+        assertEquals(expected.getVerbCount(), actual.getVerbCount());
+        for (int verb = 0; verb < expected.getVerbCount(); verb++) {
+            for (Tense tense : Tense.values()) {
+                for (Person person : Person.values()) {
+                    assertEquals(expected.get(verb, tense, person),
+                            actual.get(verb, tense, person));
+                }
+            }
+        }
+    }
+}
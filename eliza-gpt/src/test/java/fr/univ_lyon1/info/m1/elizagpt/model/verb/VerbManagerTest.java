@@ -0,0 +1,163 @@
+package fr.univ_lyon1.info.m1.elizagpt.model.verb;
+
+import fr.univ_lyon1.info.m1.elizagpt.model.response.ResponseGenerator;
+import fr.univ_lyon1.info.m1.elizagpt.model.response.handlers.RandomResponseHandler;
+import fr.univ_lyon1.info.m1.elizagpt.model.response.handlers.VerbResponseHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerbManagerTest {
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void getInstance() {
+        assertSame(VerbManager.getInstance(), VerbManager.getInstance());
+    }
+
+    @Test
+    void getVerbsAsync() throws Exception {
+        List<Verb> verbs = VerbManager.getInstance().getVerbsAsync().get(30, TimeUnit.SECONDS);
+        assertTrue(verbs.size() > 5000);
+        assertTrue(verbs.stream().anyMatch(v -> "suis".equals(v.getFirstSingular())
+                && "êtes".equals(v.getSecondPlural())));
+    }
+
+    @Test
+    void getConjugationEngine() throws Exception {
+        ConjugationEngine engine = VerbManager.getInstance().getConjugationEngine()
+                .get(30, TimeUnit.SECONDS);
+        assertTrue(VerbManager.getInstance().isLoaded());
+        assertEquals("vous devez étudier", engine.rewrite("je dois étudier"));
+    }
+
+    @Test
+    void getLoadReport() throws Exception {
+        VerbLoadReport report = VerbManager.getInstance().getLoadReport()
+                .get(30, TimeUnit.SECONDS);
+        assertTrue(report.getVerbCount() > 5000);
+        assertTrue(report.getPoolSize() > 100000);
+        assertTrue(report.isCompiled());
+        assertEquals("/french-verb-conjugation.bin", report.getSource());
+        assertNull(report.getCompiledError());
+    }
+
+    @Test
+    void firstReplyDuringTheLoad() throws Exception {
+        long start = System.nanoTime();
+        VerbManager verbManager = new VerbManager(VerbManager.DEFAULT_RESOURCE);
+        AtomicLong loadedAt = new AtomicLong();
+        CompletableFuture<Void> loaded = verbManager.getDictionary()
+                .thenRun(() -> loadedAt.set(System.nanoTime()));
+        ResponseGenerator responseGenerator = new ResponseGenerator(List.of(
+                new VerbResponseHandler(verbManager::getDictionary),
+                new RandomResponseHandler()));
+
+        String reply = responseGenerator.generateElizaResponse("Je sais nager.");
+        long repliedAt = System.nanoTime();
+        loaded.get(30, TimeUnit.SECONDS);
+
+        assertTrue(reply.endsWith(" nager ?"));
+        assertTrue(repliedAt < loadedAt.get(), String.format(
+                "Replied after %d ms, but the verbs were loaded after %d ms",
+                TimeUnit.NANOSECONDS.toMillis(repliedAt - start),
+                TimeUnit.NANOSECONDS.toMillis(loadedAt.get() - start)));
+    }
+
+    @Test
+    void reloadFromFile() throws Exception {
+        VerbManager verbManager = new VerbManager(VerbManager.DEFAULT_RESOURCE);
+        VerbDictionary previous = verbManager.getDictionary().get(30, TimeUnit.SECONDS);
+        Path file = writeVerbs("je nage", "vous nagez");
+
+        VerbDictionary reloaded = verbManager.reload(file).get(30, TimeUnit.SECONDS);
+        assertSame(reloaded, verbManager.getDictionary().join());
+        assertEquals(1, reloaded.getLoadReport().getVerbCount());
+        assertEquals(file.toString(), reloaded.getLoadReport().getSource());
+        assertEquals("vous nagez", verbManager.getConjugationEngine().join()
+                .rewrite("je nage"));
+        assertEquals("je dois", verbManager.getConjugationEngine().join()
+                .rewrite("je dois"));
+        // The previous snapshot is left untouched.
+        assertEquals("vous devez", previous.getConjugationEngine().rewrite("je dois"));
+
+        verbManager.reload().get(30, TimeUnit.SECONDS);
+        assertEquals("vous devez", verbManager.getConjugationEngine().join()
+                .rewrite("je dois"));
+    }
+
+    @Test
+    void failedReloadKeepsDictionary() throws Exception {
+        VerbManager verbManager = new VerbManager(VerbManager.DEFAULT_RESOURCE);
+        VerbDictionary previous = verbManager.getDictionary().get(30, TimeUnit.SECONDS);
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> verbManager.reload(tempDir.resolve("missing.csv"))
+                        .get(30, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof UncheckedIOException);
+        assertSame(previous, verbManager.getDictionary().join());
+        assertTrue(verbManager.isLoaded());
+    }
+
+    @Test
+    void watch() throws Exception {
+        VerbManager verbManager = new VerbManager(VerbManager.DEFAULT_RESOURCE);
+        verbManager.getDictionary().get(30, TimeUnit.SECONDS);
+        Path file = writeVerbs("je nage", "vous nagez");
+
+        try (VerbFileWatcher watcher = verbManager.watch(file)) {
+            Path next = tempDir.resolve("next.csv");
+            Files.write(next, verbsCsv("je rame", "vous ramez").getBytes(StandardCharsets.UTF_8));
+            Files.move(next, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (watcher.getLastReload() == null && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            VerbDictionary reloaded = watcher.getLastReload().get(30, TimeUnit.SECONDS);
+            assertSame(reloaded, verbManager.getDictionary().join());
+            assertEquals("vous ramez", reloaded.getConjugationEngine().rewrite("je rame"));
+        }
+    }
+
+    private Path writeVerbs(final String firstSingular, final String secondPlural)
+            throws IOException {
+        Path file = tempDir.resolve("verbs.csv");
+        Files.write(file, verbsCsv(firstSingular, secondPlural)
+                .getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String verbsCsv(final String firstSingular, final String secondPlural) {
+        return VerbManager.FIRST_SINGULAR_COLUMN + "," + VerbManager.SECOND_PLURAL_COLUMN + "\n"
+                + firstSingular.substring("je ".length()) + ","
+                + secondPlural.substring("vous ".length()) + "\n";
+    }
+
+    @Test
+    void compiledResourceName() {
+        assertEquals("/french-verb-conjugation.bin",
+                VerbManager.compiledResourceName("/french-verb-conjugation.csv"));
+        assertEquals("/verbs.d/conjugations.bin",
+                VerbManager.compiledResourceName("/verbs.d/conjugations"));
+    }
+}